@@ -0,0 +1,155 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.data_structures;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads a {@link RelationalInput} in batches of rows and hands every batch to all column stripes.
+ * Stripe i covers the columns i, i + numberOfStripes, i + 2 * numberOfStripes, ... A stripe is
+ * processed by a single thread, so the batches of a stripe are processed in input order and the
+ * state of a stripe's columns needs no synchronization.
+ */
+public class ColumnStripeReader {
+
+  public static final int DEFAULT_BATCH_SIZE = 4096;
+
+  /**
+   * Processes the columns of one stripe of a batch.
+   */
+  public interface StripeProcessor {
+
+    /**
+     * @param batch           the rows of the batch
+     * @param firstRow        the index of the batch's first row in the input
+     * @param firstColumn     the first column of the stripe
+     * @param numberOfStripes the distance between two columns of the stripe
+     * @throws Exception if the batch cannot be processed
+     */
+    void processBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                      int numberOfStripes) throws Exception;
+  }
+
+  protected RelationalInput input;
+  protected int numberOfStripes;
+  protected int batchSize;
+
+  /**
+   * @param input           the input to read
+   * @param numberOfStripes the number of column stripes, every stripe is processed on its own thread
+   */
+  public ColumnStripeReader(RelationalInput input, int numberOfStripes) {
+    this(input, numberOfStripes, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * @param input           the input to read
+   * @param numberOfStripes the number of column stripes, every stripe is processed on its own thread
+   * @param batchSize       the number of rows in a batch
+   */
+  public ColumnStripeReader(RelationalInput input, int numberOfStripes, int batchSize) {
+    if (numberOfStripes < 1) {
+      throw new IllegalArgumentException("The number of stripes has to be at least 1.");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size has to be at least 1.");
+    }
+    this.input = input;
+    this.numberOfStripes = numberOfStripes;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Reads the whole input and waits until all stripes of all batches are processed.
+   *
+   * @param processor the processor of the stripes
+   * @return the number of rows read
+   * @throws InputIterationException if the input cannot be iterated or a stripe could not be
+   *                                 processed
+   */
+  public long read(final StripeProcessor processor) throws InputIterationException {
+    // Bounds the number of batches that are read, but not yet processed by all stripes.
+    final Semaphore pendingBatches = new Semaphore(2 * numberOfStripes);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    List<ExecutorService> stripeExecutors = new ArrayList<>();
+    for (int i = 0; i < numberOfStripes; i++) {
+      stripeExecutors.add(Executors.newSingleThreadExecutor());
+    }
+
+    long numberOfRows = 0;
+    try {
+      while (input.hasNext() && failure.get() == null) {
+        final List<List<String>> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && input.hasNext()) {
+          batch.add(input.next());
+        }
+        final long firstRow = numberOfRows;
+        numberOfRows += batch.size();
+
+        pendingBatches.acquire();
+        final AtomicInteger remainingStripes = new AtomicInteger(numberOfStripes);
+        for (int stripe = 0; stripe < numberOfStripes; stripe++) {
+          final int firstColumn = stripe;
+          stripeExecutors.get(stripe).execute(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                processor.processBatch(batch, firstRow, firstColumn, numberOfStripes);
+              } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+              } finally {
+                if (remainingStripes.decrementAndGet() == 0) {
+                  pendingBatches.release();
+                }
+              }
+            }
+          });
+        }
+      }
+
+      for (ExecutorService executor : stripeExecutors) {
+        executor.shutdown();
+      }
+      for (ExecutorService executor : stripeExecutors) {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InputIterationException("Interrupted while reading the column stripes.", e);
+    } finally {
+      for (ExecutorService executor : stripeExecutors) {
+        executor.shutdownNow();
+      }
+    }
+
+    if (failure.get() != null) {
+      throw new InputIterationException("Could not process the column stripes.", failure.get());
+    }
+    return numberOfRows;
+  }
+
+}
@@ -0,0 +1,355 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.data_structures;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link PositionListIndex} that stores all clusters in one flat record array. The rows of cluster
+ * i are stored in records[clusterOffsets[i]] to records[clusterOffsets[i + 1] - 1]. The position
+ * list index ((0, 1), (2, 4), (3, 5)) is stored as records [0, 1, 2, 4, 3, 5] and cluster offsets
+ * [0, 2, 4, 6].
+ * <p>
+ * Intersections are calculated with a dense probing table that maps every row to its cluster id and
+ * do not allocate objects per row. The cluster lists of the {@link PositionListIndex} API are only
+ * materialized when {@link #getClusters()} is called.
+ */
+public class CompressedPositionListIndex extends PositionListIndex {
+
+  protected static final int UNIQUE_ROW = -1;
+
+  protected int[] records;
+  protected int[] clusterOffsets;
+  protected int numberOfRows;
+
+  /**
+   * Constructs a {@link CompressedPositionListIndex} from the given clusters.
+   *
+   * @param clusters the clusters of the position list index
+   */
+  public CompressedPositionListIndex(List<LongArrayList> clusters) {
+    super(null);
+
+    int recordCount = 0;
+    for (LongArrayList cluster : clusters) {
+      recordCount += cluster.size();
+    }
+
+    this.records = new int[recordCount];
+    this.clusterOffsets = new int[clusters.size() + 1];
+
+    int recordIndex = 0;
+    int clusterIndex = 0;
+    for (LongArrayList cluster : clusters) {
+      this.clusterOffsets[clusterIndex++] = recordIndex;
+      for (long row : cluster) {
+        if (row < 0 || row >= Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Row index " + row + " exceeds the supported range.");
+        }
+        this.records[recordIndex++] = (int) row;
+        this.numberOfRows = Math.max(this.numberOfRows, (int) row + 1);
+      }
+    }
+    this.clusterOffsets[clusterIndex] = recordIndex;
+  }
+
+  /**
+   * Constructs a {@link CompressedPositionListIndex} containing the same clusters as the given
+   * {@link PositionListIndex}.
+   *
+   * @param pli the position list index to compress
+   */
+  public CompressedPositionListIndex(PositionListIndex pli) {
+    this(pli.getClusters());
+  }
+
+  protected CompressedPositionListIndex(int[] records, int[] clusterOffsets, int numberOfRows) {
+    super(null);
+    this.records = records;
+    this.clusterOffsets = clusterOffsets;
+    this.numberOfRows = numberOfRows;
+  }
+
+  /**
+   * Builds the {@link CompressedPositionListIndex} of a dictionary encoded column. Every row holds
+   * the code of its value, codes lie between 0 and numberOfCodes - 1 and negative codes denote null
+   * values. The clusters are calculated with a counting sort over the codes.
+   *
+   * @param codes          the dictionary codes of the column's values
+   * @param numberOfCodes  the size of the column's dictionary
+   * @param nullEqualsNull true, if null values should be treated as equal
+   * @return the position list index of the column
+   */
+  public static CompressedPositionListIndex fromDictionaryCodes(int[] codes, int numberOfCodes,
+                                                                boolean nullEqualsNull) {
+    // The null values are counted at position 0, the code i at position i + 1.
+    int[] counts = new int[numberOfCodes + 1];
+    for (int code : codes) {
+      counts[code < 0 ? 0 : code + 1]++;
+    }
+    if (!nullEqualsNull) {
+      counts[0] = 0;
+    }
+
+    int recordCount = 0;
+    int clusterCount = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] >= 2) {
+        recordCount += counts[i];
+        clusterCount++;
+      }
+    }
+
+    // Turn the counts into write positions + 1, 0 marks values in unary clusters.
+    int[] records = new int[recordCount];
+    int[] clusterOffsets = new int[clusterCount + 1];
+    int position = 0;
+    int cluster = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] >= 2) {
+        clusterOffsets[cluster++] = position;
+        int count = counts[i];
+        counts[i] = position + 1;
+        position += count;
+      } else {
+        counts[i] = 0;
+      }
+    }
+    clusterOffsets[clusterCount] = recordCount;
+
+    for (int row = 0; row < codes.length; row++) {
+      int index = codes[row] < 0 ? 0 : codes[row] + 1;
+      if (counts[index] > 0) {
+        records[counts[index]++ - 1] = row;
+      }
+    }
+
+    return new CompressedPositionListIndex(records, clusterOffsets, codes.length);
+  }
+
+  /**
+   * Intersects the given PositionListIndex with this PositionListIndex returning a new
+   * {@link CompressedPositionListIndex}. If the other PositionListIndex is not compressed, it is
+   * compressed before the intersection.
+   *
+   * @param otherPLI the other {@link PositionListIndex} to intersect
+   * @return the intersected {@link PositionListIndex}
+   */
+  @Override
+  public PositionListIndex intersect(PositionListIndex otherPLI) {
+    if (otherPLI instanceof CompressedPositionListIndex) {
+      return calculateIntersection((CompressedPositionListIndex) otherPLI);
+    }
+    return calculateIntersection(new CompressedPositionListIndex(otherPLI));
+  }
+
+  /**
+   * Intersects the two given {@link CompressedPositionListIndex} using the probing table of this
+   * PositionListIndex. For every cluster of the other PositionListIndex the rows are counted per
+   * cluster id of this PositionListIndex and then copied to their position in the new record array.
+   *
+   * @param otherPLI the other {@link CompressedPositionListIndex} to intersect
+   * @return the intersected {@link CompressedPositionListIndex}
+   */
+  protected CompressedPositionListIndex calculateIntersection(CompressedPositionListIndex otherPLI) {
+    int[] probingTable = getProbingTable();
+    // Holds the row count of a cluster while counting and its write position + 1 while copying.
+    int[] clusterCursors = new int[this.clusterOffsets.length - 1];
+    int[] touchedClusters = new int[clusterCursors.length];
+
+    int[] newRecords = new int[Math.min(this.records.length, otherPLI.records.length)];
+    int[] newClusterOffsets = new int[newRecords.length / 2 + 1];
+    int recordCount = 0;
+    int clusterCount = 0;
+
+    int[] otherRecords = otherPLI.records;
+    int[] otherOffsets = otherPLI.clusterOffsets;
+    for (int otherCluster = 0; otherCluster < otherOffsets.length - 1; otherCluster++) {
+      int start = otherOffsets[otherCluster];
+      int end = otherOffsets[otherCluster + 1];
+
+      // Count the rows per cluster of this PositionListIndex.
+      int touchedCount = 0;
+      for (int i = start; i < end; i++) {
+        int clusterId = probe(probingTable, otherRecords[i]);
+        if (clusterId != UNIQUE_ROW && clusterCursors[clusterId]++ == 0) {
+          touchedClusters[touchedCount++] = clusterId;
+        }
+      }
+
+      // Reserve space for all non unary clusters.
+      for (int t = 0; t < touchedCount; t++) {
+        int clusterId = touchedClusters[t];
+        int clusterSize = clusterCursors[clusterId];
+        if (clusterSize < 2) {
+          clusterCursors[clusterId] = 0;
+          continue;
+        }
+        newClusterOffsets[clusterCount++] = recordCount;
+        clusterCursors[clusterId] = recordCount + 1;
+        recordCount += clusterSize;
+      }
+
+      // Copy the rows of the non unary clusters.
+      for (int i = start; i < end; i++) {
+        int clusterId = probe(probingTable, otherRecords[i]);
+        if (clusterId != UNIQUE_ROW && clusterCursors[clusterId] > 0) {
+          newRecords[clusterCursors[clusterId]++ - 1] = otherRecords[i];
+        }
+      }
+
+      for (int t = 0; t < touchedCount; t++) {
+        clusterCursors[touchedClusters[t]] = 0;
+      }
+    }
+    newClusterOffsets[clusterCount] = recordCount;
+
+    return new CompressedPositionListIndex(
+      Arrays.copyOf(newRecords, recordCount),
+      Arrays.copyOf(newClusterOffsets, clusterCount + 1),
+      Math.min(this.numberOfRows, otherPLI.numberOfRows));
+  }
+
+  protected static int probe(int[] probingTable, int row) {
+    return row < probingTable.length ? probingTable[row] : UNIQUE_ROW;
+  }
+
+  /**
+   * Returns a dense probing table, that maps every row index to the id of its cluster. Rows in
+   * unary clusters are mapped to -1. The position list index ((0, 1), (2, 4), (3, 5)) would be
+   * represented by [0, 0, 1, 2, 1, 2].
+   *
+   * @return the probing table
+   */
+  public int[] getProbingTable() {
+    int[] probingTable = new int[this.numberOfRows];
+    Arrays.fill(probingTable, UNIQUE_ROW);
+    for (int cluster = 0; cluster < this.clusterOffsets.length - 1; cluster++) {
+      for (int i = this.clusterOffsets[cluster]; i < this.clusterOffsets[cluster + 1]; i++) {
+        probingTable[this.records[i]] = cluster;
+      }
+    }
+    return probingTable;
+  }
+
+  /**
+   * Materializes the clusters as lists. The lists are created on the first call and cached
+   * afterwards.
+   *
+   * @return the clusters
+   */
+  @Override
+  public List<LongArrayList> getClusters() {
+    if (this.clusters == null) {
+      List<LongArrayList> newClusters = new ArrayList<>(this.clusterOffsets.length - 1);
+      for (int cluster = 0; cluster < this.clusterOffsets.length - 1; cluster++) {
+        int start = this.clusterOffsets[cluster];
+        int end = this.clusterOffsets[cluster + 1];
+        LongArrayList list = new LongArrayList(end - start);
+        for (int i = start; i < end; i++) {
+          list.add(this.records[i]);
+        }
+        newClusters.add(list);
+      }
+      this.clusters = newClusters;
+    }
+    return this.clusters;
+  }
+
+  /**
+   * Creates a complete (deep) copy of the {@link CompressedPositionListIndex}.
+   *
+   * @return cloned CompressedPositionListIndex
+   */
+  @Override
+  public CompressedPositionListIndex clone() {
+    CompressedPositionListIndex clone = new CompressedPositionListIndex(
+      this.records.clone(), this.clusterOffsets.clone(), this.numberOfRows);
+    clone.rawKeyError = this.rawKeyError;
+    return clone;
+  }
+
+  /**
+   * Reads a {@link CompressedPositionListIndex}, that was written with {@link #write(DataOutput)}.
+   *
+   * @param in the data input
+   * @return the read position list index
+   * @throws IOException if the position list index could not be read
+   */
+  public static CompressedPositionListIndex read(DataInput in) throws IOException {
+    int numberOfRows = in.readInt();
+    int[] clusterOffsets = new int[in.readInt()];
+    for (int i = 0; i < clusterOffsets.length; i++) {
+      clusterOffsets[i] = in.readInt();
+    }
+    int[] records = new int[in.readInt()];
+    for (int i = 0; i < records.length; i++) {
+      records[i] = in.readInt();
+    }
+    if (clusterOffsets.length == 0 || clusterOffsets[clusterOffsets.length - 1] != records.length) {
+      throw new IOException("The cluster offsets do not match the records.");
+    }
+    return new CompressedPositionListIndex(records, clusterOffsets, numberOfRows);
+  }
+
+  /**
+   * Writes the position list index in a binary format.
+   *
+   * @param out the data output
+   * @throws IOException if the position list index could not be written
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(this.numberOfRows);
+    out.writeInt(this.clusterOffsets.length);
+    for (int offset : this.clusterOffsets) {
+      out.writeInt(offset);
+    }
+    out.writeInt(this.records.length);
+    for (int record : this.records) {
+      out.writeInt(record);
+    }
+  }
+
+  @Override
+  public Long2LongOpenHashMap asHashMap() {
+    Long2LongOpenHashMap hashedPLI = new Long2LongOpenHashMap(this.records.length);
+    for (int cluster = 0; cluster < this.clusterOffsets.length - 1; cluster++) {
+      for (int i = this.clusterOffsets[cluster]; i < this.clusterOffsets[cluster + 1]; i++) {
+        hashedPLI.put(this.records[i], cluster);
+      }
+    }
+    return hashedPLI;
+  }
+
+  @Override
+  public long size() {
+    return this.clusterOffsets.length - 1;
+  }
+
+  @Override
+  protected long calculateRawKeyError() {
+    return this.records.length - size();
+  }
+
+}
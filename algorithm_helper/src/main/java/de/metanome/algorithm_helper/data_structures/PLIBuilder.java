@@ -20,11 +20,17 @@ import de.metanome.algorithm_integration.input.RelationalInput;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Constructs a list of {@link PositionListIndex}es from the given {@link
  * de.metanome.algorithm_integration.input.RelationalInput}. A list of all columns' sorted distinct
  * values can be constructed as a byproduct.
+ * <p>
+ * If the builder is created with more than one thread, the rows are read in batches and the
+ * columns are striped over the worker threads. Every worker owns the value maps of its columns, so
+ * that no synchronization is needed on the maps. The singleton clusters are purged in parallel as
+ * well. Inputs, that are split into partitions, are read concurrently partition by partition.
  */
 public class PLIBuilder {
 
@@ -32,6 +38,8 @@ public class PLIBuilder {
   protected List<HashMap<String, LongArrayList>> columns = null;
   protected RelationalInput input;
   protected boolean nullEqualsNull;
+  protected int numberOfThreads = 1;
+  protected List<? extends RelationalInput> partitions = null;
 
   public PLIBuilder(RelationalInput input) {
     this.input = input;
@@ -43,6 +51,36 @@ public class PLIBuilder {
     this.nullEqualsNull = nullEqualsNull;
   }
 
+  /**
+   * Creates a builder that reads the input in row batches and builds the column's
+   * {@link PositionListIndex}es on the given number of threads.
+   *
+   * @param input           the input to build the plis from
+   * @param nullEqualsNull  true, if null values should be treated as equal
+   * @param numberOfThreads the number of worker threads (1 builds the plis on the calling thread)
+   */
+  public PLIBuilder(RelationalInput input, boolean nullEqualsNull, int numberOfThreads) {
+    this(input, nullEqualsNull);
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("The number of threads has to be at least 1.");
+    }
+    this.numberOfThreads = numberOfThreads;
+  }
+
+  /**
+   * Creates a builder that reads the given partitions of one input concurrently, every partition
+   * on its own thread. The rows are numbered consecutively over the partitions in list order, so
+   * the partitions have to be given in input order.
+   *
+   * @param partitions     the partitions of the input to build the plis from
+   * @param nullEqualsNull true, if null values should be treated as equal
+   */
+  public PLIBuilder(List<? extends RelationalInput> partitions, boolean nullEqualsNull) {
+    this(partitions.isEmpty() ? null : partitions.get(0), nullEqualsNull);
+    this.partitions = partitions;
+    this.numberOfThreads = Math.max(1, partitions.size());
+  }
+
   /**
    * Builds a {@link PositionListIndex} for every column in the input.
    *
@@ -113,18 +151,25 @@ public class PLIBuilder {
   }
 
   protected void calculateUnpurgedPLI() throws InputIterationException {
+    if (this.partitions != null) {
+      calculateUnpurgedPLIPartitioned();
+      return;
+    }
+    int numberOfColumns = input.numberOfColumns();
+    for (int i = 0; i < numberOfColumns; i++) {
+      columns.add(new HashMap<String, LongArrayList>());
+    }
+    if (this.numberOfThreads > 1) {
+      calculateUnpurgedPLIParallel(numberOfColumns);
+      return;
+    }
+
     long rowCount = 0;
-    this.numberOfTuples = 0;
     while (input.hasNext()) {
-      this.numberOfTuples++;
-      List<String> row = input.next();
-      int columnCount = 0;
-      for (String cellValue : row) {
-        addValue(rowCount, columnCount, cellValue);
-        columnCount++;
-      }
+      addRow(input.next(), rowCount, 0, 1, numberOfColumns);
       rowCount++;
     }
+    this.numberOfTuples = rowCount;
   }
 
   protected void addValue(long rowCount, int columnCount, String attributeCell) {
@@ -145,7 +190,144 @@ public class PLIBuilder {
     }
   }
 
-  protected List<List<LongArrayList>> purgePLIEntries() {
+  /**
+   * Reads the input with a {@link ColumnStripeReader}. A stripe is processed by a single thread,
+   * so the batches of a stripe are processed in input order and the row indices in the clusters
+   * stay sorted.
+   *
+   * @param numberOfColumns the number of columns of the input
+   * @throws InputIterationException if the input cannot be iterated
+   */
+  protected void calculateUnpurgedPLIParallel(final int numberOfColumns)
+    throws InputIterationException {
+    int numberOfStripes = Math.max(1, Math.min(numberOfThreads, numberOfColumns));
+    this.numberOfTuples = new ColumnStripeReader(input, numberOfStripes).read(
+      new ColumnStripeReader.StripeProcessor() {
+        @Override
+        public void processBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                                 int numberOfStripes) {
+          addBatch(batch, firstRow, firstColumn, numberOfStripes, numberOfColumns);
+        }
+      });
+  }
+
+  /**
+   * Adds the values of every numberOfStripes-th column beginning with firstColumn of the given
+   * batch to the column's value maps.
+   *
+   * @param batch           the rows of the batch
+   * @param firstRow        the index of the batch's first row in the input
+   * @param firstColumn     the first column of the stripe
+   * @param numberOfStripes the distance between two columns of the stripe
+   * @param numberOfColumns the number of columns of the input, further cells of a row are ignored
+   */
+  protected void addBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                          int numberOfStripes, int numberOfColumns) {
+    long rowCount = firstRow;
+    for (List<String> row : batch) {
+      addRow(row, rowCount, firstColumn, numberOfStripes, numberOfColumns);
+      rowCount++;
+    }
+  }
+
+  /**
+   * Adds the values of every numberOfStripes-th column beginning with firstColumn of the given
+   * row to the column's value maps.
+   *
+   * @param row             the row
+   * @param rowCount        the index of the row in the input
+   * @param firstColumn     the first column of the stripe
+   * @param numberOfStripes the distance between two columns of the stripe
+   * @param numberOfColumns the number of columns of the input, further cells of the row are ignored
+   */
+  protected void addRow(List<String> row, long rowCount, int firstColumn, int numberOfStripes,
+                        int numberOfColumns) {
+    int columnCount = Math.min(numberOfColumns, row.size());
+    for (int column = firstColumn; column < columnCount; column += numberOfStripes) {
+      addValue(rowCount, column, row.get(column));
+    }
+  }
+
+  /**
+   * Builds the value maps of every partition on its own thread and merges them in partition order.
+   * The row indices of a partition are shifted by the number of rows in the preceding partitions,
+   * so the row indices in the clusters stay sorted.
+   *
+   * @throws InputIterationException if a partition cannot be iterated
+   */
+  protected void calculateUnpurgedPLIPartitioned() throws InputIterationException {
+    this.numberOfTuples = 0;
+    if (this.partitions.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(this.partitions.size());
+    try {
+      List<Future<PLIBuilder>> partitionBuilders = new ArrayList<>();
+      for (final RelationalInput partition : this.partitions) {
+        partitionBuilders.add(executor.submit(new Callable<PLIBuilder>() {
+          @Override
+          public PLIBuilder call() throws InputIterationException {
+            PLIBuilder builder = new PLIBuilder(partition, nullEqualsNull);
+            builder.columns = new ArrayList<>();
+            builder.calculateUnpurgedPLI();
+            return builder;
+          }
+        }));
+      }
+
+      // The finished partitions are merged, while the following partitions are still read.
+      for (Future<PLIBuilder> partitionBuilder : partitionBuilders) {
+        PLIBuilder builder = partitionBuilder.get();
+        mergeColumns(builder.columns, this.numberOfTuples);
+        this.numberOfTuples += builder.numberOfTuples;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InputIterationException("Interrupted while building the PLIs.", e);
+    } catch (ExecutionException e) {
+      throw new InputIterationException("Could not build the PLIs.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Adds the value maps of a partition to the value maps of the builder.
+   *
+   * @param partitionColumns the value maps of the partition
+   * @param rowOffset        the number of rows in the preceding partitions
+   */
+  protected void mergeColumns(List<HashMap<String, LongArrayList>> partitionColumns,
+                              long rowOffset) {
+    for (int column = 0; column < partitionColumns.size(); column++) {
+      if (columns.size() <= column) {
+        columns.add(new HashMap<String, LongArrayList>());
+      }
+      HashMap<String, LongArrayList> columnMap = columns.get(column);
+
+      for (Map.Entry<String, LongArrayList> entry : partitionColumns.get(column).entrySet()) {
+        LongArrayList rows = entry.getValue();
+        long[] elements = rows.elements();
+        for (int i = 0; i < rows.size(); i++) {
+          elements[i] += rowOffset;
+        }
+
+        LongArrayList existingRows = columnMap.get(entry.getKey());
+        if (existingRows == null) {
+          columnMap.put(entry.getKey(), rows);
+        } else {
+          existingRows.addAll(rows);
+        }
+      }
+    }
+  }
+
+  protected List<List<LongArrayList>> purgePLIEntries() throws InputIterationException {
+    if (this.numberOfThreads > 1) {
+      return purgePLIEntriesParallel();
+    }
+
     List<List<LongArrayList>> rawPLIList = new ArrayList<>();
     Iterator<HashMap<String, LongArrayList>> columnsIterator = columns.iterator();
     while (columnsIterator.hasNext()) {
@@ -162,4 +344,41 @@ public class PLIBuilder {
     }
     return rawPLIList;
   }
+
+  protected List<List<LongArrayList>> purgePLIEntriesParallel() throws InputIterationException {
+    ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads);
+    try {
+      List<Future<List<LongArrayList>>> purgedColumns = new ArrayList<>();
+      for (final HashMap<String, LongArrayList> columnMap : columns) {
+        purgedColumns.add(executor.submit(new Callable<List<LongArrayList>>() {
+          @Override
+          public List<LongArrayList> call() {
+            List<LongArrayList> clusters = new ArrayList<>();
+            for (LongArrayList cluster : columnMap.values()) {
+              if (cluster.size() < 2) {
+                continue;
+              }
+              clusters.add(cluster);
+            }
+            return clusters;
+          }
+        }));
+      }
+
+      List<List<LongArrayList>> rawPLIList = new ArrayList<>();
+      for (Future<List<LongArrayList>> purgedColumn : purgedColumns) {
+        rawPLIList.add(purgedColumn.get());
+      }
+      // Free value Maps.
+      columns.clear();
+      return rawPLIList;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InputIterationException("Interrupted while purging the PLIs.", e);
+    } catch (ExecutionException e) {
+      throw new InputIterationException("Could not purge the PLIs.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -66,7 +66,7 @@ public class PositionListIndex {
   @Override
   public PositionListIndex clone() {
     List<LongArrayList> newClusters = new ArrayList<>();
-    for (LongArrayList cluster : clusters) {
+    for (LongArrayList cluster : getClusters()) {
       newClusters.add(cluster.clone());
     }
 
@@ -80,7 +80,7 @@ public class PositionListIndex {
     final int prime = 31;
     int result = 1;
 
-    List<LongOpenHashSet> setCluster = convertClustersToSets(clusters);
+    List<LongOpenHashSet> setCluster = convertClustersToSets(getClusters());
 
     Collections.sort(setCluster, new Comparator<LongSet>() {
 
@@ -102,17 +102,17 @@ public class PositionListIndex {
     if (obj == null) {
       return false;
     }
-    if (getClass() != obj.getClass()) {
+    if (!(obj instanceof PositionListIndex)) {
       return false;
     }
     PositionListIndex other = (PositionListIndex) obj;
-    if (clusters == null) {
-      if (other.clusters != null) {
+    if (getClusters() == null) {
+      if (other.getClusters() != null) {
         return false;
       }
     } else {
-      List<LongOpenHashSet> setCluster = convertClustersToSets(clusters);
-      List<LongOpenHashSet> otherSetCluster = convertClustersToSets(other.clusters);
+      List<LongOpenHashSet> setCluster = convertClustersToSets(getClusters());
+      List<LongOpenHashSet> otherSetCluster = convertClustersToSets(other.getClusters());
 
       for (LongOpenHashSet cluster : setCluster) {
         if (!otherSetCluster.contains(cluster)) {
@@ -163,7 +163,7 @@ public class PositionListIndex {
   protected void buildMap(PositionListIndex otherPLI, Long2LongOpenHashMap hashedPLI,
                           Map<LongPair, LongArrayList> map) {
     long uniqueValueCount = 0;
-    for (LongArrayList sameValues : otherPLI.clusters) {
+    for (LongArrayList sameValues : otherPLI.getClusters()) {
       for (long rowCount : sameValues) {
         if (hashedPLI.containsKey(rowCount)) {
           LongPair pair = new LongPair(uniqueValueCount, hashedPLI.get(rowCount));
@@ -194,6 +194,7 @@ public class PositionListIndex {
    * @return the pli as hash map
    */
   public Long2LongOpenHashMap asHashMap() {
+    List<LongArrayList> clusters = getClusters();
     Long2LongOpenHashMap hashedPLI = new Long2LongOpenHashMap(clusters.size());
     long uniqueValueCount = 0;
     for (LongArrayList sameValues : clusters) {
@@ -211,7 +212,7 @@ public class PositionListIndex {
    * @return the number of clusters in the {@link PositionListIndex}
    */
   public long size() {
-    return clusters.size();
+    return getClusters().size();
   }
 
   /**
@@ -242,6 +243,7 @@ public class PositionListIndex {
   }
 
   protected long calculateRawKeyError() {
+    List<LongArrayList> clusters = getClusters();
     long sumClusterSize = 0;
 
     for (LongArrayList cluster : clusters) {
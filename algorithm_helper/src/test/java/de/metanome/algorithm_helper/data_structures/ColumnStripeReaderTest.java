@@ -0,0 +1,114 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.data_structures;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link de.metanome.algorithm_helper.data_structures.ColumnStripeReader}
+ */
+public class ColumnStripeReaderTest {
+
+  protected PLIBuilderFixture fixture;
+
+  @Before
+  public void setUp() throws Exception {
+    fixture = new PLIBuilderFixture();
+  }
+
+  /**
+   * Test method for {@link ColumnStripeReader#read(ColumnStripeReader.StripeProcessor)}
+   * <p/>
+   * Every cell should be processed exactly once by the stripe of its column and the rows of a
+   * stripe should be processed in input order.
+   */
+  @Test
+  public void testRead() throws InputIterationException {
+    // Setup
+    RelationalInput input = fixture.getPartitions(5).get(0);
+    final List<List<String>> stripedCells = new ArrayList<>();
+    for (int column = 0; column < 4; column++) {
+      stripedCells.add(Collections.synchronizedList(new ArrayList<String>()));
+    }
+    final List<Long> firstRows = Collections.synchronizedList(new ArrayList<Long>());
+
+    // Execute functionality
+    long numberOfRows = new ColumnStripeReader(input, 3, 2).read(
+      new ColumnStripeReader.StripeProcessor() {
+        @Override
+        public void processBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                                 int numberOfStripes) {
+          if (firstColumn == 0) {
+            firstRows.add(firstRow);
+          }
+          for (List<String> row : batch) {
+            for (int column = firstColumn; column < row.size(); column += numberOfStripes) {
+              stripedCells.get(column).add(row.get(column));
+            }
+          }
+        }
+      });
+
+    // Check result
+    assertEquals(fixture.getExpectedNumberOfTuples(), numberOfRows);
+    assertEquals(Arrays.asList(0L, 2L, 4L), firstRows);
+    for (int column = 0; column < 4; column++) {
+      List<String> expectedCells = new ArrayList<>();
+      for (List<String> row : fixture.table) {
+        expectedCells.add(row.get(column));
+      }
+      assertEquals(expectedCells, stripedCells.get(column));
+    }
+  }
+
+  /**
+   * Test method for {@link ColumnStripeReader#read(ColumnStripeReader.StripeProcessor)}
+   * <p/>
+   * A failing stripe should be reported as {@link InputIterationException}.
+   */
+  @Test
+  public void testReadFailure() throws InputIterationException {
+    // Setup
+    RelationalInput input = fixture.getPartitions(5).get(0);
+    final IllegalStateException expectedCause = new IllegalStateException();
+
+    // Execute functionality
+    try {
+      new ColumnStripeReader(input, 2).read(new ColumnStripeReader.StripeProcessor() {
+        @Override
+        public void processBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                                 int numberOfStripes) {
+          throw expectedCause;
+        }
+      });
+      fail("Exception should have been thrown.");
+    } catch (InputIterationException actualException) {
+      // Check result
+      assertSame(expectedCause, actualException.getCause());
+    }
+  }
+
+}
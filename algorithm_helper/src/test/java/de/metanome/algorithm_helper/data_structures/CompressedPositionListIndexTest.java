@@ -0,0 +1,271 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.data_structures;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link de.metanome.algorithm_helper.data_structures.CompressedPositionListIndex}
+ */
+public class CompressedPositionListIndexTest {
+
+  protected PositionListIndexFixture fixture;
+
+  @Before
+  public void setUp() throws Exception {
+    fixture = new PositionListIndexFixture();
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#CompressedPositionListIndex(PositionListIndex)}
+   * <p/>
+   * A compressed {@link PositionListIndex} should be equal to the uncompressed one.
+   */
+  @Test
+  public void testConstructor() {
+    // Setup
+    PositionListIndex pli = fixture.getFirstPLI();
+
+    // Execute functionality
+    CompressedPositionListIndex compressedPLI = new CompressedPositionListIndex(pli);
+
+    // Check result
+    assertEquals(pli, compressedPLI);
+    assertEquals(compressedPLI, pli);
+    assertEquals(pli.hashCode(), compressedPLI.hashCode());
+    assertEquals(fixture.getFirstPLISize(), compressedPLI.size());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#fromDictionaryCodes(int[], int, boolean)}
+   * <p/>
+   * The clusters of a dictionary encoded column should be built correctly.
+   */
+  @Test
+  public void testFromDictionaryCodes() {
+    // Setup
+    // Values: a, b, null, a, c, null, b, a, d
+    int[] codes = {0, 1, -1, 0, 2, -1, 1, 0, 3};
+    // Expected values
+    List<LongArrayList> expectedClusters = new ArrayList<>();
+    expectedClusters.add(new LongArrayList(new long[]{0, 3, 7}));
+    expectedClusters.add(new LongArrayList(new long[]{1, 6}));
+    PositionListIndex expectedPLI = new PositionListIndex(expectedClusters);
+    List<LongArrayList> expectedNullClusters = new ArrayList<>(expectedClusters);
+    expectedNullClusters.add(new LongArrayList(new long[]{2, 5}));
+    PositionListIndex expectedNullEqualsNullPLI = new PositionListIndex(expectedNullClusters);
+
+    // Execute functionality
+    CompressedPositionListIndex actualPLI =
+      CompressedPositionListIndex.fromDictionaryCodes(codes, 4, false);
+    CompressedPositionListIndex actualNullEqualsNullPLI =
+      CompressedPositionListIndex.fromDictionaryCodes(codes, 4, true);
+
+    // Check result
+    assertEquals(expectedPLI, actualPLI);
+    assertEquals(expectedNullEqualsNullPLI, actualNullEqualsNullPLI);
+    assertEquals(4, actualNullEqualsNullPLI.getRawKeyError());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#intersect(PositionListIndex)}
+   * <p/>
+   * Two {@link CompressedPositionListIndex} should be correctly intersected. Uncompressed {@link
+   * PositionListIndex}es should be accepted as well.
+   */
+  @Test
+  public void testIntersect() {
+    // Setup
+    CompressedPositionListIndex firstPLI = new CompressedPositionListIndex(fixture.getFirstPLI());
+    CompressedPositionListIndex secondPLI = new CompressedPositionListIndex(fixture.getSecondPLI());
+    // Expected values
+    PositionListIndex expectedPLI = fixture.getExpectedIntersectedPLI();
+
+    // Execute functionality
+    PositionListIndex actualIntersectedPLI = firstPLI.intersect(secondPLI);
+    PositionListIndex actualMixedIntersectedPLI = firstPLI.intersect(fixture.getSecondPLI());
+
+    // Check result
+    assertEquals(expectedPLI, actualIntersectedPLI);
+    assertEquals(expectedPLI, actualMixedIntersectedPLI);
+    assertEquals(expectedPLI, secondPLI.intersect(firstPLI));
+    assertTrue(actualIntersectedPLI instanceof CompressedPositionListIndex);
+  }
+
+  /**
+   * Test method for {@link PositionListIndex#intersect(PositionListIndex)} and {@link
+   * CompressedPositionListIndex#intersect(PositionListIndex)}
+   * <p/>
+   * A plain {@link PositionListIndex} should be intersected with a {@link
+   * CompressedPositionListIndex} and vice versa.
+   */
+  @Test
+  public void testIntersectMixed() {
+    // Setup
+    PositionListIndex plainPLI = fixture.getFirstPLI();
+    CompressedPositionListIndex compressedPLI =
+      new CompressedPositionListIndex(fixture.getSecondPLI());
+    // Expected values
+    PositionListIndex expectedPLI = fixture.getExpectedIntersectedPLI();
+
+    // Execute functionality
+    PositionListIndex plainWithCompressedPLI = plainPLI.intersect(compressedPLI);
+    PositionListIndex compressedWithPlainPLI = compressedPLI.intersect(plainPLI);
+
+    // Check result
+    assertEquals(expectedPLI, plainWithCompressedPLI);
+    assertEquals(expectedPLI, compressedWithPlainPLI);
+    assertEquals(compressedPLI.getRawKeyError(), fixture.getSecondPLI().getRawKeyError());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#intersect(PositionListIndex)}
+   * <p/>
+   * The intersection should return the same result as the uncompressed intersection on a larger
+   * input.
+   */
+  @Test
+  public void testIntersectLarge() {
+    // Setup
+    List<LongArrayList> firstClusters = new ArrayList<>();
+    List<LongArrayList> secondClusters = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      firstClusters.add(new LongArrayList());
+    }
+    for (int i = 0; i < 11; i++) {
+      secondClusters.add(new LongArrayList());
+    }
+    for (long row = 0; row < 1000; row++) {
+      firstClusters.get((int) (row % 7)).add(row);
+      secondClusters.get((int) ((row * 13) % 11)).add(row);
+    }
+    PositionListIndex firstPLI = new PositionListIndex(firstClusters);
+    PositionListIndex secondPLI = new PositionListIndex(secondClusters);
+
+    // Execute functionality
+    PositionListIndex expectedPLI = firstPLI.intersect(secondPLI);
+    PositionListIndex actualPLI =
+      new CompressedPositionListIndex(firstPLI).intersect(new CompressedPositionListIndex(secondPLI));
+
+    // Check result
+    assertEquals(expectedPLI, actualPLI);
+    assertEquals(expectedPLI.size(), actualPLI.size());
+    assertEquals(expectedPLI.getRawKeyError(), actualPLI.getRawKeyError());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#getRawKeyError()} <p/> The key error should
+   * be calculated correctly.
+   */
+  @Test
+  public void testGetRawKeyError() {
+    // Setup
+    CompressedPositionListIndex firstPLI = new CompressedPositionListIndex(fixture.getFirstPLI());
+    CompressedPositionListIndex secondPLI = new CompressedPositionListIndex(fixture.getSecondPLI());
+
+    // Execute functionality
+    // Check result
+    assertEquals(fixture.getExpectedFirstPLIRawKeyError(), firstPLI.getRawKeyError());
+    assertEquals(fixture.getExpectedSecondPLIRawKeyError(), secondPLI.getRawKeyError());
+    assertEquals(fixture.getExpectedIntersectedPLIRawKeyError(),
+      firstPLI.intersect(secondPLI).getRawKeyError());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#asHashMap()} and {@link
+   * CompressedPositionListIndex#getProbingTable()}
+   */
+  @Test
+  public void testAsHashMapAndProbingTable() {
+    // Setup
+    CompressedPositionListIndex pli = new CompressedPositionListIndex(fixture.getFirstPLI());
+    // Expected values
+    int[] expectedProbingTable = {-1, -1, 0, -1, 0, 1, 1, 1, 0};
+
+    // Execute functionality
+    // Check result
+    assertEquals(fixture.getFirstPLIAsHashMap(), pli.asHashMap());
+    assertArrayEquals(expectedProbingTable, pli.getProbingTable());
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#clone()}
+   */
+  @Test
+  public void testClone() {
+    // Setup
+    CompressedPositionListIndex pli = new CompressedPositionListIndex(fixture.getFirstPLI());
+
+    // Execute functionality
+    CompressedPositionListIndex copy = pli.clone();
+
+    // Check result
+    assertEquals(pli, copy);
+    assertNotSame(pli, copy);
+    assertNotSame(pli.records, copy.records);
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#write(java.io.DataOutput)} and {@link
+   * CompressedPositionListIndex#read(java.io.DataInput)}
+   * <p/>
+   * A written {@link CompressedPositionListIndex} should be read back unchanged.
+   */
+  @Test
+  public void testWriteRead() throws Exception {
+    // Setup
+    CompressedPositionListIndex pli = new CompressedPositionListIndex(fixture.getFirstPLI());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    // Execute functionality
+    pli.write(new DataOutputStream(bytes));
+    CompressedPositionListIndex actualPLI = CompressedPositionListIndex.read(
+      new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    // Check result
+    assertEquals(pli, actualPLI);
+    assertArrayEquals(pli.getProbingTable(), actualPLI.getProbingTable());
+    assertEquals(fixture.getExpectedIntersectedPLI(), actualPLI.intersect(fixture.getSecondPLI()));
+  }
+
+  /**
+   * Test method for {@link CompressedPositionListIndex#isEmpty()} and {@link
+   * CompressedPositionListIndex#isUnique()}
+   */
+  @Test
+  public void testIsEmptyUnique() {
+    // Setup
+    CompressedPositionListIndex emptyPli =
+      new CompressedPositionListIndex(new ArrayList<LongArrayList>());
+
+    // Execute functionality
+    // Check result
+    assertTrue(emptyPli.isEmpty());
+    assertTrue(emptyPli.isUnique());
+    assertTrue(emptyPli.intersect(fixture.getFirstPLI()).isEmpty());
+  }
+}
@@ -60,6 +60,8 @@ public class PLIBuilderFixture {
   protected RelationalInput getRelationalInput() throws InputIterationException {
     RelationalInput input = mock(RelationalInput.class);
 
+    when(input.numberOfColumns()).thenReturn(table.get(0).size());
+
     when(input.hasNext()).thenAnswer(new Answer<Boolean>() {
       public Boolean answer(InvocationOnMock invocation) throws Throwable {
         return rowPosition < table.size();
@@ -76,6 +78,40 @@ public class PLIBuilderFixture {
     return input;
   }
 
+  /**
+   * Splits the table into consecutive partitions of the given sizes.
+   */
+  public List<RelationalInput> getPartitions(int... partitionSizes) throws InputIterationException {
+    List<RelationalInput> partitions = new ArrayList<>();
+    int firstRow = 0;
+    for (int partitionSize : partitionSizes) {
+      partitions.add(getPartition(table.subList(firstRow, firstRow + partitionSize)));
+      firstRow += partitionSize;
+    }
+    return partitions;
+  }
+
+  protected RelationalInput getPartition(final List<ArrayList<String>> rows)
+    throws InputIterationException {
+    RelationalInput partition = mock(RelationalInput.class);
+    final int[] position = {0};
+
+    when(partition.numberOfColumns()).thenReturn(table.get(0).size());
+
+    when(partition.hasNext()).thenAnswer(new Answer<Boolean>() {
+      public Boolean answer(InvocationOnMock invocation) throws Throwable {
+        return position[0] < rows.size();
+      }
+    });
+
+    when(partition.next()).thenAnswer(new Answer<ArrayList<String>>() {
+      public ArrayList<String> answer(InvocationOnMock invocation) throws Throwable {
+        return rows.get(position[0]++);
+      }
+    });
+
+    return partition;
+  }
 
   public long getExpectedNumberOfTuples() {
     return table.size();
@@ -18,11 +18,13 @@ package de.metanome.algorithm_helper.data_structures;
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
 import org.hamcrest.collection.IsIterableContainingInAnyOrder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -88,6 +90,97 @@ public class PLIBuilderTest {
     assertThat(actualPLIList, IsIterableContainingInAnyOrder.containsInAnyOrder(expectedPLIArray));
   }
 
+  /**
+   * Test method for {@link PLIBuilder#getPLIList()} <p/> Tests that {@link
+   * de.metanome.algorithm_helper.data_structures.PositionListIndex}es are build correctly by the
+   * parallel builder.
+   */
+  @Test
+  public void testCalculatePLIParallel()
+    throws InputIterationException, InputGenerationException, AlgorithmConfigurationException {
+    // Expected values
+    List<PositionListIndex> expectedPLIList = fixture.getExpectedPLIList(true);
+    List<PositionListIndex> expectedNullNotEqualsNullPLIList = fixture.getExpectedPLIList(false);
+
+    // Execute functionality
+    PLIBuilder parallelNullNotEqualsNullBuilder =
+      new PLIBuilder(fixture.getInputGenerator().generateNewCopy(), false, 2);
+    List<PositionListIndex> actualNullNotEqualsNullPLIList =
+      parallelNullNotEqualsNullBuilder.getPLIList();
+    PLIBuilder parallelBuilder =
+      new PLIBuilder(fixture.getInputGenerator().generateNewCopy(), true, 3);
+    List<PositionListIndex> actualPLIList = parallelBuilder.getPLIList();
+
+    // Check result
+    assertEquals(expectedPLIList, actualPLIList);
+    assertEquals(expectedNullNotEqualsNullPLIList, actualNullNotEqualsNullPLIList);
+    assertEquals(fixture.getExpectedNumberOfTuples(), parallelBuilder.getNumberOfTuples());
+  }
+
+  /**
+   * Test method for {@link PLIBuilder#getPLIList()}
+   * <p/>
+   * The serial and the parallel builder should both build one pli per column of the input and
+   * ignore surplus cells of longer rows.
+   */
+  @Test
+  public void testCalculatePLISurplusCells() throws InputIterationException {
+    // Setup
+    List<ArrayList<String>> rows = new ArrayList<>();
+    for (ArrayList<String> row : fixture.table) {
+      ArrayList<String> longerRow = new ArrayList<>(row);
+      longerRow.add("surplus" + rows.size() % 2);
+      rows.add(longerRow);
+    }
+    // Expected values
+    List<PositionListIndex> expectedPLIList = fixture.getExpectedPLIList(true);
+
+    // Execute functionality
+    List<PositionListIndex> actualSerialPLIList =
+      new PLIBuilder(fixture.getPartition(rows), true, 1).getPLIList();
+    List<PositionListIndex> actualParallelPLIList =
+      new PLIBuilder(fixture.getPartition(rows), true, 2).getPLIList();
+
+    // Check result
+    assertEquals(expectedPLIList, actualSerialPLIList);
+    assertEquals(expectedPLIList, actualParallelPLIList);
+  }
+
+  /**
+   * Test method for {@link PLIBuilder#getPLIList()}
+   * <p/>
+   * The plis of a partitioned input should equal the plis of the complete input. Empty partitions
+   * should be skipped.
+   */
+  @Test
+  public void testCalculatePLIPartitioned() throws InputIterationException {
+    // Expected values
+    List<PositionListIndex> expectedPLIList = fixture.getExpectedPLIList(true);
+    List<PositionListIndex> expectedNullNotEqualsNullPLIList = fixture.getExpectedPLIList(false);
+
+    // Execute functionality
+    PLIBuilder partitionedBuilder = new PLIBuilder(fixture.getPartitions(2, 0, 3), true);
+    List<PositionListIndex> actualPLIList = partitionedBuilder.getPLIList();
+    PLIBuilder partitionedNullNotEqualsNullBuilder =
+      new PLIBuilder(fixture.getPartitions(1, 1, 1, 2), false);
+    List<PositionListIndex> actualNullNotEqualsNullPLIList =
+      partitionedNullNotEqualsNullBuilder.getPLIList();
+
+    // Check result
+    assertEquals(expectedPLIList, actualPLIList);
+    assertEquals(expectedNullNotEqualsNullPLIList, actualNullNotEqualsNullPLIList);
+    assertEquals(fixture.getExpectedNumberOfTuples(), partitionedBuilder.getNumberOfTuples());
+  }
+
+  /**
+   * Test method for {@link PLIBuilder#PLIBuilder(RelationalInput, boolean, int)} <p/> The builder
+   * needs at least one thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorInvalidNumberOfThreads() throws Exception {
+    new PLIBuilder(fixture.getInputGenerator().generateNewCopy(), true, 0);
+  }
+
   /**
    * Test method for {@link PLIBuilder#getDistinctSortedColumns()} <p/> Creates the distinct sorted
    * columns from the raw plis.
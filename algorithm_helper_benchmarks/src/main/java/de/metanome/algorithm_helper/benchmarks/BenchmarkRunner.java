@@ -0,0 +1,58 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the JMH command line. Unless another result format is requested, the
+ * results are written as JSON to {@link #DEFAULT_RESULT_FILE}, so that the results of different
+ * releases can be compared by tools. All JMH options are supported, e.g. "-p rows=1000000" to
+ * change a parameter or a regular expression to select benchmarks.
+ */
+public class BenchmarkRunner {
+
+  public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  public static void main(String[] args) throws Exception {
+    Main.main(withDefaultResultFormat(args));
+  }
+
+  /**
+   * Adds the JSON result format and the default result file, if the arguments do not specify a
+   * result format.
+   *
+   * @param args the command line arguments
+   * @return the arguments for JMH
+   */
+  protected static String[] withDefaultResultFormat(String[] args) {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    if (!arguments.contains("-rf")) {
+      arguments.add(0, "-rf");
+      arguments.add(1, "json");
+      if (!arguments.contains("-rff")) {
+        arguments.add(2, "-rff");
+        arguments.add(3, DEFAULT_RESULT_FILE);
+      }
+    }
+    return arguments.toArray(new String[arguments.size()]);
+  }
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_helper.data_structures.ColumnCombinationBitset;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the subset enumeration of {@link ColumnCombinationBitset}s. The enumerated column
+ * combination contains all columns, the n-subsets are enumerated for n = columns / 2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnCombinationBitsetBenchmark {
+
+  @Param({"8", "12", "16"})
+  public int columns;
+
+  protected ColumnCombinationBitset columnCombination;
+
+  @Setup
+  public void setUp() {
+    this.columnCombination = new ColumnCombinationBitset().setAllBits(columns);
+  }
+
+  @Benchmark
+  public List<ColumnCombinationBitset> getAllSubsets() {
+    return this.columnCombination.getAllSubsets();
+  }
+
+  @Benchmark
+  public List<ColumnCombinationBitset> getNSubsetColumnCombinations() {
+    return this.columnCombination.getNSubsetColumnCombinations(columns / 2);
+  }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_helper.data_structures.PLIBuilder;
+import de.metanome.algorithm_helper.data_structures.PositionListIndex;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PLIBuilder#getPLIList()} on a {@link SyntheticRelation}, that is kept in memory,
+ * so that only the construction of the position list indexes is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PLIBuilderBenchmark {
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  @Param({"5", "20"})
+  public int columns;
+
+  @Param({"10", "1000"})
+  public int cardinality;
+
+  @Param({"0.0", "1.0"})
+  public double skew;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  protected SyntheticRelation relation;
+
+  @Setup
+  public void setUp() {
+    this.relation = new SyntheticRelation(rows, columns, cardinality, skew, 42);
+  }
+
+  @Benchmark
+  public List<PositionListIndex> getPLIList() throws InputIterationException {
+    return new PLIBuilder(this.relation.asRelationalInput(), true, threads).getPLIList();
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_helper.data_structures.CompressedPositionListIndex;
+import de.metanome.algorithm_helper.data_structures.PLIBuilder;
+import de.metanome.algorithm_helper.data_structures.PositionListIndex;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PositionListIndex#intersect(PositionListIndex)} on two columns of a {@link
+ * SyntheticRelation}, for the list based and the compressed position list index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionListIndexBenchmark {
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  @Param({"10", "1000"})
+  public int cardinality;
+
+  @Param({"0.0", "1.0"})
+  public double skew;
+
+  @Param({"false", "true"})
+  public boolean compressed;
+
+  protected PositionListIndex firstPLI;
+  protected PositionListIndex secondPLI;
+
+  @Setup
+  public void setUp() throws InputIterationException {
+    SyntheticRelation relation = new SyntheticRelation(rows, 2, cardinality, skew, 42);
+    List<PositionListIndex> plis = new PLIBuilder(relation.asRelationalInput()).getPLIList();
+    this.firstPLI = plis.get(0);
+    this.secondPLI = plis.get(1);
+    if (compressed) {
+      this.firstPLI = new CompressedPositionListIndex(this.firstPLI);
+      this.secondPLI = new CompressedPositionListIndex(this.secondPLI);
+    }
+  }
+
+  @Benchmark
+  public PositionListIndex intersect() {
+    return this.firstPLI.intersect(this.secondPLI);
+  }
+
+}
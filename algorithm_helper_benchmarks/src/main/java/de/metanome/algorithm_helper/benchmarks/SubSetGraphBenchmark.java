@@ -0,0 +1,79 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_helper.data_structures.ColumnCombinationBitset;
+import de.metanome.algorithm_helper.data_structures.SubSetGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the subset lookups of the {@link SubSetGraph}. The graph contains random column
+ * combinations of three columns, the lookups are done with random column combinations containing
+ * half of the columns. The reported time is the time per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubSetGraphBenchmark {
+
+  protected static final int NUMBER_OF_LOOKUPS = 256;
+  protected static final int GRAPH_COMBINATION_SIZE = 3;
+
+  @Param({"20", "60"})
+  public int columns;
+
+  @Param({"1000", "10000"})
+  public int graphSize;
+
+  @Param({"0.0", "1.0"})
+  public double skew;
+
+  protected SubSetGraph graph;
+  protected List<ColumnCombinationBitset> lookups;
+
+  @Setup
+  public void setUp() {
+    this.graph = new SubSetGraph();
+    this.graph.addAll(SyntheticColumnCombinations.generate(graphSize, columns,
+      GRAPH_COMBINATION_SIZE, skew, 42));
+    this.lookups = SyntheticColumnCombinations.generate(NUMBER_OF_LOOKUPS, columns, columns / 2,
+      skew, 43);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_LOOKUPS)
+  public void getExistingSubsets(Blackhole blackhole) {
+    for (ColumnCombinationBitset lookup : this.lookups) {
+      blackhole.consume(this.graph.getExistingSubsets(lookup));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_LOOKUPS)
+  public void containsSubset(Blackhole blackhole) {
+    for (ColumnCombinationBitset lookup : this.lookups) {
+      blackhole.consume(this.graph.containsSubset(lookup));
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_helper.data_structures.ColumnCombinationBitset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates random {@link ColumnCombinationBitset}s. The columns are drawn from a {@link
+ * ZipfDistribution}, so that with a positive skew some columns occur in many combinations.
+ */
+public class SyntheticColumnCombinations {
+
+  private SyntheticColumnCombinations() {
+  }
+
+  /**
+   * @param numberOfCombinations the number of column combinations to generate
+   * @param numberOfColumns      the number of columns to choose from
+   * @param size                 the number of columns per combination
+   * @param skew                 the skew of the column distribution, 0 for uniformly drawn columns
+   * @param seed                 the seed of the random number generator
+   * @return the generated column combinations, that may contain duplicates
+   */
+  public static List<ColumnCombinationBitset> generate(int numberOfCombinations,
+                                                       int numberOfColumns, int size, double skew,
+                                                       long seed) {
+    if (size > numberOfColumns) {
+      throw new IllegalArgumentException("The size must not exceed the number of columns.");
+    }
+
+    ZipfDistribution columns = new ZipfDistribution(numberOfColumns, skew, seed);
+    List<ColumnCombinationBitset> combinations = new ArrayList<>(numberOfCombinations);
+    for (int i = 0; i < numberOfCombinations; i++) {
+      ColumnCombinationBitset combination = new ColumnCombinationBitset();
+      while (combination.size() < size) {
+        combination.addColumn(columns.next());
+      }
+      combinations.add(combination);
+    }
+    return combinations;
+  }
+
+}
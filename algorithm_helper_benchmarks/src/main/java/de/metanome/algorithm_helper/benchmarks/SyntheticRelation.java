@@ -0,0 +1,124 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An in-memory relation with generated values. The values of every column are drawn independently
+ * from a {@link ZipfDistribution} over the given number of distinct values, so the relation is
+ * parameterized by its number of rows, its number of columns, the cardinality of the columns and
+ * the skew of the value distribution. The same parameters and seed always result in the same
+ * relation.
+ */
+public class SyntheticRelation {
+
+  protected static final String RELATION_NAME = "synthetic";
+
+  protected List<List<String>> rows;
+  protected List<String> columnNames;
+
+  /**
+   * @param numberOfRows    the number of rows
+   * @param numberOfColumns the number of columns
+   * @param cardinality     the maximal number of distinct values per column
+   * @param skew            the skew of the value distribution, 0 for uniformly distributed values
+   * @param seed            the seed of the random number generator
+   */
+  public SyntheticRelation(int numberOfRows, int numberOfColumns, int cardinality, double skew,
+                           long seed) {
+    this.columnNames = new ArrayList<>(numberOfColumns);
+    List<String[]> dictionaries = new ArrayList<>(numberOfColumns);
+    List<ZipfDistribution> distributions = new ArrayList<>(numberOfColumns);
+    for (int column = 0; column < numberOfColumns; column++) {
+      this.columnNames.add("column" + (column + 1));
+
+      String[] dictionary = new String[cardinality];
+      for (int value = 0; value < cardinality; value++) {
+        dictionary[value] = "value" + column + "_" + value;
+      }
+      dictionaries.add(dictionary);
+      distributions.add(new ZipfDistribution(cardinality, skew, seed + column));
+    }
+
+    this.rows = new ArrayList<>(numberOfRows);
+    for (int row = 0; row < numberOfRows; row++) {
+      List<String> values = new ArrayList<>(numberOfColumns);
+      for (int column = 0; column < numberOfColumns; column++) {
+        values.add(dictionaries.get(column)[distributions.get(column).next()]);
+      }
+      this.rows.add(Collections.unmodifiableList(values));
+    }
+  }
+
+  /**
+   * @return a new {@link RelationalInput} iterating over the rows of the relation
+   */
+  public RelationalInput asRelationalInput() {
+    return new RowIterator();
+  }
+
+  public List<List<String>> getRows() {
+    return rows;
+  }
+
+  public int getNumberOfRows() {
+    return rows.size();
+  }
+
+  public int getNumberOfColumns() {
+    return columnNames.size();
+  }
+
+  protected class RowIterator implements RelationalInput {
+
+    protected int currentRow = 0;
+
+    @Override
+    public boolean hasNext() {
+      return this.currentRow < rows.size();
+    }
+
+    @Override
+    public List<String> next() {
+      return hasNext() ? rows.get(this.currentRow++) : null;
+    }
+
+    @Override
+    public int numberOfColumns() {
+      return columnNames.size();
+    }
+
+    @Override
+    public String relationName() {
+      return RELATION_NAME;
+    }
+
+    @Override
+    public List<String> columnNames() {
+      return columnNames;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws integers between 0 and size - 1, where the probability of value k is proportional to 1 /
+ * (k + 1)^skew. A skew of 0 results in a uniform distribution, larger skews concentrate the
+ * samples on the small values.
+ */
+public class ZipfDistribution {
+
+  protected double[] cumulativeProbabilities;
+  protected Random random;
+
+  /**
+   * @param size the number of distinct values
+   * @param skew the skew of the distribution, 0 for uniformly distributed values
+   * @param seed the seed of the random number generator
+   */
+  public ZipfDistribution(int size, double skew, long seed) {
+    if (size < 1) {
+      throw new IllegalArgumentException("The distribution needs at least one value.");
+    }
+    if (skew < 0) {
+      throw new IllegalArgumentException("The skew must not be negative.");
+    }
+
+    this.cumulativeProbabilities = new double[size];
+    double sum = 0;
+    for (int k = 0; k < size; k++) {
+      sum += 1.0 / Math.pow(k + 1, skew);
+      this.cumulativeProbabilities[k] = sum;
+    }
+    for (int k = 0; k < size; k++) {
+      this.cumulativeProbabilities[k] /= sum;
+    }
+    this.random = new Random(seed);
+  }
+
+  /**
+   * @return the next sample
+   */
+  public int next() {
+    int index = Arrays.binarySearch(this.cumulativeProbabilities, this.random.nextDouble());
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return Math.min(index, this.cumulativeProbabilities.length - 1);
+  }
+
+  public int size() {
+    return this.cumulativeProbabilities.length;
+  }
+
+}
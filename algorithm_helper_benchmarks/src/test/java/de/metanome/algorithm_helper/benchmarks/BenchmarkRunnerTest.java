@@ -0,0 +1,45 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for {@link BenchmarkRunner}
+ */
+public class BenchmarkRunnerTest {
+
+  /**
+   * Test method for {@link BenchmarkRunner#withDefaultResultFormat(String[])}
+   * <p/>
+   * The JSON result format should be added, unless a result format is given.
+   */
+  @Test
+  public void testWithDefaultResultFormat() {
+    // Execute functionality
+    // Check result
+    assertArrayEquals(new String[]{"-rf", "json", "-rff", BenchmarkRunner.DEFAULT_RESULT_FILE,
+        "PLIBuilder"},
+      BenchmarkRunner.withDefaultResultFormat(new String[]{"PLIBuilder"}));
+    assertArrayEquals(new String[]{"-rf", "json", "-rff", "results.json"},
+      BenchmarkRunner.withDefaultResultFormat(new String[]{"-rff", "results.json"}));
+    assertArrayEquals(new String[]{"-rf", "csv"},
+      BenchmarkRunner.withDefaultResultFormat(new String[]{"-rf", "csv"}));
+  }
+
+}
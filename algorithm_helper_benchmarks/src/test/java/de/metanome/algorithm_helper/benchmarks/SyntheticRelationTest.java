@@ -0,0 +1,108 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_helper.benchmarks;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SyntheticRelation}
+ */
+public class SyntheticRelationTest {
+
+  /**
+   * Test method for {@link SyntheticRelation#SyntheticRelation(int, int, int, double, long)}
+   * <p/>
+   * The relation should have the requested size and cardinality and should be reproducible.
+   */
+  @Test
+  public void testConstructor() {
+    // Execute functionality
+    SyntheticRelation relation = new SyntheticRelation(1000, 3, 10, 0.0, 42);
+    SyntheticRelation sameRelation = new SyntheticRelation(1000, 3, 10, 0.0, 42);
+
+    // Check result
+    assertEquals(1000, relation.getNumberOfRows());
+    assertEquals(3, relation.getNumberOfColumns());
+    assertEquals(relation.getRows(), sameRelation.getRows());
+    for (int column = 0; column < 3; column++) {
+      Set<String> values = new HashSet<>();
+      for (List<String> row : relation.getRows()) {
+        values.add(row.get(column));
+      }
+      // With 1000 uniformly distributed samples all 10 values should occur.
+      assertEquals(10, values.size());
+    }
+  }
+
+  /**
+   * Test method for {@link SyntheticRelation#SyntheticRelation(int, int, int, double, long)}
+   * <p/>
+   * A skewed relation should contain its most frequent value more often than a uniform one.
+   */
+  @Test
+  public void testSkew() {
+    // Execute functionality
+    int uniformMaximum = getMaximalFrequency(new SyntheticRelation(10000, 1, 100, 0.0, 42));
+    int skewedMaximum = getMaximalFrequency(new SyntheticRelation(10000, 1, 100, 1.5, 42));
+
+    // Check result
+    assertTrue(uniformMaximum < 200);
+    assertTrue(skewedMaximum > 3000);
+  }
+
+  /**
+   * Test method for {@link SyntheticRelation#asRelationalInput()}
+   */
+  @Test
+  public void testAsRelationalInput() throws Exception {
+    // Setup
+    SyntheticRelation relation = new SyntheticRelation(5, 2, 3, 1.0, 42);
+
+    // Execute functionality
+    RelationalInput input = relation.asRelationalInput();
+
+    // Check result
+    assertEquals(2, input.numberOfColumns());
+    assertEquals(2, input.columnNames().size());
+    for (List<String> expectedRow : relation.getRows()) {
+      assertTrue(input.hasNext());
+      assertEquals(expectedRow, input.next());
+    }
+    assertFalse(input.hasNext());
+  }
+
+  protected int getMaximalFrequency(SyntheticRelation relation) {
+    Map<String, Integer> frequencies = new HashMap<>();
+    int maximum = 0;
+    for (List<String> row : relation.getRows()) {
+      Integer frequency = frequencies.get(row.get(0));
+      frequency = frequency == null ? 1 : frequency + 1;
+      frequencies.put(row.get(0), frequency);
+      maximum = Math.max(maximum, frequency);
+    }
+    return maximum;
+  }
+
+}
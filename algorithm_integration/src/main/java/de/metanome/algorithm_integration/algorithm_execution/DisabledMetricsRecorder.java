@@ -0,0 +1,53 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.algorithm_execution;
+
+/**
+ * A {@link MetricsRecorder}, that drops all metrics. Starting a phase returns a shared handle, so
+ * that the disabled instrumentation neither allocates nor measures anything.
+ */
+public final class DisabledMetricsRecorder implements MetricsRecorder {
+
+  public static final DisabledMetricsRecorder INSTANCE = new DisabledMetricsRecorder();
+
+  private static final Phase PHASE = new Phase() {
+    @Override
+    public void close() {
+    }
+  };
+
+  private DisabledMetricsRecorder() {
+  }
+
+  @Override
+  public Phase startPhase(String name) {
+    return PHASE;
+  }
+
+  @Override
+  public void increment(String name, long delta) {
+  }
+
+  @Override
+  public void gauge(String name, double value) {
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+}
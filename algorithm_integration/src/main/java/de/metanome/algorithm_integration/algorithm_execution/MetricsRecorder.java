@@ -0,0 +1,71 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.algorithm_execution;
+
+/**
+ * Records metrics of an algorithm execution: the time spent in named phases (e.g. "pli-build"),
+ * counters (e.g. "#intersections") and gauges (e.g. "candidates"). If the metrics are disabled,
+ * the algorithm receives the {@link DisabledMetricsRecorder}, whose methods do nothing, so that the
+ * instrumentation can stay in the algorithm. Values, which are expensive to compute, should only be
+ * recorded if {@link #isEnabled()} returns true.
+ */
+public interface MetricsRecorder {
+
+  /**
+   * Starts a phase. The phase ends when the returned handle is closed, preferably with
+   * try-with-resources. Phases with the same name are summed up, phases may be nested and run in
+   * parallel threads.
+   *
+   * @param name the name of the phase
+   * @return the handle to end the phase
+   */
+  Phase startPhase(String name);
+
+  /**
+   * Adds the given delta to the counter.
+   *
+   * @param name  the name of the counter
+   * @param delta the value to add
+   */
+  void increment(String name, long delta);
+
+  /**
+   * Sets the current value of the gauge.
+   *
+   * @param name  the name of the gauge
+   * @param value the current value
+   */
+  void gauge(String name, double value);
+
+  /**
+   * @return true, if the recorded metrics are kept
+   */
+  boolean isEnabled();
+
+  /**
+   * A running phase.
+   */
+  interface Phase extends AutoCloseable {
+
+    /**
+     * Ends the phase.
+     */
+    @Override
+    void close();
+
+  }
+
+}
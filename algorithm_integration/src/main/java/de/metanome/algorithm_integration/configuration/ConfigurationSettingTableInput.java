@@ -36,6 +36,9 @@ public class ConfigurationSettingTableInput extends ConfigurationSettingRelation
 
   private String table;
   private ConfigurationSettingDatabaseConnection databaseConnection;
+  // Integral column, whose value ranges partition the table, or null to use the primary key
+  private String partitionColumn;
+  private int numberOfPartitions = 1;
 
   // Needed for restful serialization
   public String type = "ConfigurationSettingTableInput";
@@ -70,6 +73,37 @@ public class ConfigurationSettingTableInput extends ConfigurationSettingRelation
     return this;
   }
 
+  public String getPartitionColumn() {
+    return this.partitionColumn;
+  }
+
+  /**
+   * @param partitionColumn the integral column, whose value ranges partition the table, or null to
+   *                        use the primary key
+   * @return the setting
+   */
+  public ConfigurationSettingTableInput setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+    return this;
+  }
+
+  public int getNumberOfPartitions() {
+    return this.numberOfPartitions;
+  }
+
+  /**
+   * The partitioning only affects how the table is read, so it is not part of the identity of the
+   * setting.
+   *
+   * @param numberOfPartitions the number of partitions, that are read concurrently, or 1 to read
+   *                           the table over a single connection
+   * @return the setting
+   */
+  public ConfigurationSettingTableInput setNumberOfPartitions(int numberOfPartitions) {
+    this.numberOfPartitions = numberOfPartitions;
+    return this;
+  }
+
   @Override
   @XmlTransient
   public String getValueAsString() {
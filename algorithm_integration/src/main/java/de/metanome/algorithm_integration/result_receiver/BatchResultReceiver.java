@@ -0,0 +1,63 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.result_receiver;
+
+import de.metanome.algorithm_integration.results.Result;
+
+import java.util.Collection;
+
+/**
+ * Receives results in batches. The columns of the compact batches are given by their ids as
+ * defined by {@link ColumnAcceptingResultReceiver}, so that the results do not have to be checked
+ * by their table and column names. Algorithms can use the {@link BatchResultReceiverAdapter} to
+ * send batches to receivers, which only receive single results.
+ */
+public interface BatchResultReceiver {
+
+  /**
+   * Receives the results of any type. If one of the results is not accepted, none of the results
+   * is received.
+   *
+   * @param results the results
+   * @throws CouldNotReceiveResultException if the results could not be received
+   * @throws ColumnNameMismatchException if the column names of a result do not match the column names of the input
+   */
+  void receiveResults(Collection<? extends Result> results)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException;
+
+  /**
+   * Receives functional dependencies, whose columns are given by their ids.
+   *
+   * @param determinants the column ids of the determinant of each functional dependency
+   * @param dependants   the column id of the dependant of each functional dependency
+   * @throws CouldNotReceiveResultException if the results could not be received or the numbers of
+   *                                        determinants and dependants differ
+   * @throws ColumnNameMismatchException if a column id is unknown
+   */
+  void receiveFunctionalDependencies(int[][] determinants, int[] dependants)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException;
+
+  /**
+   * Receives unique column combinations, whose columns are given by their ids.
+   *
+   * @param columnCombinations the column ids of each unique column combination
+   * @throws CouldNotReceiveResultException if the results could not be received
+   * @throws ColumnNameMismatchException if a column id is unknown
+   */
+  void receiveUniqueColumnCombinations(int[][] columnCombinations)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException;
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends batches of results one by one to a receiver, that does not receive batches itself. The
+ * column ids of the compact batches are resolved with the given columns.
+ */
+public class BatchResultReceiverAdapter implements BatchResultReceiver {
+
+  protected OmniscientResultReceiver resultReceiver;
+  protected List<ColumnIdentifier> columns;
+
+  /**
+   * @param resultReceiver the receiver of the single results
+   * @param columns        the columns, whose index is their id, or null if column ids are not
+   *                       supported
+   */
+  public BatchResultReceiverAdapter(OmniscientResultReceiver resultReceiver,
+                                    List<ColumnIdentifier> columns) {
+    this.resultReceiver = resultReceiver;
+    this.columns = columns;
+  }
+
+  /**
+   * Returns the given receiver, if it receives batches itself, and an adapter otherwise. The
+   * column ids of the adapter are the ids of the receiver, if it is a {@link
+   * ColumnAcceptingResultReceiver}.
+   *
+   * @param resultReceiver the result receiver
+   * @return a batch result receiver, that sends the results to the given receiver
+   */
+  public static BatchResultReceiver forReceiver(OmniscientResultReceiver resultReceiver) {
+    if (resultReceiver instanceof BatchResultReceiver) {
+      return (BatchResultReceiver) resultReceiver;
+    }
+    List<ColumnIdentifier> columns = null;
+    if (resultReceiver instanceof ColumnAcceptingResultReceiver) {
+      columns = ((ColumnAcceptingResultReceiver) resultReceiver).getAcceptedColumns();
+    }
+    return new BatchResultReceiverAdapter(resultReceiver, columns);
+  }
+
+  @Override
+  public void receiveResults(Collection<? extends Result> results)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    for (Result result : results) {
+      result.sendResultTo(this.resultReceiver);
+    }
+  }
+
+  @Override
+  public void receiveFunctionalDependencies(int[][] determinants, int[] dependants)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    checkFunctionalDependencies(determinants, dependants);
+    for (int i = 0; i < dependants.length; i++) {
+      this.resultReceiver.receiveResult(new FunctionalDependency(
+        new ColumnCombination(this.getColumns(determinants[i])), this.getColumn(dependants[i])));
+    }
+  }
+
+  @Override
+  public void receiveUniqueColumnCombinations(int[][] columnCombinations)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    for (int[] columnCombination : columnCombinations) {
+      this.resultReceiver.receiveResult(
+        new UniqueColumnCombination(this.getColumns(columnCombination)));
+    }
+  }
+
+  protected ColumnIdentifier[] getColumns(int[] columnIds) throws ColumnNameMismatchException {
+    return resolveColumns(this.columns, columnIds);
+  }
+
+  protected ColumnIdentifier getColumn(int columnId) throws ColumnNameMismatchException {
+    return resolveColumn(this.columns, columnId);
+  }
+
+  /**
+   * Checks, that a compact batch of functional dependencies has a determinant for every dependant.
+   *
+   * @param determinants the column ids of the determinant of each functional dependency
+   * @param dependants   the column id of the dependant of each functional dependency
+   * @throws CouldNotReceiveResultException if the numbers of determinants and dependants differ
+   */
+  public static void checkFunctionalDependencies(int[][] determinants, int[] dependants)
+    throws CouldNotReceiveResultException {
+    if (determinants.length != dependants.length) {
+      throw new CouldNotReceiveResultException("The number of determinants (" + determinants.length
+        + ") does not match the number of dependants (" + dependants.length + ")!");
+    }
+  }
+
+  /**
+   * Resolves the given column ids of a compact batch.
+   *
+   * @param columns   the columns, whose index is their id, or null if the columns are unknown
+   * @param columnIds the column ids
+   * @return the columns of the given ids
+   * @throws ColumnNameMismatchException if the columns are unknown or a column id is unknown
+   */
+  public static ColumnIdentifier[] resolveColumns(List<ColumnIdentifier> columns, int[] columnIds)
+    throws ColumnNameMismatchException {
+    ColumnIdentifier[] identifiers = new ColumnIdentifier[columnIds.length];
+    for (int i = 0; i < columnIds.length; i++) {
+      identifiers[i] = resolveColumn(columns, columnIds[i]);
+    }
+    return identifiers;
+  }
+
+  /**
+   * Resolves the given column id of a compact batch.
+   *
+   * @param columns  the columns, whose index is their id, or null if the columns are unknown
+   * @param columnId the column id
+   * @return the column of the given id
+   * @throws ColumnNameMismatchException if the columns are unknown or the column id is unknown
+   */
+  public static ColumnIdentifier resolveColumn(List<ColumnIdentifier> columns, int columnId)
+    throws ColumnNameMismatchException {
+    if (columns == null) {
+      throw new ColumnNameMismatchException("The columns of the column ids are unknown!");
+    }
+    if (columnId < 0 || columnId >= columns.size()) {
+      throw new ColumnNameMismatchException("The column id " + columnId + " is unknown!");
+    }
+    return columns.get(columnId);
+  }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+
+import java.util.List;
+
+/**
+ * A result receiver, which only accepts results on the columns of the profiled inputs. The id of a
+ * column is its index in the accepted columns. Algorithms can build their results from the column
+ * identifiers returned by {@link #getAcceptedColumn(int)}, which are accepted without comparing
+ * their table and column names.
+ */
+public interface ColumnAcceptingResultReceiver {
+
+  /**
+   * @return the accepted columns or null, if the receiver accepts all columns
+   */
+  List<ColumnIdentifier> getAcceptedColumns();
+
+  /**
+   * @param columnId the id of the column
+   * @return the accepted column with the given id or null, if the receiver accepts all columns
+   * @throws IndexOutOfBoundsException if there is no accepted column with the given id
+   */
+  ColumnIdentifier getAcceptedColumn(int columnId);
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.algorithm_integration.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link de.metanome.algorithm_integration.result_receiver.BatchResultReceiverAdapter}
+ */
+public class BatchResultReceiverAdapterTest {
+
+  protected OmniscientResultReceiver resultReceiver;
+  protected List<ColumnIdentifier> columns;
+  protected BatchResultReceiverAdapter adapter;
+
+  @Before
+  public void setUp() throws Exception {
+    resultReceiver = mock(OmniscientResultReceiver.class);
+    columns = new ArrayList<>();
+    columns.add(new ColumnIdentifier("table1", "column1"));
+    columns.add(new ColumnIdentifier("table1", "column2"));
+    columns.add(new ColumnIdentifier("table1", "column3"));
+    adapter = new BatchResultReceiverAdapter(resultReceiver, columns);
+  }
+
+  /**
+   * Test method for {@link BatchResultReceiverAdapter#receiveResults(java.util.Collection)}
+   * <p/>
+   * All results of the batch should be sent to the receiver.
+   */
+  @Test
+  public void testReceiveResults()
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    // Setup
+    FunctionalDependency fd = new FunctionalDependency(
+      new ColumnCombination(columns.get(0)), columns.get(1));
+    UniqueColumnCombination ucc = new UniqueColumnCombination(columns.get(2));
+
+    // Execute functionality
+    adapter.receiveResults(Arrays.asList(fd, ucc));
+
+    // Check result
+    verify(resultReceiver).receiveResult(fd);
+    verify(resultReceiver).receiveResult(ucc);
+  }
+
+  /**
+   * Test method for {@link BatchResultReceiverAdapter#receiveFunctionalDependencies(int[][],
+   * int[])} and {@link BatchResultReceiverAdapter#receiveUniqueColumnCombinations(int[][])}
+   * <p/>
+   * The column ids should be resolved with the columns of the adapter.
+   */
+  @Test
+  public void testReceiveColumnIds()
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    // Execute functionality
+    adapter.receiveFunctionalDependencies(new int[][]{{0, 1}}, new int[]{2});
+    adapter.receiveUniqueColumnCombinations(new int[][]{{1}, {0, 2}});
+
+    // Check result
+    verify(resultReceiver).receiveResult(new FunctionalDependency(
+      new ColumnCombination(columns.get(0), columns.get(1)), columns.get(2)));
+    verify(resultReceiver).receiveResult(new UniqueColumnCombination(columns.get(1)));
+    verify(resultReceiver).receiveResult(
+      new UniqueColumnCombination(columns.get(0), columns.get(2)));
+  }
+
+  /**
+   * Test method for {@link BatchResultReceiverAdapter#receiveFunctionalDependencies(int[][],
+   * int[])}
+   * <p/>
+   * Batches with more dependants than determinants should be rejected before any result is sent.
+   */
+  @Test
+  public void testReceiveFunctionalDependenciesLengthMismatch()
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    // Execute functionality
+    try {
+      adapter.receiveFunctionalDependencies(new int[][]{{0}}, new int[]{1, 2});
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException actualException) {
+      // Intentionally left blank
+    }
+
+    // Check result
+    verifyZeroInteractions(resultReceiver);
+  }
+
+  /**
+   * Test method for {@link BatchResultReceiverAdapter#receiveUniqueColumnCombinations(int[][])}
+   * <p/>
+   * Unknown column ids should be rejected.
+   */
+  @Test(expected = ColumnNameMismatchException.class)
+  public void testReceiveUnknownColumnId()
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    // Execute functionality
+    adapter.receiveUniqueColumnCombinations(new int[][]{{3}});
+  }
+
+  /**
+   * Test method for {@link BatchResultReceiverAdapter#forReceiver(OmniscientResultReceiver)}
+   */
+  @Test
+  public void testForReceiver() {
+    // Setup
+    BatchResultReceiver batchReceiver = mock(BatchAndOmniscientResultReceiver.class);
+
+    // Execute functionality
+    // Check result
+    assertSame(batchReceiver,
+      BatchResultReceiverAdapter.forReceiver((OmniscientResultReceiver) batchReceiver));
+    assertTrue(BatchResultReceiverAdapter.forReceiver(resultReceiver)
+      instanceof BatchResultReceiverAdapter);
+  }
+
+  protected interface BatchAndOmniscientResultReceiver
+    extends OmniscientResultReceiver, BatchResultReceiver {
+
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package de.metanome.backend.algorithm_execution;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.algorithm_execution.FileGenerator;
@@ -23,10 +24,12 @@ import de.metanome.algorithm_integration.input.*;
 import de.metanome.algorithm_integration.results.JsonConverter;
 import de.metanome.backend.algorithm_loading.InputDataFinder;
 import de.metanome.backend.helper.*;
+import de.metanome.backend.input.database.DefaultTableInputGenerator;
 import de.metanome.backend.input.file.DefaultFileInputGenerator;
 import de.metanome.backend.resources.AlgorithmResource;
-import de.metanome.backend.result_receiver.ResultCache;
-import de.metanome.backend.result_receiver.ResultCounter;
+import de.metanome.backend.result_receiver.ConcurrentResultCache;
+import de.metanome.backend.result_receiver.ConcurrentResultCounter;
+import de.metanome.backend.result_receiver.ConcurrentResultPrinter;
 import de.metanome.backend.result_receiver.ResultPrinter;
 import de.metanome.backend.result_receiver.ResultReceiver;
 import de.metanome.backend.results_db.ExecutionSetting;
@@ -38,14 +41,30 @@ import org.hibernate.Session;
 import org.hibernate.criterion.Restrictions;
 
 import java.io.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Takes care of executing algorithms with specified settings in a designated/separate process
  */
 public class AlgorithmExecution {
 
+  // Maximal number of file inputs, whose column names are cached
+  protected static final int MAX_CACHED_COLUMN_NAMES = 256;
+
+  // Column names of file inputs by input and modification time of the file; a worker process
+  // parses the header of a file only once for all executions on the file
+  private static final Map<String, List<ColumnIdentifier>> columnNamesCache =
+    new LinkedHashMap<String, List<ColumnIdentifier>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, List<ColumnIdentifier>> eldest) {
+        return size() > MAX_CACHED_COLUMN_NAMES;
+      }
+    };
+
   /**
    * Extract the column names from the input to forward them later on to the result receiver.
    *
@@ -55,56 +74,133 @@ public class AlgorithmExecution {
    * @throws InputGenerationException if no relational input could be generated
    */
   protected static List<ColumnIdentifier> extractColumnNames(List<Input> inputs) throws AlgorithmConfigurationException, InputGenerationException{
-    List<RelationalInputGenerator> inputGenerators = new ArrayList<>();
+    List<ColumnIdentifier> columnNames = null;
     for (Input input : inputs) {
-      if (input instanceof FileInput) {
-        File currFile = new File(input.getName());
-        if (currFile.isFile()) {
-          inputGenerators.add(InputToGeneratorConverter.convertInput(input));
-        } else if (currFile.isDirectory()) {
-          File[] filesInDirectory = currFile.listFiles(new FilenameFilter() {
-            @Override
-            public boolean accept(File file, String name) {
-              for (String fileEnding : InputDataFinder.ACCEPTED_FILE_ENDINGS) {
-                if (name.endsWith(fileEnding)) {
-                  return true;
-                }
+      List<ColumnIdentifier> inputColumnNames = extractColumnNames(input);
+      if (inputColumnNames != null) {
+        if (columnNames == null) {
+          columnNames = new ArrayList<>();
+        }
+        columnNames.addAll(inputColumnNames);
+      }
+    }
+
+    // if there is no input generator we can not extract any column names
+    // there is probably no input generator, because a database connection was used
+    return columnNames;
+  }
+
+  /**
+   * Extract the column names from a single input. The column names of file inputs are cached as
+   * long as the file is not modified.
+   *
+   * @param input the input
+   * @return a list of column names or null, if no relational input could be generated
+   * @throws AlgorithmConfigurationException if the input could not be converted into an input generator
+   * @throws InputGenerationException if no relational input could be generated
+   */
+  protected static List<ColumnIdentifier> extractColumnNames(Input input) throws AlgorithmConfigurationException, InputGenerationException {
+    String key = null;
+    if (input instanceof FileInput) {
+      try {
+        File file = new File(input.getName());
+        key = file.lastModified() + ":" + new JsonConverter<Input>().toJsonString(input);
+      } catch (JsonProcessingException e) {
+        // the column names are not cached
+      }
+      synchronized (columnNamesCache) {
+        List<ColumnIdentifier> columnNames = key == null ? null : columnNamesCache.get(key);
+        if (columnNames != null) {
+          return new ArrayList<>(columnNames);
+        }
+      }
+    }
+
+    List<RelationalInputGenerator> inputGenerators = new ArrayList<>();
+    if (input instanceof FileInput) {
+      File currFile = new File(input.getName());
+      if (currFile.isFile()) {
+        inputGenerators.add(InputToGeneratorConverter.convertInput(input));
+      } else if (currFile.isDirectory()) {
+        File[] filesInDirectory = currFile.listFiles(new FilenameFilter() {
+          @Override
+          public boolean accept(File file, String name) {
+            for (String fileEnding : InputDataFinder.ACCEPTED_FILE_ENDINGS) {
+              if (name.endsWith(fileEnding)) {
+                return true;
               }
-              return false;
-            }
-          });
-          for (File file : filesInDirectory) {
-            try {
-              inputGenerators.add(new DefaultFileInputGenerator(file, InputToGeneratorConverter.convertInputToSetting((FileInput) input)));
-            } catch (FileNotFoundException e) {
-              e.printStackTrace();
             }
+            return false;
+          }
+        });
+        for (File file : filesInDirectory) {
+          try {
+            inputGenerators.add(new DefaultFileInputGenerator(file, InputToGeneratorConverter.convertInputToSetting((FileInput) input)));
+          } catch (FileNotFoundException e) {
+            e.printStackTrace();
           }
-        }
-      } else {
-        RelationalInputGenerator relInpGen = InputToGeneratorConverter.convertInput(input);
-        if (relInpGen != null) {
-          inputGenerators.add(relInpGen);
         }
       }
+    } else {
+      RelationalInputGenerator relInpGen = InputToGeneratorConverter.convertInput(input);
+      if (relInpGen != null) {
+        inputGenerators.add(relInpGen);
+      }
     }
 
-    // if there is no input generator we can not extract any column names
-    // there is probably no input generator, because a database connection was used
     if (inputGenerators.isEmpty()) {
       return null;
     }
 
     List<ColumnIdentifier> columnNames = new ArrayList<>();
     for (RelationalInputGenerator inputGenerator : inputGenerators) {
-      RelationalInput input = inputGenerator.generateNewCopy();
+      columnNames.addAll(readColumnNames(inputGenerator));
+    }
 
-      String tableName = input.relationName();
-      for (String columnName : input.columnNames()) {
-        columnNames.add(new ColumnIdentifier(tableName, columnName));
+    if (key != null) {
+      synchronized (columnNamesCache) {
+        columnNamesCache.put(key, new ArrayList<>(columnNames));
       }
     }
+    return columnNames;
+  }
 
+  /**
+   * Reads the column names of the input of the given generator. The input is closed afterwards and
+   * so is the connection of a table input, because a reused worker process would otherwise keep a
+   * file channel or a database cursor and connection open for every execution.
+   *
+   * @param inputGenerator the generator of the input
+   * @return the column identifiers of the input
+   * @throws AlgorithmConfigurationException if the input could not be configured
+   * @throws InputGenerationException if no relational input could be generated
+   */
+  protected static List<ColumnIdentifier> readColumnNames(RelationalInputGenerator inputGenerator)
+    throws AlgorithmConfigurationException, InputGenerationException {
+    List<ColumnIdentifier> columnNames = new ArrayList<>();
+    try {
+      RelationalInput relationalInput = inputGenerator.generateNewCopy();
+      try {
+        String tableName = relationalInput.relationName();
+        for (String columnName : relationalInput.columnNames()) {
+          columnNames.add(new ColumnIdentifier(tableName, columnName));
+        }
+      } finally {
+        try {
+          relationalInput.close();
+        } catch (Exception e) {
+          e.printStackTrace();
+        }
+      }
+    } finally {
+      if (inputGenerator instanceof DefaultTableInputGenerator) {
+        try {
+          ((DefaultTableInputGenerator) inputGenerator).getDefaultDatabaseConnectionGenerator().close();
+        } catch (SQLException e) {
+          e.printStackTrace();
+        }
+      }
+    }
     return columnNames;
   }
 
@@ -125,11 +221,14 @@ public class AlgorithmExecution {
 
     ResultReceiver resultReceiver;
     if (executionSetting.getCacheResults()) {
-      resultReceiver = new ResultCache(identifier, acceptedColumns);
+      resultReceiver = new ConcurrentResultCache(identifier, acceptedColumns);
     } else if (executionSetting.getCountResults()) {
-      resultReceiver = new ResultCounter(identifier);
+      resultReceiver = new ConcurrentResultCounter(identifier);
     } else {
-      resultReceiver = new ResultPrinter(identifier, acceptedColumns);
+      ConcurrentResultPrinter resultPrinter = new ConcurrentResultPrinter(identifier, acceptedColumns);
+      resultPrinter.setBinaryFormat(Boolean.getBoolean(ResultPrinter.BINARY_FORMAT_PROPERTY),
+        Boolean.parseBoolean(System.getProperty(ResultPrinter.COMPRESS_BINARY_FORMAT_PROPERTY, "true")));
+      resultReceiver = resultPrinter;
     }
 
     AlgorithmExecutor executor =
@@ -186,16 +285,14 @@ public class AlgorithmExecution {
   }
 
   /**
-   * Uses Algorithm and Execution Identifier (parsed from args[]) to load instances of Algorithm and
-   * ExecutionSetting from the database, which are then used to execute the specified Algorithm with
-   * the specified setting in the designated process
+   * Loads the algorithm and the execution setting with the given identifier from the database and
+   * executes the algorithm with the setting.
    *
-   * @param args the program parameters
+   * @param algorithmId         the id of the algorithm
+   * @param executionIdentifier the identifier of the execution setting
+   * @throws Exception if the algorithm could not be executed
    */
-  public static void main(String args[]) {
-    Long algorithmId = Long.valueOf(args[0]);
-    String executionIdentifier = args[1];
-
+  public static void execute(long algorithmId, String executionIdentifier) throws Exception {
     // Get the algorithm object
     AlgorithmResource algorithmResource = new AlgorithmResource();
     de.metanome.backend.results_db.Algorithm algorithm = algorithmResource.get(algorithmId);
@@ -212,17 +309,33 @@ public class AlgorithmExecution {
 
     session.close();
 
-    try {
-      // Extract column names from the inputs
-      List<ColumnIdentifier> columnNames = extractColumnNames(inputs);
+    // Extract column names from the inputs
+    List<ColumnIdentifier> columnNames = extractColumnNames(inputs);
 
-      // Get the algorithm executor
-      AlgorithmExecutor executor = buildExecutor(executionSetting, columnNames);
+    // Get the algorithm executor
+    AlgorithmExecutor executor = buildExecutor(executionSetting, columnNames);
+    try {
       executor
         .executeAlgorithm(algorithm, parameters, inputs, executionIdentifier,
           executionSetting);
-
+    } finally {
       executor.close();
+    }
+  }
+
+  /**
+   * Uses Algorithm and Execution Identifier (parsed from args[]) to load instances of Algorithm and
+   * ExecutionSetting from the database, which are then used to execute the specified Algorithm with
+   * the specified setting in the designated process
+   *
+   * @param args the program parameters
+   */
+  public static void main(String args[]) {
+    Long algorithmId = Long.valueOf(args[0]);
+    String executionIdentifier = args[1];
+
+    try {
+      execute(algorithmId, executionIdentifier);
     } catch (Exception e) {
       e.printStackTrace();
       System.exit(1);
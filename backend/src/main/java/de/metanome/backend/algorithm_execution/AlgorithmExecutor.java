@@ -17,7 +17,9 @@ package de.metanome.backend.algorithm_execution;
 
 import de.metanome.algorithm_integration.Algorithm;
 import de.metanome.algorithm_integration.AlgorithmExecutionException;
+import de.metanome.algorithm_integration.algorithm_execution.DisabledMetricsRecorder;
 import de.metanome.algorithm_integration.algorithm_execution.FileGenerator;
+import de.metanome.algorithm_integration.algorithm_execution.MetricsRecorder;
 import de.metanome.algorithm_integration.algorithm_types.*;
 import de.metanome.algorithm_integration.configuration.ConfigurationValue;
 import de.metanome.backend.algorithm_loading.AlgorithmAnalyzer;
@@ -39,6 +41,7 @@ public class AlgorithmExecutor implements Closeable {
   protected CloseableOmniscientResultReceiver resultReceiver;
   protected FileGenerator fileGenerator;
   protected String resultPathPrefix;
+  protected boolean closed = false;
 
   /**
    * Constructs a new executor with new result receivers and generators.
@@ -54,8 +57,10 @@ public class AlgorithmExecutor implements Closeable {
 
   /**
    * Executes an algorithm. The algorithm is loaded from the jar, configured and all receivers and
-   * generators are set before execution. The execution containing the elapsed time while executing
-   * the algorithm in nano seconds is returned.
+   * generators are set before execution. The result receivers are closed after the execution. The
+   * execution containing the elapsed time while executing the algorithm in nano seconds, the
+   * resource usage sampled while executing the algorithm and closing the receivers, and the metrics
+   * recorded by the algorithm is returned.
    *
    * @param storedAlgorithm     the algorithm
    * @param parameters          parameters for algorithm execution
@@ -142,14 +147,32 @@ public class AlgorithmExecutor implements Closeable {
       tempFileAlgorithm.setTempFileGenerator(fileGenerator);
     }
 
+    MetricsRecorder metricsRecorder = DisabledMetricsRecorder.INSTANCE;
+    if (analyzer.hasType(AlgorithmType.METRICS)) {
+      metricsRecorder = DefaultMetricsRecorder.create();
+      MetricsAlgorithm metricsAlgorithm = (MetricsAlgorithm) algorithm;
+      metricsAlgorithm.setMetricsRecorder(metricsRecorder);
+    }
+
+    ResourceSampler sampler = ResourceSampler.create();
     long beforeWallClockTime = new Date().getTime(); // milliseconds
     long before = System.nanoTime(); // nanoseconds
+    sampler.start();
+    List<ExecutionSample> samples;
+    long after;
     try {
-      algorithm.execute();
-    } catch (Throwable e) {
-      throw new AlgorithmExecutionException("Algorithm execution failed.", e);
+      try {
+        algorithm.execute();
+      } catch (Throwable e) {
+        throw new AlgorithmExecutionException("Algorithm execution failed.", e);
+      }
+      after = System.nanoTime(); // nanoseconds
+      // The receivers flush, spill and rename their result files on close, so the sampled I/O
+      // includes writing the results.
+      close();
+    } finally {
+      samples = sampler.stop();
     }
-    long after = System.nanoTime(); // nanoseconds
     long executionTimeInNanos = after - before;
     long executionTimeInMs = executionTimeInNanos / 1000000; // milliseconds
 
@@ -163,6 +186,14 @@ public class AlgorithmExecutor implements Closeable {
     for (Result result : results) {
       result.setExecution(execution);
     }
+    for (ExecutionSample sample : samples) {
+      execution.addSample(sample);
+    }
+    if (metricsRecorder instanceof DefaultMetricsRecorder) {
+      for (ExecutionMetric metric : ((DefaultMetricsRecorder) metricsRecorder).getMetrics()) {
+        execution.addMetric(metric);
+      }
+    }
 
     // Set the settings to the execution and store it
     execution.setExecutionSetting(executionSetting);
@@ -175,8 +206,17 @@ public class AlgorithmExecutor implements Closeable {
     this.resultPathPrefix = prefix;
   }
 
+  /**
+   * Closes the result receivers, if they are not closed yet.
+   *
+   * @throws IOException if a receiver could not be closed
+   */
   @Override
   public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
     resultReceiver.close();
   }
 
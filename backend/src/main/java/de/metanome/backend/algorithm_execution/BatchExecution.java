@@ -0,0 +1,265 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes a matrix of algorithms, inputs and parameter sets. The runs of the batch are submitted
+ * to the {@link ExecutionScheduler} in order, but at most the given number of runs of the batch
+ * are submitted at the same time, so that a batch does not take over the whole scheduler. The
+ * batch serves as consolidated timing report of all its runs.
+ */
+public class BatchExecution {
+
+  protected String identifier;
+  protected int parallelism;
+  protected List<BatchRun> runs;
+  protected long beginTime;
+  protected long endTime;
+  protected int finishedRuns;
+  protected boolean stopRequested;
+
+  protected ExecutorService threads;
+
+  /**
+   * @param identifier  the identifier of the batch
+   * @param runs        the runs of the batch in execution order
+   * @param parallelism the maximal number of concurrently submitted runs
+   */
+  public BatchExecution(String identifier, List<BatchRun> runs, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism of a batch has to be positive.");
+    }
+    this.identifier = identifier;
+    this.runs = Collections.unmodifiableList(new ArrayList<>(runs));
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Submits the runs of the batch to the given scheduler and returns at once.
+   *
+   * @param scheduler the scheduler executing the runs
+   * @return the batch
+   */
+  public synchronized BatchExecution start(final ExecutionScheduler scheduler) {
+    if (this.threads != null) {
+      throw new IllegalStateException("The batch " + this.identifier + " was started already.");
+    }
+    this.beginTime = System.currentTimeMillis();
+    this.threads = Executors.newFixedThreadPool(this.parallelism, new ThreadFactoryBuilder()
+      .setDaemon(true).setNameFormat("batch-" + this.identifier + "-%d").build());
+    for (final BatchRun run : this.runs) {
+      this.threads.execute(new Runnable() {
+        @Override
+        public void run() {
+          execute(run, scheduler);
+        }
+      });
+    }
+    this.threads.shutdown();
+    if (this.runs.isEmpty()) {
+      this.endTime = this.beginTime;
+    }
+    return this;
+  }
+
+  /**
+   * Submits a single run to the scheduler and waits for it to finish.
+   *
+   * @param run       the run
+   * @param scheduler the scheduler executing the run
+   */
+  protected void execute(BatchRun run, ExecutionScheduler scheduler) {
+    try {
+      ExecutionJob job;
+      synchronized (this) {
+        if (this.stopRequested) {
+          run.finish(ExecutionJob.Status.STOPPED, "The batch was stopped.");
+          return;
+        }
+        job = run.createJob();
+      }
+      try {
+        scheduler.submit(job);
+      } catch (IllegalArgumentException e) {
+        run.finish(ExecutionJob.Status.FAILED, e.getMessage());
+        return;
+      }
+      synchronized (this) {
+        // the batch might have been stopped, before the job was known to the scheduler
+        if (this.stopRequested) {
+          scheduler.stop(job.getIdentifier());
+        }
+      }
+      job.awaitCompletion();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      finishRun();
+    }
+  }
+
+  protected synchronized void finishRun() {
+    this.finishedRuns++;
+    if (this.finishedRuns == this.runs.size()) {
+      this.endTime = System.currentTimeMillis();
+    }
+    notifyAll();
+  }
+
+  /**
+   * Stops the batch. Runs, that are not submitted yet, are skipped and the submitted runs are
+   * stopped.
+   *
+   * @param scheduler the scheduler executing the runs
+   */
+  public synchronized void stop(ExecutionScheduler scheduler) {
+    this.stopRequested = true;
+    for (BatchRun run : this.runs) {
+      ExecutionJob job = run.getJob();
+      if (job != null) {
+        scheduler.stop(job.getIdentifier());
+      }
+    }
+  }
+
+  /**
+   * Waits until all runs of the batch are finished, failed or stopped.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized void awaitCompletion() throws InterruptedException {
+    while (!isDone()) {
+      wait();
+    }
+  }
+
+  public synchronized boolean isDone() {
+    return this.finishedRuns == this.runs.size();
+  }
+
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public List<BatchRun> getRuns() {
+    return runs;
+  }
+
+  public synchronized long getBeginTime() {
+    return beginTime;
+  }
+
+  public synchronized long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * @return the time in milliseconds from the start of the batch until its end or until now, if it
+   * is not done yet
+   */
+  public synchronized long getWallClockTime() {
+    if (this.beginTime == 0) {
+      return 0;
+    }
+    return (this.endTime > 0 ? this.endTime : System.currentTimeMillis()) - this.beginTime;
+  }
+
+  /**
+   * @return the summed execution time of all runs in milliseconds
+   */
+  public long getSummedExecutionTime() {
+    long time = 0;
+    for (BatchRun run : this.runs) {
+      time += run.getExecutionTime();
+    }
+    return time;
+  }
+
+  public int getNumberOfRuns() {
+    return this.runs.size();
+  }
+
+  public int getNumberOfFinishedRuns() {
+    return countRuns(ExecutionJob.Status.FINISHED);
+  }
+
+  public int getNumberOfFailedRuns() {
+    return countRuns(ExecutionJob.Status.FAILED);
+  }
+
+  public int getNumberOfStoppedRuns() {
+    return countRuns(ExecutionJob.Status.STOPPED);
+  }
+
+  protected int countRuns(ExecutionJob.Status status) {
+    int count = 0;
+    for (BatchRun run : this.runs) {
+      if (run.getStatus() == status) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the timing report of the batch with one line per run
+   */
+  @JsonIgnore
+  public String getCsvReport() {
+    StringBuilder report = new StringBuilder();
+    report.append("execution_identifier,algorithm_id,input,parameter_set,status,execution_id,")
+      .append("queue_ms,execution_ms,algorithm_ms,post_processing_ms,total_ms\n");
+    for (BatchRun run : this.runs) {
+      Long executionId = run.getExecutionId();
+      report.append(escape(run.getExecutionIdentifier())).append(',')
+        .append(run.getAlgorithmId()).append(',')
+        .append(escape(run.getInputName())).append(',')
+        .append(run.getParameterSet()).append(',')
+        .append(run.getStatus()).append(',')
+        .append(executionId == null ? "" : executionId).append(',')
+        .append(run.getQueueTime()).append(',')
+        .append(run.getExecutionTime()).append(',')
+        .append(run.getAlgorithmTime()).append(',')
+        .append(run.getPostProcessingTime()).append(',')
+        .append(run.getTotalTime()).append('\n');
+    }
+    return report.toString();
+  }
+
+  protected static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.metanome.backend.results_db.Execution;
+import de.metanome.backend.results_db.ExecutionSetting;
+
+/**
+ * A single combination of algorithm, input and parameter set of a {@link BatchExecution}. The job
+ * of the run is created, when the batch submits the run to the scheduler.
+ */
+public class BatchRun {
+
+  protected long algorithmId;
+  protected String inputName;
+  protected int parameterSet;
+  protected String memory;
+  protected ExecutionSetting executionSetting;
+  protected ExecutionJob job;
+  protected ExecutionJob.Status status = ExecutionJob.Status.QUEUED;
+  protected String message;
+
+  /**
+   * @param algorithmId      the id of the algorithm to execute
+   * @param inputName        the name of the input the algorithm is executed on
+   * @param parameterSet     the index of the parameter set in the batch
+   * @param memory           the maximal heap size of the execution in MB or an empty string for
+   *                         the default heap size
+   * @param executionSetting the stored setting of the execution
+   */
+  public BatchRun(long algorithmId, String inputName, int parameterSet, String memory,
+                  ExecutionSetting executionSetting) {
+    this.algorithmId = algorithmId;
+    this.inputName = inputName;
+    this.parameterSet = parameterSet;
+    this.memory = memory;
+    this.executionSetting = executionSetting;
+  }
+
+  /**
+   * @return a new job executing the run
+   */
+  protected synchronized ExecutionJob createJob() {
+    this.job = new ExecutionJob(this.algorithmId, this.executionSetting.getExecutionIdentifier(),
+      this.memory, this.executionSetting);
+    return this.job;
+  }
+
+  /**
+   * Marks a run, that was not submitted to the scheduler, as finished.
+   *
+   * @param status  the final status of the run
+   * @param message the reason
+   */
+  protected synchronized void finish(ExecutionJob.Status status, String message) {
+    this.job = null;
+    this.status = status;
+    this.message = message;
+  }
+
+  public long getAlgorithmId() {
+    return algorithmId;
+  }
+
+  public String getInputName() {
+    return inputName;
+  }
+
+  public int getParameterSet() {
+    return parameterSet;
+  }
+
+  public String getExecutionIdentifier() {
+    return executionSetting.getExecutionIdentifier();
+  }
+
+  @JsonIgnore
+  public synchronized ExecutionJob getJob() {
+    return job;
+  }
+
+  public synchronized ExecutionJob.Status getStatus() {
+    return job == null ? status : job.getStatus();
+  }
+
+  public synchronized String getMessage() {
+    return job == null ? message : job.getMessage();
+  }
+
+  /**
+   * @return the id of the stored execution or null, if the execution is not stored yet
+   */
+  public synchronized Long getExecutionId() {
+    return job == null ? null : job.getExecutionId();
+  }
+
+  /**
+   * @return the time in milliseconds the run waited in the queue of the scheduler
+   */
+  public synchronized long getQueueTime() {
+    if (job == null || job.getStartTime() == 0) {
+      return 0;
+    }
+    return job.getStartTime() - job.getSubmitTime();
+  }
+
+  /**
+   * @return the time in milliseconds from the start of the execution process until the result post
+   * processing started or the run ended
+   */
+  public synchronized long getExecutionTime() {
+    if (job == null || job.getStartTime() == 0) {
+      return 0;
+    }
+    long end = job.getPostProcessingTime() > 0 ? job.getPostProcessingTime() : job.getEndTime();
+    return end == 0 ? 0 : end - job.getStartTime();
+  }
+
+  /**
+   * @return the time in milliseconds the algorithm itself took as measured by the execution
+   * process
+   */
+  public synchronized long getAlgorithmTime() {
+    Execution execution = job == null ? null : job.getExecution();
+    if (execution == null || execution.getEnd() == 0) {
+      return 0;
+    }
+    return execution.getEnd() - execution.getBegin();
+  }
+
+  /**
+   * @return the time in milliseconds the result post processing took
+   */
+  public synchronized long getPostProcessingTime() {
+    if (job == null || job.getPostProcessingTime() == 0 || job.getEndTime() == 0) {
+      return 0;
+    }
+    return job.getEndTime() - job.getPostProcessingTime();
+  }
+
+  /**
+   * @return the time in milliseconds from the submission of the run until its end
+   */
+  public synchronized long getTotalTime() {
+    if (job == null || job.getEndTime() == 0) {
+      return 0;
+    }
+    return job.getEndTime() - job.getSubmitTime();
+  }
+
+}
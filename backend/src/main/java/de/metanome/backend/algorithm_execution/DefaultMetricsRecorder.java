@@ -0,0 +1,208 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.algorithm_integration.algorithm_execution.DisabledMetricsRecorder;
+import de.metanome.algorithm_integration.algorithm_execution.MetricsRecorder;
+import de.metanome.backend.results_db.ExecutionMetric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the metrics of an algorithm execution by name. The recorder is thread safe, so that
+ * parallel algorithms can share it. The metrics are kept in concurrent maps and every metric is
+ * updated with atomic operations, so that threads recording different or even the same metrics do
+ * not block each other.
+ */
+public class DefaultMetricsRecorder implements MetricsRecorder {
+
+  // System property to disable the metrics of the algorithms
+  public static final String ENABLED_PROPERTY = "metanome.metrics";
+
+  protected final long startTime;
+  protected final Map<ExecutionMetric.Type, ConcurrentMap<String, Aggregate>> metrics =
+    new EnumMap<>(ExecutionMetric.Type.class);
+
+  public DefaultMetricsRecorder() {
+    this.startTime = System.nanoTime();
+    for (ExecutionMetric.Type type : ExecutionMetric.Type.values()) {
+      this.metrics.put(type, new ConcurrentHashMap<String, Aggregate>());
+    }
+  }
+
+  /**
+   * @return a new recorder or the {@link DisabledMetricsRecorder}, if the {@link #ENABLED_PROPERTY}
+   * is false
+   */
+  public static MetricsRecorder create() {
+    String enabled = System.getProperty(ENABLED_PROPERTY, "true");
+    if (!Boolean.parseBoolean(enabled)) {
+      return DisabledMetricsRecorder.INSTANCE;
+    }
+    return new DefaultMetricsRecorder();
+  }
+
+  @Override
+  public Phase startPhase(final String name) {
+    final long start = System.nanoTime();
+    return new Phase() {
+      @Override
+      public void close() {
+        endPhase(name, start, System.nanoTime());
+      }
+    };
+  }
+
+  protected void endPhase(String name, long start, long end) {
+    Aggregate metric = getMetric(ExecutionMetric.Type.PHASE, name, start);
+    long duration = end - start;
+    metric.occurrences.incrementAndGet();
+    metric.total.addAndGet(duration);
+    updateMaximum(metric.peak, duration);
+  }
+
+  @Override
+  public void increment(String name, long delta) {
+    Aggregate metric = getMetric(ExecutionMetric.Type.COUNTER, name, System.nanoTime());
+    metric.occurrences.incrementAndGet();
+    updateMaximum(metric.peak, metric.total.addAndGet(delta));
+  }
+
+  @Override
+  public void gauge(String name, double value) {
+    Aggregate metric = getMetric(ExecutionMetric.Type.GAUGE, name, System.nanoTime());
+    metric.occurrences.incrementAndGet();
+    metric.total.set(Double.doubleToLongBits(value));
+    while (true) {
+      long peak = metric.peak.get();
+      if (Double.longBitsToDouble(peak) >= value
+        || metric.peak.compareAndSet(peak, Double.doubleToLongBits(value))) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * @return the recorded metrics in the order of their first occurrence
+   */
+  public List<ExecutionMetric> getMetrics() {
+    List<ExecutionMetric> result = new ArrayList<>();
+    for (Map<String, Aggregate> metricsOfType : this.metrics.values()) {
+      for (Aggregate metric : metricsOfType.values()) {
+        result.add(metric.toExecutionMetric());
+      }
+    }
+    Collections.sort(result, new Comparator<ExecutionMetric>() {
+      @Override
+      public int compare(ExecutionMetric first, ExecutionMetric second) {
+        return Long.compare(first.getFirstOccurrence(), second.getFirstOccurrence());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @param type the type of the metric
+   * @param name the name of the metric
+   * @param time the time of the occurrence in nanoseconds
+   * @return the metric of the given type with the given name, it is created on its first
+   * occurrence
+   */
+  protected Aggregate getMetric(ExecutionMetric.Type type, String name, long time) {
+    ConcurrentMap<String, Aggregate> metricsOfType = this.metrics.get(type);
+    Aggregate metric = metricsOfType.get(name);
+    if (metric == null) {
+      Aggregate newMetric =
+        new Aggregate(type, name, Math.max(time - this.startTime, 0) / 1000000);
+      metric = metricsOfType.putIfAbsent(name, newMetric);
+      if (metric == null) {
+        metric = newMetric;
+      }
+    }
+    return metric;
+  }
+
+  /**
+   * Sets the given maximum to the given value, if the value is larger.
+   */
+  protected static void updateMaximum(AtomicLong maximum, long value) {
+    while (true) {
+      long current = maximum.get();
+      if (current >= value || maximum.compareAndSet(current, value)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * The values of a metric while it is recorded. Phases hold their durations in nanoseconds,
+   * counters their value and maximal value, gauges the bits of their last and maximal value.
+   */
+  protected static class Aggregate {
+
+    protected final ExecutionMetric.Type type;
+    protected final String name;
+    protected final long firstOccurrence;
+    protected final AtomicLong occurrences = new AtomicLong();
+    protected final AtomicLong total = new AtomicLong();
+    protected final AtomicLong peak;
+
+    protected Aggregate(ExecutionMetric.Type type, String name, long firstOccurrence) {
+      this.type = type;
+      this.name = name;
+      this.firstOccurrence = firstOccurrence;
+      switch (type) {
+        case COUNTER:
+          this.peak = new AtomicLong(Long.MIN_VALUE);
+          break;
+        case GAUGE:
+          this.peak = new AtomicLong(Double.doubleToLongBits(Double.NEGATIVE_INFINITY));
+          break;
+        default:
+          this.peak = new AtomicLong();
+      }
+    }
+
+    protected ExecutionMetric toExecutionMetric() {
+      ExecutionMetric metric = new ExecutionMetric(type, name)
+        .setFirstOccurrence(firstOccurrence)
+        .setOccurrences(occurrences.get());
+      switch (type) {
+        case PHASE:
+          return metric.setTotal(total.get() / 1000000.0).setPeak(peak.get() / 1000000.0);
+        case COUNTER:
+          return metric.setTotal(total.get()).setPeak(Math.max(peak.get(), total.get()));
+        default:
+          return metric.setTotal(Double.longBitsToDouble(total.get()))
+            .setPeak(Double.longBitsToDouble(peak.get()));
+      }
+    }
+  }
+
+}
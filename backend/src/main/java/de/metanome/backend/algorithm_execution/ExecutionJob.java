@@ -0,0 +1,216 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.metanome.backend.results_db.Execution;
+import de.metanome.backend.results_db.ExecutionSetting;
+
+/**
+ * An algorithm execution, that is submitted to the {@link ExecutionScheduler}. Clients poll the
+ * status of the job or wait for its next change with {@link #awaitChange(int, long)}. Every change
+ * increments the version of the job.
+ */
+public class ExecutionJob {
+
+  /**
+   * The states of a job. A job is queued until the scheduler has resources for it, runs the
+   * algorithm and post processes the results afterwards.
+   */
+  public enum Status {
+    QUEUED, RUNNING, POST_PROCESSING, FINISHED, FAILED, STOPPED;
+
+    public boolean isDone() {
+      return this == FINISHED || this == FAILED || this == STOPPED;
+    }
+  }
+
+  protected String identifier;
+  protected long algorithmId;
+  protected String memory;
+  protected ExecutionSetting executionSetting;
+  protected Status status = Status.QUEUED;
+  protected String message;
+  protected Execution execution;
+  protected long submitTime;
+  protected long startTime;
+  protected long postProcessingTime;
+  protected long endTime;
+  protected int version;
+  protected Process process;
+  protected boolean stopRequested;
+
+  /**
+   * @param algorithmId      the id of the algorithm to execute
+   * @param identifier       the identifier of the execution
+   * @param memory           the maximal heap size of the execution in MB or an empty string for
+   *                         the default heap size
+   * @param executionSetting the stored setting of the execution
+   */
+  public ExecutionJob(long algorithmId, String identifier, String memory,
+                      ExecutionSetting executionSetting) {
+    this.algorithmId = algorithmId;
+    this.identifier = identifier;
+    this.memory = memory == null ? "" : memory;
+    this.executionSetting = executionSetting;
+    this.submitTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Waits until the version of the job differs from the given version or the timeout elapsed.
+   *
+   * @param version the version of the job the client knows
+   * @param timeout the maximal time to wait in milliseconds
+   * @return the job
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized ExecutionJob awaitChange(int version, long timeout)
+    throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeout;
+    long remaining = timeout;
+    while (this.version == version && remaining > 0) {
+      wait(remaining);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return this;
+  }
+
+  /**
+   * Waits until the job is finished, failed or stopped.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized void awaitCompletion() throws InterruptedException {
+    while (!this.status.isDone()) {
+      wait();
+    }
+  }
+
+  /**
+   * Stops the job. A running process is destroyed, a process, that is started afterwards, is
+   * destroyed on start.
+   */
+  public synchronized void stop() {
+    this.stopRequested = true;
+    if (this.process != null) {
+      this.process.destroy();
+    }
+  }
+
+  protected synchronized void setStatus(Status status, String message) {
+    this.status = status;
+    this.message = message;
+    if (status == Status.RUNNING) {
+      this.startTime = System.currentTimeMillis();
+    } else if (status == Status.POST_PROCESSING) {
+      this.postProcessingTime = System.currentTimeMillis();
+    } else if (status.isDone()) {
+      this.endTime = System.currentTimeMillis();
+    }
+    this.version++;
+    notifyAll();
+  }
+
+  public synchronized String getIdentifier() {
+    return identifier;
+  }
+
+  public synchronized long getAlgorithmId() {
+    return algorithmId;
+  }
+
+  public synchronized String getMemory() {
+    return memory;
+  }
+
+  /**
+   * @return the maximal heap size of the execution in MB or 0, if the default heap size is used
+   */
+  @JsonIgnore
+  public synchronized int getMemoryInMegaBytes() {
+    return this.memory.isEmpty() ? 0 : Integer.parseInt(this.memory);
+  }
+
+  public synchronized Status getStatus() {
+    return status;
+  }
+
+  public synchronized String getMessage() {
+    return message;
+  }
+
+  /**
+   * @return the id of the stored execution or null, if the execution is not stored yet
+   */
+  public synchronized Long getExecutionId() {
+    return execution == null ? null : execution.getId();
+  }
+
+  public synchronized long getSubmitTime() {
+    return submitTime;
+  }
+
+  public synchronized long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * @return the time the result post processing started or 0, if it did not start yet
+   */
+  public synchronized long getPostProcessingTime() {
+    return postProcessingTime;
+  }
+
+  public synchronized long getEndTime() {
+    return endTime;
+  }
+
+  public synchronized int getVersion() {
+    return version;
+  }
+
+  @JsonIgnore
+  public synchronized ExecutionSetting getExecutionSetting() {
+    return executionSetting;
+  }
+
+  @JsonIgnore
+  public synchronized Execution getExecution() {
+    return execution;
+  }
+
+  public synchronized void setExecution(Execution execution) {
+    this.execution = execution;
+  }
+
+  @JsonIgnore
+  public synchronized boolean isStopRequested() {
+    return stopRequested;
+  }
+
+  /**
+   * Sets the process executing the job. If the job is stopped already, the process is destroyed.
+   *
+   * @param process the process or null, if the process terminated
+   */
+  public synchronized void setProcess(Process process) {
+    this.process = process;
+    if (process != null && this.stopRequested) {
+      process.destroy();
+    }
+  }
+
+}
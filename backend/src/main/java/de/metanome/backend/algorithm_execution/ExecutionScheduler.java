@@ -0,0 +1,321 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Schedules submitted {@link ExecutionJob}s in submission order. The number of concurrently running
+ * executions is bounded by the number of cores and the summed heap size of the running executions
+ * by a memory budget. A job, that exceeds the budget on its own, runs as soon as no other job is
+ * running. After the algorithm execution stage, the slot of the job is released and its results
+ * are post processed by a separate stage with its own threads.
+ */
+public class ExecutionScheduler {
+
+  // Heap size assumed for executions without a memory setting in MB
+  public static final int DEFAULT_EXECUTION_MEMORY = 1024;
+  public static final int DEFAULT_POST_PROCESSING_THREADS = 1;
+  // Number of finished jobs, whose status is kept for polling clients
+  public static final int MAX_FINISHED_JOBS = 100;
+
+  private static ExecutionScheduler instance;
+
+  protected final int maxConcurrentExecutions;
+  protected final long memoryBudget;
+  protected final ExecutionStage executionStage;
+  protected final ExecutionStage postProcessingStage;
+
+  protected final Map<String, ExecutionJob> jobs = new LinkedHashMap<>();
+  protected final Deque<ExecutionJob> queue = new ArrayDeque<>();
+  protected int runningExecutions = 0;
+  protected long usedMemory = 0L;
+
+  protected final ExecutorService executionThreads;
+  protected final ExecutorService postProcessingThreads;
+
+  /**
+   * @param executionStage          the stage executing the algorithm
+   * @param postProcessingStage     the stage post processing the results
+   * @param maxConcurrentExecutions the maximal number of concurrently running executions
+   * @param memoryBudget            the maximal summed heap size of all running executions in MB
+   */
+  public ExecutionScheduler(ExecutionStage executionStage, ExecutionStage postProcessingStage,
+                            int maxConcurrentExecutions, long memoryBudget) {
+    if (maxConcurrentExecutions < 1 || memoryBudget < 1) {
+      throw new IllegalArgumentException(
+        "The number of executions and the memory budget have to be positive.");
+    }
+    this.executionStage = executionStage;
+    this.postProcessingStage = postProcessingStage;
+    this.maxConcurrentExecutions = maxConcurrentExecutions;
+    this.memoryBudget = memoryBudget;
+    this.executionThreads = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("execution-%d").build());
+    this.postProcessingThreads = Executors.newFixedThreadPool(DEFAULT_POST_PROCESSING_THREADS,
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("post-processing-%d").build());
+  }
+
+  /**
+   * @return the scheduler of the backend, which executes the algorithms on warm worker processes
+   * (or a new process per execution, if the {@link WorkerPool#WORKERS_PROPERTY} is 0) and runs as
+   * many executions as cores are available within the physical memory. The worker processes are
+   * started with the first execution.
+   */
+  public static synchronized ExecutionScheduler getInstance() {
+    if (instance == null) {
+      int workers = Integer.getInteger(WorkerPool.WORKERS_PROPERTY, WorkerPool.DEFAULT_WORKERS);
+      ExecutionStage executionStage = new ProcessExecutionStage();
+      if (workers > 0) {
+        WorkerPool workerPool = new WorkerPool(ExecutionWorker.class.getName(), workers,
+          Integer.getInteger(WorkerPool.MAX_RUNS_PROPERTY, WorkerPool.DEFAULT_MAX_RUNS));
+        executionStage = new WorkerExecutionStage(workerPool);
+      }
+      instance = new ExecutionScheduler(executionStage, new PostProcessingStage(),
+        Runtime.getRuntime().availableProcessors(), getPhysicalMemory());
+    }
+    return instance;
+  }
+
+  /**
+   * Shuts the scheduler of the backend down, if it was created.
+   */
+  public static synchronized void shutdownInstance() {
+    if (instance != null) {
+      instance.shutdown();
+      instance = null;
+    }
+  }
+
+  /**
+   * @return the physical memory of the machine in MB or the maximal budget, if it is unknown
+   */
+  protected static long getPhysicalMemory() {
+    OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+    if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+      long bytes = ((com.sun.management.OperatingSystemMXBean) bean).getTotalPhysicalMemorySize();
+      if (bytes > 0) {
+        return bytes / 1024 / 1024;
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * @return the maximal number of concurrently running executions
+   */
+  public int getMaxConcurrentExecutions() {
+    return this.maxConcurrentExecutions;
+  }
+
+  /**
+   * Queues the job and starts it, as soon as there are resources for it.
+   *
+   * @param job the job
+   * @return the queued job
+   * @throws IllegalArgumentException if an unfinished job with the same identifier exists
+   */
+  public synchronized ExecutionJob submit(ExecutionJob job) {
+    ExecutionJob existingJob = this.jobs.get(job.getIdentifier());
+    if (existingJob != null && !existingJob.getStatus().isDone()) {
+      throw new IllegalArgumentException(
+        "An execution with the identifier " + job.getIdentifier() + " is running already.");
+    }
+    this.jobs.remove(job.getIdentifier());
+    this.jobs.put(job.getIdentifier(), job);
+    this.queue.add(job);
+    this.evictFinishedJobs();
+    this.dispatch();
+    return job;
+  }
+
+  /**
+   * Stops the job with the given identifier. A queued job is removed from the queue.
+   *
+   * @param identifier the identifier of the job
+   * @return true, if an unfinished job was stopped
+   */
+  public synchronized boolean stop(String identifier) {
+    ExecutionJob job = this.jobs.get(identifier);
+    if (job == null || job.getStatus().isDone()) {
+      return false;
+    }
+    job.stop();
+    if (this.queue.remove(job)) {
+      job.setStatus(ExecutionJob.Status.STOPPED, "The execution was stopped.");
+    }
+    return true;
+  }
+
+  /**
+   * @param identifier the identifier of the job
+   * @return the job or null, if no job with the identifier is known
+   */
+  public synchronized ExecutionJob getJob(String identifier) {
+    return this.jobs.get(identifier);
+  }
+
+  /**
+   * @return all unfinished and the recently finished jobs in submission order
+   */
+  public synchronized List<ExecutionJob> getJobs() {
+    return new ArrayList<>(this.jobs.values());
+  }
+
+  /**
+   * Stops all jobs, the threads of the scheduler and closes its stages.
+   */
+  public void shutdown() {
+    synchronized (this) {
+      for (ExecutionJob job : new ArrayList<>(this.jobs.values())) {
+        this.stop(job.getIdentifier());
+      }
+    }
+    this.executionThreads.shutdown();
+    this.postProcessingThreads.shutdown();
+    for (ExecutionStage stage : new ExecutionStage[]{this.executionStage, this.postProcessingStage}) {
+      if (stage instanceof Closeable) {
+        try {
+          ((Closeable) stage).close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts the queued jobs in submission order as long as there are resources for the next job.
+   */
+  protected synchronized void dispatch() {
+    while (!this.queue.isEmpty()) {
+      ExecutionJob job = this.queue.peek();
+      long memory = getMemory(job);
+      if (this.runningExecutions > 0 && (this.runningExecutions >= this.maxConcurrentExecutions
+        || this.usedMemory + memory > this.memoryBudget)) {
+        return;
+      }
+      this.queue.poll();
+      this.runningExecutions++;
+      this.usedMemory += memory;
+      job.setStatus(ExecutionJob.Status.RUNNING, null);
+      this.executionThreads.execute(createExecutionTask(job, memory));
+    }
+  }
+
+  protected Runnable createExecutionTask(final ExecutionJob job, final long memory) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        boolean successful = false;
+        try {
+          executionStage.process(job);
+          successful = true;
+        } catch (Exception e) {
+          e.printStackTrace();
+          fail(job, e.getMessage());
+        } finally {
+          release(memory);
+        }
+        if (!successful) {
+          return;
+        }
+        if (job.isStopRequested()) {
+          fail(job, null);
+          return;
+        }
+        job.setStatus(ExecutionJob.Status.POST_PROCESSING, null);
+        postProcessingThreads.execute(createPostProcessingTask(job));
+      }
+    };
+  }
+
+  protected Runnable createPostProcessingTask(final ExecutionJob job) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        try {
+          postProcessingStage.process(job);
+          job.setStatus(ExecutionJob.Status.FINISHED, null);
+        } catch (Exception e) {
+          e.printStackTrace();
+          String message = "Could not execute result post processing";
+          if (e.getMessage() != null) {
+            message += ": " + e.getMessage();
+          }
+          job.setStatus(ExecutionJob.Status.FAILED, message);
+        }
+      }
+    };
+  }
+
+  protected void fail(ExecutionJob job, String message) {
+    if (job.isStopRequested()) {
+      job.setStatus(ExecutionJob.Status.STOPPED, "The execution was stopped.");
+    } else {
+      job.setStatus(ExecutionJob.Status.FAILED, message);
+    }
+  }
+
+  protected synchronized void release(long memory) {
+    this.runningExecutions--;
+    this.usedMemory -= memory;
+    this.dispatch();
+  }
+
+  /**
+   * @return the heap size of the job in MB, at most the memory budget
+   */
+  protected long getMemory(ExecutionJob job) {
+    int memory = job.getMemoryInMegaBytes();
+    return Math.min(this.memoryBudget, memory > 0 ? memory : DEFAULT_EXECUTION_MEMORY);
+  }
+
+  /**
+   * Removes the oldest finished jobs, if more than {@link #MAX_FINISHED_JOBS} finished jobs are
+   * known.
+   */
+  protected void evictFinishedJobs() {
+    int finishedJobs = 0;
+    for (ExecutionJob job : this.jobs.values()) {
+      if (job.getStatus().isDone()) {
+        finishedJobs++;
+      }
+    }
+    Iterator<ExecutionJob> iterator = this.jobs.values().iterator();
+    while (finishedJobs > MAX_FINISHED_JOBS && iterator.hasNext()) {
+      if (iterator.next().getStatus().isDone()) {
+        iterator.remove();
+        finishedJobs--;
+      }
+    }
+  }
+
+}
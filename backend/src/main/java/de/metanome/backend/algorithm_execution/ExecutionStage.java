@@ -0,0 +1,32 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+/**
+ * A stage of the {@link ExecutionScheduler} pipeline, e.g. the algorithm execution itself or the
+ * post processing of its results.
+ */
+public interface ExecutionStage {
+
+  /**
+   * Processes the job. The stage stores its outcome on the job.
+   *
+   * @param job the job to process
+   * @throws Exception if the stage failed, the message of the exception is reported to the client
+   */
+  void process(ExecutionJob job) throws Exception;
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.backend.algorithm_loading.AlgorithmJarLoader;
+import de.metanome.backend.results_db.HibernateUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A long living process, that executes algorithms on request of the {@link WorkerPool}. The
+ * worker initializes Hibernate once and reuses the loaded algorithm classes, so that executions do
+ * not pay the start up of a new process. The worker connects to the pool over a local socket and
+ * answers every execution request with a single line:
+ * <ul>
+ * <li>the pool sends "EXECUTE algorithmId executionIdentifier"</li>
+ * <li>the worker answers "DONE" or "FAILED message"</li>
+ * <li>"SHUTDOWN" or the end of the stream terminate the worker</li>
+ * </ul>
+ */
+public class ExecutionWorker {
+
+  public static final String READY = "READY";
+  public static final String EXECUTE = "EXECUTE";
+  public static final String DONE = "DONE";
+  public static final String FAILED = "FAILED";
+  public static final String SHUTDOWN = "SHUTDOWN";
+
+  protected BufferedReader reader;
+  protected PrintWriter writer;
+
+  /**
+   * @param reader the requests of the pool
+   * @param writer the answers to the pool
+   */
+  public ExecutionWorker(BufferedReader reader, PrintWriter writer) {
+    this.reader = reader;
+    this.writer = writer;
+  }
+
+  /**
+   * Announces the worker with the given token and answers the requests of the pool until it
+   * shuts the worker down.
+   *
+   * @param token the token the pool identifies the worker with
+   * @throws IOException if the connection to the pool failed
+   */
+  public void serve(String token) throws IOException {
+    this.writer.println(READY + " " + token);
+    this.writer.flush();
+
+    String request;
+    while ((request = this.reader.readLine()) != null) {
+      if (request.equals(SHUTDOWN)) {
+        return;
+      }
+      String[] parts = request.split(" ", 3);
+      if (parts.length < 3 || !parts[0].equals(EXECUTE)) {
+        this.writer.println(FAILED + " Unknown request: " + request);
+        this.writer.flush();
+        continue;
+      }
+
+      try {
+        this.execute(Long.parseLong(parts[1]), parts[2]);
+        this.writer.println(DONE);
+      } catch (Throwable t) {
+        t.printStackTrace();
+        this.writer.println(FAILED + " " + getMessage(t));
+      }
+      this.writer.flush();
+    }
+  }
+
+  /**
+   * Executes the algorithm with the stored execution setting.
+   *
+   * @param algorithmId         the id of the algorithm
+   * @param executionIdentifier the identifier of the execution setting
+   * @throws Exception if the algorithm could not be executed
+   */
+  protected void execute(long algorithmId, String executionIdentifier) throws Exception {
+    AlgorithmExecution.execute(algorithmId, executionIdentifier);
+  }
+
+  /**
+   * @return the message of the root cause of the throwable in a single line
+   */
+  protected static String getMessage(Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    String message = cause == throwable ? cause.toString() : "Caused by: " + cause;
+    return "Error in algorithm execution. " + message.replace('\n', ' ').replace('\r', ' ');
+  }
+
+  /**
+   * Connects to the pool on the given local port and serves its requests.
+   *
+   * @param args the port of the pool and the token of the worker
+   */
+  public static void main(String args[]) {
+    int port = Integer.parseInt(args[0]);
+    String token = args[1];
+
+    AlgorithmJarLoader.setCacheAlgorithmClasses(true);
+    HibernateUtil.getSessionFactory();
+
+    run(new ExecutionWorkerFactory() {
+      @Override
+      public ExecutionWorker create(BufferedReader reader, PrintWriter writer) {
+        return new ExecutionWorker(reader, writer);
+      }
+    }, port, token);
+  }
+
+  /**
+   * Connects a worker created by the factory to the pool and serves the requests of the pool. The
+   * process exits afterwards.
+   *
+   * @param factory creates the worker on the connection
+   * @param port    the local port of the pool
+   * @param token   the token of the worker
+   */
+  protected static void run(ExecutionWorkerFactory factory, int port, String token) {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+         BufferedReader reader = new BufferedReader(
+           new InputStreamReader(socket.getInputStream(), "UTF-8"));
+         PrintWriter writer = new PrintWriter(
+           new OutputStreamWriter(socket.getOutputStream(), "UTF-8"))) {
+      factory.create(reader, writer).serve(token);
+    } catch (IOException e) {
+      e.printStackTrace();
+      System.exit(1);
+    }
+    System.exit(0);
+  }
+
+  /**
+   * Creates the worker on the connection to the pool.
+   */
+  protected interface ExecutionWorkerFactory {
+
+    ExecutionWorker create(BufferedReader reader, PrintWriter writer);
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.backend.result_postprocessing.ResultPostProcessor;
+
+/**
+ * Extracts and stores the data independent statistics of the results of an execution. Executions,
+ * that only count their results, are not post processed.
+ */
+public class PostProcessingStage implements ExecutionStage {
+
+  @Override
+  public void process(ExecutionJob job) throws Exception {
+    if (!job.getExecutionSetting().getCountResults()) {
+      ResultPostProcessor.extractAndStoreResultsDataIndependent(job.getExecution());
+    }
+  }
+
+}
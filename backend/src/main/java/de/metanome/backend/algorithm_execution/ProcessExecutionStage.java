@@ -0,0 +1,199 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.backend.results_db.Algorithm;
+import de.metanome.backend.results_db.EntityStorageException;
+import de.metanome.backend.results_db.Execution;
+import de.metanome.backend.results_db.HibernateUtil;
+import org.hibernate.criterion.Restrictions;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Executes the algorithm of a job in a separate process running {@link AlgorithmExecution} and
+ * loads the execution, that the process stored. If the process did not store an execution, an
+ * aborted execution is stored instead.
+ */
+public class ProcessExecutionStage implements ExecutionStage {
+
+  private static final Class<?> algorithmExecutionClass = AlgorithmExecution.class;
+
+  /**
+   * System properties starting with this prefix are passed on to the execution processes.
+   */
+  protected static final String METANOME_PROPERTY_PREFIX = "metanome.";
+
+  @Override
+  public void process(ExecutionJob job) throws Exception {
+    String exceptionMessage = runAlgorithm(job);
+    job.setExecution(loadExecution(job, exceptionMessage));
+  }
+
+  /**
+   * Runs the algorithm of the job in a new process.
+   *
+   * @param job the job
+   * @return the last exception reported by the process or an empty string
+   */
+  protected String runAlgorithm(ExecutionJob job) {
+    String executionIdentifier = job.getIdentifier();
+
+    String exceptionMessage = "";
+    try {
+      // Start the process, which executes the algorithm
+      Process process = startProcess(String.valueOf(job.getAlgorithmId()), executionIdentifier,
+        job.getMemory());
+      ProcessRegistry.getInstance().put(executionIdentifier, process);
+      job.setProcess(process);
+
+      // Forward messages from the process to the console output
+      try (BufferedReader br = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+        String lineRead;
+        while ((lineRead = br.readLine()) != null) {
+          if (lineRead.contains("Exception") || lineRead.contains("Caused by: ")) {
+            exceptionMessage = lineRead;
+          }
+          System.out.println(lineRead);
+        }
+      }
+
+      if (process.waitFor() != 0) {
+        exceptionMessage = "Error in algorithm execution. " + exceptionMessage;
+      }
+    } catch (IOException | InterruptedException e) {
+      e.printStackTrace();
+    } finally {
+      ProcessRegistry.getInstance().remove(executionIdentifier);
+      job.setProcess(null);
+    }
+    return exceptionMessage;
+  }
+
+  /**
+   * Loads the execution stored by the process. If the process got killed, an aborted execution
+   * is stored.
+   *
+   * @param job              the job
+   * @param exceptionMessage the last exception reported by the process
+   * @return the execution
+   * @throws Exception with the exception message, if the algorithm was not successful
+   */
+  protected Execution loadExecution(ExecutionJob job, String exceptionMessage) throws Exception {
+    try {
+      // The algorithm execution was successful
+      // Get the execution from hibernate
+      return (Execution) HibernateUtil.queryCriteria(Execution.class,
+        Restrictions.eq("identifier", job.getIdentifier())).get(0);
+    } catch (Exception e) {
+      // The execution process got killed - execution object is created anyway (with abortion flag set)
+      Algorithm algorithm = (Algorithm) HibernateUtil.retrieve(Algorithm.class, job.getAlgorithmId());
+      Execution execution = new Execution(algorithm)
+        .setExecutionSetting(job.getExecutionSetting())
+        .setAborted(true)
+        .setInputs(AlgorithmExecution.parseInputs(job.getExecutionSetting().getInputsJson()));
+
+      try {
+        HibernateUtil.store(execution);
+      } catch (EntityStorageException e1) {
+        e1.printStackTrace();
+        throw new Exception("Could not store execution.", e1);
+      }
+      job.setExecution(execution);
+
+      // the algorithm was not successful
+      throw new Exception(exceptionMessage);
+    }
+  }
+
+  /**
+   * starts execution of Algorithm in separate Process
+   *
+   * @param algorithmId         id of algorithm to be executed
+   * @param executionIdentifier identifier for the upcoming algorithm execution
+   * @param memory              memory argument for the process running the algorithm execution
+   * @return resulting process object for the algorithm execution
+   */
+  protected Process startProcess(String algorithmId, String executionIdentifier, String memory)
+    throws IOException {
+    String className = algorithmExecutionClass.getCanonicalName();
+
+    ProcessBuilder builder = new ProcessBuilder(buildCommand(memory, className, algorithmId,
+      executionIdentifier));
+    builder.redirectErrorStream(true);
+
+    return builder.start();
+  }
+
+  /**
+   * Builds the command line of a java process running the given main class with the class path of
+   * the backend.
+   *
+   * @param memory    memory argument for the process or an empty string for the default heap size
+   * @param className the main class
+   * @param arguments the arguments of the main class
+   * @return the command line
+   */
+  protected static List<String> buildCommand(String memory, String className, String... arguments) {
+    /**
+     * NOTE: Dpeneding on the Java ApplicationServer paths have to be adjusted
+     */
+    String javaHome = System.getProperty("java.home");
+    String javaBin = javaHome +
+      File.separator + "bin" +
+      File.separator + "java";
+    String myPath = System.getProperty("java.class.path");
+
+    try {
+      URL baseUrl = algorithmExecutionClass.getProtectionDomain().getCodeSource().getLocation();
+      File file = new File(baseUrl.toURI());
+      String parent = file.getAbsoluteFile().getParent();
+      String classesFolder =
+        file.getAbsoluteFile().getParentFile().getParent() + File.separator + "WEB-INF" + File.separator + "classes";
+      String parentPathWildCard = parent + File.separator + "lib" + File.separator + "*";
+      myPath += File.pathSeparator + parentPathWildCard + File.pathSeparator + classesFolder;
+    } catch (URISyntaxException ex) {
+      ex.printStackTrace();
+    }
+
+    List<String> command = new ArrayList<>();
+    command.add(javaBin);
+    if (!memory.equals("")) {
+      command.add("-Xmx" + memory + "m");
+      command.add("-Xms" + memory + "m");
+    }
+    // Forward the metanome settings, e.g. the result format, to the execution process.
+    for (String property : System.getProperties().stringPropertyNames()) {
+      if (property.startsWith(METANOME_PROPERTY_PREFIX)) {
+        command.add("-D" + property + "=" + System.getProperty(property));
+      }
+    }
+    command.add("-classpath");
+    command.add(myPath);
+    command.add(className);
+    command.addAll(Arrays.asList(arguments));
+    return command;
+  }
+
+}
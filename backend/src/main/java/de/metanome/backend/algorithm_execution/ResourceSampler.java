@@ -0,0 +1,208 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.metanome.backend.results_db.ExecutionSample;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the resource usage of the current process at a fixed interval while an algorithm is
+ * executed. CPU time, heap and garbage collections are read from the MXBeans of the JVM, the read
+ * and written bytes from /proc/self/io, if the operating system provides it. If more than {@link
+ * #MAX_SAMPLES} samples are taken, every second sample is dropped and the interval is doubled, so
+ * that long executions are covered by a bounded number of samples.
+ * <p>
+ * The read and written bytes count all I/O of the process. In a reused worker process they include
+ * the traffic on the worker's socket as well.
+ */
+public class ResourceSampler {
+
+  // System property to set the sampling interval in milliseconds, with 0 only the start and the
+  // end of an execution are sampled
+  public static final String INTERVAL_PROPERTY = "metanome.sampleInterval";
+  public static final long DEFAULT_INTERVAL = 1000;
+  public static final int MAX_SAMPLES = 1000;
+
+  protected static final File PROCESS_IO = new File("/proc/self/io");
+
+  protected final long interval;
+  protected final List<ExecutionSample> samples = new ArrayList<>();
+  protected long stride = 1;
+  protected long ticks = 0;
+
+  protected long startTime;
+  protected long startCpuTime;
+  protected long startGcCount;
+  protected long startGcTime;
+  protected long[] startIo;
+
+  protected ScheduledExecutorService timer;
+
+  /**
+   * @param interval the sampling interval in milliseconds, 0 disables the periodic sampling
+   */
+  public ResourceSampler(long interval) {
+    this.interval = interval;
+  }
+
+  /**
+   * @return a sampler with the interval of the {@link #INTERVAL_PROPERTY}
+   */
+  public static ResourceSampler create() {
+    return new ResourceSampler(Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+  }
+
+  /**
+   * Takes the first sample and starts the periodic sampling.
+   *
+   * @return the sampler
+   */
+  public synchronized ResourceSampler start() {
+    this.startTime = System.currentTimeMillis();
+    this.startCpuTime = getProcessCpuTime();
+    long[] gc = getGarbageCollections();
+    this.startGcCount = gc[0];
+    this.startGcTime = gc[1];
+    this.startIo = readProcessIo();
+    this.samples.add(sample());
+
+    if (this.interval > 0) {
+      this.timer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("resource-sampler-%d").build());
+      this.timer.scheduleAtFixedRate(new Runnable() {
+        @Override
+        public void run() {
+          tick();
+        }
+      }, this.interval, this.interval, TimeUnit.MILLISECONDS);
+    }
+    return this;
+  }
+
+  /**
+   * Stops the periodic sampling and takes the last sample.
+   *
+   * @return all samples ordered by time
+   */
+  public List<ExecutionSample> stop() {
+    if (this.timer != null) {
+      this.timer.shutdownNow();
+    }
+    synchronized (this) {
+      this.samples.add(sample());
+      return new ArrayList<>(this.samples);
+    }
+  }
+
+  protected synchronized void tick() {
+    this.ticks++;
+    if (this.ticks % this.stride != 0) {
+      return;
+    }
+    this.samples.add(sample());
+    if (this.samples.size() >= MAX_SAMPLES) {
+      List<ExecutionSample> kept = new ArrayList<>();
+      for (int i = 0; i < this.samples.size(); i += 2) {
+        kept.add(this.samples.get(i));
+      }
+      this.samples.clear();
+      this.samples.addAll(kept);
+      this.stride *= 2;
+    }
+  }
+
+  /**
+   * @return a sample of the current resource usage relative to the start of the sampler
+   */
+  protected ExecutionSample sample() {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    long cpuTime = getProcessCpuTime();
+    long[] gc = getGarbageCollections();
+    long[] io = readProcessIo();
+
+    return new ExecutionSample(System.currentTimeMillis() - this.startTime)
+      .setCpuTime(cpuTime < 0 || this.startCpuTime < 0 ? -1 : (cpuTime - this.startCpuTime) / 1000000)
+      .setHeapUsed(heap.getUsed())
+      .setHeapCommitted(heap.getCommitted())
+      .setHeapMax(heap.getMax())
+      .setGcCount(gc[0] - this.startGcCount)
+      .setGcTime(gc[1] - this.startGcTime)
+      .setBytesRead(io == null || this.startIo == null ? -1 : io[0] - this.startIo[0])
+      .setBytesWritten(io == null || this.startIo == null ? -1 : io[1] - this.startIo[1]);
+  }
+
+  /**
+   * @return the CPU time of the process in nanoseconds or -1, if it is not available
+   */
+  protected static long getProcessCpuTime() {
+    OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+    if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+    }
+    return -1;
+  }
+
+  /**
+   * @return the number and the accumulated time in milliseconds of all garbage collections
+   */
+  protected static long[] getGarbageCollections() {
+    long count = 0;
+    long time = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(bean.getCollectionCount(), 0);
+      time += Math.max(bean.getCollectionTime(), 0);
+    }
+    return new long[]{count, time};
+  }
+
+  /**
+   * @return the bytes read and written by the process or null, if /proc/self/io is not available
+   */
+  protected static long[] readProcessIo() {
+    if (!PROCESS_IO.canRead()) {
+      return null;
+    }
+    long[] io = new long[]{-1, -1};
+    try (BufferedReader reader = new BufferedReader(new FileReader(PROCESS_IO))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("rchar:")) {
+          io[0] = Long.parseLong(line.substring(6).trim());
+        } else if (line.startsWith("wchar:")) {
+          io[1] = Long.parseLong(line.substring(6).trim());
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      return null;
+    }
+    return io[0] < 0 || io[1] < 0 ? null : io;
+  }
+
+}
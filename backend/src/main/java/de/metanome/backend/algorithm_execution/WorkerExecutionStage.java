@@ -0,0 +1,51 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Executes the algorithm of a job on a warm worker of a {@link WorkerPool} instead of a new
+ * process.
+ */
+public class WorkerExecutionStage extends ProcessExecutionStage implements Closeable {
+
+  protected WorkerPool workerPool;
+
+  /**
+   * @param workerPool the started pool of workers
+   */
+  public WorkerExecutionStage(WorkerPool workerPool) {
+    this.workerPool = workerPool;
+  }
+
+  @Override
+  protected String runAlgorithm(ExecutionJob job) {
+    try {
+      return this.workerPool.execute(job);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return "Error in algorithm execution. " + e.getMessage();
+    }
+  }
+
+  @Override
+  public void close() {
+    this.workerPool.shutdown();
+  }
+
+}
@@ -0,0 +1,358 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps pre-started {@link ExecutionWorker} processes, that execute algorithms without the start up
+ * of a new process. A worker only executes jobs with the memory setting it was started with. After
+ * the given number of executions or after a failed execution, the worker is terminated and
+ * replaced by a new one, so that the state left behind by algorithms does not accumulate.
+ * <p>
+ * No worker is started before the first job, unless the pool is started explicitly, so that a
+ * backend, that never executes an algorithm, does not keep idle processes.
+ */
+public class WorkerPool {
+
+  // System property with the number of idle workers, that are kept warm (0 disables the pool)
+  public static final String WORKERS_PROPERTY = "metanome.workers";
+  // System property with the number of executions after which a worker is replaced
+  public static final String MAX_RUNS_PROPERTY = "metanome.workerRuns";
+  public static final int DEFAULT_WORKERS = 2;
+  public static final int DEFAULT_MAX_RUNS = 20;
+  // Maximal time a worker may need to start in milliseconds
+  protected static final int START_TIMEOUT = 120000;
+
+  protected final String workerClassName;
+  protected final int size;
+  protected final int maxRunsPerWorker;
+  protected final Map<String, Deque<Worker>> idleWorkers = new HashMap<>();
+  protected int numberOfIdleWorkers = 0;
+  protected boolean started = false;
+  protected boolean shutdown = false;
+  protected final ExecutorService warmer = Executors.newSingleThreadExecutor(
+    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("worker-warmer-%d").build());
+
+  /**
+   * @param workerClassName  the main class of the workers
+   * @param size             the number of idle workers, that are kept warm
+   * @param maxRunsPerWorker the number of executions after which a worker is replaced
+   */
+  public WorkerPool(String workerClassName, int size, int maxRunsPerWorker) {
+    if (size < 1 || maxRunsPerWorker < 1) {
+      throw new IllegalArgumentException(
+        "The number of workers and runs per worker have to be positive.");
+    }
+    this.workerClassName = workerClassName;
+    this.size = size;
+    this.maxRunsPerWorker = maxRunsPerWorker;
+  }
+
+  /**
+   * Starts the idle workers with the default memory setting in the background.
+   *
+   * @return the pool
+   */
+  public WorkerPool start() {
+    synchronized (this) {
+      this.started = true;
+    }
+    for (int i = 0; i < this.size; i++) {
+      this.warmUp();
+    }
+    return this;
+  }
+
+  /**
+   * Executes the algorithm of the job on a worker with the memory setting of the job.
+   *
+   * @param job the job
+   * @return the error message of the execution or an empty string, if the execution succeeded
+   * @throws IOException if no worker could be started
+   */
+  public String execute(ExecutionJob job) throws IOException {
+    this.startOnFirstJob();
+    Worker worker = this.acquire(job.getMemory());
+    ProcessRegistry.getInstance().put(job.getIdentifier(), worker.process);
+    job.setProcess(worker.process);
+
+    boolean successful = false;
+    try {
+      worker.writer.println(ExecutionWorker.EXECUTE + " " + job.getAlgorithmId() + " "
+        + job.getIdentifier());
+      worker.writer.flush();
+      String response = worker.reader.readLine();
+      worker.runs++;
+
+      if (response == null) {
+        return "Error in algorithm execution. The execution worker terminated.";
+      }
+      if (response.equals(ExecutionWorker.DONE)) {
+        successful = true;
+        return "";
+      }
+      return response.startsWith(ExecutionWorker.FAILED) ?
+        response.substring(ExecutionWorker.FAILED.length()).trim() :
+        "Error in algorithm execution. Unexpected answer of the worker: " + response;
+    } catch (IOException e) {
+      return "Error in algorithm execution. " + e.getMessage();
+    } finally {
+      ProcessRegistry.getInstance().remove(job.getIdentifier());
+      job.setProcess(null);
+      if (successful && !job.isStopRequested() && worker.runs < this.maxRunsPerWorker) {
+        this.release(worker);
+      } else {
+        worker.close();
+        this.warmUp();
+      }
+    }
+  }
+
+  /**
+   * Terminates all idle workers. Busy workers are terminated after their execution.
+   */
+  public void shutdown() {
+    synchronized (this) {
+      this.shutdown = true;
+      for (Deque<Worker> workers : this.idleWorkers.values()) {
+        for (Worker worker : workers) {
+          worker.close();
+        }
+      }
+      this.idleWorkers.clear();
+      this.numberOfIdleWorkers = 0;
+    }
+    this.warmer.shutdownNow();
+  }
+
+  public synchronized int getNumberOfIdleWorkers() {
+    return numberOfIdleWorkers;
+  }
+
+  /**
+   * Starts the idle workers in the background on the first job, if the pool was not started yet.
+   * The worker of the first job is kept as one of them.
+   */
+  protected void startOnFirstJob() {
+    synchronized (this) {
+      if (this.started) {
+        return;
+      }
+      this.started = true;
+    }
+    for (int i = 1; i < this.size; i++) {
+      this.warmUp();
+    }
+  }
+
+  /**
+   * Returns an idle worker with the given memory setting or starts a new one.
+   */
+  protected Worker acquire(String memory) throws IOException {
+    synchronized (this) {
+      Deque<Worker> workers = this.idleWorkers.get(memory);
+      while (workers != null && !workers.isEmpty()) {
+        Worker worker = workers.poll();
+        this.numberOfIdleWorkers--;
+        if (worker.isAlive()) {
+          return worker;
+        }
+        worker.close();
+      }
+    }
+    return this.startWorker(memory);
+  }
+
+  /**
+   * Keeps the worker for the next execution, if the pool has less than its size idle workers.
+   */
+  protected void release(Worker worker) {
+    synchronized (this) {
+      if (!this.shutdown && this.numberOfIdleWorkers < this.size) {
+        Deque<Worker> workers = this.idleWorkers.get(worker.memory);
+        if (workers == null) {
+          workers = new ArrayDeque<>();
+          this.idleWorkers.put(worker.memory, workers);
+        }
+        workers.add(worker);
+        this.numberOfIdleWorkers++;
+        return;
+      }
+    }
+    worker.close();
+  }
+
+  /**
+   * Starts a worker with the default memory setting in the background, if the pool has less than
+   * its size idle workers.
+   */
+  protected synchronized void warmUp() {
+    if (this.shutdown || this.numberOfIdleWorkers >= this.size) {
+      return;
+    }
+    this.warmer.execute(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (WorkerPool.this) {
+          if (shutdown || numberOfIdleWorkers >= size) {
+            return;
+          }
+        }
+        try {
+          release(startWorker(""));
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    });
+  }
+
+  /**
+   * Starts a worker process and waits until it connected to a local socket of the pool.
+   *
+   * @param memory the memory setting of the worker
+   * @return the connected worker
+   * @throws IOException if the worker could not be started
+   */
+  protected Worker startWorker(String memory) throws IOException {
+    String token = UUID.randomUUID().toString();
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      serverSocket.setSoTimeout(1000);
+      ProcessBuilder builder = new ProcessBuilder(ProcessExecutionStage.buildCommand(memory,
+        this.workerClassName, String.valueOf(serverSocket.getLocalPort()), token));
+      builder.redirectErrorStream(true);
+      Process process = builder.start();
+      forwardOutput(process.getInputStream());
+
+      try {
+        long deadline = System.currentTimeMillis() + START_TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+          Socket socket;
+          try {
+            socket = serverSocket.accept();
+          } catch (SocketTimeoutException e) {
+            if (!Worker.isAlive(process)) {
+              throw new IOException("The execution worker terminated on start up.");
+            }
+            continue;
+          }
+
+          socket.setSoTimeout(START_TIMEOUT);
+          Worker worker = new Worker(process, socket, memory);
+          if ((ExecutionWorker.READY + " " + token).equals(worker.reader.readLine())) {
+            socket.setSoTimeout(0);
+            return worker;
+          }
+          // Only the started worker knows the token
+          socket.close();
+        }
+        throw new IOException("The execution worker did not start in time.");
+      } catch (IOException e) {
+        process.destroy();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Forwards the output of the worker to the console output.
+   */
+  protected static void forwardOutput(final InputStream output) {
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(output))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            System.out.println(line);
+          }
+        } catch (IOException e) {
+          // The worker terminated
+        }
+      }
+    }, "worker-output");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * A worker process with its connection.
+   */
+  protected static class Worker {
+
+    protected final Process process;
+    protected final Socket socket;
+    protected final BufferedReader reader;
+    protected final PrintWriter writer;
+    protected final String memory;
+    protected int runs = 0;
+
+    protected Worker(Process process, Socket socket, String memory) throws IOException {
+      this.process = process;
+      this.socket = socket;
+      this.memory = memory;
+      this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+      this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"));
+    }
+
+    protected boolean isAlive() {
+      return isAlive(this.process);
+    }
+
+    protected static boolean isAlive(Process process) {
+      try {
+        process.exitValue();
+        return false;
+      } catch (IllegalThreadStateException e) {
+        return true;
+      }
+    }
+
+    /**
+     * Asks the worker to shut down and terminates its process.
+     */
+    protected void close() {
+      this.writer.println(ExecutionWorker.SHUTDOWN);
+      this.writer.flush();
+      try {
+        this.socket.close();
+      } catch (IOException e) {
+        // The process is destroyed anyway
+      }
+      this.process.destroy();
+    }
+  }
+
+}
@@ -85,6 +85,9 @@ public class AlgorithmAnalyzer {
     if (interfaces.contains(TempFileAlgorithm.class)) {
       types.add(AlgorithmType.TEMP_FILE);
     }
+    if (interfaces.contains(MetricsAlgorithm.class)) {
+      types.add(AlgorithmType.METRICS);
+    }
     if (interfaces.contains(RelationalInputParameterAlgorithm.class)) {
       types.add(AlgorithmType.RELATIONAL_INPUT);
     }
@@ -23,6 +23,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -30,8 +32,26 @@ import java.util.jar.Manifest;
 public class AlgorithmJarLoader {
 
   protected static final String bootstrapClassTagName = "Algorithm-Bootstrap-Class";
+  // Loaded bootstrap classes by jar file and modification time, if the classes are cached
+  protected static final Map<String, Class<? extends Algorithm>> algorithmClasses = new HashMap<>();
+  protected static boolean cacheAlgorithmClasses = false;
   protected Algorithm algorithmSubclass;
 
+  /**
+   * Enables the reuse of the class loaders of algorithm jars, that did not change since they were
+   * loaded. Every load creates a new algorithm instance, but static state of the algorithm classes
+   * is shared between the instances, so the cache is only enabled in long living execution
+   * workers.
+   *
+   * @param cacheAlgorithmClasses true, if the loaded algorithm classes should be reused
+   */
+  public static synchronized void setCacheAlgorithmClasses(boolean cacheAlgorithmClasses) {
+    AlgorithmJarLoader.cacheAlgorithmClasses = cacheAlgorithmClasses;
+    if (!cacheAlgorithmClasses) {
+      algorithmClasses.clear();
+    }
+  }
+
   /**
    * Loads a jar file containing an algorithm and returns an instance of the bootstrap class.
    *
@@ -56,19 +76,32 @@ public class AlgorithmJarLoader {
         .getPath();
 
     File file = new File(URLDecoder.decode(pathToFolder, "utf-8"));
-    JarFile jar = new JarFile(file);
+    String cacheKey = file.getAbsolutePath() + ":" + file.lastModified();
+    Class<? extends Algorithm> algorithmClass;
+    synchronized (AlgorithmJarLoader.class) {
+      algorithmClass = cacheAlgorithmClasses ? algorithmClasses.get(cacheKey) : null;
+    }
+
+    if (algorithmClass == null) {
+      JarFile jar = new JarFile(file);
+
+      Manifest man = jar.getManifest();
+      Attributes attr = man.getMainAttributes();
+      String className = attr.getValue(bootstrapClassTagName);
 
-    Manifest man = jar.getManifest();
-    Attributes attr = man.getMainAttributes();
-    String className = attr.getValue(bootstrapClassTagName);
+      URL[] url = {file.toURI().toURL()};
+      ClassLoader loader = new URLClassLoader(url, Algorithm.class.getClassLoader());
 
-    URL[] url = {file.toURI().toURL()};
-    ClassLoader loader = new URLClassLoader(url, Algorithm.class.getClassLoader());
+      algorithmClass = Class.forName(className, true, loader).asSubclass(Algorithm.class);
 
-    Class<? extends Algorithm> algorithmClass =
-      Class.forName(className, true, loader).asSubclass(Algorithm.class);
+      jar.close();
 
-    jar.close();
+      synchronized (AlgorithmJarLoader.class) {
+        if (cacheAlgorithmClasses) {
+          algorithmClasses.put(cacheKey, algorithmClass);
+        }
+      }
+    }
 
     return algorithmClass.getConstructor().newInstance();
   }
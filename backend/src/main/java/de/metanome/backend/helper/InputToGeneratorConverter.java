@@ -72,9 +72,14 @@ public class InputToGeneratorConverter {
    * @return the configuration setting
    */
   public static ConfigurationSettingTableInput convertInputToSetting(TableInput input) {
-    return new ConfigurationSettingTableInput()
+    ConfigurationSettingTableInput setting = new ConfigurationSettingTableInput()
       .setDatabaseConnection(convertInputToSetting(input.getDatabaseConnection()))
-      .setTable(input.getTableName());
+      .setTable(input.getTableName())
+      .setPartitionColumn(input.getPartitionColumn());
+    if (input.getNumberOfPartitions() != null) {
+      setting.setNumberOfPartitions(input.getNumberOfPartitions());
+    }
+    return setting;
   }
 
   /**
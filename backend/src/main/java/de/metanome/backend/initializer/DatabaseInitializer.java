@@ -15,6 +15,7 @@
  */
 package de.metanome.backend.initializer;
 
+import de.metanome.backend.algorithm_execution.ExecutionScheduler;
 import de.metanome.backend.algorithm_loading.AlgorithmFinder;
 import de.metanome.backend.algorithm_loading.AlgorithmJarLoader;
 import de.metanome.backend.algorithm_loading.InputDataFinder;
@@ -140,6 +141,7 @@ public class DatabaseInitializer implements ServletContextListener {
 
   @Override
   public void contextDestroyed(ServletContextEvent servletContextEvent) {
+    ExecutionScheduler.shutdownInstance();
     server.shutdown();
   }
 }
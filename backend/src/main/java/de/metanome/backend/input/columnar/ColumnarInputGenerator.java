@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.columnar;
+
+import de.metanome.algorithm_integration.AlgorithmConfigurationException;
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.*;
+import de.metanome.backend.input.file.DefaultFileInputGenerator;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Generator for {@link RelationalInput}s backed by a {@link ColumnarRelation}. The source
+ * generator is only read once, all further copies iterate over the in-memory snapshot. If the
+ * source is a {@link FileInputGenerator}, the snapshot is persisted next to the input file and
+ * reused as long as the input file and its settings do not change.
+ */
+public class ColumnarInputGenerator implements RelationalInputGenerator {
+
+  public static final String FILE_ENDING = ".columnar";
+
+  protected RelationalInputGenerator sourceGenerator;
+  protected ColumnarRelation relation;
+
+  public ColumnarInputGenerator(RelationalInputGenerator sourceGenerator) {
+    this.sourceGenerator = sourceGenerator;
+  }
+
+  @Override
+  public RelationalInput generateNewCopy()
+    throws InputGenerationException, AlgorithmConfigurationException {
+    return getRelation().asRelationalInput();
+  }
+
+  /**
+   * Returns the columnar snapshot of the source input. The snapshot is loaded from the cache file
+   * if it is still valid, otherwise it is build from the source input.
+   *
+   * @return the columnar relation
+   * @throws InputGenerationException        if the source input could not be read
+   * @throws AlgorithmConfigurationException if the source generator is not configured correctly
+   */
+  public synchronized ColumnarRelation getRelation()
+    throws InputGenerationException, AlgorithmConfigurationException {
+    if (this.relation != null) {
+      return this.relation;
+    }
+
+    File cacheFile = getCacheFile();
+    String fingerprint = getFingerprint();
+    if (cacheFile != null) {
+      this.relation = readCacheFile(cacheFile, fingerprint);
+    }
+
+    if (this.relation == null) {
+      try (RelationalInput input = this.sourceGenerator.generateNewCopy()) {
+        this.relation = ColumnarRelation.fromInput(input);
+      } catch (InputIterationException e) {
+        throw new InputGenerationException("Could not read the input", e);
+      } catch (InputGenerationException | AlgorithmConfigurationException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new InputGenerationException("Could not close the input", e);
+      }
+
+      if (cacheFile != null) {
+        writeCacheFile(cacheFile, fingerprint);
+      }
+    }
+
+    return this.relation;
+  }
+
+  /**
+   * @return the file the snapshot is persisted to or null if the source is not file based
+   */
+  public File getCacheFile() {
+    if (!(this.sourceGenerator instanceof FileInputGenerator)) {
+      return null;
+    }
+    File inputFile = ((FileInputGenerator) this.sourceGenerator).getInputFile();
+    return new File(inputFile.getPath() + FILE_ENDING);
+  }
+
+  /**
+   * The fingerprint identifies the state of the input file and the parser settings the snapshot
+   * was created with.
+   *
+   * @return the fingerprint of the source input
+   */
+  protected String getFingerprint() {
+    String fingerprint = getFingerprint(this.sourceGenerator);
+    return fingerprint == null ? "" : fingerprint;
+  }
+
+  /**
+   * Identifies the state of the input file and the parser settings of a file based generator.
+   * Inputs, that are not file based, have no fingerprint.
+   *
+   * @param generator the generator of the input
+   * @return the fingerprint of the input or null if the input is not file based
+   */
+  public static String getFingerprint(RelationalInputGenerator generator) {
+    if (!(generator instanceof FileInputGenerator)) {
+      return null;
+    }
+    File inputFile = ((FileInputGenerator) generator).getInputFile();
+    StringBuilder fingerprint = new StringBuilder();
+    fingerprint.append(inputFile.length()).append('|').append(inputFile.lastModified());
+
+    if (generator instanceof DefaultFileInputGenerator) {
+      ConfigurationSettingFileInput setting = ((DefaultFileInputGenerator) generator).getSetting();
+      fingerprint.append('|').append(setting.getSeparatorChar())
+        .append('|').append(setting.getQuoteChar())
+        .append('|').append(setting.getEscapeChar())
+        .append('|').append(setting.isStrictQuotes())
+        .append('|').append(setting.isIgnoreLeadingWhiteSpace())
+        .append('|').append(setting.getSkipLines())
+        .append('|').append(setting.hasHeader())
+        .append('|').append(setting.isSkipDifferingLines())
+        .append('|').append(setting.getNullValue());
+    }
+    return fingerprint.toString();
+  }
+
+  protected ColumnarRelation readCacheFile(File cacheFile, String fingerprint) {
+    if (!cacheFile.isFile()) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(
+      new BufferedInputStream(new FileInputStream(cacheFile)))) {
+      if (!fingerprint.equals(in.readUTF())) {
+        return null;
+      }
+      return ColumnarRelation.read(in);
+    } catch (IOException e) {
+      // An unreadable cache file is rebuild from the source input
+      return null;
+    }
+  }
+
+  /**
+   * Writes the snapshot to a temporary file, which then replaces the cache file. A crash while
+   * writing therefore never leaves a truncated cache file behind.
+   */
+  protected void writeCacheFile(File cacheFile, String fingerprint) {
+    File tempFile = null;
+    try {
+      tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getAbsoluteFile().getParentFile());
+      try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        out.writeUTF(fingerprint);
+        this.relation.write(out);
+      }
+      try {
+        Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      // The snapshot is still usable in memory, if the input directory is not writable
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  public RelationalInputGenerator getSourceGenerator() {
+    return sourceGenerator;
+  }
+
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.columnar;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A dictionary encoded, column oriented snapshot of a {@link RelationalInput}. Every column is
+ * stored as an array of int codes, every code references a value in the column's dictionary. Null
+ * values are encoded as {@link #NULL_CODE}.
+ */
+public class ColumnarRelation {
+
+  public static final int NULL_CODE = -1;
+
+  protected static final int FORMAT_VERSION = 1;
+
+  protected String relationName;
+  protected List<String> columnNames;
+  protected String[][] dictionaries;
+  protected int[][] columns;
+  protected int numberOfRows;
+
+  protected ColumnarRelation(String relationName, List<String> columnNames,
+                             String[][] dictionaries, int[][] columns, int numberOfRows) {
+    this.relationName = relationName;
+    this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+    this.dictionaries = dictionaries;
+    this.columns = columns;
+    this.numberOfRows = numberOfRows;
+  }
+
+  /**
+   * Reads the complete input and encodes it column by column.
+   *
+   * @param input the input to encode
+   * @return the encoded relation
+   * @throws InputIterationException if the input cannot be iterated
+   */
+  public static ColumnarRelation fromInput(RelationalInput input) throws InputIterationException {
+    int numberOfColumns = input.numberOfColumns();
+
+    List<Object2IntOpenHashMap<String>> codes = new ArrayList<>(numberOfColumns);
+    List<List<String>> values = new ArrayList<>(numberOfColumns);
+    List<IntArrayList> encodedColumns = new ArrayList<>(numberOfColumns);
+    for (int i = 0; i < numberOfColumns; i++) {
+      Object2IntOpenHashMap<String> columnCodes = new Object2IntOpenHashMap<>();
+      columnCodes.defaultReturnValue(NULL_CODE);
+      codes.add(columnCodes);
+      values.add(new ArrayList<String>());
+      encodedColumns.add(new IntArrayList());
+    }
+
+    int numberOfRows = 0;
+    while (input.hasNext()) {
+      List<String> row = input.next();
+      for (int column = 0; column < numberOfColumns; column++) {
+        String value = column < row.size() ? row.get(column) : null;
+        encodedColumns.get(column).add(encode(value, codes.get(column), values.get(column)));
+      }
+      numberOfRows++;
+    }
+
+    String[][] dictionaries = new String[numberOfColumns][];
+    int[][] columns = new int[numberOfColumns][];
+    for (int i = 0; i < numberOfColumns; i++) {
+      dictionaries[i] = values.get(i).toArray(new String[values.get(i).size()]);
+      columns[i] = encodedColumns.get(i).toIntArray();
+    }
+
+    return new ColumnarRelation(input.relationName(), input.columnNames(), dictionaries, columns,
+      numberOfRows);
+  }
+
+  protected static int encode(String value, Object2IntOpenHashMap<String> codes,
+                              List<String> dictionary) {
+    if (value == null) {
+      return NULL_CODE;
+    }
+    int code = codes.getInt(value);
+    if (code == NULL_CODE) {
+      code = dictionary.size();
+      codes.put(value, code);
+      dictionary.add(value);
+    }
+    return code;
+  }
+
+  /**
+   * Reads a relation, that was written with {@link #write(DataOutput)}.
+   *
+   * @param in the data input
+   * @return the read relation
+   * @throws IOException if the relation could not be read
+   */
+  public static ColumnarRelation read(DataInput in) throws IOException {
+    int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported columnar format version " + version);
+    }
+
+    String relationName = readString(in);
+    int numberOfColumns = in.readInt();
+    int numberOfRows = in.readInt();
+
+    List<String> columnNames = new ArrayList<>(numberOfColumns);
+    String[][] dictionaries = new String[numberOfColumns][];
+    int[][] columns = new int[numberOfColumns][];
+    for (int column = 0; column < numberOfColumns; column++) {
+      columnNames.add(readString(in));
+
+      String[] dictionary = new String[in.readInt()];
+      for (int code = 0; code < dictionary.length; code++) {
+        dictionary[code] = readString(in);
+      }
+      dictionaries[column] = dictionary;
+
+      int[] codes = new int[numberOfRows];
+      for (int row = 0; row < numberOfRows; row++) {
+        codes[row] = in.readInt();
+      }
+      columns[column] = codes;
+    }
+
+    return new ColumnarRelation(relationName, columnNames, dictionaries, columns, numberOfRows);
+  }
+
+  /**
+   * Writes the relation in a binary format.
+   *
+   * @param out the data output
+   * @throws IOException if the relation could not be written
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(FORMAT_VERSION);
+    writeString(out, this.relationName);
+    out.writeInt(getNumberOfColumns());
+    out.writeInt(this.numberOfRows);
+
+    for (int column = 0; column < getNumberOfColumns(); column++) {
+      writeString(out, this.columnNames.get(column));
+
+      out.writeInt(this.dictionaries[column].length);
+      for (String value : this.dictionaries[column]) {
+        writeString(out, value);
+      }
+
+      for (int code : this.columns[column]) {
+        out.writeInt(code);
+      }
+    }
+  }
+
+  protected static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  protected static void writeString(DataOutput out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * @return a new {@link RelationalInput} iterating over the rows of this relation
+   */
+  public RelationalInput asRelationalInput() {
+    return new ColumnarRelationIterator(this);
+  }
+
+  /**
+   * Returns the encoded values of a column. The returned array must not be modified.
+   *
+   * @param columnIndex the index of the column
+   * @return the dictionary codes of the column's values
+   */
+  public int[] getColumn(int columnIndex) {
+    return this.columns[columnIndex];
+  }
+
+  /**
+   * Returns the dictionary of a column. The value with code i is stored at position i. The
+   * returned array must not be modified.
+   *
+   * @param columnIndex the index of the column
+   * @return the column's dictionary
+   */
+  public String[] getDictionary(int columnIndex) {
+    return this.dictionaries[columnIndex];
+  }
+
+  /**
+   * @param rowIndex    the index of the row
+   * @param columnIndex the index of the column
+   * @return the decoded value of the given cell
+   */
+  public String getValue(int rowIndex, int columnIndex) {
+    int code = this.columns[columnIndex][rowIndex];
+    return code == NULL_CODE ? null : this.dictionaries[columnIndex][code];
+  }
+
+  public String getRelationName() {
+    return relationName;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public int getNumberOfColumns() {
+    return columns.length;
+  }
+
+  public int getNumberOfRows() {
+    return numberOfRows;
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.columnar;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link RelationalInput} over the rows of a {@link ColumnarRelation}. The rows are decoded on
+ * access.
+ */
+public class ColumnarRelationIterator implements RelationalInput {
+
+  protected ColumnarRelation relation;
+  protected int currentRow = 0;
+
+  public ColumnarRelationIterator(ColumnarRelation relation) {
+    this.relation = relation;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.currentRow < this.relation.getNumberOfRows();
+  }
+
+  @Override
+  public List<String> next() {
+    if (!hasNext()) {
+      return null;
+    }
+
+    List<String> row = new ArrayList<>(this.relation.getNumberOfColumns());
+    for (int column = 0; column < this.relation.getNumberOfColumns(); column++) {
+      row.add(this.relation.getValue(this.currentRow, column));
+    }
+    this.currentRow++;
+    return Collections.unmodifiableList(row);
+  }
+
+  @Override
+  public int numberOfColumns() {
+    return this.relation.getNumberOfColumns();
+  }
+
+  @Override
+  public String relationName() {
+    return this.relation.getRelationName();
+  }
+
+  @Override
+  public List<String> columnNames() {
+    return this.relation.getColumnNames();
+  }
+
+  @Override
+  public void close() {
+  }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ResultSetIterator}, that reads the rows of the result set block by block into a reused
+ * columnar {@link ResultSetBlock}. The block size should match the fetch size of the statement, so
+ * that one block is read per round trip to the database.
+ * <p>
+ * Only the block path is typed: if the first block is retrieved with {@link #nextBlock()}, the
+ * blocks read integral columns as long values for consumers, that process the input column by
+ * column. Otherwise the blocks are untyped and {@link #next()} returns the values exactly as the
+ * strings of the driver, like the {@link ResultSetIterator}. The rows of typed blocks are not
+ * returned by {@link #next()}, because their integral values may lose the driver's formatting.
+ */
+public class BulkResultSetIterator extends ResultSetIterator {
+
+  protected ResultSetMetaData resultSetMetaData;
+  protected int blockSize;
+  // Created by the first read
+  protected ResultSetBlock block;
+  // Index of the next row of the block, that is returned by next()
+  protected int position = 0;
+  protected boolean exhausted = false;
+
+  /**
+   * @param resultSet    the result set to iterate
+   * @param relationName the fallback relation name
+   * @param blockSize    the number of rows read at once
+   * @throws SQLException if the meta data could not be retrieved
+   */
+  public BulkResultSetIterator(ResultSet resultSet, String relationName, int blockSize)
+    throws SQLException {
+    super(resultSet, relationName);
+    this.resultSetMetaData = resultSet.getMetaData();
+    this.blockSize = Math.max(1, blockSize);
+  }
+
+  @Override
+  public boolean hasNext() throws InputIterationException {
+    if (this.block != null && this.position < this.block.getNumberOfRows()) {
+      return true;
+    }
+    return this.readBlock(false);
+  }
+
+  @Override
+  public List<String> next() throws InputIterationException {
+    if (!this.hasNext()) {
+      throw new InputIterationException("There are no more rows in the result set");
+    }
+    if (this.block.isTyped()) {
+      throw new IllegalStateException("The rows of typed blocks can not be returned row by row.");
+    }
+    List<String> resultRow = new ArrayList<>(this.numberOfColumns);
+    for (int column = 0; column < this.numberOfColumns; column++) {
+      resultRow.add(this.block.getString(column, this.position));
+    }
+    this.position++;
+    return resultRow;
+  }
+
+  /**
+   * Returns the next block of rows. The returned block is overwritten by the next call to this
+   * iterator. The block is typed, unless rows were already returned by {@link #next()}. Blocks can
+   * not be retrieved, while only a part of the current block was returned by {@link #next()}.
+   *
+   * @return the next block or null, if all rows were read
+   * @throws InputIterationException if the rows could not be read
+   */
+  public ResultSetBlock nextBlock() throws InputIterationException {
+    if (this.block == null) {
+      if (!this.readBlock(true)) {
+        return null;
+      }
+    } else if (this.position > 0 && this.position < this.block.getNumberOfRows()) {
+      throw new IllegalStateException("The current block was partially returned row by row.");
+    } else if (this.position > 0 || this.block.getNumberOfRows() == 0) {
+      if (!this.readBlock(true)) {
+        return null;
+      }
+    }
+    this.position = this.block.getNumberOfRows();
+    return this.block;
+  }
+
+  /**
+   * @param typed if the block is not yet created, whether it reads integral columns as long values
+   * @return true, if at least one row was read
+   */
+  protected boolean readBlock(boolean typed) throws InputIterationException {
+    if (this.exhausted) {
+      return false;
+    }
+    try {
+      if (this.block == null) {
+        this.block = new ResultSetBlock(this.resultSetMetaData, this.blockSize, typed);
+      }
+      this.block.fill(this.resultSet);
+    } catch (SQLException e) {
+      throw new InputIterationException("Could not retrieve next rows", e);
+    }
+    this.position = 0;
+    if (this.block.getNumberOfRows() < this.block.getCapacity()) {
+      this.exhausted = true;
+    }
+    return this.block.getNumberOfRows() > 0;
+  }
+
+}
@@ -27,6 +27,7 @@ import javax.persistence.Transient;
 import java.sql.*;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * Generates {@link ResultSetIterator}s or {@link java.sql.ResultSet}s for a given query.
@@ -43,6 +44,14 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
   private int resultSetType = DEFAULT_RESULT_SET_TYPE;
   public static final int DEFAULT_RESULT_SET_CONCURRENCY = ResultSet.CONCUR_READ_ONLY;
   private int resultSetConcurrency = DEFAULT_RESULT_SET_CONCURRENCY;
+  // Number of bytes, that the rows of one fetch should approximately occupy
+  public static final int TARGET_FETCH_BYTES = 4 * 1024 * 1024;
+  public static final int MAX_FETCH_SIZE = 50000;
+  // Assumed width of values with unknown or unbounded display size
+  protected static final int UNKNOWN_COLUMN_WIDTH = 256;
+  // Assumed overhead of a value in a fetched row
+  protected static final int VALUE_OVERHEAD = 16;
+  private boolean bulkFetch = true;
   protected transient Connection dbConnection;
   protected DbSystem system;
   protected String dbUrl;
@@ -73,8 +82,19 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
   }
 
   private void connect() throws AlgorithmConfigurationException {
+    Properties properties = new Properties();
+    if (this.userName != null) {
+      properties.put("user", this.userName);
+    }
+    if (this.password != null) {
+      properties.put("password", this.password);
+    }
+    if (this.bulkFetch && this.system == DbSystem.MySQL) {
+      // MySQL only honors the fetch size with a server-side cursor and reads the whole result otherwise
+      properties.put("useCursorFetch", "true");
+    }
     try {
-      this.dbConnection = DriverManager.getConnection(this.dbUrl, this.userName, this.password);
+      this.dbConnection = DriverManager.getConnection(this.dbUrl, properties);
       this.dbConnection.setAutoCommit(false);
       this.isConnected = true;
     } catch (SQLException e) {
@@ -82,10 +102,25 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
     }
   }
 
+  /**
+   * Opens the connection, if it is not open yet.
+   *
+   * @throws AlgorithmConfigurationException if the connection could not be established
+   */
+  protected void ensureConnected() throws AlgorithmConfigurationException {
+    if (!this.isConnected) {
+      this.connect();
+    }
+  }
+
   @Override
   public RelationalInput generateRelationalInputFromSql(String queryString, String relationName)
     throws InputGenerationException, AlgorithmConfigurationException {
 
+    if (this.bulkFetch) {
+      return this.executeBulkQuery(queryString, relationName);
+    }
+
     ResultSet resultSet = executeQuery(queryString);
 
     ResultSetIterator resultSetIterator;
@@ -107,9 +142,7 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
    * @throws de.metanome.algorithm_integration.AlgorithmConfigurationException if configuration is not correct
    */
   protected ResultSet executeQuery(String queryString) throws InputGenerationException, AlgorithmConfigurationException {
-    if (!this.isConnected) {
-      this.connect();
-    }
+    this.ensureConnected();
 
     Statement sqlStatement;
     try {
@@ -129,6 +162,92 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
     return resultSet;
   }
 
+  /**
+   * Executes the given query and returns a {@link BulkResultSetIterator} over its result. The fetch
+   * size is derived from the width of the result rows, which is taken from the meta data of the
+   * prepared statement. If the driver does not describe prepared statements, the fetch size is
+   * adjusted after the first fetch. With a forward only result set and disabled auto commit, the
+   * drivers of all supported systems use server-side cursors.
+   *
+   * @param queryString  the query string to execute
+   * @param relationName the fallback relation name
+   * @return a {@link BulkResultSetIterator} over the result
+   * @throws InputGenerationException if sql statement could not be created or executed
+   * @throws AlgorithmConfigurationException if configuration is not correct
+   */
+  protected BulkResultSetIterator executeBulkQuery(String queryString, String relationName)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    this.ensureConnected();
+
+    PreparedStatement sqlStatement;
+    ResultSetMetaData metaData = null;
+    try {
+      sqlStatement = this.dbConnection.prepareStatement(queryString, getResultSetType(),
+        getResultSetConcurrency());
+      this.statements.add(sqlStatement);
+    } catch (SQLException e) {
+      throw new InputGenerationException("Could not create sql statement on connection", e);
+    }
+    try {
+      metaData = sqlStatement.getMetaData();
+    } catch (SQLException e) {
+      // the driver can not describe the statement before its execution
+    }
+
+    try {
+      int fetchSize = metaData != null ? computeFetchSize(metaData) : getFetchSize();
+      sqlStatement.setFetchSize(fetchSize);
+      ResultSet resultSet = sqlStatement.executeQuery();
+      if (metaData == null) {
+        fetchSize = computeFetchSize(resultSet.getMetaData());
+        resultSet.setFetchSize(fetchSize);
+      }
+      return new BulkResultSetIterator(resultSet, relationName, fetchSize);
+    } catch (SQLException e) {
+      throw new InputGenerationException("Could not execute sql statement", e);
+    }
+  }
+
+  /**
+   * Computes a fetch size, so that the rows of one fetch approximately occupy {@link
+   * #TARGET_FETCH_BYTES}. The fetch size is at least the configured fetch size and at most {@link
+   * #MAX_FETCH_SIZE}.
+   *
+   * @param metaData the meta data of the result rows
+   * @return the fetch size
+   * @throws SQLException if the meta data could not be retrieved
+   */
+  protected int computeFetchSize(ResultSetMetaData metaData) throws SQLException {
+    long rowWidth = 0;
+    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+      rowWidth += VALUE_OVERHEAD;
+      switch (metaData.getColumnType(column)) {
+        case Types.BIT:
+        case Types.BOOLEAN:
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+          rowWidth += 8;
+          break;
+        case Types.DATE:
+        case Types.TIME:
+        case Types.TIMESTAMP:
+          rowWidth += 16;
+          break;
+        default:
+          int displaySize = metaData.getColumnDisplaySize(column);
+          rowWidth += displaySize > 0 && displaySize < UNKNOWN_COLUMN_WIDTH * 16 ?
+            displaySize : UNKNOWN_COLUMN_WIDTH;
+      }
+    }
+    long fetchSize = TARGET_FETCH_BYTES / Math.max(1, rowWidth);
+    return (int) Math.max(getFetchSize(), Math.min(MAX_FETCH_SIZE, fetchSize));
+  }
+
   @Override
   public ResultSet generateResultSetFromSql(String queryString) throws InputGenerationException, AlgorithmConfigurationException {
     return executeQuery(queryString);
@@ -176,6 +295,20 @@ public class DefaultDatabaseConnectionGenerator implements DatabaseConnectionGen
     return this;
   }
 
+  public boolean isBulkFetch() {
+    return this.bulkFetch;
+  }
+
+  /**
+   * @param bulkFetch false, if the relational inputs should be read row by row with the configured
+   *                  fetch size
+   * @return this generator
+   */
+  public DefaultDatabaseConnectionGenerator setBulkFetch(boolean bulkFetch) {
+    this.bulkFetch = bulkFetch;
+    return this;
+  }
+
   public int getResultSetType() {
     return this.resultSetType;
   }
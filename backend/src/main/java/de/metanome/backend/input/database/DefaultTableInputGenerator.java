@@ -17,11 +17,18 @@ package de.metanome.backend.input.database;
 
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.configuration.ConfigurationSettingTableInput;
+import de.metanome.algorithm_integration.configuration.DbSystem;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.RelationalInput;
 import de.metanome.algorithm_integration.input.TableInputGenerator;
 
+import java.math.BigInteger;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Provides database tables as {@link RelationalInput} by executing select statements on an
@@ -36,9 +43,24 @@ public class DefaultTableInputGenerator implements TableInputGenerator {
   protected static final String BASE_STATEMENT = "SELECT * FROM %s";
   protected static final String SORT_STATEMENT = "SELECT * FROM %s ORDER BY %s %s";
   protected static final String FILTER_STATEMENT = "SELECT * FROM %s WHERE %s";
+  protected static final String RANGE_STATEMENT = "SELECT MIN(%1$s), MAX(%1$s) FROM %2$s";
+  protected static final String PAGE_COUNT_STATEMENT =
+    "SELECT pg_relation_size('%s') / current_setting('block_size')::int";
+  // Lists the extents of the table and its partitions, %1$s is USER or DBA
+  protected static final String EXTENT_STATEMENT =
+    "SELECT o.data_object_id, e.relative_fno, e.block_id, e.blocks " +
+      "FROM %1$s_extents e JOIN %1$s_objects o ON o.object_name = e.segment_name " +
+      "AND (o.subobject_name = e.partition_name OR (o.subobject_name IS NULL AND e.partition_name IS NULL))%2$s " +
+      "WHERE e.segment_name = '%3$s' AND o.object_type LIKE 'TABLE%%' AND o.data_object_id IS NOT NULL%4$s " +
+      "ORDER BY o.data_object_id, e.relative_fno, e.block_id";
+  protected static final String ROWID_RANGE =
+    "ROWID BETWEEN DBMS_ROWID.ROWID_CREATE(1, %1$d, %2$d, %3$d, 0) AND DBMS_ROWID.ROWID_CREATE(1, %1$d, %2$d, %4$d, 32767)";
 
   protected DefaultDatabaseConnectionGenerator defaultDatabaseConnectionGenerator;
   protected String table;
+  // Integral column, whose value ranges partition the table, or null to use the primary key
+  protected String partitionColumn;
+  protected int numberOfPartitions = 1;
 
   protected DefaultTableInputGenerator() {
   }
@@ -65,6 +87,8 @@ public class DefaultTableInputGenerator implements TableInputGenerator {
     this.defaultDatabaseConnectionGenerator =
       new DefaultDatabaseConnectionGenerator(setting.getDatabaseConnection());
     this.table = setting.getTable();
+    this.partitionColumn = setting.getPartitionColumn();
+    this.numberOfPartitions = Math.max(1, setting.getNumberOfPartitions());
   }
 
   /**
@@ -76,6 +100,9 @@ public class DefaultTableInputGenerator implements TableInputGenerator {
    */
   @Override
   public RelationalInput generateNewCopy() throws InputGenerationException, AlgorithmConfigurationException {
+    if (numberOfPartitions > 1) {
+      return generateParallelCopy(numberOfPartitions);
+    }
     String query = String.format(BASE_STATEMENT, table);
     return defaultDatabaseConnectionGenerator
       .generateRelationalInputFromSql(query, table);
@@ -101,4 +128,361 @@ public class DefaultTableInputGenerator implements TableInputGenerator {
     return defaultDatabaseConnectionGenerator
       .generateResultSetFromSql(query);
   }
+
+  /**
+   * Generates a {@link RelationalInput}, that reads the partitions of the table concurrently over
+   * separate connections and returns all rows.
+   *
+   * @param numberOfPartitions the maximal number of partitions
+   * @return the {@link ParallelTableInput} over the partitions
+   * @throws InputGenerationException if a database statement could not be executed
+   * @throws AlgorithmConfigurationException if a connection could not be established
+   */
+  public RelationalInput generateParallelCopy(int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    List<RelationalInput> partitions = generatePartitions(numberOfPartitions);
+    if (partitions.size() == 1) {
+      return partitions.get(0);
+    }
+    return new ParallelTableInput(partitions);
+  }
+
+  /**
+   * Splits the table into disjoint partitions and creates an independent {@link RelationalInput}
+   * with its own connection for every partition, so that the partitions can be consumed
+   * concurrently. The table is split into value ranges of the partition column or of a single
+   * integral primary key column. Without such a column, PostgreSQL tables are split into
+   * contiguous ranges of their pages and Oracle tables into ROWID ranges of their extents, so that
+   * every partition only reads its part of the table. For all other tables a single partition is
+   * returned.
+   *
+   * @param numberOfPartitions the maximal number of partitions
+   * @return the partitions
+   * @throws InputGenerationException if a database statement could not be executed
+   * @throws AlgorithmConfigurationException if a connection could not be established
+   */
+  public List<RelationalInput> generatePartitions(int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    List<String> predicates = numberOfPartitions > 1 ?
+      getPartitionPredicates(numberOfPartitions) : new ArrayList<String>();
+    List<RelationalInput> partitions = new ArrayList<>();
+    if (predicates.size() < 2) {
+      partitions.add(defaultDatabaseConnectionGenerator
+        .generateRelationalInputFromSql(String.format(BASE_STATEMENT, table), table));
+      return partitions;
+    }
+
+    try {
+      for (String predicate : predicates) {
+        DefaultDatabaseConnectionGenerator connectionGenerator = new DefaultDatabaseConnectionGenerator(
+          defaultDatabaseConnectionGenerator.getDbUrl(), defaultDatabaseConnectionGenerator.getUserName(),
+          defaultDatabaseConnectionGenerator.getPassword(), defaultDatabaseConnectionGenerator.getSystem());
+        connectionGenerator.setFetchSize(defaultDatabaseConnectionGenerator.getFetchSize());
+        connectionGenerator.setBulkFetch(defaultDatabaseConnectionGenerator.isBulkFetch());
+        try {
+          RelationalInput input = connectionGenerator.generateRelationalInputFromSql(
+            String.format(FILTER_STATEMENT, table, predicate), table);
+          partitions.add(new TablePartitionInput(input, connectionGenerator, predicate));
+        } catch (InputGenerationException | AlgorithmConfigurationException e) {
+          connectionGenerator.close();
+          throw e;
+        }
+      }
+    } catch (InputGenerationException | AlgorithmConfigurationException e) {
+      closePartitions(partitions);
+      throw e;
+    } catch (SQLException e) {
+      closePartitions(partitions);
+      throw new InputGenerationException("Could not close the connection of a partition", e);
+    }
+    return partitions;
+  }
+
+  /**
+   * Builds the conditions, that select the rows of each partition.
+   *
+   * @param numberOfPartitions the maximal number of partitions
+   * @return the conditions or an empty list, if the table can not be partitioned
+   * @throws InputGenerationException if the key range could not be determined
+   * @throws AlgorithmConfigurationException if the configuration is not correct
+   */
+  protected List<String> getPartitionPredicates(int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    String column = partitionColumn != null ? partitionColumn : findIntegralPrimaryKey();
+    if (column != null) {
+      return getRangePredicates(column, numberOfPartitions);
+    }
+
+    DbSystem system = defaultDatabaseConnectionGenerator.getSystem();
+    if (system == DbSystem.PostgreSQL) {
+      return getPageRangePredicates(numberOfPartitions);
+    } else if (system == DbSystem.Oracle) {
+      return getRowidRangePredicates(numberOfPartitions);
+    }
+    return new ArrayList<>();
+  }
+
+  /**
+   * Splits the range between the minimal and maximal value of the column into ranges of equal
+   * width. The first partition also contains null values and the last partition has no upper
+   * bound.
+   */
+  protected List<String> getRangePredicates(String column, int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    BigInteger min;
+    BigInteger max;
+    try (ResultSet range = defaultDatabaseConnectionGenerator
+      .generateResultSetFromSql(String.format(RANGE_STATEMENT, column, table))) {
+      if (!range.next() || range.getString(1) == null) {
+        return new ArrayList<>();
+      }
+      min = new BigInteger(range.getString(1));
+      max = new BigInteger(range.getString(2));
+    } catch (SQLException | NumberFormatException e) {
+      throw new InputGenerationException("Could not determine the value range of " + column, e);
+    }
+
+    List<BigInteger> bounds = splitRange(min, max, numberOfPartitions);
+    List<String> predicates = new ArrayList<>();
+    for (int i = 0; i <= bounds.size(); i++) {
+      if (i == 0) {
+        predicates.add(bounds.isEmpty() ? "1 = 1" :
+          String.format("(%1$s < %2$s OR %1$s IS NULL)", column, bounds.get(0)));
+      } else if (i == bounds.size()) {
+        predicates.add(String.format("%s >= %s", column, bounds.get(i - 1)));
+      } else {
+        predicates.add(String.format("%1$s >= %2$s AND %1$s < %3$s", column, bounds.get(i - 1), bounds.get(i)));
+      }
+    }
+    return predicates;
+  }
+
+  /**
+   * Splits the pages of a PostgreSQL table into contiguous ranges of equal size. The ctid range
+   * conditions are served by TID range scans, so that every partition only reads its pages. The
+   * last partition has no upper bound and also contains pages, that were appended after the page
+   * count was determined.
+   */
+  protected List<String> getPageRangePredicates(int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    BigInteger pages;
+    try (ResultSet pageCount = defaultDatabaseConnectionGenerator
+      .generateResultSetFromSql(String.format(PAGE_COUNT_STATEMENT, table.replace("'", "''")))) {
+      if (!pageCount.next() || pageCount.getString(1) == null) {
+        return new ArrayList<>();
+      }
+      pages = new BigInteger(pageCount.getString(1));
+    } catch (SQLException | NumberFormatException e) {
+      throw new InputGenerationException("Could not determine the number of pages of " + table, e);
+    }
+
+    List<BigInteger> bounds = splitRange(BigInteger.ZERO, pages, numberOfPartitions);
+    List<String> predicates = new ArrayList<>();
+    if (bounds.isEmpty()) {
+      return predicates;
+    }
+    for (int i = 0; i <= bounds.size(); i++) {
+      if (i == 0) {
+        predicates.add(String.format("ctid < '(%s,0)'::tid", bounds.get(0)));
+      } else if (i == bounds.size()) {
+        predicates.add(String.format("ctid >= '(%s,0)'::tid", bounds.get(i - 1)));
+      } else {
+        predicates.add(String.format("ctid >= '(%s,0)'::tid AND ctid < '(%s,0)'::tid",
+          bounds.get(i - 1), bounds.get(i)));
+      }
+    }
+    return predicates;
+  }
+
+  /**
+   * Splits the extents of an Oracle table into groups with about the same number of blocks. Every
+   * partition reads the ROWID ranges of the blocks of its extents, which are served by ROWID range
+   * scans. Rows in extents, that are allocated after the partitions were determined, are not read.
+   * If the extents can not be read, the table is not split.
+   */
+  protected List<String> getRowidRangePredicates(int numberOfPartitions)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    String owner = null;
+    String tableName = table;
+    int separator = table.lastIndexOf('.');
+    if (separator >= 0) {
+      owner = table.substring(0, separator).toUpperCase().replace("'", "''");
+      tableName = table.substring(separator + 1);
+    }
+    String query = String.format(EXTENT_STATEMENT,
+      owner == null ? "USER" : "DBA",
+      owner == null ? "" : " AND o.owner = e.owner",
+      tableName.toUpperCase().replace("'", "''"),
+      owner == null ? "" : " AND e.owner = '" + owner + "'");
+
+    // data object id, relative file number, first block and number of blocks of every extent
+    List<long[]> extents = new ArrayList<>();
+    long totalBlocks = 0;
+    try (ResultSet resultSet = defaultDatabaseConnectionGenerator.generateResultSetFromSql(query)) {
+      while (resultSet.next()) {
+        long[] extent = new long[]{resultSet.getLong(1), resultSet.getLong(2),
+          resultSet.getLong(3), resultSet.getLong(4)};
+        extents.add(extent);
+        totalBlocks += extent[3];
+      }
+    } catch (SQLException | InputGenerationException e) {
+      // e.g. missing privileges on the dictionary views, the table is read as a whole
+      return new ArrayList<>();
+    }
+
+    List<String> predicates = new ArrayList<>();
+    if (extents.size() < 2) {
+      return predicates;
+    }
+    long blocksPerPartition = (totalBlocks + numberOfPartitions - 1) / numberOfPartitions;
+    List<String> ranges = new ArrayList<>();
+    long[] range = null;
+    long partitionBlocks = 0;
+    for (long[] extent : extents) {
+      // Adjacent extents of the same segment and file are merged into one ROWID range
+      if (range != null && (range[0] != extent[0] || range[1] != extent[1] || range[3] + 1 != extent[2])) {
+        ranges.add(String.format(ROWID_RANGE, range[0], range[1], range[2], range[3]));
+        range = null;
+      }
+      if (range == null) {
+        range = new long[]{extent[0], extent[1], extent[2], 0};
+      }
+      range[3] = extent[2] + extent[3] - 1;
+      partitionBlocks += extent[3];
+
+      if (partitionBlocks >= blocksPerPartition && predicates.size() < numberOfPartitions - 1) {
+        ranges.add(String.format(ROWID_RANGE, range[0], range[1], range[2], range[3]));
+        predicates.add(joinRanges(ranges));
+        ranges.clear();
+        range = null;
+        partitionBlocks = 0;
+      }
+    }
+    if (range != null) {
+      ranges.add(String.format(ROWID_RANGE, range[0], range[1], range[2], range[3]));
+    }
+    if (!ranges.isEmpty()) {
+      predicates.add(joinRanges(ranges));
+    }
+    return predicates;
+  }
+
+  protected static String joinRanges(List<String> ranges) {
+    StringBuilder predicate = new StringBuilder("(");
+    for (int i = 0; i < ranges.size(); i++) {
+      if (i > 0) {
+        predicate.append(" OR ");
+      }
+      predicate.append(ranges.get(i));
+    }
+    return predicate.append(")").toString();
+  }
+
+  /**
+   * Splits the range between min and max into ranges of equal width.
+   *
+   * @return the strictly increasing inner bounds of the ranges, which lie above min
+   */
+  protected static List<BigInteger> splitRange(BigInteger min, BigInteger max, int numberOfPartitions) {
+    List<BigInteger> bounds = new ArrayList<>();
+    BigInteger width = max.subtract(min);
+    BigInteger partitions = BigInteger.valueOf(numberOfPartitions);
+    for (int i = 1; i < numberOfPartitions; i++) {
+      BigInteger bound = min.add(width.multiply(BigInteger.valueOf(i)).divide(partitions));
+      if (bound.compareTo(min) > 0 && (bounds.isEmpty() || bound.compareTo(bounds.get(bounds.size() - 1)) > 0)) {
+        bounds.add(bound);
+      }
+    }
+    return bounds;
+  }
+
+  /**
+   * @return the name of the primary key column, if the primary key consists of a single integral
+   * column, null otherwise
+   * @throws AlgorithmConfigurationException if no connection could be established
+   */
+  protected String findIntegralPrimaryKey() throws AlgorithmConfigurationException {
+    defaultDatabaseConnectionGenerator.ensureConnected();
+    String schema = null;
+    String tableName = table;
+    int separator = table.lastIndexOf('.');
+    if (separator >= 0) {
+      schema = table.substring(0, separator);
+      tableName = table.substring(separator + 1);
+    }
+
+    try {
+      DatabaseMetaData metaData = defaultDatabaseConnectionGenerator.getConnection().getMetaData();
+      for (String name : new String[]{tableName, tableName.toUpperCase(), tableName.toLowerCase()}) {
+        List<String> keyColumns = new ArrayList<>();
+        try (ResultSet keys = metaData.getPrimaryKeys(null, schema, name)) {
+          while (keys.next()) {
+            keyColumns.add(keys.getString("COLUMN_NAME"));
+          }
+        }
+        if (keyColumns.isEmpty()) {
+          continue;
+        }
+        if (keyColumns.size() > 1) {
+          return null;
+        }
+        try (ResultSet columns = metaData.getColumns(null, schema, name, keyColumns.get(0))) {
+          if (columns.next() && isIntegralType(columns.getInt("DATA_TYPE"))) {
+            return keyColumns.get(0);
+          }
+        }
+        return null;
+      }
+    } catch (SQLException e) {
+      // the table can not be partitioned by its key
+    }
+    return null;
+  }
+
+  protected static boolean isIntegralType(int sqlType) {
+    return sqlType == Types.TINYINT || sqlType == Types.SMALLINT || sqlType == Types.INTEGER
+      || sqlType == Types.BIGINT;
+  }
+
+  protected static void closePartitions(List<RelationalInput> partitions) {
+    for (RelationalInput partition : partitions) {
+      try {
+        partition.close();
+      } catch (Exception closeException) {
+        // The generation error is reported
+      }
+    }
+  }
+
+  public DefaultDatabaseConnectionGenerator getDefaultDatabaseConnectionGenerator() {
+    return defaultDatabaseConnectionGenerator;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /**
+   * @param partitionColumn the integral column, whose value ranges partition the table, or null to
+   *                        use the primary key
+   */
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  public int getNumberOfPartitions() {
+    return numberOfPartitions;
+  }
+
+  /**
+   * @param numberOfPartitions the number of partitions, that {@link #generateNewCopy()} reads
+   *                           concurrently, or 1 to read the table over a single connection
+   */
+  public void setNumberOfPartitions(int numberOfPartitions) {
+    this.numberOfPartitions = numberOfPartitions;
+  }
 }
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads the partitions of a table concurrently, each on its own thread, and returns their rows as
+ * one {@link RelationalInput}. The reading threads hand over the rows in batches through a bounded
+ * queue. The rows of the partitions are interleaved in the order they arrive; the rows of one
+ * partition keep their order.
+ */
+public class ParallelTableInput implements RelationalInput {
+
+  protected static final int BATCH_SIZE = 1024;
+  // Number of batches per partition, that can be queued
+  protected static final int QUEUED_BATCHES_PER_PARTITION = 4;
+
+  protected List<RelationalInput> partitions;
+  protected BlockingQueue<List<List<String>>> queue;
+  protected List<Thread> readers = new ArrayList<>();
+  protected AtomicReference<Exception> failure = new AtomicReference<>();
+  protected volatile boolean closed = false;
+  protected int runningReaders;
+  protected List<List<String>> batch = null;
+  protected int position = 0;
+
+  /**
+   * Starts a reading thread for every partition.
+   *
+   * @param partitions the partitions, which have equal columns
+   */
+  public ParallelTableInput(List<RelationalInput> partitions) {
+    this.partitions = partitions;
+    this.runningReaders = partitions.size();
+    this.queue =
+      new ArrayBlockingQueue<>(Math.max(1, partitions.size() * QUEUED_BATCHES_PER_PARTITION));
+    for (int i = 0; i < partitions.size(); i++) {
+      final RelationalInput partition = partitions.get(i);
+      Thread reader = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          readPartition(partition);
+        }
+      }, "table-partition-reader-" + partition.relationName() + "-" + i);
+      reader.setDaemon(true);
+      this.readers.add(reader);
+      reader.start();
+    }
+  }
+
+  /**
+   * Main loop of a reading thread. An empty batch marks the end of the partition.
+   */
+  protected void readPartition(RelationalInput partition) {
+    try {
+      List<List<String>> rows = new ArrayList<>(BATCH_SIZE);
+      while (!this.closed && partition.hasNext()) {
+        rows.add(partition.next());
+        if (rows.size() == BATCH_SIZE) {
+          this.queue.put(rows);
+          rows = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+      if (!rows.isEmpty()) {
+        this.queue.put(rows);
+      }
+      this.queue.put(new ArrayList<List<String>>());
+    } catch (InterruptedException e) {
+      // the input was closed
+    } catch (Exception e) {
+      this.failure.compareAndSet(null, e);
+      try {
+        // wake up the consumer, which reports the failure
+        this.queue.put(new ArrayList<List<String>>());
+      } catch (InterruptedException interrupted) {
+        // the input was closed
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() throws InputIterationException {
+    while (this.batch == null || this.position == this.batch.size()) {
+      this.checkFailure();
+      if (this.runningReaders == 0) {
+        return false;
+      }
+      try {
+        this.batch = this.queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InputIterationException("Interrupted while waiting for the next rows", e);
+      }
+      this.position = 0;
+      if (this.batch.isEmpty()) {
+        this.runningReaders--;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public List<String> next() throws InputIterationException {
+    if (!this.hasNext()) {
+      throw new InputIterationException("There are no more rows in the partitions");
+    }
+    return this.batch.get(this.position++);
+  }
+
+  protected void checkFailure() throws InputIterationException {
+    Exception e = this.failure.get();
+    if (e != null) {
+      throw new InputIterationException("Could not read a partition of the table", e);
+    }
+  }
+
+  @Override
+  public int numberOfColumns() {
+    return this.partitions.get(0).numberOfColumns();
+  }
+
+  @Override
+  public String relationName() {
+    return this.partitions.get(0).relationName();
+  }
+
+  @Override
+  public List<String> columnNames() {
+    return this.partitions.get(0).columnNames();
+  }
+
+  /**
+   * Stops the reading threads and closes all partitions.
+   */
+  @Override
+  public void close() throws Exception {
+    this.closed = true;
+    for (Thread reader : this.readers) {
+      reader.interrupt();
+    }
+    for (Thread reader : this.readers) {
+      reader.join();
+    }
+    Exception closeFailure = null;
+    for (RelationalInput partition : this.partitions) {
+      try {
+        partition.close();
+      } catch (Exception e) {
+        closeFailure = e;
+      }
+    }
+    if (closeFailure != null) {
+      throw closeFailure;
+    }
+  }
+}
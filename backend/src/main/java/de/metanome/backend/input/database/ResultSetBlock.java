@@ -0,0 +1,210 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * A block of consecutive rows of a {@link ResultSet} stored column by column. In a typed block,
+ * integral columns are read with {@link ResultSet#getLong(int)} into primitive arrays and all
+ * other columns are read as strings. An untyped block reads all columns with {@link
+ * ResultSet#getString(int)}, so that the values are exactly the strings of the driver. The arrays
+ * are allocated once and reused for every block that is read.
+ */
+public class ResultSetBlock {
+
+  protected int numberOfColumns;
+  protected int capacity;
+  protected int numberOfRows = 0;
+  protected boolean typed;
+  protected boolean[] integralColumns;
+  // Values of the integral columns, null for all other columns
+  protected long[][] longValues;
+  protected boolean[][] nullValues;
+  // Values of the non integral columns, null for the integral columns
+  protected String[][] stringValues;
+
+  /**
+   * Creates a typed block.
+   *
+   * @param resultSetMetaData the meta data of the result set
+   * @param capacity          the maximal number of rows in the block
+   * @throws SQLException if the column types could not be retrieved
+   */
+  public ResultSetBlock(ResultSetMetaData resultSetMetaData, int capacity) throws SQLException {
+    this(resultSetMetaData, capacity, true);
+  }
+
+  /**
+   * @param resultSetMetaData the meta data of the result set
+   * @param capacity          the maximal number of rows in the block
+   * @param typed             if true, integral columns are read as long values
+   * @throws SQLException if the column types could not be retrieved
+   */
+  public ResultSetBlock(ResultSetMetaData resultSetMetaData, int capacity, boolean typed)
+    throws SQLException {
+    this.numberOfColumns = resultSetMetaData.getColumnCount();
+    this.capacity = capacity;
+    this.typed = typed;
+    this.integralColumns = new boolean[this.numberOfColumns];
+    this.longValues = new long[this.numberOfColumns][];
+    this.nullValues = new boolean[this.numberOfColumns][];
+    this.stringValues = new String[this.numberOfColumns][];
+
+    for (int column = 0; column < this.numberOfColumns; column++) {
+      this.integralColumns[column] = typed && isIntegralColumn(resultSetMetaData, column + 1);
+      if (this.integralColumns[column]) {
+        this.longValues[column] = new long[capacity];
+        this.nullValues[column] = new boolean[capacity];
+      } else {
+        this.stringValues[column] = new String[capacity];
+      }
+    }
+  }
+
+  /**
+   * Unsigned BIGINT values, e.g. of MySQL, may exceed the range of long and are read as strings.
+   * Note, that the long value of an integral column does not keep the driver's string
+   * representation, e.g. the leading zeros of ZEROFILL columns.
+   *
+   * @param resultSetMetaData the meta data of the result set
+   * @param column            the index of the column starting at 1
+   * @return true, if the values of the column can be read as long values
+   * @throws SQLException if the column type could not be retrieved
+   */
+  protected static boolean isIntegralColumn(ResultSetMetaData resultSetMetaData, int column)
+    throws SQLException {
+    int sqlType = resultSetMetaData.getColumnType(column);
+    if (sqlType == Types.BIGINT && !resultSetMetaData.isSigned(column)) {
+      return false;
+    }
+    return isIntegralType(sqlType);
+  }
+
+  /**
+   * @param sqlType the sql type of a column
+   * @return true, if the type is an integral type
+   */
+  protected static boolean isIntegralType(int sqlType) {
+    return sqlType == Types.TINYINT || sqlType == Types.SMALLINT || sqlType == Types.INTEGER
+      || sqlType == Types.BIGINT;
+  }
+
+  /**
+   * Reads the following rows of the result set into the block, until the block is full or the
+   * result set is exhausted. The previous rows of the block are overwritten.
+   *
+   * @param resultSet the result set, whose cursor is before the first row to read
+   * @return the number of rows, that were read
+   * @throws SQLException if the rows could not be read
+   */
+  public int fill(ResultSet resultSet) throws SQLException {
+    int row = 0;
+    while (row < this.capacity && resultSet.next()) {
+      for (int column = 0; column < this.numberOfColumns; column++) {
+        if (this.integralColumns[column]) {
+          this.longValues[column][row] = resultSet.getLong(column + 1);
+          this.nullValues[column][row] = resultSet.wasNull();
+        } else {
+          this.stringValues[column][row] = resultSet.getString(column + 1);
+        }
+      }
+      row++;
+    }
+    // release the strings of the previous block
+    if (row < this.numberOfRows) {
+      for (String[] values : this.stringValues) {
+        if (values != null) {
+          Arrays.fill(values, row, this.numberOfRows, null);
+        }
+      }
+    }
+    this.numberOfRows = row;
+    return row;
+  }
+
+  public int getNumberOfRows() {
+    return numberOfRows;
+  }
+
+  public int getNumberOfColumns() {
+    return numberOfColumns;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return true, if integral columns are read as long values
+   */
+  public boolean isTyped() {
+    return typed;
+  }
+
+  /**
+   * @param column the index of the column starting at 0
+   * @return true, if the values of the column are available as long values
+   */
+  public boolean isIntegralColumn(int column) {
+    return this.integralColumns[column];
+  }
+
+  /**
+   * @param column the index of the column starting at 0
+   * @param row    the index of the row in the block
+   * @return true, if the value is null
+   */
+  public boolean isNull(int column, int row) {
+    if (this.integralColumns[column]) {
+      return this.nullValues[column][row];
+    }
+    return this.stringValues[column][row] == null;
+  }
+
+  /**
+   * @param column the index of an integral column starting at 0
+   * @param row    the index of the row in the block
+   * @return the value, or 0 if the value is null
+   */
+  public long getLong(int column, int row) {
+    if (!this.integralColumns[column]) {
+      throw new IllegalArgumentException("Column " + column + " is not an integral column.");
+    }
+    return this.longValues[column][row];
+  }
+
+  /**
+   * @param column the index of the column starting at 0
+   * @param row    the index of the row in the block
+   * @return the value as string, or null if the value is null; values of integral columns of a
+   * typed block are formatted with {@link Long#toString(long)}
+   */
+  public String getString(int column, int row) {
+    if (!this.integralColumns[column]) {
+      return this.stringValues[column][row];
+    }
+    if (this.nullValues[column][row]) {
+      return null;
+    }
+    return Long.toString(this.longValues[column][row]);
+  }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.List;
+
+/**
+ * The rows of one partition of a table, that are read over a dedicated database connection. The
+ * connection is closed together with the input.
+ */
+public class TablePartitionInput implements RelationalInput {
+
+  protected RelationalInput input;
+  protected DefaultDatabaseConnectionGenerator connectionGenerator;
+  protected String predicate;
+
+  /**
+   * @param input               the rows of the partition
+   * @param connectionGenerator the generator of the dedicated connection
+   * @param predicate           the condition selecting the rows of the partition
+   */
+  public TablePartitionInput(RelationalInput input,
+                             DefaultDatabaseConnectionGenerator connectionGenerator,
+                             String predicate) {
+    this.input = input;
+    this.connectionGenerator = connectionGenerator;
+    this.predicate = predicate;
+  }
+
+  /**
+   * @return the condition selecting the rows of the partition
+   */
+  public String getPredicate() {
+    return predicate;
+  }
+
+  @Override
+  public boolean hasNext() throws InputIterationException {
+    return input.hasNext();
+  }
+
+  @Override
+  public List<String> next() throws InputIterationException {
+    return input.next();
+  }
+
+  @Override
+  public int numberOfColumns() {
+    return input.numberOfColumns();
+  }
+
+  @Override
+  public String relationName() {
+    return input.relationName();
+  }
+
+  @Override
+  public List<String> columnNames() {
+    return input.columnNames();
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      input.close();
+    } finally {
+      connectionGenerator.closeAllStatements();
+      connectionGenerator.close();
+    }
+  }
+}
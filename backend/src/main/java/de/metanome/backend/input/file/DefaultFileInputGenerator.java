@@ -27,6 +27,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -42,6 +44,7 @@ public class DefaultFileInputGenerator implements FileInputGenerator {
 
   File inputFile;
   protected ConfigurationSettingFileInput setting;
+  protected boolean memoryMapped = true;
 
   protected DefaultFileInputGenerator() {
   }
@@ -82,9 +85,20 @@ public class DefaultFileInputGenerator implements FileInputGenerator {
     }
     this.setting = setting;
   }
+
+  /**
+   * Creates a new {@link FileIterator} over the input file. If memory mapping is enabled and the
+   * setting is supported, a {@link MappedFileIterator} is returned.
+   *
+   * @return a new iterator over the input file
+   * @throws InputGenerationException if the file cannot be read
+   */
   @Override
   public RelationalInput generateNewCopy() throws InputGenerationException {
     try {
+      if (memoryMapped && MappedFileIterator.isSupported(setting, Charset.defaultCharset())) {
+        return new MappedFileIterator(inputFile.getName(), inputFile, setting);
+      }
       return new FileIterator(inputFile.getName(), new FileReader(inputFile), setting);
     } catch (FileNotFoundException e) {
       throw new InputGenerationException("File not found!", e);
@@ -93,6 +107,54 @@ public class DefaultFileInputGenerator implements FileInputGenerator {
     }
   }
 
+  /**
+   * Splits the input file into byte ranges, that start and end on record boundaries, and creates an
+   * independent {@link RelationalInput} for every range. The partitions return the rows of the file
+   * in order, so that concatenating the partitions equals a sequential read, and can be consumed
+   * concurrently. If the setting is not supported by the {@link MappedFileIterator}, a single
+   * partition covering the complete file is returned.
+   *
+   * @param numberOfPartitions the maximal number of partitions
+   * @return the partitions in file order
+   * @throws InputGenerationException if the file cannot be read
+   */
+  public List<RelationalInput> generatePartitions(int numberOfPartitions)
+    throws InputGenerationException {
+    if (!memoryMapped || !MappedFileIterator.isSupported(setting, Charset.defaultCharset())) {
+      List<RelationalInput> partitions = new ArrayList<>();
+      partitions.add(generateNewCopy());
+      return partitions;
+    }
+
+    List<FilePartition> filePartitions;
+    try (MappedFileIterator scanner =
+           new MappedFileIterator(inputFile.getName(), inputFile, setting)) {
+      filePartitions = scanner.split(numberOfPartitions);
+    } catch (InputIterationException e) {
+      throw new InputGenerationException("Could not split the file input", e);
+    } catch (IOException e) {
+      throw new InputGenerationException("Could not close the file input", e);
+    }
+
+    List<RelationalInput> partitions = new ArrayList<>();
+    try {
+      for (FilePartition filePartition : filePartitions) {
+        partitions.add(
+          new MappedFileIterator(inputFile.getName(), inputFile, setting, filePartition));
+      }
+    } catch (InputIterationException e) {
+      for (RelationalInput partition : partitions) {
+        try {
+          partition.close();
+        } catch (Exception closeException) {
+          // The iteration error is reported
+        }
+      }
+      throw new InputGenerationException("Could not iterate over the first line of a partition", e);
+    }
+    return partitions;
+  }
+
   /**
    * @return inputFile
    */
@@ -116,4 +178,16 @@ public class DefaultFileInputGenerator implements FileInputGenerator {
     return this.setting;
   }
 
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * @param memoryMapped false, if the input file should always be read with the stream based
+   *                     {@link FileIterator}
+   */
+  public void setMemoryMapped(boolean memoryMapped) {
+    this.memoryMapped = memoryMapped;
+  }
+
 }
@@ -55,11 +55,7 @@ public class FileIterator implements RelationalInput {
 
   public FileIterator(String relationName, Reader reader, ConfigurationSettingFileInput setting)
     throws InputIterationException {
-    this.relationName = relationName;
-
-    this.hasHeader = setting.hasHeader();
-    this.skipDifferingLines = setting.isSkipDifferingLines();
-    this.nullValue = setting.getNullValue();
+    this(relationName, setting);
 
     this.csvReader =
       new CSVReader(reader,
@@ -70,6 +66,30 @@ public class FileIterator implements RelationalInput {
         setting.isStrictQuotes(),
         setting.isIgnoreLeadingWhiteSpace());
 
+    readFirstLines();
+  }
+
+  /**
+   * Constructor for subclasses, that read the lines with their own parser. Subclasses have to call
+   * {@link #readFirstLines()} once their parser is set up.
+   *
+   * @param relationName the name of the relation
+   * @param setting      the file input setting
+   */
+  protected FileIterator(String relationName, ConfigurationSettingFileInput setting) {
+    this.relationName = relationName;
+
+    this.hasHeader = setting.hasHeader();
+    this.skipDifferingLines = setting.isSkipDifferingLines();
+    this.nullValue = setting.getNullValue();
+  }
+
+  /**
+   * Reads the first line to determine the number of columns and the header.
+   *
+   * @throws InputIterationException if the first line could not be read
+   */
+  protected void readFirstLines() throws InputIterationException {
     this.nextLine = readNextLine();
     if (this.nextLine != null) {
       this.numberOfColumns = this.nextLine.size();
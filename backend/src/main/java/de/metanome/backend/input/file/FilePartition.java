@@ -0,0 +1,93 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.file;
+
+import java.util.List;
+
+/**
+ * A byte range of a file input, that starts and ends on record boundaries. Besides the range the
+ * partition stores the parser state at the start of the range, so that the partition can be parsed
+ * independently of the preceding ranges with the same result as a sequential read.
+ */
+public class FilePartition {
+
+  protected long startOffset;
+  protected long endOffset;
+  protected long firstRowNumber;
+  protected int firstLineNumber;
+  protected boolean startsInField;
+  protected List<String> columnNames;
+  protected int numberOfColumns;
+  protected int numberOfSkippedLines;
+
+  /**
+   * @param startOffset          the offset of the first byte of the partition
+   * @param endOffset            the offset after the last byte of the partition
+   * @param firstRowNumber       the global index of the first row returned from the partition
+   * @param firstLineNumber      the index of the first record in the partition, counting all
+   *                             records of the file including the header and skipped records
+   * @param startsInField        the opencsv parser state at the start of the partition
+   * @param columnNames          the column names of the file
+   * @param numberOfColumns      the number of columns of the file
+   * @param numberOfSkippedLines the number of differing lines skipped before the partition, that
+   *                             are not part of any other partition
+   */
+  public FilePartition(long startOffset, long endOffset, long firstRowNumber, int firstLineNumber,
+                       boolean startsInField, List<String> columnNames, int numberOfColumns,
+                       int numberOfSkippedLines) {
+    this.startOffset = startOffset;
+    this.endOffset = endOffset;
+    this.firstRowNumber = firstRowNumber;
+    this.firstLineNumber = firstLineNumber;
+    this.startsInField = startsInField;
+    this.columnNames = columnNames;
+    this.numberOfColumns = numberOfColumns;
+    this.numberOfSkippedLines = numberOfSkippedLines;
+  }
+
+  public long getStartOffset() {
+    return startOffset;
+  }
+
+  public long getEndOffset() {
+    return endOffset;
+  }
+
+  public long getFirstRowNumber() {
+    return firstRowNumber;
+  }
+
+  public int getFirstLineNumber() {
+    return firstLineNumber;
+  }
+
+  public boolean startsInField() {
+    return startsInField;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public int getNumberOfColumns() {
+    return numberOfColumns;
+  }
+
+  public int getNumberOfSkippedLines() {
+    return numberOfSkippedLines;
+  }
+
+}
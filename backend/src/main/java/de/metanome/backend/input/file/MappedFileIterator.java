@@ -0,0 +1,748 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.file;
+
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.InputIterationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FileIterator}, that maps the input file into memory and scans the separators, quotes
+ * and escape characters directly on the mapped bytes. The cells of a line are only decoded to
+ * Strings when they are accessed. The parsing rules are the same as the ones of the opencsv parser
+ * used by the {@link FileIterator}.
+ * <p>
+ * Files larger than the region size are mapped region by region. The scanner works on bytes, so it
+ * can only be used if the separator, quote and escape characters are ASCII characters and the file
+ * is encoded in an ASCII compatible charset (see {@link #isSupported(ConfigurationSettingFileInput,
+ * Charset)}).
+ */
+public class MappedFileIterator extends FileIterator {
+
+  public static final long DEFAULT_REGION_SIZE = Integer.MAX_VALUE;
+
+  protected static final byte LINE_FEED = '\n';
+  protected static final byte CARRIAGE_RETURN = '\r';
+  // Marks a lookahead, that reached the end of a region, that is not the end of the file
+  protected static final int NEEDS_REMAPPING = -2;
+  protected static final int NO_NEXT_CHARACTER = -1;
+  // Marks the end of the file inside an unclosed quoted field
+  protected static final List<String> END_OF_FILE = new EmptyLine();
+  // Returned instead of the lines, while the file is only scanned for line boundaries
+  protected static final List<String> SKIPPED_LINE = new EmptyLine();
+
+  protected FileChannel channel;
+  protected Charset charset;
+  // The offset after the last byte to read, the file size unless a partition is read
+  protected long endOffset;
+  protected long regionSize;
+  protected long regionStart;
+  protected MappedByteBuffer buffer;
+  protected int position;
+
+  protected byte separator;
+  protected byte quoteChar;
+  protected byte escapeChar;
+  protected boolean strictQuotes;
+  protected boolean ignoreLeadingWhiteSpace;
+  protected int skipLines;
+  protected boolean linesSkipped = false;
+
+  // Parser state, that is kept across lines as the opencsv parser does
+  protected boolean inField = false;
+
+  // The current token is either a contiguous range of the buffer or copied to the scratch array
+  protected boolean tokenContiguous;
+  protected int tokenStart;
+  protected int tokenEnd;
+  protected byte[] scratch = new byte[64];
+  protected int scratchLength;
+
+  // Reused token boundaries of the current line
+  protected int[] tokenStarts = new int[16];
+  protected int[] tokenEnds = new int[16];
+  protected String[] copiedTokens = new String[16];
+  protected int tokenCount;
+
+  // Start of the last read line, needed to split the file at line boundaries
+  protected long lastLineStart;
+  protected boolean lastLineStartsInField;
+  protected boolean materializeLines = true;
+  protected FilePartition partition;
+
+  public MappedFileIterator(String relationName, File inputFile,
+                            ConfigurationSettingFileInput setting)
+    throws InputIterationException {
+    this(relationName, inputFile, setting, Charset.defaultCharset(), DEFAULT_REGION_SIZE);
+  }
+
+  /**
+   * Creates an iterator over a partition of the file, that was created by {@link #split(int)}.
+   *
+   * @param relationName the name of the relation
+   * @param inputFile    the file to read
+   * @param setting      the file input setting
+   * @param partition    the partition to read
+   * @throws InputIterationException if the file could not be mapped or the first line could not
+   *                                 be read
+   */
+  public MappedFileIterator(String relationName, File inputFile,
+                            ConfigurationSettingFileInput setting, FilePartition partition)
+    throws InputIterationException {
+    this(relationName, inputFile, setting, Charset.defaultCharset(), DEFAULT_REGION_SIZE,
+      partition);
+  }
+
+  /**
+   * @param relationName the name of the relation
+   * @param inputFile    the file to read
+   * @param setting      the file input setting
+   * @param charset      the charset of the file
+   * @param regionSize   the maximal number of bytes mapped at once
+   * @throws InputIterationException if the file could not be mapped or the first line could not
+   *                                 be read
+   */
+  protected MappedFileIterator(String relationName, File inputFile,
+                               ConfigurationSettingFileInput setting, Charset charset,
+                               long regionSize)
+    throws InputIterationException {
+    super(relationName, setting);
+    setUp(setting, charset, regionSize);
+    open(inputFile, 0, -1);
+
+    try {
+      readFirstLines();
+    } catch (InputIterationException | RuntimeException e) {
+      closeOnError();
+      throw e;
+    }
+  }
+
+  protected MappedFileIterator(String relationName, File inputFile,
+                               ConfigurationSettingFileInput setting, Charset charset,
+                               long regionSize, FilePartition partition)
+    throws InputIterationException {
+    super(relationName, setting);
+    setUp(setting, charset, regionSize);
+    open(inputFile, partition.getStartOffset(), partition.getEndOffset());
+
+    this.partition = partition;
+    this.linesSkipped = true;
+    this.inField = partition.startsInField();
+    this.currentLineNumber = partition.getFirstLineNumber() - 1;
+    this.numberOfColumns = partition.getNumberOfColumns();
+    this.headerLine = partition.getColumnNames();
+    this.numberOfSkippedLines = partition.getNumberOfSkippedLines();
+
+    try {
+      this.nextLine = readNextLine();
+      if (this.skipDifferingLines) {
+        readToNextValidLine();
+      }
+    } catch (InputIterationException | RuntimeException e) {
+      closeOnError();
+      throw e;
+    }
+  }
+
+  protected void setUp(ConfigurationSettingFileInput setting, Charset charset, long regionSize)
+    throws InputIterationException {
+    if (!isSupported(setting, charset)) {
+      throw new InputIterationException("The file input setting is not supported by the mapped reader");
+    }
+
+    this.charset = charset;
+    this.regionSize = Math.min(Math.max(regionSize, 1), DEFAULT_REGION_SIZE);
+    this.separator = (byte) setting.getSeparatorAsChar();
+    this.quoteChar = (byte) setting.getQuoteCharAsChar();
+    this.escapeChar = (byte) setting.getEscapeCharAsChar();
+    this.strictQuotes = setting.isStrictQuotes();
+    this.ignoreLeadingWhiteSpace = setting.isIgnoreLeadingWhiteSpace();
+    this.skipLines = setting.getSkipLines();
+  }
+
+  /**
+   * Opens the file and maps the first region.
+   *
+   * @param inputFile   the file to read
+   * @param startOffset the offset of the first byte to read
+   * @param endOffset   the offset after the last byte to read or -1 to read until the end of file
+   * @throws InputIterationException if the file could not be mapped
+   */
+  protected void open(File inputFile, long startOffset, long endOffset)
+    throws InputIterationException {
+    try {
+      this.channel = new RandomAccessFile(inputFile, "r").getChannel();
+      this.endOffset = endOffset < 0 ? this.channel.size() : endOffset;
+      map(startOffset);
+    } catch (IOException e) {
+      closeOnError();
+      throw new InputIterationException("Could not map the file input", e);
+    }
+  }
+
+  /**
+   * Closes the channel, if the iterator could not be constructed, so that the file is not left
+   * open. The original error is reported instead of a close error.
+   */
+  protected void closeOnError() {
+    this.buffer = null;
+    if (this.channel != null) {
+      try {
+        this.channel.close();
+      } catch (IOException closeException) {
+        // The original error is reported
+      }
+    }
+  }
+
+  /**
+   * Splits the remaining lines into partitions of about equal byte size, that can be read in
+   * parallel with {@link #MappedFileIterator(String, File, ConfigurationSettingFileInput,
+   * FilePartition)}. The lines are parsed once without decoding any cell, so that the partition
+   * boundaries respect quoted line breaks and the row numbers of the partitions are consistent
+   * with a sequential read. The iterator is consumed by the split.
+   *
+   * @param numberOfPartitions the maximal number of partitions
+   * @return the partitions in file order
+   * @throws InputIterationException if the file could not be read
+   */
+  public List<FilePartition> split(int numberOfPartitions) throws InputIterationException {
+    if (numberOfPartitions < 1) {
+      throw new IllegalArgumentException("The number of partitions has to be at least 1.");
+    }
+
+    List<FilePartition> partitions = new ArrayList<>();
+    if (!hasNext()) {
+      partitions.add(new FilePartition(this.endOffset, this.endOffset, 0, currentLineNumber + 1,
+        this.inField, this.headerLine, this.numberOfColumns, this.numberOfSkippedLines));
+      return partitions;
+    }
+
+    List<Long> startOffsets = new ArrayList<>();
+    List<Long> firstRowNumbers = new ArrayList<>();
+    List<Integer> firstLineNumbers = new ArrayList<>();
+    List<Boolean> startsInField = new ArrayList<>();
+
+    // The next line has already been read
+    long firstRowNumber = this.partition == null ? 0 : this.partition.getFirstRowNumber();
+    startOffsets.add(this.lastLineStart);
+    firstRowNumbers.add(firstRowNumber);
+    firstLineNumbers.add(currentLineNumber);
+    startsInField.add(this.lastLineStartsInField);
+
+    long partitionSize = Math.max(1, (this.endOffset - this.lastLineStart) / numberOfPartitions);
+    long nextSplit = this.lastLineStart + partitionSize;
+    long rowNumber = firstRowNumber + 1;
+
+    this.materializeLines = false;
+    this.nextLine = null;
+    while (readNextLine() != null) {
+      if (this.lastLineStart >= nextSplit && startOffsets.size() < numberOfPartitions) {
+        startOffsets.add(this.lastLineStart);
+        firstRowNumbers.add(rowNumber);
+        firstLineNumbers.add(currentLineNumber);
+        startsInField.add(this.lastLineStartsInField);
+        nextSplit = this.lastLineStart + partitionSize;
+      }
+      if (!this.skipDifferingLines || this.tokenCount == this.numberOfColumns) {
+        rowNumber++;
+      }
+    }
+
+    for (int i = 0; i < startOffsets.size(); i++) {
+      long partitionEnd = i + 1 < startOffsets.size() ? startOffsets.get(i + 1) : this.endOffset;
+      partitions.add(new FilePartition(startOffsets.get(i), partitionEnd, firstRowNumbers.get(i),
+        firstLineNumbers.get(i), startsInField.get(i), this.headerLine, this.numberOfColumns,
+        i == 0 ? this.numberOfSkippedLines : 0));
+    }
+    return partitions;
+  }
+
+  /**
+   * Checks, whether files with the given setting and charset can be read by the byte based
+   * scanner. All special characters have to be ASCII characters and must differ from each other,
+   * and the charset has to encode ASCII characters as single bytes, that do not occur in the
+   * encoding of any other character.
+   *
+   * @param setting the file input setting
+   * @param charset the charset of the file
+   * @return true, if the setting is supported
+   */
+  public static boolean isSupported(ConfigurationSettingFileInput setting, Charset charset) {
+    if (!(StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+      || StandardCharsets.ISO_8859_1.equals(charset))) {
+      return false;
+    }
+    char separator = setting.getSeparatorAsChar();
+    char quoteChar = setting.getQuoteCharAsChar();
+    char escapeChar = setting.getEscapeCharAsChar();
+    if (separator >= 128 || quoteChar >= 128 || escapeChar >= 128) {
+      return false;
+    }
+    // The opencsv parser rejects these settings, the FileIterator reports the error
+    return separator != quoteChar && separator != escapeChar && quoteChar != escapeChar;
+  }
+
+  protected void map(long start) throws IOException {
+    this.regionStart = start;
+    long size = Math.min(this.regionSize, this.endOffset - start);
+    this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    this.position = 0;
+  }
+
+  protected boolean isLastRegion() {
+    return this.regionStart + this.buffer.limit() >= this.endOffset;
+  }
+
+  @Override
+  protected List<String> readNextLine() throws InputIterationException {
+    try {
+      if (!this.linesSkipped) {
+        for (int i = 0; i < this.skipLines; i++) {
+          skipLine();
+        }
+        this.linesSkipped = true;
+      }
+
+      if (this.regionStart + this.position >= this.endOffset) {
+        currentLineNumber++;
+        return null;
+      }
+
+      long lineStart = this.regionStart + this.position;
+      boolean lineStartInField = this.inField;
+      this.lastLineStart = lineStart;
+      this.lastLineStartsInField = lineStartInField;
+      List<String> line;
+      while ((line = parseLine()) == null) {
+        // The line is not complete in the current region
+        if (lineStart == this.regionStart) {
+          throw new InputIterationException(
+            "Line " + (currentLineNumber + 1) + " is larger than the mapped region");
+        }
+        map(lineStart);
+        this.inField = lineStartInField;
+      }
+      currentLineNumber++;
+      return line == END_OF_FILE ? null : line;
+    } catch (IOException e) {
+      throw new InputIterationException("Could not read next line in file input", e);
+    }
+  }
+
+  /**
+   * Skips one physical line without parsing it.
+   *
+   * @throws IOException if the next region could not be mapped
+   */
+  protected void skipLine() throws IOException {
+    while (this.regionStart + this.position < this.endOffset) {
+      int limit = this.buffer.limit();
+      while (this.position < limit) {
+        byte c = this.buffer.get(this.position);
+        if (c == LINE_FEED || c == CARRIAGE_RETURN) {
+          if (c == CARRIAGE_RETURN && this.position + 1 == limit && !isLastRegion()) {
+            map(this.regionStart + this.position);
+          }
+          this.position = skipLineTerminator(this.position);
+          return;
+        }
+        this.position++;
+      }
+      if (!isLastRegion()) {
+        map(this.regionStart + this.position);
+      }
+    }
+  }
+
+  /**
+   * Parses the next line starting at the current position. The parser follows the rules of the
+   * opencsv parser: quoted fields may span multiple lines, a quote char inside a quoted field is
+   * escaped by a second quote char, the escape char escapes a following quote or escape char.
+   *
+   * @return the parsed line, {@link #END_OF_FILE} if a quoted field is not closed until the
+   * end of the file and no cells were parsed, or null if the line exceeds the current region
+   */
+  protected List<String> parseLine() {
+    ByteBuffer buffer = this.buffer;
+    int limit = buffer.limit();
+    boolean lastRegion = isLastRegion();
+
+    byte separator = this.separator;
+    byte quoteChar = this.quoteChar;
+    byte escapeChar = this.escapeChar;
+
+    this.tokenCount = 0;
+    resetToken();
+    boolean inQuotes = false;
+    int firstLineStart = this.position;
+    int lineStart = this.position;
+    int i = this.position;
+
+    while (true) {
+      if (i >= limit) {
+        if (!lastRegion) {
+          return null;
+        }
+        if (inQuotes) {
+          // The opencsv parser drops the unclosed cell at the end of the file
+          this.position = i;
+          return this.tokenCount == 0 ? END_OF_FILE : createLine(firstLineStart, i);
+        }
+        addToken();
+        this.position = i;
+        return createLine(firstLineStart, i);
+      }
+
+      byte c = buffer.get(i);
+      if (c == LINE_FEED || c == CARRIAGE_RETURN) {
+        if (c == CARRIAGE_RETURN && i + 1 == limit && !lastRegion) {
+          return null;
+        }
+        if (inQuotes) {
+          // Quoted fields continue on the next line
+          appendCopy(LINE_FEED);
+          i = skipLineTerminator(i);
+          lineStart = i;
+          continue;
+        }
+        addToken();
+        this.position = skipLineTerminator(i);
+        return createLine(firstLineStart, i);
+      }
+
+      if (c == escapeChar) {
+        int next = nextCharacter(i, limit, lastRegion);
+        if (next == NEEDS_REMAPPING) {
+          return null;
+        }
+        if ((inQuotes || this.inField) && (next == quoteChar || next == escapeChar)) {
+          append(i + 1);
+          i++;
+        }
+      } else if (c == quoteChar) {
+        int next = nextCharacter(i, limit, lastRegion);
+        if (next == NEEDS_REMAPPING) {
+          return null;
+        }
+        if ((inQuotes || this.inField) && next == quoteChar) {
+          append(i + 1);
+          i++;
+        } else {
+          // A quote in the middle of an unquoted field, e.g. a,bc"d"ef,g
+          if (!this.strictQuotes && next != NO_NEXT_CHARACTER && next != separator
+            && i - lineStart > 2 && charIndex(lineStart, i) > 2
+            && buffer.get(i - 1) != separator) {
+            if (this.ignoreLeadingWhiteSpace && tokenLength() > 0 && isTokenWhiteSpace()) {
+              resetToken();
+            } else {
+              append(i);
+            }
+          }
+          inQuotes = !inQuotes;
+        }
+        this.inField = !this.inField;
+      } else if (c == separator && !inQuotes) {
+        addToken();
+        this.inField = false;
+      } else if (!this.strictQuotes || inQuotes) {
+        // Consume the following bytes without special meaning at once
+        int end = i + 1;
+        while (end < limit) {
+          byte b = buffer.get(end);
+          if (b == separator || b == quoteChar || b == escapeChar || b == LINE_FEED
+            || b == CARRIAGE_RETURN) {
+            break;
+          }
+          end++;
+        }
+        append(i, end);
+        this.inField = true;
+        i = end;
+        continue;
+      }
+      i++;
+    }
+  }
+
+  /**
+   * @param index      the index of the current byte in the buffer
+   * @param limit      the index after the last byte of the mapped region
+   * @param lastRegion true, if the mapped region ends with the end of the file or partition
+   * @return the next byte in the current line, {@link #NO_NEXT_CHARACTER} if the line ends after
+   * the given index or {@link #NEEDS_REMAPPING} if the region ends after the given index
+   */
+  protected int nextCharacter(int index, int limit, boolean lastRegion) {
+    if (index + 1 >= limit) {
+      return lastRegion ? NO_NEXT_CHARACTER : NEEDS_REMAPPING;
+    }
+    byte next = this.buffer.get(index + 1);
+    if (next == LINE_FEED || next == CARRIAGE_RETURN) {
+      return NO_NEXT_CHARACTER;
+    }
+    return next & 0xFF;
+  }
+
+  /**
+   * The opencsv parser counts characters, not bytes. The index is only needed for quotes inside
+   * unquoted fields, so it is computed on demand.
+   *
+   * @param lineStart the index of the first byte of the line in the buffer
+   * @param index     the index of a byte of the line in the buffer
+   * @return the character index of the byte at the given index relative to the line start
+   */
+  protected int charIndex(int lineStart, int index) {
+    if (!StandardCharsets.UTF_8.equals(this.charset)) {
+      return index - lineStart;
+    }
+    int chars = 0;
+    for (int i = lineStart; i < index; i++) {
+      int b = this.buffer.get(i) & 0xFF;
+      if (b >= 0xF0) {
+        // Supplementary characters are represented by two chars
+        chars += 2;
+      } else if ((b & 0xC0) != 0x80) {
+        chars++;
+      }
+    }
+    return chars;
+  }
+
+  protected int skipLineTerminator(int index) {
+    if (this.buffer.get(index) == CARRIAGE_RETURN && index + 1 < this.buffer.limit()
+      && this.buffer.get(index + 1) == LINE_FEED) {
+      return index + 2;
+    }
+    return index + 1;
+  }
+
+  protected void resetToken() {
+    this.tokenContiguous = true;
+    this.tokenStart = 0;
+    this.tokenEnd = 0;
+    this.scratchLength = 0;
+  }
+
+  protected int tokenLength() {
+    return this.tokenContiguous ? this.tokenEnd - this.tokenStart : this.scratchLength;
+  }
+
+  protected void append(int index) {
+    append(index, index + 1);
+  }
+
+  /**
+   * Appends the bytes between start (inclusive) and end (exclusive) to the current token. As long
+   * as the appended bytes are adjacent in the buffer, only the token boundaries are moved.
+   */
+  protected void append(int start, int end) {
+    if (this.tokenContiguous) {
+      if (this.tokenStart == this.tokenEnd) {
+        this.tokenStart = start;
+        this.tokenEnd = end;
+        return;
+      }
+      if (this.tokenEnd == start) {
+        this.tokenEnd = end;
+        return;
+      }
+    }
+    for (int i = start; i < end; i++) {
+      appendCopy(this.buffer.get(i));
+    }
+  }
+
+  protected void appendCopy(byte b) {
+    if (this.tokenContiguous) {
+      this.tokenContiguous = false;
+      this.scratchLength = 0;
+      for (int i = this.tokenStart; i < this.tokenEnd; i++) {
+        appendScratch(this.buffer.get(i));
+      }
+    }
+    appendScratch(b);
+  }
+
+  protected void appendScratch(byte b) {
+    if (this.scratchLength == this.scratch.length) {
+      this.scratch = Arrays.copyOf(this.scratch, this.scratch.length * 2);
+    }
+    this.scratch[this.scratchLength++] = b;
+  }
+
+  protected boolean isTokenWhiteSpace() {
+    String token = this.tokenContiguous
+      ? decode(this.buffer, this.tokenStart, this.tokenEnd, this.charset)
+      : new String(this.scratch, 0, this.scratchLength, this.charset);
+    for (int i = 0; i < token.length(); i++) {
+      if (!Character.isWhitespace(token.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected void addToken() {
+    if (this.tokenCount == this.tokenStarts.length) {
+      int newLength = this.tokenCount * 2;
+      this.tokenStarts = Arrays.copyOf(this.tokenStarts, newLength);
+      this.tokenEnds = Arrays.copyOf(this.tokenEnds, newLength);
+      this.copiedTokens = Arrays.copyOf(this.copiedTokens, newLength);
+    }
+    if (this.tokenContiguous) {
+      this.tokenStarts[this.tokenCount] = this.tokenStart;
+      this.tokenEnds[this.tokenCount] = this.tokenEnd;
+      this.copiedTokens[this.tokenCount] = null;
+    } else {
+      this.copiedTokens[this.tokenCount] =
+        new String(this.scratch, 0, this.scratchLength, this.charset);
+    }
+    this.tokenCount++;
+    resetToken();
+  }
+
+  /**
+   * Creates the line from the parsed tokens. The raw bytes of the line are copied with one bulk
+   * copy, so that the line does not reference the mapped region. The line is therefore not
+   * zero-copy: lines are kept by the algorithms after the region was remapped, and a slice of the
+   * region would keep the whole region mapped until the line is garbage collected. The cells are
+   * only decoded on first access.
+   *
+   * @param start the index of the first byte of the line
+   * @param end   the index after the last byte of the line
+   * @return the line
+   */
+  protected List<String> createLine(int start, int end) {
+    if (!this.materializeLines) {
+      return SKIPPED_LINE;
+    }
+    byte[] bytes = new byte[end - start];
+    ByteBuffer slice = this.buffer.duplicate();
+    slice.position(start);
+    slice.get(bytes);
+
+    int[] starts = new int[this.tokenCount];
+    int[] ends = new int[this.tokenCount];
+    for (int i = 0; i < this.tokenCount; i++) {
+      if (this.copiedTokens[i] == null) {
+        starts[i] = Math.max(this.tokenStarts[i] - start, 0);
+        ends[i] = Math.max(this.tokenEnds[i] - start, 0);
+      }
+    }
+    return new MappedLine(bytes, this.charset, this.nullValue, starts, ends,
+      Arrays.copyOf(this.copiedTokens, this.tokenCount));
+  }
+
+  protected static String decode(ByteBuffer buffer, int start, int end, Charset charset) {
+    byte[] bytes = new byte[end - start];
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(start);
+    slice.get(bytes);
+    return new String(bytes, charset);
+  }
+
+  /**
+   * @return the read partition or null if the complete file is read
+   */
+  public FilePartition getPartition() {
+    return partition;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.buffer = null;
+    this.channel.close();
+  }
+
+  /**
+   * An immutable line, that decodes its cells on first access. Cells, that were unescaped while
+   * parsing, are stored as Strings, all other cells as ranges of the line's raw bytes.
+   */
+  protected static class MappedLine extends AbstractList<String> {
+
+    protected byte[] bytes;
+    protected Charset charset;
+    protected String nullValue;
+    protected int[] starts;
+    protected int[] ends;
+    protected String[] values;
+    protected boolean[] decoded;
+
+    protected MappedLine(byte[] bytes, Charset charset, String nullValue, int[] starts,
+                         int[] ends, String[] copiedValues) {
+      this.bytes = bytes;
+      this.charset = charset;
+      this.nullValue = nullValue;
+      this.starts = starts;
+      this.ends = ends;
+      this.values = copiedValues;
+      this.decoded = new boolean[copiedValues.length];
+    }
+
+    @Override
+    public String get(int index) {
+      if (index < 0 || index >= this.values.length) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.values.length);
+      }
+      if (!this.decoded[index]) {
+        String value = this.values[index];
+        if (value == null) {
+          value = new String(this.bytes, this.starts[index], this.ends[index] - this.starts[index],
+            this.charset);
+        }
+        // Convert null value Strings to null
+        this.values[index] = value.equals(this.nullValue) ? null : value;
+        this.decoded[index] = true;
+      }
+      return this.values[index];
+    }
+
+    @Override
+    public int size() {
+      return this.values.length;
+    }
+  }
+
+  /**
+   * Line without cells, used as marker.
+   */
+  protected static class EmptyLine extends AbstractList<String> {
+
+    @Override
+    public String get(int index) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+
+    @Override
+    public int size() {
+      return 0;
+    }
+  }
+
+}
@@ -23,31 +23,41 @@ import de.metanome.algorithm_integration.input.RelationalInputGenerator;
 import de.metanome.algorithm_integration.input.TableInputGenerator;
 import de.metanome.algorithm_integration.input.DatabaseConnectionGenerator;
 import de.metanome.algorithm_integration.results.JsonConverter;
-import de.metanome.backend.algorithm_execution.AlgorithmExecution;
+import de.metanome.backend.algorithm_execution.BatchExecution;
+import de.metanome.backend.algorithm_execution.BatchRun;
+import de.metanome.backend.algorithm_execution.ExecutionJob;
+import de.metanome.backend.algorithm_execution.ExecutionScheduler;
 import de.metanome.backend.algorithm_execution.ProcessRegistry;
 import de.metanome.backend.configuration.DefaultConfigurationFactory;
 import de.metanome.backend.helper.FileInputGeneratorMixIn;
+import de.metanome.backend.helper.InputToGeneratorConverter;
 import de.metanome.backend.helper.RelationalInputGeneratorMixIn;
 import de.metanome.backend.helper.TableInputGeneratorMixIn;
 import de.metanome.backend.helper.DatabaseConnectionGeneratorMixIn;
-import de.metanome.backend.result_postprocessing.ResultPostProcessor;
 import de.metanome.backend.results_db.*;
-import org.hibernate.criterion.Criterion;
-import org.hibernate.criterion.Restrictions;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
-import java.io.*;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Path("algorithm-execution")
 public class AlgorithmExecutionResource {
 
-  private static final Class<?> algorithmExecutionClass = AlgorithmExecution.class;
+  // Maximal time a client waits for the change of a job in milliseconds
+  protected static final long MAX_AWAIT_TIMEOUT = 30000;
+  // Number of batches, whose report is kept after they are done
+  protected static final int MAX_FINISHED_BATCHES = 20;
+
+  private static final Map<String, BatchExecution> batches = new LinkedHashMap<>();
+  private static final AtomicLong lastBatchTimestamp = new AtomicLong();
 
   /**
    * Stops the algorithm with the given identifier.
@@ -58,6 +68,9 @@ public class AlgorithmExecutionResource {
   @Path("/stop/{identifier}")
   public void stopExecution(@PathParam("identifier") String executionIdentifier) {
     try {
+      if (ExecutionScheduler.getInstance().stop(executionIdentifier)) {
+        return;
+      }
       Process process = ProcessRegistry.getInstance().get(executionIdentifier);
       ProcessRegistry.getInstance().remove(executionIdentifier);
       process.destroy();
@@ -68,7 +81,7 @@ public class AlgorithmExecutionResource {
   }
 
   /**
-   * Executes an algorithm.
+   * Executes an algorithm and waits for the execution and the result post processing to finish.
    *
    * @param params all parameters to execute the algorithm
    * @return the resulting execution
@@ -77,100 +90,363 @@ public class AlgorithmExecutionResource {
   @Consumes("application/json")
   @Produces("application/json")
   public Execution executeAlgorithm(AlgorithmExecutionParams params) {
-    String executionIdentifier = params.getExecutionIdentifier();
+    ExecutionJob job = submitJob(params);
+    try {
+      job.awaitCompletion();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WebException("Interrupted while waiting for the execution",
+        Response.Status.INTERNAL_SERVER_ERROR);
+    }
 
-    // Build the execution setting and store it.
-    ExecutionSetting executionSetting = null;
+    if (job.getStatus() != ExecutionJob.Status.FINISHED) {
+      throw new WebException(job.getMessage(), Response.Status.BAD_REQUEST);
+    }
+    return job.getExecution();
+  }
+
+  /**
+   * Submits an algorithm execution to the scheduler and returns at once. The status of the
+   * execution can be polled with the execution identifier.
+   *
+   * @param params all parameters to execute the algorithm
+   * @return the queued job
+   */
+  @POST
+  @Path("/submit")
+  @Consumes("application/json")
+  @Produces("application/json")
+  public ExecutionJob submit(AlgorithmExecutionParams params) {
+    return submitJob(params);
+  }
+
+  /**
+   * @return all unfinished and the recently finished jobs
+   */
+  @GET
+  @Path("/jobs")
+  @Produces("application/json")
+  public List<ExecutionJob> getJobs() {
+    return ExecutionScheduler.getInstance().getJobs();
+  }
+
+  /**
+   * @param executionIdentifier the execution identifier
+   * @return the job of the execution
+   */
+  @GET
+  @Path("/status/{identifier}")
+  @Produces("application/json")
+  public ExecutionJob getStatus(@PathParam("identifier") String executionIdentifier) {
+    ExecutionJob job = ExecutionScheduler.getInstance().getJob(executionIdentifier);
+    if (job == null) {
+      throw new WebException("Unknown execution " + executionIdentifier, Response.Status.NOT_FOUND);
+    }
+    return job;
+  }
+
+  /**
+   * Waits until the status of the job changes (long polling). The client passes the version of
+   * the last status it received and gets the status as soon as its version changes or the timeout
+   * elapsed.
+   *
+   * @param executionIdentifier the execution identifier
+   * @param version             the version of the last status the client received
+   * @param timeout             the maximal time to wait in milliseconds (at most 30 seconds)
+   * @return the job of the execution
+   */
+  @GET
+  @Path("/await/{identifier}")
+  @Produces("application/json")
+  public ExecutionJob awaitStatus(@PathParam("identifier") String executionIdentifier,
+                                  @QueryParam("version") @DefaultValue("-1") int version,
+                                  @QueryParam("timeout") @DefaultValue("30000") long timeout) {
+    ExecutionJob job = getStatus(executionIdentifier);
     try {
-      executionSetting = buildExecutionSetting(params);
-      HibernateUtil.store(executionSetting);
-    } catch (Exception e) {
-      e.printStackTrace();
-      String message = "Could not build execution setting";
-      if (e.getMessage() != null) {
-        message += ": " + e.getMessage();
+      return job.awaitChange(version, Math.min(Math.max(timeout, 0), MAX_AWAIT_TIMEOUT));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return job;
+    }
+  }
+
+  /**
+   * Executes every algorithm with its parameters on every given input. The runs are submitted to
+   * the scheduler in the background with the given parallelism, which is bounded by the number of
+   * concurrent executions of the scheduler. The input entities are looked up only once for the
+   * whole batch and the column names of file inputs are cached, but every run parses its inputs
+   * itself.
+   *
+   * @param params the execution templates, the inputs and the parallelism of the batch
+   * @return the started batch
+   */
+  @POST
+  @Path("/batch")
+  @Consumes("application/json")
+  @Produces("application/json")
+  public BatchExecution executeBatch(BatchExecutionParams params) {
+    BatchExecution batch;
+    synchronized (batches) {
+      BatchExecution existingBatch = batches.get(params.getBatchIdentifier());
+      if (existingBatch != null && !existingBatch.isDone()) {
+        throw new WebException("A batch with the identifier " + params.getBatchIdentifier() +
+          " is running already.", Response.Status.CONFLICT);
       }
-      throw new WebException(message, Response.Status.BAD_REQUEST);
+      batch = buildBatch(params);
+      batches.remove(batch.getIdentifier());
+      batches.put(batch.getIdentifier(), batch);
+      evictFinishedBatches();
     }
+    return batch.start(ExecutionScheduler.getInstance());
+  }
 
-    String exceptionMessage = "";
-    try {
-      // Start the process, which executes the algorithm
-      Process process =
-        executeAlgorithm(String.valueOf(params.getAlgorithmId()),
-          executionIdentifier,
-          params.getMemory());
-      ProcessRegistry.getInstance().put(executionIdentifier, process);
-
-      // Forward messages from the process to the console output
-      InputStreamReader isr = new InputStreamReader(process.getInputStream());
-      BufferedReader br = new BufferedReader(isr);
-      String lineRead;
-      while ((lineRead = br.readLine()) != null) {
-        if (lineRead.contains("Exception") || lineRead.contains("Caused by: ")) {
-          exceptionMessage = lineRead;
-        }
-        System.out.println(lineRead);
+  /**
+   * @return all running and the recently finished batches
+   */
+  @GET
+  @Path("/batches")
+  @Produces("application/json")
+  public List<BatchExecution> getBatches() {
+    synchronized (batches) {
+      return new ArrayList<>(batches.values());
+    }
+  }
+
+  /**
+   * @param batchIdentifier the identifier of the batch
+   * @return the batch with the status and the timings of all its runs
+   */
+  @GET
+  @Path("/batch/status/{identifier}")
+  @Produces("application/json")
+  public BatchExecution getBatch(@PathParam("identifier") String batchIdentifier) {
+    synchronized (batches) {
+      BatchExecution batch = batches.get(batchIdentifier);
+      if (batch == null) {
+        throw new WebException("Unknown batch " + batchIdentifier, Response.Status.NOT_FOUND);
       }
+      return batch;
+    }
+  }
 
-      try {
-        if (process.exitValue() != 0) {
-          exceptionMessage = "Error in algorithm execution. " +  exceptionMessage;
+  /**
+   * @param batchIdentifier the identifier of the batch
+   * @return the timing report of the batch as CSV with one line per run
+   */
+  @GET
+  @Path("/batch/report/{identifier}")
+  @Produces("text/csv")
+  public String getBatchReport(@PathParam("identifier") String batchIdentifier) {
+    return getBatch(batchIdentifier).getCsvReport();
+  }
+
+  /**
+   * Stops the batch with the given identifier. Runs, which are not submitted yet, are skipped.
+   *
+   * @param batchIdentifier the identifier of the batch
+   */
+  @POST
+  @Path("/batch/stop/{identifier}")
+  public void stopBatch(@PathParam("identifier") String batchIdentifier) {
+    getBatch(batchIdentifier).stop(ExecutionScheduler.getInstance());
+  }
+
+  /**
+   * Loads the inputs of the batch, builds and stores the execution settings of all combinations of
+   * execution templates and inputs. A template is only combined with the inputs its input
+   * requirements accept.
+   *
+   * @param params the parameters of the batch
+   * @return the batch, which is not started yet
+   */
+  protected BatchExecution buildBatch(BatchExecutionParams params) {
+    if (params.getBatchIdentifier() == null || params.getBatchIdentifier().isEmpty()) {
+      throw new WebException("The batch needs an identifier.", Response.Status.BAD_REQUEST);
+    }
+
+    // Look up every input only once for all runs of the batch
+    List<Input> inputs = new ArrayList<>();
+    List<ConfigurationSettingRelationalInput> settings = new ArrayList<>();
+    Map<ConfigurationSetting, Input> resolvedInputs = new IdentityHashMap<>();
+    FileInputResource fileInputResource = new FileInputResource();
+    for (Long id : params.getFileInputIds()) {
+      FileInput input = fileInputResource.get(id);
+      if (input == null) {
+        throw new WebException("Unknown input " + id, Response.Status.NOT_FOUND);
+      }
+      ConfigurationSettingFileInput setting = InputToGeneratorConverter.convertInputToSetting(input);
+      setting.setId(input.getId());
+      inputs.add(input);
+      settings.add(setting);
+      resolvedInputs.put(setting, input);
+    }
+    TableInputResource tableInputResource = new TableInputResource();
+    for (Long id : params.getTableInputIds()) {
+      TableInput input = tableInputResource.get(id);
+      if (input == null) {
+        throw new WebException("Unknown input " + id, Response.Status.NOT_FOUND);
+      }
+      ConfigurationSettingTableInput setting = InputToGeneratorConverter.convertInputToSetting(input);
+      setting.setId(input.getId());
+      inputs.add(input);
+      settings.add(setting);
+      resolvedInputs.put(setting, input);
+    }
+
+    // The run identifiers have to be unique, even if a finished batch is submitted again
+    String runPrefix = params.getBatchIdentifier() + "_" + nextBatchTimestamp() + "_";
+    List<BatchRun> runs = new ArrayList<>();
+    for (int parameterSet = 0; parameterSet < params.getExecutions().size(); parameterSet++) {
+      AlgorithmExecutionParams template = params.getExecutions().get(parameterSet);
+      for (int i = 0; i < inputs.size(); i++) {
+        List<ConfigurationRequirement> requirements =
+          bindInput(template.getRequirements(), settings.get(i));
+        if (requirements == null) {
+          continue;
+        }
+        AlgorithmExecutionParams runParams = new AlgorithmExecutionParams()
+          .setAlgorithmId(template.getAlgorithmId())
+          .setExecutionIdentifier(runPrefix + runs.size())
+          .setRequirements(requirements)
+          .setCacheResults(template.getCacheResults())
+          .setWriteResults(template.getWriteResults())
+          .setCountResults(template.getCountResults())
+          .setMemory(template.getMemory());
+        try {
+          ExecutionSetting executionSetting = buildExecutionSetting(runParams, resolvedInputs);
+          HibernateUtil.store(executionSetting);
+          runs.add(new BatchRun(template.getAlgorithmId(), inputs.get(i).getName(), parameterSet,
+            template.getMemory(), executionSetting));
+        } catch (Exception e) {
+          e.printStackTrace();
+          String message = "Could not build execution setting";
+          if (e.getMessage() != null) {
+            message += ": " + e.getMessage();
+          }
+          throw new WebException(message, Response.Status.BAD_REQUEST);
         }
-      } catch (IllegalThreadStateException e) {
-        // The process has not exit, but it should be.
-        process.destroy();
-        exceptionMessage = "Error in algorithm execution. " + exceptionMessage;
       }
-    } catch (IOException | InterruptedException e) {
-      e.printStackTrace();
     }
 
-    Execution execution;
+    int parallelism = params.getParallelism() == null ? 1 : params.getParallelism();
+    if (parallelism > 0) {
+      // More concurrently submitted runs would only wait in the queue of the scheduler
+      parallelism = Math.min(parallelism,
+        ExecutionScheduler.getInstance().getMaxConcurrentExecutions());
+    }
     try {
-      // The algorithm execution was successful
-      // Get the execution from hibernate
-      ArrayList<Criterion> criteria = new ArrayList<>();
-      criteria.add(Restrictions.eq("identifier", executionIdentifier));
-      execution = (Execution) HibernateUtil.queryCriteria(Execution.class,
-        criteria.toArray(
-          new Criterion[criteria.size()]))
-        .get(0);
-    } catch (Exception e) {
-      // The execution process got killed - execution object is created anyway (with abortion flag set)
-      AlgorithmResource algorithmResource = new AlgorithmResource();
-      Algorithm algorithm = algorithmResource.get(params.getAlgorithmId());
+      return new BatchExecution(params.getBatchIdentifier(), runs, parallelism);
+    } catch (IllegalArgumentException e) {
+      throw new WebException(e, Response.Status.BAD_REQUEST);
+    }
+  }
 
-      execution = new Execution(algorithm)
-        .setExecutionSetting(executionSetting)
-        .setAborted(true)
-        .setInputs(AlgorithmExecution.parseInputs(executionSetting.getInputsJson()));
+  /**
+   * @return the current time in milliseconds, but always greater than the previously returned value
+   */
+  protected static long nextBatchTimestamp() {
+    while (true) {
+      long last = lastBatchTimestamp.get();
+      long next = Math.max(System.currentTimeMillis(), last + 1);
+      if (lastBatchTimestamp.compareAndSet(last, next)) {
+        return next;
+      }
+    }
+  }
 
-      try {
-        HibernateUtil.store(execution);
-      } catch (EntityStorageException e1) {
-        e1.printStackTrace();
-        throw new WebException("Could not store execution.", Response.Status.BAD_REQUEST);
+  /**
+   * Binds the given input to the first input requirement of an execution template, that accepts
+   * it. The requirements of the template are not changed, the bound requirement is replaced by a
+   * copy in the returned list. Further input requirements keep the settings of the template.
+   *
+   * @param requirements the requirements of the execution template
+   * @param setting      the setting of the input
+   * @return the requirements of a run on the input or null, if no requirement accepts the input
+   */
+  protected static List<ConfigurationRequirement> bindInput(
+    List<ConfigurationRequirement> requirements, ConfigurationSettingRelationalInput setting) {
+    List<ConfigurationRequirement> boundRequirements = new ArrayList<>(requirements);
+    for (int i = 0; i < boundRequirements.size(); i++) {
+      ConfigurationRequirement requirement = boundRequirements.get(i);
+      ConfigurationRequirement boundRequirement;
+      if (requirement instanceof ConfigurationRequirementRelationalInput) {
+        ConfigurationRequirementRelationalInput copy = new ConfigurationRequirementRelationalInput(
+          requirement.getIdentifier(), requirement.getMinNumberOfSettings(),
+          requirement.getMaxNumberOfSettings());
+        copy.setSettings(setting);
+        boundRequirement = copy;
+      } else if (requirement instanceof ConfigurationRequirementFileInput &&
+        setting instanceof ConfigurationSettingFileInput) {
+        ConfigurationRequirementFileInput copy = new ConfigurationRequirementFileInput(
+          requirement.getIdentifier(), requirement.getMinNumberOfSettings(),
+          requirement.getMaxNumberOfSettings());
+        copy.setSettings((ConfigurationSettingFileInput) setting);
+        boundRequirement = copy;
+      } else if (requirement instanceof ConfigurationRequirementTableInput &&
+        setting instanceof ConfigurationSettingTableInput) {
+        ConfigurationRequirementTableInput copy = new ConfigurationRequirementTableInput(
+          requirement.getIdentifier(), requirement.getMinNumberOfSettings(),
+          requirement.getMaxNumberOfSettings());
+        copy.setSettings((ConfigurationSettingTableInput) setting);
+        boundRequirement = copy;
+      } else {
+        continue;
       }
+      boundRequirement.setRequired(requirement.isRequired());
+      boundRequirements.set(i, boundRequirement);
+      return boundRequirements;
+    }
+    return null;
+  }
 
-      // throw new WebException, because the algorithm was not successful!
-      throw new WebException(exceptionMessage, Response.Status.BAD_REQUEST);
+  /**
+   * Removes the oldest finished batches, if more than {@link #MAX_FINISHED_BATCHES} finished
+   * batches are known.
+   */
+  protected static void evictFinishedBatches() {
+    int finishedBatches = 0;
+    for (BatchExecution batch : batches.values()) {
+      if (batch.isDone()) {
+        finishedBatches++;
+      }
     }
+    Iterator<BatchExecution> iterator = batches.values().iterator();
+    while (finishedBatches > MAX_FINISHED_BATCHES && iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+        finishedBatches--;
+      }
+    }
+  }
 
-    // Execute the result post processing
-    if (!executionSetting.getCountResults()) {
-      try {
-        ResultPostProcessor.extractAndStoreResultsDataIndependent(execution);
-      } catch (Exception e) {
-        e.printStackTrace();
-        String message = "Could not execute result post processing";
-        if (e.getMessage() != null) {
-          message += ": " + e.getMessage();
-        }
-        throw new WebException(message, Response.Status.BAD_REQUEST);
+  /**
+   * Builds and stores the execution setting and submits the execution to the scheduler.
+   *
+   * @param params all parameters to execute the algorithm
+   * @return the queued job
+   */
+  protected ExecutionJob submitJob(AlgorithmExecutionParams params) {
+    // Build the execution setting and store it.
+    ExecutionSetting executionSetting = null;
+    try {
+      executionSetting = buildExecutionSetting(params);
+      HibernateUtil.store(executionSetting);
+    } catch (Exception e) {
+      e.printStackTrace();
+      String message = "Could not build execution setting";
+      if (e.getMessage() != null) {
+        message += ": " + e.getMessage();
       }
+      throw new WebException(message, Response.Status.BAD_REQUEST);
+    }
+
+    ExecutionJob job = new ExecutionJob(params.getAlgorithmId(), params.getExecutionIdentifier(),
+      params.getMemory(), executionSetting);
+    try {
+      return ExecutionScheduler.getInstance().submit(job);
+    } catch (IllegalArgumentException e) {
+      throw new WebException(e, Response.Status.CONFLICT);
     }
-    return execution;
   }
 
   /**
@@ -181,6 +457,20 @@ public class AlgorithmExecutionResource {
    * @throws AlgorithmConfigurationException if configuration requirements could not be converted
    */
   protected ExecutionSetting buildExecutionSetting(AlgorithmExecutionParams params) throws AlgorithmConfigurationException {
+    return buildExecutionSetting(params, new IdentityHashMap<ConfigurationSetting, Input>());
+  }
+
+  /**
+   * Builds {@link de.metanome.backend.results_db.ExecutionSetting} to persist information in AlgorithmExecutionParams to Database
+   *
+   * @param params         the algorithm execution parameter
+   * @param resolvedInputs the stored inputs of settings, that were loaded already
+   * @return an {@link de.metanome.backend.results_db.ExecutionSetting}
+   * @throws AlgorithmConfigurationException if configuration requirements could not be converted
+   */
+  protected ExecutionSetting buildExecutionSetting(AlgorithmExecutionParams params,
+                                                   Map<ConfigurationSetting, Input> resolvedInputs)
+    throws AlgorithmConfigurationException {
     ExecutionSetting executionSetting = null;
 
     DefaultConfigurationFactory configurationFactory = new DefaultConfigurationFactory();
@@ -209,7 +499,9 @@ public class AlgorithmExecutionResource {
 
       // add inputs
       for (ConfigurationSetting setting : requirement.getSettings()) {
-        if (setting instanceof ConfigurationSettingFileInput) {
+        if (resolvedInputs.containsKey(setting)) {
+          inputs.add(resolvedInputs.get(setting));
+        } else if (setting instanceof ConfigurationSettingFileInput) {
           inputs.add(fileInputResource.get(((ConfigurationSettingFileInput) setting).getId()));
         } else if (setting instanceof ConfigurationSettingDatabaseConnection) {
           inputs.add(databaseConnectionResource
@@ -257,51 +549,4 @@ public class AlgorithmExecutionResource {
     return jsonConverter.toJsonStrings(inputs);
   }
 
-  /**
-   * starts execution of Algorithm in separate Process
-   *
-   * @param algorithmId         id of algorithm to be executed
-   * @param executionIdentifier identifier for the upcoming algorithm execution
-   * @param memory              memory argument for the process running the algorithm execution
-   * @return resulting process object for the algorithm execution
-   */
-  private Process executeAlgorithm(String algorithmId, String executionIdentifier,
-                                   String memory) throws IOException,
-    InterruptedException {
-    /**
-     * NOTE: Dpeneding on the Java ApplicationServer paths have to be adjusted
-     */
-    String javaHome = System.getProperty("java.home");
-    String javaBin = javaHome +
-      File.separator + "bin" +
-      File.separator + "java";
-    String myPath = System.getProperty("java.class.path");
-    String className = algorithmExecutionClass.getCanonicalName();
-
-    try {
-      URL baseUrl = algorithmExecutionClass.getProtectionDomain().getCodeSource().getLocation();
-      File file = new File(baseUrl.toURI());
-      String parent = file.getAbsoluteFile().getParent();
-      String classesFolder =
-        file.getAbsoluteFile().getParentFile().getParent() + File.separator + "WEB-INF" + File.separator + "classes";
-      String parentPathWildCard = parent + File.separator + "lib" + File.separator + "*";
-      myPath += File.pathSeparator + parentPathWildCard + File.pathSeparator + classesFolder;
-    } catch (URISyntaxException ex) {
-      ex.printStackTrace();
-    }
-
-    ProcessBuilder builder;
-    if (!memory.equals("")) {
-      builder = new ProcessBuilder(
-        javaBin, "-Xmx" + memory + "m", "-Xms" + memory + "m", "-classpath", myPath, className,
-        algorithmId, executionIdentifier);
-    } else {
-      builder = new ProcessBuilder(
-        javaBin, "-classpath", myPath, className, algorithmId, executionIdentifier);
-    }
-    builder.redirectErrorStream(true);
-
-    return builder.start();
-  }
-
 }
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parameters of a batch execution. Every execution template, i.e. an algorithm with a set of
+ * parameters, is executed on every file and table input. The input requirements of the templates
+ * are set to the respective input, all other requirements are taken as they are.
+ */
+public class BatchExecutionParams {
+
+  private String batchIdentifier;
+  private List<AlgorithmExecutionParams> executions = new ArrayList<>();
+  private List<Long> fileInputIds = new ArrayList<>();
+  private List<Long> tableInputIds = new ArrayList<>();
+  private Integer parallelism = 1;
+
+  public String getBatchIdentifier() {
+    return batchIdentifier;
+  }
+
+  public BatchExecutionParams setBatchIdentifier(String batchIdentifier) {
+    this.batchIdentifier = batchIdentifier;
+    return this;
+  }
+
+  public List<AlgorithmExecutionParams> getExecutions() {
+    return executions;
+  }
+
+  public BatchExecutionParams setExecutions(List<AlgorithmExecutionParams> executions) {
+    this.executions = executions;
+    return this;
+  }
+
+  public List<Long> getFileInputIds() {
+    return fileInputIds;
+  }
+
+  public BatchExecutionParams setFileInputIds(List<Long> fileInputIds) {
+    this.fileInputIds = fileInputIds;
+    return this;
+  }
+
+  public List<Long> getTableInputIds() {
+    return tableInputIds;
+  }
+
+  public BatchExecutionParams setTableInputIds(List<Long> tableInputIds) {
+    this.tableInputIds = tableInputIds;
+    return this;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public BatchExecutionParams setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+    return this;
+  }
+}
@@ -17,12 +17,18 @@ package de.metanome.backend.resources;
 
 import de.metanome.backend.result_receiver.ResultReader;
 import de.metanome.backend.results_db.Execution;
+import de.metanome.backend.results_db.ExecutionMetric;
+import de.metanome.backend.results_db.ExecutionSample;
 import de.metanome.backend.results_db.HibernateUtil;
 import de.metanome.backend.results_db.Result;
+import org.hibernate.criterion.Restrictions;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +95,62 @@ public class ExecutionResource {
     }
   }
 
+  /**
+   * Retrieves the resource usage samples of an execution, i.e. the CPU time, heap, garbage
+   * collections and I/O bytes of the execution process over time.
+   *
+   * @param id the execution's id
+   * @return the samples ordered by time
+   */
+  @GET
+  @Path("/samples/{executionId}")
+  @Produces("application/json")
+  @SuppressWarnings("unchecked")
+  public List<ExecutionSample> getSamples(@PathParam("executionId") long id) {
+    try {
+      List<ExecutionSample> samples = new ArrayList<>((List<ExecutionSample>) HibernateUtil
+        .queryCriteria(ExecutionSample.class, Restrictions.eq("execution.id", id)));
+      Collections.sort(samples, new Comparator<ExecutionSample>() {
+        @Override
+        public int compare(ExecutionSample first, ExecutionSample second) {
+          return Long.compare(first.getElapsedTime(), second.getElapsedTime());
+        }
+      });
+      return samples;
+    } catch (Exception e) {
+      e.printStackTrace();
+      throw new WebException(e, Response.Status.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Retrieves the metrics the algorithm recorded during an execution, i.e. the durations of its
+   * phases, its counters and gauges.
+   *
+   * @param id the execution's id
+   * @return the metrics in the order of their first occurrence
+   */
+  @GET
+  @Path("/metrics/{executionId}")
+  @Produces("application/json")
+  @SuppressWarnings("unchecked")
+  public List<ExecutionMetric> getMetrics(@PathParam("executionId") long id) {
+    try {
+      List<ExecutionMetric> metrics = new ArrayList<>((List<ExecutionMetric>) HibernateUtil
+        .queryCriteria(ExecutionMetric.class, Restrictions.eq("execution.id", id)));
+      Collections.sort(metrics, new Comparator<ExecutionMetric>() {
+        @Override
+        public int compare(ExecutionMetric first, ExecutionMetric second) {
+          return Long.compare(first.getFirstOccurrence(), second.getFirstOccurrence());
+        }
+      });
+      return metrics;
+    } catch (Exception e) {
+      e.printStackTrace();
+      throw new WebException(e, Response.Status.BAD_REQUEST);
+    }
+  }
+
   /**
    * Reads counter results from file.
    *
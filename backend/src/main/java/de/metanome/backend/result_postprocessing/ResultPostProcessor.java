@@ -27,6 +27,7 @@ import de.metanome.backend.input.file.DefaultFileInputGenerator;
 import de.metanome.backend.result_postprocessing.result_analyzer.*;
 import de.metanome.backend.result_postprocessing.result_store.*;
 import de.metanome.backend.result_postprocessing.results.*;
+import de.metanome.backend.result_receiver.ResultCursor;
 import de.metanome.backend.result_receiver.ResultReader;
 import de.metanome.backend.results_db.*;
 import de.metanome.backend.results_db.Result;
@@ -196,130 +197,102 @@ public class ResultPostProcessor {
     NullPointerException, IndexOutOfBoundsException {
 
     if (name.equals(ResultType.CUCC.getName())) {
-      // read results
-      ResultReader<ConditionalUniqueColumnCombination> resultReader =
-        new ResultReader<>(ResultType.CUCC);
-      List<ConditionalUniqueColumnCombination>
-        conditionalUniqueColumnCombinations =
-        resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<ConditionalUniqueColumnCombination, ConditionalUniqueColumnCombinationResult>
-        resultAnalyzer =
-        new ConditionalUniqueColumnCombinationResultAnalyzer(inputGenerators, dataIndependent);
-      List<ConditionalUniqueColumnCombinationResult>
-        rankingResults =
-        resultAnalyzer.analyzeResults(conditionalUniqueColumnCombinations);
-      // store results
-      ConditionalUniqueColumnCombinationResultStore
-        resultsStore =
-        new ConditionalUniqueColumnCombinationResultStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
-
+      analyzeAndStoreResults(fileName, ResultType.CUCC,
+        new ConditionalUniqueColumnCombinationResultAnalyzer(inputGenerators, dataIndependent),
+        new ConditionalUniqueColumnCombinationResultStore(),
+        ConditionalUniqueColumnCombinationResult.class, dataIndependent);
 
     } else if (name.equals(ResultType.OD.getName())) {
-      // read results
-      ResultReader<OrderDependency> resultReader =
-        new ResultReader<>(ResultType.OD);
-      List<OrderDependency> orderDependencies = resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<OrderDependency, OrderDependencyResult>
-        resultAnalyzer = new OrderDependencyResultAnalyzer(inputGenerators, dataIndependent);
-      List<OrderDependencyResult> rankingResults = resultAnalyzer.analyzeResults(orderDependencies);
-      // store results
-      OrderDependencyResultStore resultsStore = new OrderDependencyResultStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
-
+      analyzeAndStoreResults(fileName, ResultType.OD,
+        new OrderDependencyResultAnalyzer(inputGenerators, dataIndependent),
+        new OrderDependencyResultStore(), OrderDependencyResult.class, dataIndependent);
 
     } else if (name.equals(ResultType.IND.getName())) {
-      // read results
-      ResultReader<InclusionDependency> resultReader =
-        new ResultReader<>(ResultType.IND);
-      List<InclusionDependency> inclusionDependencies = resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<InclusionDependency, InclusionDependencyResult>
-        resultAnalyzer = new InclusionDependencyResultAnalyzer(inputGenerators, dataIndependent);
-      List<InclusionDependencyResult>
-        rankingResults =
-        resultAnalyzer.analyzeResults(inclusionDependencies);
-      // store results
-      InclusionDependencyResultsStore resultsStore = new InclusionDependencyResultsStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
-
+      analyzeAndStoreResults(fileName, ResultType.IND,
+        new InclusionDependencyResultAnalyzer(inputGenerators, dataIndependent),
+        new InclusionDependencyResultsStore(), InclusionDependencyResult.class, dataIndependent);
 
     } else if (name.equals(ResultType.FD.getName())) {
-      // read results
-      ResultReader<FunctionalDependency> resultReader =
-        new ResultReader<>(ResultType.FD);
-      List<FunctionalDependency>
-        functionalDependencies =
-        resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<FunctionalDependency, FunctionalDependencyResult>
-        resultAnalyzer =
-        new FunctionalDependencyResultAnalyzer(inputGenerators, dataIndependent);
-      List<FunctionalDependencyResult>
-        rankingResults =
-        resultAnalyzer.analyzeResults(functionalDependencies);
-      // store results
-      FunctionalDependencyResultStore resultsStore = new FunctionalDependencyResultStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
+      analyzeAndStoreResults(fileName, ResultType.FD,
+        new FunctionalDependencyResultAnalyzer(inputGenerators, dataIndependent),
+        new FunctionalDependencyResultStore(), FunctionalDependencyResult.class, dataIndependent);
 
     } else if (name.equals(ResultType.MVD.getName())) {
-      // read results
-      ResultReader<MultivaluedDependency> resultReader =
-        new ResultReader<>(ResultType.MVD);
-      List<MultivaluedDependency>
-        multivaluedDependencies =
-        resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<MultivaluedDependency, MultivaluedDependencyResult>
-        resultAnalyzer =
-        new MultivaluedDependencyResultAnalyzer(inputGenerators, dataIndependent);
-      List<MultivaluedDependencyResult>
-        rankingResults =
-        resultAnalyzer.analyzeResults(multivaluedDependencies);
-      // store results
-      MultivaluedDependencyResultStore resultsStore = new MultivaluedDependencyResultStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
+      analyzeAndStoreResults(fileName, ResultType.MVD,
+        new MultivaluedDependencyResultAnalyzer(inputGenerators, dataIndependent),
+        new MultivaluedDependencyResultStore(), MultivaluedDependencyResult.class,
+        dataIndependent);
 
     } else if (name.equals(ResultType.UCC.getName())) {
-      // read results
-      ResultReader<UniqueColumnCombination> resultReader =
-        new ResultReader<>(ResultType.UCC);
-      List<UniqueColumnCombination>
-        uniqueColumnCombinations =
-        resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<UniqueColumnCombination, UniqueColumnCombinationResult>
-        resultAnalyzer =
-        new UniqueColumnCombinationResultAnalyzer(inputGenerators, dataIndependent);
-      List<UniqueColumnCombinationResult>
-        rankingResult =
-        resultAnalyzer.analyzeResults(uniqueColumnCombinations);
-      // store results
-      UniqueColumnCombinationResultStore resultsStore = new UniqueColumnCombinationResultStore();
-      resultsStore.store(rankingResult);
-      ResultsStoreHolder.register(name, resultsStore);
-
+      analyzeAndStoreResults(fileName, ResultType.UCC,
+        new UniqueColumnCombinationResultAnalyzer(inputGenerators, dataIndependent),
+        new UniqueColumnCombinationResultStore(), UniqueColumnCombinationResult.class,
+        dataIndependent);
 
     } else if (name.equals(ResultType.STAT.getName())) {
-      // read results
-      ResultReader<BasicStatistic> resultReader =
-        new ResultReader<>(ResultType.STAT);
-      List<BasicStatistic> basicStatistics = resultReader.readResultsFromFile(fileName);
-      // analyze results
-      ResultAnalyzer<BasicStatistic, BasicStatisticResult>
-        resultAnalyzer = new BasicStatisticResultAnalyzer(inputGenerators, dataIndependent);
-      List<BasicStatisticResult> rankingResults = resultAnalyzer.analyzeResults(basicStatistics);
-      // store results
-      BasicStatisticResultStore resultsStore = new BasicStatisticResultStore();
-      resultsStore.store(rankingResults);
-      ResultsStoreHolder.register(name, resultsStore);
+      analyzeAndStoreResults(fileName, ResultType.STAT,
+        new BasicStatisticResultAnalyzer(inputGenerators, dataIndependent),
+        new BasicStatisticResultStore(), BasicStatisticResult.class, dataIndependent);
+    }
+  }
+
+  /**
+   * Reads the results of the given type from the file, analyzes them and registers the result
+   * store. The data independent analysis handles each result on its own, so that the results are
+   * read and analyzed in chunks. If the results do not fit into one chunk, the analyzed results
+   * are stored on disk. The data dependent analysis compares the results with each other and
+   * needs all of them in memory.
+   *
+   * @param fileName        the file name
+   * @param type            the result type
+   * @param resultAnalyzer  the analyzer of the result type
+   * @param resultsStore    the store of the result type
+   * @param resultClass     the class of the analyzed results
+   * @param dataIndependent true, if the result analyzes should use the actual data, false
+   *                        otherwise
+   * @throws java.io.IOException if the result file could not be loaded
+   */
+  private static <T extends de.metanome.algorithm_integration.results.Result, R> void analyzeAndStoreResults(
+    String fileName, ResultType type, ResultAnalyzer<T, R> resultAnalyzer,
+    ResultsStore<R> resultsStore, Class<R> resultClass, boolean dataIndependent)
+    throws IOException {
+    ResultReader<T> resultReader = new ResultReader<>(type);
+
+    try (ResultCursor<T> cursor = resultReader.openResults(fileName)) {
+      if (!dataIndependent) {
+        resultsStore.store(resultAnalyzer.analyzeResults(readChunk(cursor, Integer.MAX_VALUE)));
+      } else {
+        int chunkSize = resultsStore.getChunkSize();
+        List<T> results = readChunk(cursor, chunkSize);
+        if (!cursor.hasNext()) {
+          resultsStore.store(resultAnalyzer.analyzeResults(results));
+        } else {
+          DiskResultList<R> diskResults = new DiskResultList<>(resultClass);
+          try {
+            while (!results.isEmpty()) {
+              diskResults.addAll(resultAnalyzer.analyzeResults(results));
+              results = readChunk(cursor, chunkSize);
+            }
+          } catch (IOException e) {
+            diskResults.close();
+            throw e;
+          }
+          resultsStore.store(diskResults);
+        }
+      }
+    }
+    ResultsStoreHolder.register(type.getName(), resultsStore);
+  }
+
+  /**
+   * Reads up to the given number of results from the cursor.
+   */
+  private static <T extends de.metanome.algorithm_integration.results.Result> List<T> readChunk(
+    ResultCursor<T> cursor, int maxResults) throws IOException {
+    List<T> results = new ArrayList<>();
+    while (results.size() < maxResults && cursor.hasNext()) {
+      results.add(cursor.next());
     }
+    return results;
   }
 }
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+/**
+ * Determines the type of a single cell value. Implementations are called for every cell of a
+ * column, so they should neither allocate nor throw for values that do not match a type, and they
+ * have to be thread safe if they are shared between columns.
+ */
+public interface CellTypeClassifier {
+
+  /**
+   * Determines the type of the given cell value.
+   *
+   * @param cellValue the cell value (not null)
+   * @return the type of the cell value
+   */
+  ColumnInformation.ColumnType classify(String cellValue);
+
+}
@@ -18,8 +18,6 @@ package de.metanome.backend.result_postprocessing.helper;
 import de.metanome.algorithm_integration.input.InputIterationException;
 import de.metanome.algorithm_integration.input.RelationalInput;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 /**
@@ -63,6 +61,14 @@ public class ColumnInformation {
   private Histogram histogram = null;
   // Average length of cell values in string columns
   private float averageValueLength = 0.0f;
+  // Count of non null cells per column type (only set while the statistics are collected)
+  private long[] columnTypeCounts = null;
+  // Sum of the length of all non null cell values
+  private long valueLengthSum = 0L;
+  // Number of distinct values the histogram counts exactly before it switches to approximation
+  private int maxExactHistogramValues = Histogram.UNLIMITED;
+  // Classifier determining the type of a single cell
+  private CellTypeClassifier cellTypeClassifier = DefaultCellTypeClassifier.getInstance();
 
   /**
    * Creates a new column information for given column name and index
@@ -125,32 +131,95 @@ public class ColumnInformation {
    */
   protected void createHistogramAndDetermineType(RelationalInput relationalInput)
     throws InputIterationException {
-    this.histogram = new Histogram();
-    this.rowCount = 0L;
-
-    Map<ColumnType, Integer> columnTypeMap = new EnumMap<>(ColumnType.class);
+    this.startStatistics();
 
     // iterate over data and add each cell value to the histogram
     while (relationalInput.hasNext()) {
       List<String> row = relationalInput.next();
-      String cellValue = row.get(this.columnIndex);
-
-      // determine type of cell and store it in a map
-      if (cellValue != null) {
-        ColumnType type = getCellType(cellValue);
-        if (columnTypeMap.containsKey(type)) {
-          columnTypeMap.put(type, columnTypeMap.get(type) + 1);
-        } else {
-          columnTypeMap.put(type, 1);
-        }
-      }
-      // add value to histogram
-      this.histogram.addValue(cellValue);
-
-      this.rowCount++;
+      this.addCellValue(row.get(this.columnIndex));
     }
     // determine column type
-    this.columnType = determineColumnType(columnTypeMap);
+    this.columnType = determineColumnType(this.columnTypeCounts);
+    this.columnTypeCounts = null;
+  }
+
+  /**
+   * Resets the data dependent statistics, so that the cell values can be added one by one with
+   * {@link #addCellValue(String)}.
+   */
+  protected void startStatistics() {
+    this.histogram = new Histogram(this.maxExactHistogramValues);
+    this.rowCount = 0L;
+    this.valueLengthSum = 0L;
+    this.columnTypeCounts = new long[ColumnType.values().length];
+  }
+
+  /**
+   * Adds the next cell value of the column to the histogram and the type vote.
+   *
+   * @param cellValue the cell value (may be null)
+   */
+  protected void addCellValue(String cellValue) {
+    // determine type of cell and count it
+    if (cellValue != null) {
+      this.columnTypeCounts[getCellType(cellValue).ordinal()]++;
+      this.valueLengthSum += cellValue.length();
+    }
+    // add value to histogram
+    this.histogram.addValue(cellValue);
+
+    this.rowCount++;
+  }
+
+  /**
+   * Adds a distinct cell value of the column with the number of its occurrences, as if the value
+   * was added the given number of times with {@link #addCellValue(String)}.
+   *
+   * @param cellValue the cell value (may be null)
+   * @param count     the number of occurrences of the cell value
+   */
+  protected void addCellValue(String cellValue, long count) {
+    if (cellValue != null) {
+      this.columnTypeCounts[getCellType(cellValue).ordinal()] += count;
+      this.valueLengthSum += cellValue.length() * count;
+    }
+    this.histogram.addValue(cellValue, count);
+
+    this.rowCount += count;
+  }
+
+  /**
+   * Sets the statistics of a column, whose most frequent values and aggregates were computed
+   * elsewhere, e.g. by the source database. The column type is voted by the most frequent values
+   * only.
+   *
+   * @param topValues      the most frequent values with their counts
+   * @param rowCount       the number of rows
+   * @param nullCount      the number of null values
+   * @param distinctCount  the number of distinct values including null
+   * @param valueLengthSum the summed length of all non null values
+   */
+  protected void addTopValues(Map<String, Long> topValues, long rowCount, long nullCount,
+                              long distinctCount, long valueLengthSum) {
+    for (Map.Entry<String, Long> entry : topValues.entrySet()) {
+      if (entry.getKey() != null) {
+        this.columnTypeCounts[getCellType(entry.getKey()).ordinal()] += entry.getValue();
+      }
+    }
+    this.histogram.setTopValues(topValues, distinctCount, nullCount);
+    this.rowCount = rowCount;
+    this.valueLengthSum = valueLengthSum;
+  }
+
+  /**
+   * Computes all column metadata from the cell values added since {@link #startStatistics()}.
+   */
+  protected void finishStatistics() {
+    this.columnType = determineColumnType(this.columnTypeCounts);
+    this.columnTypeCounts = null;
+    this.computeDistinctValuesCount();
+    this.computeNullValuesCount();
+    this.computeAverageLength();
   }
 
   /**
@@ -160,31 +229,22 @@ public class ColumnInformation {
    * @return the type of the cell value (boolean, integer, float, date or string)
    */
   protected ColumnType getCellType(String cellValue) {
-    if (isBooleanValue(cellValue)) {
-      return ColumnType.BOOLEAN_COLUMN;
-    } else if (isIntegerValue(cellValue)) {
-      return ColumnType.INTEGER_COLUMN;
-    } else if (isFloatValue(cellValue)) {
-      return ColumnType.FLOAT_COLUMN;
-    } else if (isDateValue(cellValue)) {
-      return ColumnType.DATE_COLUMN;
-    }
-    return ColumnType.STRING_COLUMN;
+    return this.cellTypeClassifier.classify(cellValue);
   }
 
   /**
    * Determines the type of the column.
    *
-   * @param columnTypeMap map holding a count for each possible column type
+   * @param columnTypeCounts count for each possible column type indexed by the type's ordinal
    * @return the column type with the highest occurrence
    */
-  private ColumnType determineColumnType(Map<ColumnType, Integer> columnTypeMap) {
+  private ColumnType determineColumnType(long[] columnTypeCounts) {
     ColumnType columnType = ColumnType.STRING_COLUMN;
-    Integer count = 0;
-    for (Map.Entry<ColumnType, Integer> entry : columnTypeMap.entrySet()) {
-      if (entry.getValue() > count) {
-        columnType = entry.getKey();
-        count = entry.getValue();
+    long count = 0;
+    for (ColumnType type : ColumnType.values()) {
+      if (columnTypeCounts[type.ordinal()] > count) {
+        columnType = type;
+        count = columnTypeCounts[type.ordinal()];
       }
     }
     return columnType;
@@ -195,7 +255,7 @@ public class ColumnInformation {
    */
   protected void computeDistinctValuesCount() {
     if (this.histogram != null) {
-      this.distinctValuesCount = this.histogram.getHistogramData().keySet().size();
+      this.distinctValuesCount = this.histogram.getDistinctCount();
     }
   }
 
@@ -215,16 +275,7 @@ public class ColumnInformation {
    * @return true if the value has boolean format, false otherwise
    */
   protected boolean isBooleanValue(String value) {
-    // Check both values for a common boolean descriptor (lower case)
-    String[] commonNegativeDescriptorsArray = {"0", "false", "f", "no", "n"};
-    String[] commonPositiveDescriptorsArray = {"1", "true", "t", "yes", "y"};
-    Set<String> commonNegativeDescriptors =
-      new HashSet<>(Arrays.asList(commonNegativeDescriptorsArray));
-    Set<String> commonPositiveDescriptors =
-      new HashSet<>(Arrays.asList(commonPositiveDescriptorsArray));
-
-    return commonNegativeDescriptors.contains(value.toLowerCase()) ||
-      commonPositiveDescriptors.contains(value.toLowerCase());
+    return DefaultCellTypeClassifier.getInstance().isBoolean(value);
   }
 
   /**
@@ -234,7 +285,7 @@ public class ColumnInformation {
    * @return true if the value has integer format, false otherwise
    */
   protected boolean isIntegerValue(String value) {
-    return value.matches("\\d+");
+    return DefaultCellTypeClassifier.getInstance().isInteger(value);
   }
 
   /**
@@ -244,7 +295,7 @@ public class ColumnInformation {
    * @return true if the value have float format, false otherwise
    */
   protected boolean isFloatValue(String value) {
-    return value.matches("[+-]?(?=\\d*[.eE])(?=\\.?\\d)\\d*\\.?\\d*(?:[eE][+-]?\\d+)?");
+    return DefaultCellTypeClassifier.getInstance().isFloat(value);
   }
 
   /**
@@ -254,41 +305,7 @@ public class ColumnInformation {
    * @return true if the value has date format, false otherwise
    */
   protected boolean isDateValue(String value) {
-    // TODO optimize data formats and add further ones
-    String[] dateFormats = {"M/dd/yyyy",
-      "dd.M.yyyy",
-      "M/dd/yyyy hh:mm:ss a",
-      "dd.M.yyyy hh:mm:ss a",
-      "dd.MMM.yyyy",
-      "dd-MMM-yyyy"};
-
-    for (String dateFormat : dateFormats) {
-      // If one format fits then the value is a date
-      if (this.isDateValid(value, dateFormat)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  /**
-   * Checks if the provided value can be parsed to a date with provided format
-   *
-   * @param dateToValidate String which should be a date
-   * @param dateFormat     Format of the possible date
-   * @return true if the string can be parsed to a legal date using given format, false otherwise
-   */
-  protected boolean isDateValid(String dateToValidate, String dateFormat) {
-    SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-    // Set it to lenient, otherwise illegal days in month and leap years will not be checked
-    simpleDateFormat.setLenient(false);
-
-    try {
-      simpleDateFormat.parse(dateToValidate);
-    } catch (ParseException e) {
-      return false;
-    }
-    return true;
+    return DefaultCellTypeClassifier.getInstance().isDate(value);
   }
 
   /**
@@ -301,13 +318,8 @@ public class ColumnInformation {
       return;
     }
 
-    // Sum up the length of cell values
-    long lengthSum = 0l;
-    for (Map.Entry<String, Long> entry : this.histogram.getHistogramData().entrySet()) {
-      lengthSum += entry.getKey().length() * entry.getValue();
-    }
-
-    this.averageValueLength = (float) lengthSum / this.rowCount;
+    // The length of the cell values is summed up while the histogram is created
+    this.averageValueLength = (float) this.valueLengthSum / this.rowCount;
   }
 
   /**
@@ -390,6 +402,35 @@ public class ColumnInformation {
     return columnIndex;
   }
 
+  public int getMaxExactHistogramValues() {
+    return maxExactHistogramValues;
+  }
+
+  /**
+   * Sets the number of distinct values, that are counted exactly. If a column has more distinct
+   * values, the histogram keeps only the most frequent values and the distinct values count is
+   * estimated, which bounds the memory needed for high-cardinality columns.
+   *
+   * @param maxExactHistogramValues the maximal number of exactly counted distinct values
+   */
+  public void setMaxExactHistogramValues(int maxExactHistogramValues) {
+    this.maxExactHistogramValues = maxExactHistogramValues;
+  }
+
+  public CellTypeClassifier getCellTypeClassifier() {
+    return cellTypeClassifier;
+  }
+
+  /**
+   * Sets the classifier, that determines the type of the cells, while the data dependent
+   * statistics are computed.
+   *
+   * @param cellTypeClassifier the cell type classifier
+   */
+  public void setCellTypeClassifier(CellTypeClassifier cellTypeClassifier) {
+    this.cellTypeClassifier = cellTypeClassifier;
+  }
+
   /**
    * Defines different types of a column
    */
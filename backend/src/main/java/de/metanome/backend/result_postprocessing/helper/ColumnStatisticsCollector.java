@@ -0,0 +1,114 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_helper.data_structures.ColumnStripeReader;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.util.List;
+
+/**
+ * Computes the data dependent statistics of all columns of a table in a single scan over the
+ * input. Every row is read once and its cells are added to the histogram and type vote of the
+ * corresponding {@link ColumnInformation}.
+ * <p>
+ * If the collector is created with more than one thread, the rows are read in batches and the
+ * columns are striped over the worker threads. Every worker owns the statistics of its columns, so
+ * that no synchronization is needed on the histograms.
+ */
+public class ColumnStatisticsCollector {
+
+  protected List<ColumnInformation> columns;
+  protected int numberOfThreads = 1;
+
+  /**
+   * @param columns the column information to fill
+   */
+  public ColumnStatisticsCollector(List<ColumnInformation> columns) {
+    this.columns = columns;
+  }
+
+  /**
+   * @param columns         the column information to fill
+   * @param numberOfThreads the number of worker threads (1 collects the statistics on the calling
+   *                        thread)
+   */
+  public ColumnStatisticsCollector(List<ColumnInformation> columns, int numberOfThreads) {
+    this(columns);
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("The number of threads has to be at least 1.");
+    }
+    this.numberOfThreads = numberOfThreads;
+  }
+
+  /**
+   * Reads the whole input and computes the data dependent statistics of all columns.
+   *
+   * @param relationalInput the input of the table
+   * @throws InputIterationException if the input is not iterable
+   */
+  public void collect(RelationalInput relationalInput) throws InputIterationException {
+    for (ColumnInformation column : this.columns) {
+      column.startStatistics();
+    }
+
+    if (this.numberOfThreads > 1 && this.columns.size() > 1) {
+      collectParallel(relationalInput);
+    } else {
+      while (relationalInput.hasNext()) {
+        addRow(relationalInput.next(), 0, 1);
+      }
+    }
+
+    for (ColumnInformation column : this.columns) {
+      column.finishStatistics();
+    }
+  }
+
+  /**
+   * Reads the input with a {@link ColumnStripeReader}. A stripe is processed by a single thread,
+   * so the batches of a stripe are processed in input order.
+   *
+   * @param relationalInput the input of the table
+   * @throws InputIterationException if the input is not iterable
+   */
+  protected void collectParallel(RelationalInput relationalInput) throws InputIterationException {
+    int numberOfStripes = Math.min(this.numberOfThreads, this.columns.size());
+    new ColumnStripeReader(relationalInput, numberOfStripes).read(
+      new ColumnStripeReader.StripeProcessor() {
+        @Override
+        public void processBatch(List<List<String>> batch, long firstRow, int firstColumn,
+                                 int numberOfStripes) {
+          for (List<String> row : batch) {
+            addRow(row, firstColumn, numberOfStripes);
+          }
+        }
+      });
+  }
+
+  /**
+   * Adds the cells of every numberOfStripes-th column information beginning with firstColumn to the
+   * column statistics.
+   */
+  protected void addRow(List<String> row, int firstColumn, int numberOfStripes) {
+    for (int column = firstColumn; column < this.columns.size(); column += numberOfStripes) {
+      ColumnInformation columnInformation = this.columns.get(column);
+      columnInformation.addCellValue(row.get(columnInformation.getColumnIndex()));
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+/**
+ * Count-Min sketch estimating the frequency of 64 bit hashes in constant memory. The estimates
+ * never underestimate the actual frequency.
+ */
+public class CountMinSketch {
+
+  public static final int DEFAULT_DEPTH = 4;
+  public static final int DEFAULT_WIDTH = 2048;
+
+  protected final long[][] counters;
+  protected final int widthMask;
+
+  public CountMinSketch() {
+    this(DEFAULT_DEPTH, DEFAULT_WIDTH);
+  }
+
+  /**
+   * @param depth number of counter rows, each using a different hash function
+   * @param width number of counters per row (a power of two)
+   */
+  public CountMinSketch(int depth, int width) {
+    if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+      throw new IllegalArgumentException(
+        "The depth has to be positive and the width has to be a power of two.");
+    }
+    this.counters = new long[depth][width];
+    this.widthMask = width - 1;
+  }
+
+  /**
+   * Adds the given count to the frequency of the hash.
+   *
+   * @param hash  a well distributed 64 bit hash
+   * @param count the count to add
+   * @return the estimated frequency of the hash after adding the count
+   */
+  public long add(long hash, long count) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < this.counters.length; row++) {
+      int column = index(hash, row);
+      this.counters[row][column] += count;
+      estimate = Math.min(estimate, this.counters[row][column]);
+    }
+    return estimate;
+  }
+
+  /**
+   * @param hash a well distributed 64 bit hash
+   * @return the estimated frequency of the hash
+   */
+  public long estimate(long hash) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < this.counters.length; row++) {
+      estimate = Math.min(estimate, this.counters[row][index(hash, row)]);
+    }
+    return estimate;
+  }
+
+  /**
+   * Derives the counter of the given row from the two halves of the hash.
+   */
+  protected int index(long hash, int row) {
+    int combinedHash = (int) hash + row * (int) (hash >>> 32);
+    return (combinedHash ^ (combinedHash >>> 16)) & this.widthMask;
+  }
+
+}
@@ -0,0 +1,337 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.backend.result_postprocessing.helper.ColumnInformation.ColumnType;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Hand-written, single pass cell type classifier. A value is a boolean, if it is one of the common
+ * boolean descriptors 0/1, false/true, f/t, no/yes or n/y (ignoring case), an integer, if it
+ * consists of digits only, a float, if it has a decimal point or an exponent, and a date, if it
+ * has one of the following shapes:
+ * <ul>
+ * <li>M/dd/yyyy</li>
+ * <li>dd.M.yyyy</li>
+ * <li>M/dd/yyyy hh:mm:ss a</li>
+ * <li>dd.M.yyyy hh:mm:ss a</li>
+ * <li>dd.MMM.yyyy</li>
+ * <li>dd-MMM-yyyy</li>
+ * </ul>
+ * The date shapes are validated like a non-lenient {@link java.text.SimpleDateFormat} does, but the
+ * whole value has to match. The month names and am/pm markers are taken from the classifier's
+ * locale once, so classifying a value does not allocate. The classifier is immutable and can be
+ * shared between threads.
+ */
+public class DefaultCellTypeClassifier implements CellTypeClassifier {
+
+  private static final String[] BOOLEAN_DESCRIPTORS =
+    {"0", "false", "f", "no", "n", "1", "true", "t", "yes", "y"};
+
+  // Numeric date fields with more digits are not considered to avoid an overflow
+  private static final int MAX_NUMBER_DIGITS = 9;
+  // Maximal values of the hour, minute and second field
+  private static final int[] TIME_FIELD_MAXIMA = {12, 59, 59};
+  // The last year of the julian calendar
+  private static final int LAST_JULIAN_YEAR = 1582;
+
+  private static final DefaultCellTypeClassifier DEFAULT_INSTANCE = new DefaultCellTypeClassifier();
+
+  // Long and short month names of the locale (index 0 is january)
+  private final String[] monthNames;
+  // AM and PM marker of the locale
+  private final String[] amPmMarkers;
+
+  /**
+   * Creates a classifier, that recognizes month names and am/pm markers of the default locale.
+   */
+  public DefaultCellTypeClassifier() {
+    this(Locale.getDefault());
+  }
+
+  /**
+   * Creates a classifier, that recognizes month names and am/pm markers of the given locale.
+   *
+   * @param locale the locale of the date values
+   */
+  public DefaultCellTypeClassifier(Locale locale) {
+    DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+    String[] months = symbols.getMonths();
+    String[] shortMonths = symbols.getShortMonths();
+    this.monthNames = new String[24];
+    for (int month = 0; month < 12; month++) {
+      this.monthNames[month] = months[month];
+      this.monthNames[month + 12] = shortMonths[month];
+    }
+    this.amPmMarkers = symbols.getAmPmStrings();
+  }
+
+  /**
+   * @return a shared classifier for the default locale
+   */
+  public static DefaultCellTypeClassifier getInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  @Override
+  public ColumnType classify(String cellValue) {
+    if (isBoolean(cellValue)) {
+      return ColumnType.BOOLEAN_COLUMN;
+    } else if (isInteger(cellValue)) {
+      return ColumnType.INTEGER_COLUMN;
+    } else if (isFloat(cellValue)) {
+      return ColumnType.FLOAT_COLUMN;
+    } else if (isDate(cellValue)) {
+      return ColumnType.DATE_COLUMN;
+    }
+    return ColumnType.STRING_COLUMN;
+  }
+
+  /**
+   * Checks if the given value is a common boolean descriptor (ignoring case).
+   *
+   * @param value string value which should be checked
+   * @return true if the value has boolean format, false otherwise
+   */
+  public boolean isBoolean(String value) {
+    for (String descriptor : BOOLEAN_DESCRIPTORS) {
+      if (value.equalsIgnoreCase(descriptor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the given value consists of digits only.
+   *
+   * @param value string value which should be checked
+   * @return true if the value has integer format, false otherwise
+   */
+  public boolean isInteger(String value) {
+    return !value.isEmpty() && skipDigits(value, 0) == value.length();
+  }
+
+  /**
+   * Checks if the given value is a float value: an optional sign, digits with an optional decimal
+   * point and an optional exponent. Either the decimal point or the exponent and at least one digit
+   * in front of the exponent are required.
+   *
+   * @param value string value which should be checked
+   * @return true if the value has float format, false otherwise
+   */
+  public boolean isFloat(String value) {
+    int length = value.length();
+    int integerStart = skipSign(value, 0);
+    int integerEnd = skipDigits(value, integerStart);
+    if (integerEnd == length) {
+      return false;
+    }
+
+    int position = integerEnd;
+    boolean hasDigits = integerEnd > integerStart;
+    if (value.charAt(position) == '.') {
+      position = skipDigits(value, position + 1);
+      hasDigits = hasDigits || position > integerEnd + 1;
+    } else if (!isExponentMarker(value.charAt(position))) {
+      return false;
+    }
+    if (!hasDigits) {
+      return false;
+    }
+
+    if (position < length && isExponentMarker(value.charAt(position))) {
+      int exponentStart = skipSign(value, position + 1);
+      position = skipDigits(value, exponentStart);
+      if (position == exponentStart) {
+        return false;
+      }
+    }
+    return position == length;
+  }
+
+  /**
+   * Checks if the given value has one of the supported date shapes and is a valid date.
+   *
+   * @param value string value which should be checked
+   * @return true if the value has date format, false otherwise
+   */
+  public boolean isDate(String value) {
+    int length = value.length();
+
+    // The first field is either the month (M/dd/yyyy) or the day (dd.M.yyyy, dd.MMM.yyyy)
+    int firstEnd = skipDigits(value, 0);
+    if (!isNumberField(0, firstEnd) || firstEnd == length) {
+      return false;
+    }
+    char separator = value.charAt(firstEnd);
+    if (separator != '/' && separator != '.' && separator != '-') {
+      return false;
+    }
+
+    int day;
+    int month;
+    int secondEnd = skipDigits(value, firstEnd + 1);
+    boolean numericMonth = secondEnd > firstEnd + 1;
+    if (numericMonth) {
+      if (separator == '-' || !isNumberField(firstEnd + 1, secondEnd)) {
+        return false;
+      }
+      int first = parseNumber(value, 0, firstEnd);
+      int second = parseNumber(value, firstEnd + 1, secondEnd);
+      month = separator == '/' ? first : second;
+      day = separator == '/' ? second : first;
+    } else {
+      int monthIndex = matchMonthName(value, firstEnd + 1);
+      if (separator == '/' || monthIndex < 0) {
+        return false;
+      }
+      month = monthIndex % 12 + 1;
+      day = parseNumber(value, 0, firstEnd);
+      secondEnd = firstEnd + 1 + this.monthNames[monthIndex].length();
+    }
+    if (secondEnd == length || value.charAt(secondEnd) != separator) {
+      return false;
+    }
+
+    int yearEnd = skipDigits(value, secondEnd + 1);
+    if (!isNumberField(secondEnd + 1, yearEnd)) {
+      return false;
+    }
+    if (!isValidDate(day, month, parseNumber(value, secondEnd + 1, yearEnd))) {
+      return false;
+    }
+
+    // The time is only supported for numeric months
+    return yearEnd == length || (numericMonth && isTime(value, yearEnd));
+  }
+
+  /**
+   * Checks if the value continues with a time of the shape " hh:mm:ss a" at the given position.
+   */
+  protected boolean isTime(String value, int position) {
+    int length = value.length();
+    for (int field = 0; field < TIME_FIELD_MAXIMA.length; field++) {
+      char expectedSeparator = field == 0 ? ' ' : ':';
+      if (position == length || value.charAt(position) != expectedSeparator) {
+        return false;
+      }
+      int end = skipDigits(value, position + 1);
+      if (!isNumberField(position + 1, end) ||
+        parseNumber(value, position + 1, end) > TIME_FIELD_MAXIMA[field]) {
+        return false;
+      }
+      position = end;
+    }
+    if (position == length || value.charAt(position) != ' ') {
+      return false;
+    }
+    position++;
+    for (String marker : this.amPmMarkers) {
+      if (position + marker.length() == length &&
+        value.regionMatches(true, position, marker, 0, marker.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the index of the longest month name at the given position or -1, if there is no month
+   * name
+   */
+  protected int matchMonthName(String value, int position) {
+    int monthIndex = -1;
+    int length = 0;
+    for (int i = 0; i < this.monthNames.length; i++) {
+      String monthName = this.monthNames[i];
+      if (monthName.length() > length &&
+        value.regionMatches(true, position, monthName, 0, monthName.length())) {
+        monthIndex = i;
+        length = monthName.length();
+      }
+    }
+    return monthIndex;
+  }
+
+  /**
+   * Checks the date like a non-lenient gregorian calendar, which uses the julian leap year rule
+   * before 1583.
+   */
+  protected boolean isValidDate(int day, int month, int year) {
+    if (year < 1 || month < 1 || month > 12 || day < 1) {
+      return false;
+    }
+    int daysInMonth;
+    if (month == 2) {
+      boolean leapYear = year % 4 == 0 &&
+        (year <= LAST_JULIAN_YEAR || year % 100 != 0 || year % 400 == 0);
+      daysInMonth = leapYear ? 29 : 28;
+    } else if (month == 4 || month == 6 || month == 9 || month == 11) {
+      daysInMonth = 30;
+    } else {
+      daysInMonth = 31;
+    }
+    return day <= daysInMonth;
+  }
+
+  /**
+   * @return the position of the first non digit character at or after the given position
+   */
+  protected static int skipDigits(String value, int position) {
+    int length = value.length();
+    while (position < length && value.charAt(position) >= '0' && value.charAt(position) <= '9') {
+      position++;
+    }
+    return position;
+  }
+
+  /**
+   * @return true, if the digits between start and end form a numeric date field
+   */
+  protected static boolean isNumberField(int start, int end) {
+    return end > start && end - start <= MAX_NUMBER_DIGITS;
+  }
+
+  protected static boolean isExponentMarker(char character) {
+    return character == 'e' || character == 'E';
+  }
+
+  /**
+   * @return the position after an optional sign at the given position
+   */
+  protected static int skipSign(String value, int position) {
+    if (position < value.length() &&
+      (value.charAt(position) == '+' || value.charAt(position) == '-')) {
+      return position + 1;
+    }
+    return position;
+  }
+
+  /**
+   * @return the value of the digits between start and end
+   */
+  protected static int parseNumber(String value, int start, int end) {
+    int number = 0;
+    for (int i = start; i < end; i++) {
+      number = number * 10 + value.charAt(i) - '0';
+    }
+    return number;
+  }
+
+}
@@ -15,22 +15,103 @@
  */
 package de.metanome.backend.result_postprocessing.helper;
 
-import java.util.HashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
 import java.util.List;
 import java.util.Map;
 
 /**
  * Provides a simple single key value (no ranges) histogram
+ * <p>
+ * The exact counts are stored in a primitive open addressing map keyed by the 64 bit hash of the
+ * value, so that incrementing a count neither boxes nor keeps a string per distinct value. Only the
+ * {@link #DEFAULT_TOP_K} most frequent values are kept as strings in the histogram data. Two values
+ * share a count only if their hashes collide, which is negligible for 64 bit hashes.
+ * <p>
+ * A histogram created with a limit for the number of exactly counted values switches to an
+ * approximate mode, as soon as more distinct values are added: the distinct values are then
+ * estimated with a {@link HyperLogLog} sketch and the frequencies with a {@link CountMinSketch}.
+ * This bounds the memory of the histogram for high-cardinality columns.
  */
 public class Histogram {
 
-  protected Map<String, Long> histogramData;
+  // System property with the number of distinct values of a column, that the result
+  // post-processing counts exactly before it approximates the histogram
+  public static final String MAX_EXACT_VALUES_PROPERTY = "metanome.maxExactHistogramValues";
+  // Number of distinct values, that are counted exactly if no limit is given
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+  // Number of most frequent values kept in approximate mode by default
+  public static final int DEFAULT_TOP_K = 100;
+
+  // Hash used for null values in the sketches
+  private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+  // Exact counts by the hash of the value, null in approximate mode
+  protected Long2LongOpenHashMap counts;
+  // The most frequent values with their counts
+  protected Object2LongOpenHashMap<String> histogramData;
+  protected long nullCount = 0L;
+  protected int maxExactValues = UNLIMITED;
+  protected int topK = DEFAULT_TOP_K;
+  // The sketches are only created in approximate mode
+  protected HyperLogLog distinctValues = null;
+  protected CountMinSketch frequencies = null;
+  // Lower bound of the smallest count in the histogram data
+  protected long minimalTopCount = 0L;
+  // Exact number of distinct values, if the most frequent values were computed elsewhere
+  protected long knownDistinctCount = -1L;
 
   public Histogram() {
-    // Needs to be a hash map, because tree maps don't accept "null" as key
-    this.histogramData = new HashMap<>();
+    this.counts = new Long2LongOpenHashMap();
+    // Needs to be a map, that accepts "null" as key
+    this.histogramData = new Object2LongOpenHashMap<>();
+  }
+
+  /**
+   * Creates a histogram, that counts up to the given number of distinct values exactly and
+   * switches to the approximate mode afterwards.
+   *
+   * @param maxExactValues maximal number of exactly counted distinct values
+   */
+  public Histogram(int maxExactValues) {
+    this(maxExactValues, DEFAULT_TOP_K);
   }
 
+  /**
+   * Creates a histogram, that counts up to the given number of distinct values exactly and
+   * switches to the approximate mode afterwards.
+   *
+   * @param maxExactValues maximal number of exactly counted distinct values
+   * @param topK           number of most frequent values kept in approximate mode
+   */
+  public Histogram(int maxExactValues, int topK) {
+    this();
+    if (maxExactValues < 1 || topK < 1) {
+      throw new IllegalArgumentException(
+        "The number of exact and most frequent values has to be positive.");
+    }
+    this.maxExactValues = maxExactValues;
+    this.topK = topK;
+  }
+
+  /**
+   * @return the number of exactly counted distinct values set by the {@link
+   * #MAX_EXACT_VALUES_PROPERTY} or {@link #UNLIMITED}, if the property is not set or not positive
+   */
+  public static int getConfiguredMaxExactValues() {
+    int maxExactValues = Integer.getInteger(MAX_EXACT_VALUES_PROPERTY, UNLIMITED);
+    return maxExactValues < 1 ? UNLIMITED : maxExactValues;
+  }
+
+  /**
+   * Provides the counts of the most frequent values. In approximate mode the counts are
+   * estimated.
+   *
+   * @return the value counts
+   */
   public Map<String, Long> getHistogramData() {
     return this.histogramData;
   }
@@ -40,8 +121,47 @@ public class Histogram {
    *
    * @return the count of null values in the histogram
    */
-  public Long getNullCount() {
-    return this.histogramData.containsKey(null) ? this.histogramData.get(null) : 0L;
+  public long getNullCount() {
+    return this.nullCount;
+  }
+
+  /**
+   * Provides the number of distinct values including null, which is estimated in approximate mode.
+   *
+   * @return the number of distinct values
+   */
+  public long getDistinctCount() {
+    if (this.knownDistinctCount >= 0) {
+      return this.knownDistinctCount;
+    }
+    if (this.isApproximate()) {
+      return this.distinctValues.estimate();
+    }
+    return this.counts.size();
+  }
+
+  /**
+   * Provides the count of the given value, which is an upper bound in approximate mode.
+   *
+   * @param v the value
+   * @return the count of the value
+   */
+  public long getFrequency(String v) {
+    if (this.knownDistinctCount >= 0) {
+      // Values, that are not among the most frequent values, are at most as frequent as them
+      return this.histogramData.containsKey(v) ? this.histogramData.getLong(v) : this.minimalTopCount;
+    }
+    if (this.isApproximate()) {
+      return this.frequencies.estimate(hash(v));
+    }
+    return this.counts.get(hash(v));
+  }
+
+  /**
+   * @return true, if the histogram switched to the approximate mode
+   */
+  public boolean isApproximate() {
+    return this.distinctValues != null;
   }
 
   /**
@@ -51,13 +171,59 @@ public class Histogram {
    * @param v value to add
    */
   public void addValue(String v) {
-    if (this.histogramData.containsKey(v)) {
-      this.histogramData.put(v, this.histogramData.get(v) + 1L);
-    } else {
-      this.histogramData.put(v, 1L);
+    this.addValue(v, 1L);
+  }
+
+  /**
+   * Adds the given number of occurrences of a value to the histogram.
+   *
+   * @param v     value to add
+   * @param count number of occurrences of the value
+   */
+  public void addValue(String v, long count) {
+    if (v == null) {
+      this.nullCount += count;
+    }
+    long hash = hash(v);
+    if (this.isApproximate()) {
+      this.distinctValues.add(hash);
+      this.updateTopValues(v, this.frequencies.add(hash, count));
+      return;
+    }
+
+    this.updateTopValues(v, this.counts.addTo(hash, count) + count);
+    if (this.counts.size() > this.maxExactValues) {
+      this.switchToApproximateMode();
     }
   }
 
+  /**
+   * Replaces the content of the histogram with the most frequent values of a column, whose counts
+   * and number of distinct values were computed elsewhere, e.g. by the source database. The
+   * histogram is in approximate mode afterwards, but the distinct count and the counts of the given
+   * values are exact.
+   *
+   * @param topValues     the most frequent values with their counts
+   * @param distinctCount the number of distinct values including null
+   * @param nullCount     the number of null values
+   */
+  public void setTopValues(Map<String, Long> topValues, long distinctCount, long nullCount) {
+    this.distinctValues = new HyperLogLog();
+    this.frequencies = new CountMinSketch();
+    this.counts = null;
+    this.histogramData = new Object2LongOpenHashMap<>(topValues.size());
+    this.minimalTopCount = topValues.isEmpty() ? 0L : Long.MAX_VALUE;
+    for (Map.Entry<String, Long> entry : topValues.entrySet()) {
+      long hash = hash(entry.getKey());
+      this.distinctValues.add(hash);
+      this.frequencies.add(hash, entry.getValue());
+      this.histogramData.put(entry.getKey(), entry.getValue().longValue());
+      this.minimalTopCount = Math.min(this.minimalTopCount, entry.getValue());
+    }
+    this.knownDistinctCount = distinctCount;
+    this.nullCount = nullCount;
+  }
+
   /**
    * Creates the histogram from the given column values
    *
@@ -68,4 +234,74 @@ public class Histogram {
       addValue(v);
     }
   }
+
+  /**
+   * Updates the count of the value in the most frequent values. Counts only grow, so every value,
+   * that is not kept, is at most as frequent as the least frequent kept value.
+   *
+   * @param v     the value
+   * @param count the new count of the value
+   */
+  protected void updateTopValues(String v, long count) {
+    if (this.histogramData.containsKey(v) || this.histogramData.size() < this.topK) {
+      this.histogramData.put(v, count);
+    } else if (count > this.minimalTopCount) {
+      // Replace the least frequent value, if the new value is more frequent
+      String leastFrequentValue = null;
+      long leastCount = Long.MAX_VALUE;
+      for (Object2LongMap.Entry<String> entry : this.histogramData.object2LongEntrySet()) {
+        if (entry.getLongValue() < leastCount) {
+          leastFrequentValue = entry.getKey();
+          leastCount = entry.getLongValue();
+        }
+      }
+      if (count > leastCount) {
+        this.histogramData.removeLong(leastFrequentValue);
+        this.histogramData.put(v, count);
+      }
+      this.minimalTopCount = leastCount;
+    }
+  }
+
+  /**
+   * Moves the exact counts into the sketches. The most frequent values are kept with their
+   * estimated counts.
+   */
+  protected void switchToApproximateMode() {
+    this.distinctValues = new HyperLogLog();
+    this.frequencies = new CountMinSketch();
+
+    for (Long2LongMap.Entry entry : this.counts.long2LongEntrySet()) {
+      this.distinctValues.add(entry.getLongKey());
+      this.frequencies.add(entry.getLongKey(), entry.getLongValue());
+    }
+    this.counts = null;
+
+    for (Object2LongMap.Entry<String> entry : this.histogramData.object2LongEntrySet()) {
+      entry.setValue(this.frequencies.estimate(hash(entry.getKey())));
+    }
+  }
+
+  /**
+   * Computes a well distributed 64 bit hash of the value without allocating.
+   *
+   * @param v the value
+   * @return the hash of the value
+   */
+  protected static long hash(String v) {
+    if (v == null) {
+      return NULL_HASH;
+    }
+    // FNV-1a over the characters followed by the murmur3 finalizer
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < v.length(); i++) {
+      hash = (hash ^ v.charAt(i)) * 0x100000001B3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct 64 bit hashes in constant memory. The
+ * relative standard error is about 1.04 / sqrt(2^precision).
+ */
+public class HyperLogLog {
+
+  public static final int DEFAULT_PRECISION = 12;
+
+  protected final int precision;
+  protected final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @param precision number of hash bits used to select a register (4 to 18)
+   */
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 18) {
+      throw new IllegalArgumentException("The precision has to be between 4 and 18.");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Adds the given hash to the sketch.
+   *
+   * @param hash a well distributed 64 bit hash
+   */
+  public void add(long hash) {
+    int index = (int) (hash >>> (64 - this.precision));
+    // The guard bit bounds the rank, if all remaining bits are zero
+    long remainingBits = (hash << this.precision) | (1L << (this.precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remainingBits) + 1);
+    if (rank > this.registers[index]) {
+      this.registers[index] = rank;
+    }
+  }
+
+  /**
+   * @return the estimated number of distinct hashes added to the sketch
+   */
+  public long estimate() {
+    int numberOfRegisters = this.registers.length;
+    double sum = 0.0;
+    int zeroRegisters = 0;
+    for (byte register : this.registers) {
+      sum += Math.scalb(1.0, -register);
+      if (register == 0) {
+        zeroRegisters++;
+      }
+    }
+
+    double alpha = 0.7213 / (1.0 + 1.079 / numberOfRegisters);
+    double estimate = alpha * numberOfRegisters * numberOfRegisters / sum;
+    // Small cardinalities are estimated more precisely with linear counting
+    if (estimate <= 2.5 * numberOfRegisters && zeroRegisters > 0) {
+      estimate = numberOfRegisters * Math.log((double) numberOfRegisters / zeroRegisters);
+    }
+    return Math.round(estimate);
+  }
+
+}
@@ -0,0 +1,477 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_helper.data_structures.CompressedPositionListIndex;
+import de.metanome.algorithm_helper.data_structures.PositionListIndex;
+import de.metanome.algorithm_integration.input.FileInputGenerator;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persists {@link PositionListIndex}es on disk, so that they do not have to be rebuild, when the
+ * results of the same input are analyzed again. Every input gets its own directory named after the
+ * input file and its fingerprint (size, modification time and parser settings), every position
+ * list index a file named after the indices of its columns. Changing the input file therefore
+ * invalidates its cached position list indices.
+ * <p>
+ * The total size of the cache files is bounded: if it exceeds the maximal size, the least recently
+ * used files are deleted. Only file based inputs are cached.
+ * <p>
+ * The default cache lies in the temporary directory, so that all processes of the backend find it
+ * independent of their working directory. It can be moved with the {@link #DIRECTORY_PROPERTY}.
+ */
+public class PLICache {
+
+  public static final String DIRECTORY_PROPERTY = "metanome.pliCache";
+  // Name of the default cache directory in the temporary directory
+  public static final String DEFAULT_DIRECTORY = "metanome_pli_cache";
+  public static final long DEFAULT_MAX_SIZE = 1024L * 1024L * 1024L;
+  public static final String FILE_ENDING = ".pli";
+
+  protected static final int FORMAT_VERSION = 1;
+
+  private static PLICache defaultCache = null;
+
+  protected File directory;
+  protected long maxSize;
+  protected long size = 0L;
+  // The cache files in access order (least recently used first) with their sizes
+  protected LinkedHashMap<File, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Creates a cache in the given directory. Cache files, that already exist in the directory, are
+   * reused.
+   *
+   * @param directory the cache directory
+   * @param maxSize   the maximal total size of all cache files in bytes
+   */
+  public PLICache(File directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.scanDirectory();
+  }
+
+  /**
+   * @return the cache in the directory of the {@link #DIRECTORY_PROPERTY} or in the {@link
+   * #DEFAULT_DIRECTORY} of the temporary directory with the {@link #DEFAULT_MAX_SIZE}
+   */
+  public static synchronized PLICache getDefault() {
+    if (defaultCache == null) {
+      defaultCache = new PLICache(getDefaultDirectory(), DEFAULT_MAX_SIZE);
+    }
+    return defaultCache;
+  }
+
+  /**
+   * @return the absolute directory of the default cache
+   */
+  protected static File getDefaultDirectory() {
+    String directory = System.getProperty(DIRECTORY_PROPERTY);
+    if (directory != null && !directory.isEmpty()) {
+      return new File(directory).getAbsoluteFile();
+    }
+    return new File(System.getProperty("java.io.tmpdir"), DEFAULT_DIRECTORY).getAbsoluteFile();
+  }
+
+  /**
+   * Identifies the state of the given input.
+   *
+   * @param generator the generator of the input
+   * @return the key of the input in the cache or null if the input can not be cached
+   */
+  public static String getInputKey(RelationalInputGenerator generator) {
+    if (generator instanceof ColumnarInputGenerator) {
+      generator = ((ColumnarInputGenerator) generator).getSourceGenerator();
+    }
+    String fingerprint = ColumnarInputGenerator.getFingerprint(generator);
+    if (fingerprint == null) {
+      return null;
+    }
+    String path = ((FileInputGenerator) generator).getInputFile().getAbsolutePath();
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      byte[] hash = digest.digest((path + '|' + fingerprint).getBytes(StandardCharsets.UTF_8));
+      StringBuilder key = new StringBuilder();
+      for (byte b : hash) {
+        key.append(String.format("%02x", b));
+      }
+      return key.toString();
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the cached position list indices of the input. Only the cache files are listed, every
+   * position list index is read on its first access. Position list indices, that can not be read,
+   * are dropped from the cache and are missing in the returned map.
+   *
+   * @param inputKey the key of the input
+   * @return the position list indices by their column bit sets (empty, if none are cached)
+   */
+  public synchronized Map<BitSet, PositionListIndex> load(String inputKey) {
+    Map<BitSet, File> index = new HashMap<>();
+    File[] cacheFiles = new File(this.directory, inputKey).listFiles();
+    if (cacheFiles != null) {
+      for (File file : cacheFiles) {
+        BitSet columns = toBitSet(file.getName());
+        if (columns != null) {
+          index.put(columns, file);
+          this.touch(file);
+        }
+      }
+    }
+    return new CachedPLIMap(index);
+  }
+
+  /**
+   * Reads the position list index of the given cache file.
+   *
+   * @param file the cache file
+   * @return the position list index or null, if the file could not be read
+   */
+  protected synchronized PositionListIndex read(File file) {
+    try (DataInputStream in = new DataInputStream(
+      new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported pli format version");
+      }
+      PositionListIndex pli = CompressedPositionListIndex.read(in);
+      this.touch(file);
+      return pli;
+    } catch (IOException e) {
+      // An unreadable cache file is dropped and rebuild by the caller
+      this.remove(file);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the given position list indices of the input, that are not cached yet. Evicts the least
+   * recently used cache files afterwards, if the cache exceeds its maximal size. Every position
+   * list index is written to a temporary file, which then replaces the cache file, so that other
+   * processes never read a partially written cache file.
+   *
+   * @param inputKey the key of the input
+   * @param plis     the position list indices by their column bit sets
+   */
+  public synchronized void store(String inputKey, Map<BitSet, PositionListIndex> plis) {
+    File inputDirectory = new File(this.directory, inputKey);
+    if (!inputDirectory.isDirectory() && !inputDirectory.mkdirs()) {
+      return;
+    }
+
+    for (BitSet columns : plis.keySet()) {
+      File file = new File(inputDirectory, toFileName(columns));
+      // cached position list indices are not read again
+      if (this.files.containsKey(file)) {
+        continue;
+      }
+      PositionListIndex pli = plis.get(columns);
+      if (pli == null) {
+        continue;
+      }
+      CompressedPositionListIndex compressedPLI = pli instanceof CompressedPositionListIndex ?
+        (CompressedPositionListIndex) pli : new CompressedPositionListIndex(pli);
+
+      File tempFile = null;
+      try {
+        tempFile = File.createTempFile(file.getName(), ".tmp", inputDirectory);
+        try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+          out.writeInt(FORMAT_VERSION);
+          compressedPLI.write(out);
+        }
+        try {
+          Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException e) {
+        // The position list index is still usable in memory, if the cache is not writable
+        if (tempFile != null) {
+          tempFile.delete();
+        }
+        continue;
+      }
+      this.files.put(file, file.length());
+      this.size += file.length();
+    }
+
+    this.evict();
+  }
+
+  /**
+   * @return the total size of all cache files in bytes
+   */
+  public synchronized long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Deletes the least recently used cache files until the cache fits into its maximal size.
+   */
+  protected void evict() {
+    Iterator<Map.Entry<File, Long>> iterator = this.files.entrySet().iterator();
+    while (this.size > this.maxSize && iterator.hasNext()) {
+      Map.Entry<File, Long> entry = iterator.next();
+      File file = entry.getKey();
+      file.delete();
+      this.size -= entry.getValue();
+      iterator.remove();
+
+      File inputDirectory = file.getParentFile();
+      String[] remainingFiles = inputDirectory.list();
+      if (remainingFiles != null && remainingFiles.length == 0) {
+        inputDirectory.delete();
+      }
+    }
+  }
+
+  /**
+   * Registers all existing cache files ordered by their modification time, which is updated on
+   * every access.
+   */
+  protected void scanDirectory() {
+    List<File> cacheFiles = new ArrayList<>();
+    File[] inputDirectories = this.directory.listFiles();
+    if (inputDirectories != null) {
+      for (File inputDirectory : inputDirectories) {
+        File[] files = inputDirectory.listFiles();
+        if (files == null) {
+          continue;
+        }
+        for (File file : files) {
+          if (toBitSet(file.getName()) != null) {
+            cacheFiles.add(file);
+          }
+        }
+      }
+    }
+
+    Collections.sort(cacheFiles, new Comparator<File>() {
+      @Override
+      public int compare(File o1, File o2) {
+        return Long.compare(o1.lastModified(), o2.lastModified());
+      }
+    });
+    for (File file : cacheFiles) {
+      this.files.put(file, file.length());
+      this.size += file.length();
+    }
+    this.evict();
+  }
+
+  protected void touch(File file) {
+    file.setLastModified(System.currentTimeMillis());
+    if (this.files.get(file) == null) {
+      this.files.put(file, file.length());
+      this.size += file.length();
+    }
+  }
+
+  protected void remove(File file) {
+    Long fileSize = this.files.remove(file);
+    if (fileSize != null) {
+      this.size -= fileSize;
+    }
+    file.delete();
+  }
+
+  /**
+   * @return the file name of the given columns, e.g. "0_2_5.pli"
+   */
+  protected static String toFileName(BitSet columns) {
+    StringBuilder name = new StringBuilder();
+    for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+      if (name.length() > 0) {
+        name.append('_');
+      }
+      name.append(column);
+    }
+    return name.append(FILE_ENDING).toString();
+  }
+
+  /**
+   * @return the columns of the given file name or null if it is no cache file name
+   */
+  protected static BitSet toBitSet(String fileName) {
+    if (!fileName.endsWith(FILE_ENDING) || fileName.length() == FILE_ENDING.length()) {
+      return null;
+    }
+    BitSet columns = new BitSet();
+    try {
+      for (String column : fileName.substring(0, fileName.length() - FILE_ENDING.length())
+        .split("_")) {
+        columns.set(Integer.parseInt(column));
+      }
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      return null;
+    }
+    return columns;
+  }
+
+  /**
+   * The position list indices of one input, which are read from their cache files on the first
+   * access. Position list indices, that are added to the map, are kept in memory. The map is
+   * guarded by the lock of its cache.
+   */
+  protected class CachedPLIMap extends AbstractMap<BitSet, PositionListIndex> {
+
+    protected Map<BitSet, File> index;
+    protected Map<BitSet, PositionListIndex> plis = new HashMap<>();
+
+    protected CachedPLIMap(Map<BitSet, File> index) {
+      this.index = index;
+    }
+
+    @Override
+    public PositionListIndex get(Object key) {
+      synchronized (PLICache.this) {
+        PositionListIndex pli = this.plis.get(key);
+        if (pli == null) {
+          File file = this.index.remove(key);
+          if (file != null) {
+            pli = read(file);
+            if (pli != null) {
+              this.plis.put((BitSet) key, pli);
+            }
+          }
+        }
+        return pli;
+      }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      synchronized (PLICache.this) {
+        return this.plis.containsKey(key) || this.index.containsKey(key);
+      }
+    }
+
+    @Override
+    public PositionListIndex put(BitSet key, PositionListIndex value) {
+      synchronized (PLICache.this) {
+        this.index.remove(key);
+        return this.plis.put(key, value);
+      }
+    }
+
+    @Override
+    public int size() {
+      synchronized (PLICache.this) {
+        return this.plis.size() + this.index.size();
+      }
+    }
+
+    /**
+     * Iterating over the keys does not read the position list indices, only the values of the
+     * entries are read.
+     */
+    @Override
+    public Set<Entry<BitSet, PositionListIndex>> entrySet() {
+      final List<BitSet> keys;
+      synchronized (PLICache.this) {
+        keys = new ArrayList<>(this.plis.keySet());
+        keys.addAll(this.index.keySet());
+      }
+      return new AbstractSet<Entry<BitSet, PositionListIndex>>() {
+        @Override
+        public Iterator<Entry<BitSet, PositionListIndex>> iterator() {
+          final Iterator<BitSet> keyIterator = keys.iterator();
+          return new Iterator<Entry<BitSet, PositionListIndex>>() {
+            @Override
+            public boolean hasNext() {
+              return keyIterator.hasNext();
+            }
+
+            @Override
+            public Entry<BitSet, PositionListIndex> next() {
+              return new CachedEntry(keyIterator.next());
+            }
+
+            @Override
+            public void remove() {
+              throw new UnsupportedOperationException();
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.size();
+        }
+      };
+    }
+
+    /**
+     * An entry, whose position list index is read on the first access.
+     */
+    protected class CachedEntry implements Entry<BitSet, PositionListIndex> {
+
+      protected BitSet key;
+
+      protected CachedEntry(BitSet key) {
+        this.key = key;
+      }
+
+      @Override
+      public BitSet getKey() {
+        return this.key;
+      }
+
+      @Override
+      public PositionListIndex getValue() {
+        return CachedPLIMap.this.get(this.key);
+      }
+
+      @Override
+      public PositionListIndex setValue(PositionListIndex value) {
+        return CachedPLIMap.this.put(this.key, value);
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+        if (!(obj instanceof Entry)) {
+          return false;
+        }
+        Entry<?, ?> other = (Entry<?, ?>) obj;
+        PositionListIndex value = this.getValue();
+        return this.key.equals(other.getKey()) &&
+          (value == null ? other.getValue() == null : value.equals(other.getValue()));
+      }
+
+      @Override
+      public int hashCode() {
+        PositionListIndex value = this.getValue();
+        return this.key.hashCode() ^ (value == null ? 0 : value.hashCode());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,388 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_integration.AlgorithmConfigurationException;
+import de.metanome.algorithm_integration.configuration.DbSystem;
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+import de.metanome.backend.input.database.DefaultDatabaseConnectionGenerator;
+import de.metanome.backend.input.database.DefaultTableInputGenerator;
+import de.metanome.backend.input.database.ResultSetIterator;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the data dependent statistics of the columns of a database table with aggregate queries
+ * on the source database, so that the rows do not have to be streamed into the backend.
+ * <p>
+ * A single aggregate query computes the number of rows and the number of null and distinct values
+ * of all columns. The histogram of a column with at most {@link
+ * ColumnInformation#getMaxExactHistogramValues()} distinct values is computed with a GROUP BY
+ * query and results in the same statistics as streaming the column. Of all other columns only the
+ * most frequent values are fetched, the average value length of character columns is aggregated
+ * by the database. Columns, that can not be grouped by (e.g. large objects), are left to the
+ * caller. The SQL dialect is chosen by the {@link DbSystem} of the connection, if no system is set
+ * standard SQL is used.
+ * <p>
+ * The names and types of the columns are read once with a query, that returns no rows, so that
+ * the table does not have to be opened as input to describe it.
+ */
+public class StatisticsPushdown {
+
+  protected static final String METADATA_STATEMENT = "SELECT * FROM %s WHERE 1 = 0";
+  protected static final String AGGREGATE_STATEMENT = "SELECT COUNT(*)%s FROM %s";
+  protected static final String GROUP_STATEMENT = "SELECT %1$s, COUNT(*) FROM %2$s GROUP BY %1$s";
+  protected static final String TOP_STATEMENT =
+    "SELECT %1$s, COUNT(*) FROM %2$s GROUP BY %1$s ORDER BY COUNT(*) DESC";
+
+  protected DefaultTableInputGenerator generator;
+  protected DefaultDatabaseConnectionGenerator connectionGenerator;
+  protected String table;
+  protected DbSystem system;
+  // The meta data of the table, read by the first access
+  protected String relationName;
+  protected List<String> columnNames;
+  protected List<String> quotedColumnNames;
+  protected int[] columnTypes;
+
+  /**
+   * @param generator the generator of the table input
+   */
+  public StatisticsPushdown(DefaultTableInputGenerator generator) {
+    this.generator = generator;
+    this.connectionGenerator = generator.getDefaultDatabaseConnectionGenerator();
+    this.table = generator.getTable();
+    this.system = this.connectionGenerator.getSystem();
+  }
+
+  /**
+   * Creates the pushdown for the table behind the given generator.
+   *
+   * @param generator the input generator, which may wrap the table input generator in a {@link
+   *                  ColumnarInputGenerator}
+   * @return the pushdown or null, if the input is not a database table
+   */
+  public static StatisticsPushdown forGenerator(RelationalInputGenerator generator) {
+    if (generator instanceof ColumnarInputGenerator) {
+      generator = ((ColumnarInputGenerator) generator).getSourceGenerator();
+    }
+    if (!(generator instanceof DefaultTableInputGenerator)) {
+      return null;
+    }
+    return new StatisticsPushdown((DefaultTableInputGenerator) generator);
+  }
+
+  public DefaultTableInputGenerator getGenerator() {
+    return generator;
+  }
+
+  /**
+   * @return the relation name, as the input of the table reports it
+   * @throws InputGenerationException        if the meta data of the table is not accessible
+   * @throws AlgorithmConfigurationException if no connection could be established
+   */
+  public String getRelationName() throws InputGenerationException, AlgorithmConfigurationException {
+    this.readMetaData();
+    return this.relationName;
+  }
+
+  /**
+   * @return the column names, as the input of the table reports them
+   * @throws InputGenerationException        if the meta data of the table is not accessible
+   * @throws AlgorithmConfigurationException if no connection could be established
+   */
+  public List<String> getColumnNames()
+    throws InputGenerationException, AlgorithmConfigurationException {
+    this.readMetaData();
+    return this.columnNames;
+  }
+
+  /**
+   * Reads the names and types of the columns, if they are not read yet. The names are taken from
+   * a {@link ResultSetIterator} over the empty result, so that they equal the names of the table's
+   * input.
+   */
+  protected void readMetaData() throws InputGenerationException, AlgorithmConfigurationException {
+    if (this.columnNames != null) {
+      return;
+    }
+    ResultSet metaDataResult =
+      this.connectionGenerator.generateResultSetFromSql(String.format(METADATA_STATEMENT, table));
+    try {
+      ResultSetIterator emptyInput = new ResultSetIterator(metaDataResult, table);
+      ResultSetMetaData metaData = metaDataResult.getMetaData();
+      int numberOfColumns = metaData.getColumnCount();
+      List<String> quotedColumnNames = new ArrayList<>(numberOfColumns);
+      int[] columnTypes = new int[numberOfColumns];
+      for (int column = 0; column < numberOfColumns; column++) {
+        quotedColumnNames.add(quote(metaData.getColumnName(column + 1)));
+        columnTypes[column] = metaData.getColumnType(column + 1);
+      }
+      this.relationName = emptyInput.relationName();
+      this.quotedColumnNames = quotedColumnNames;
+      this.columnTypes = columnTypes;
+      this.columnNames = emptyInput.columnNames();
+    } catch (SQLException e) {
+      throw new InputGenerationException("Could not read the meta data of " + table, e);
+    } finally {
+      close(metaDataResult);
+    }
+  }
+
+  /**
+   * Computes the data dependent statistics of the given columns on the database. If the aggregate
+   * query fails, no column is computed.
+   *
+   * @param columns the column information to fill
+   * @return the columns, whose statistics could not be computed by the database
+   * @throws InputGenerationException        if the meta data of the table is not accessible
+   * @throws AlgorithmConfigurationException if no connection could be established
+   */
+  public List<ColumnInformation> collect(List<ColumnInformation> columns)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    List<ColumnInformation> remainingColumns = new ArrayList<>();
+    List<ColumnInformation> pushedColumns = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+    List<Boolean> characterColumns = new ArrayList<>();
+
+    this.readMetaData();
+    for (ColumnInformation column : columns) {
+      int sqlType = this.columnTypes[column.getColumnIndex()];
+      if (!isGroupable(sqlType)) {
+        remainingColumns.add(column);
+        continue;
+      }
+      pushedColumns.add(column);
+      expressions.add(this.quotedColumnNames.get(column.getColumnIndex()));
+      characterColumns.add(isCharacterType(sqlType));
+    }
+
+    long[][] aggregates;
+    try {
+      aggregates = aggregate(expressions, characterColumns);
+    } catch (InputGenerationException e) {
+      rollback();
+      return columns;
+    }
+
+    for (int i = 0; i < pushedColumns.size(); i++) {
+      ColumnInformation column = pushedColumns.get(i);
+      column.startStatistics();
+      try {
+        collectColumn(column, expressions.get(i), aggregates[i]);
+        column.finishStatistics();
+      } catch (InputGenerationException e) {
+        rollback();
+        remainingColumns.add(column);
+      }
+    }
+    return remainingColumns;
+  }
+
+  /**
+   * Computes the number of rows, non null values and distinct non null values of all given
+   * columns and the summed length of all character columns in a single scan over the table.
+   *
+   * @return the row count, non null count, distinct count and length sum (-1 if the column is not
+   * a character column) of every column
+   */
+  protected long[][] aggregate(List<String> columns, List<Boolean> characterColumns)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    StringBuilder expressions = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      String column = columns.get(i);
+      expressions.append(", COUNT(").append(column).append("), COUNT(DISTINCT ").append(column)
+        .append("), ");
+      expressions.append(characterColumns.get(i) ?
+        "SUM(" + getLengthFunction() + "(" + column + "))" : "-1");
+    }
+
+    ResultSet resultSet = this.connectionGenerator
+      .generateResultSetFromSql(String.format(AGGREGATE_STATEMENT, expressions, table));
+    try {
+      if (!resultSet.next()) {
+        throw new InputGenerationException("The aggregate query returned no result");
+      }
+      long[][] aggregates = new long[columns.size()][];
+      for (int i = 0; i < columns.size(); i++) {
+        aggregates[i] = new long[]{resultSet.getLong(1), resultSet.getLong(3 * i + 2),
+          resultSet.getLong(3 * i + 3), resultSet.getLong(3 * i + 4)};
+      }
+      return aggregates;
+    } catch (SQLException e) {
+      throw new InputGenerationException("Could not aggregate the columns of " + table, e);
+    } finally {
+      close(resultSet);
+    }
+  }
+
+  /**
+   * Fills the histogram of the column. Columns with few distinct values are grouped completely,
+   * of all other columns only the most frequent values are fetched.
+   */
+  protected void collectColumn(ColumnInformation column, String expression, long[] aggregates)
+    throws InputGenerationException, AlgorithmConfigurationException {
+    long rowCount = aggregates[0];
+    long nullCount = rowCount - aggregates[1];
+    long distinctCount = aggregates[2] + (nullCount > 0 ? 1 : 0);
+
+    if (distinctCount <= column.getMaxExactHistogramValues()) {
+      ResultSet resultSet = this.connectionGenerator
+        .generateResultSetFromSql(String.format(GROUP_STATEMENT, expression, table));
+      try {
+        while (resultSet.next()) {
+          column.addCellValue(resultSet.getString(1), resultSet.getLong(2));
+        }
+      } catch (SQLException e) {
+        throw new InputGenerationException("Could not group the column " + expression, e);
+      } finally {
+        close(resultSet);
+      }
+      return;
+    }
+
+    Map<String, Long> topValues = new HashMap<>();
+    ResultSet resultSet = this.connectionGenerator.generateResultSetFromSql(
+      limit(String.format(TOP_STATEMENT, expression, table), Histogram.DEFAULT_TOP_K));
+    try {
+      while (resultSet.next() && topValues.size() < Histogram.DEFAULT_TOP_K) {
+        topValues.put(resultSet.getString(1), resultSet.getLong(2));
+      }
+    } catch (SQLException e) {
+      throw new InputGenerationException("Could not group the column " + expression, e);
+    } finally {
+      close(resultSet);
+    }
+
+    long valueLengthSum = aggregates[3];
+    if (valueLengthSum < 0) {
+      // The length of values, that are not characters, is estimated from the most frequent values
+      long lengthSum = 0;
+      long count = 0;
+      for (Map.Entry<String, Long> entry : topValues.entrySet()) {
+        if (entry.getKey() != null) {
+          lengthSum += entry.getKey().length() * entry.getValue();
+          count += entry.getValue();
+        }
+      }
+      valueLengthSum = count == 0 ? 0 : Math.round((double) lengthSum / count * aggregates[1]);
+    }
+    column.addTopValues(topValues, rowCount, nullCount, distinctCount, valueLengthSum);
+  }
+
+  /**
+   * @return the query, that returns at most the given number of rows of the given query
+   */
+  protected String limit(String query, int numberOfRows) {
+    if (this.system == null) {
+      return query + " FETCH FIRST " + numberOfRows + " ROWS ONLY";
+    }
+    switch (this.system) {
+      case Oracle:
+        return "SELECT * FROM (" + query + ") WHERE ROWNUM <= " + numberOfRows;
+      case DB2:
+        return query + " FETCH FIRST " + numberOfRows + " ROWS ONLY";
+      default:
+        return query + " LIMIT " + numberOfRows;
+    }
+  }
+
+  /**
+   * @return the function, that returns the number of characters of a value
+   */
+  protected String getLengthFunction() {
+    if (this.system == DbSystem.Oracle || this.system == DbSystem.DB2
+      || this.system == DbSystem.HANA) {
+      return "LENGTH";
+    }
+    return "CHAR_LENGTH";
+  }
+
+  /**
+   * @return the quoted identifier
+   */
+  protected String quote(String identifier) {
+    String quote = this.system == DbSystem.MySQL ? "`" : "\"";
+    return quote + identifier.replace(quote, quote + quote) + quote;
+  }
+
+  /**
+   * @return true, if the database can group by and count the values of the given type
+   */
+  protected static boolean isGroupable(int sqlType) {
+    switch (sqlType) {
+      case Types.BLOB:
+      case Types.CLOB:
+      case Types.NCLOB:
+      case Types.LONGVARCHAR:
+      case Types.LONGNVARCHAR:
+      case Types.LONGVARBINARY:
+      case Types.SQLXML:
+      case Types.ARRAY:
+      case Types.STRUCT:
+      case Types.REF:
+      case Types.DATALINK:
+      case Types.JAVA_OBJECT:
+      case Types.OTHER:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  protected static boolean isCharacterType(int sqlType) {
+    return sqlType == Types.CHAR || sqlType == Types.VARCHAR || sqlType == Types.NCHAR
+      || sqlType == Types.NVARCHAR;
+  }
+
+  /**
+   * Resets the transaction after a failed query, because some systems reject all further
+   * statements of a failed transaction.
+   */
+  protected void rollback() {
+    try {
+      if (this.connectionGenerator.getConnection() != null
+        && !this.connectionGenerator.getConnection().getAutoCommit()) {
+        this.connectionGenerator.getConnection().rollback();
+      }
+    } catch (SQLException e) {
+      // The next statement reports the connection problem
+    }
+  }
+
+  protected static void close(ResultSet resultSet) {
+    try {
+      Statement statement = resultSet.getStatement();
+      resultSet.close();
+      if (statement != null) {
+        statement.close();
+      }
+    } catch (SQLException e) {
+      // The statistics are computed anyway
+    }
+  }
+
+}
@@ -58,41 +58,110 @@ public class TableInformation {
                           boolean useDataIndependentStatistics,
                           BitSet bitSet)
     throws InputGenerationException, InputIterationException, AlgorithmConfigurationException {
+    this(relationalInputGenerator, useDataIndependentStatistics, bitSet, 1);
+  }
+
+  /**
+   * Computes table metadata on the input data. The data dependent statistics of all columns are
+   * computed in a single scan over the input.
+   *
+   * @param relationalInputGenerator     The input data generator providing access to the input data
+   *                                     stream
+   * @param useDataIndependentStatistics true, if data dependent statistics should be calculated,
+   *                                     false otherwise
+   * @param bitSet                       bit set, which represents this table
+   * @param numberOfThreads              number of threads the columns are striped over, while the
+   *                                     data dependent statistics are computed
+   * @throws InputGenerationException Will be thrown if the input data is not accessible
+   * @throws de.metanome.algorithm_integration.input.InputIterationException if the input is not iterable
+   * @throws de.metanome.algorithm_integration.AlgorithmConfigurationException if input generator could not be build
+   */
+  public TableInformation(RelationalInputGenerator relationalInputGenerator,
+                          boolean useDataIndependentStatistics,
+                          BitSet bitSet,
+                          int numberOfThreads)
+    throws InputGenerationException, InputIterationException, AlgorithmConfigurationException {
+    this(relationalInputGenerator, useDataIndependentStatistics, bitSet, numberOfThreads,
+      Histogram.UNLIMITED);
+  }
+
+  /**
+   * Computes table metadata on the input data. The data dependent statistics of all columns are
+   * computed in a single scan over the input, the histograms of columns with more distinct values
+   * than the given limit are approximated. The statistics of database tables are computed with
+   * aggregate queries by the database (see {@link StatisticsPushdown}), only columns, that can not
+   * be aggregated, are scanned.
+   *
+   * @param relationalInputGenerator     The input data generator providing access to the input data
+   *                                     stream
+   * @param useDataIndependentStatistics true, if data dependent statistics should be calculated,
+   *                                     false otherwise
+   * @param bitSet                       bit set, which represents this table
+   * @param numberOfThreads              number of threads the columns are striped over, while the
+   *                                     data dependent statistics are computed
+   * @param maxExactHistogramValues      number of distinct values of a column, that are counted
+   *                                     exactly
+   * @throws InputGenerationException Will be thrown if the input data is not accessible
+   * @throws de.metanome.algorithm_integration.input.InputIterationException if the input is not iterable
+   * @throws de.metanome.algorithm_integration.AlgorithmConfigurationException if input generator could not be build
+   */
+  public TableInformation(RelationalInputGenerator relationalInputGenerator,
+                          boolean useDataIndependentStatistics,
+                          BitSet bitSet,
+                          int numberOfThreads,
+                          int maxExactHistogramValues)
+    throws InputGenerationException, InputIterationException, AlgorithmConfigurationException {
     this.relationalInputGenerator = relationalInputGenerator;
     this.bitSet = bitSet;
 
-    // Get table data
-    RelationalInput relationalInput = relationalInputGenerator.generateNewCopy();
-    this.columnCount = relationalInput.numberOfColumns();
-    this.tableName = StringHelper.removeFileEnding(relationalInput.relationName());
+    // The statistics of database tables are computed by the database, if possible
+    StatisticsPushdown pushdown = useDataIndependentStatistics ? null :
+      StatisticsPushdown.forGenerator(relationalInputGenerator);
+
+    // Get table data, the columns of database tables are described without reading the table
+    RelationalInput relationalInput = null;
+    List<String> columnNames;
+    if (pushdown != null) {
+      columnNames = pushdown.getColumnNames();
+      this.tableName = StringHelper.removeFileEnding(pushdown.getRelationName());
+    } else {
+      relationalInput = relationalInputGenerator.generateNewCopy();
+      columnNames = relationalInput.columnNames();
+      this.tableName = StringHelper.removeFileEnding(relationalInput.relationName());
+    }
+    this.columnCount = columnNames.size();
 
     // Create the column information
-    List<String> columnNames = relationalInput.columnNames();
+    List<ColumnInformation> columns = new ArrayList<>();
     this.columnInformationMap = new HashMap<>();
 
     for (int columnIndex = 0; columnIndex < this.columnCount; columnIndex++) {
       BitSet columnBitSet = new BitSet(this.columnCount);
       columnBitSet.set(columnIndex);
 
-      // Compute the column information for the current column
-      if (!useDataIndependentStatistics) {
-        // Generate a new data iterator for each column
-        relationalInput = relationalInputGenerator.generateNewCopy();
-        this.columnInformationMap
-          .put(columnNames.get(columnIndex),
-            new ColumnInformation(columnNames.get(columnIndex),
-              columnIndex,
-              columnBitSet,
-              relationalInput,
-              true));
-      } else {
-        this.columnInformationMap.
-          put(columnNames.get(columnIndex),
-            new ColumnInformation(columnNames.get(columnIndex),
-              columnIndex,
-              columnBitSet));
+      ColumnInformation columnInformation =
+        new ColumnInformation(columnNames.get(columnIndex), columnIndex, columnBitSet);
+      columnInformation.setMaxExactHistogramValues(maxExactHistogramValues);
+      columns.add(columnInformation);
+      this.columnInformationMap.put(columnNames.get(columnIndex), columnInformation);
+    }
+
+    if (useDataIndependentStatistics) {
+      return;
+    }
+
+    // Only the columns, that the database could not aggregate, are streamed
+    List<ColumnInformation> remainingColumns = columns;
+    if (pushdown != null) {
+      remainingColumns = pushdown.collect(columns);
+      if (remainingColumns.isEmpty()) {
+        return;
       }
+      relationalInput = relationalInputGenerator.generateNewCopy();
     }
+
+    // Compute the statistics of all remaining columns in one pass over the input
+    new ColumnStatisticsCollector(remainingColumns, numberOfThreads).collect(relationalInput);
   }
 
   /**
@@ -16,10 +16,13 @@
 package de.metanome.backend.result_postprocessing.result_analyzer;
 
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
+import de.metanome.algorithm_integration.input.FileInputGenerator;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.InputIterationException;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
 import de.metanome.algorithm_integration.results.Result;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+import de.metanome.backend.result_postprocessing.helper.Histogram;
 import de.metanome.backend.result_postprocessing.helper.TableInformation;
 
 import java.util.*;
@@ -45,9 +48,16 @@ public abstract class ResultAnalyzer<T extends Result, R> {
     for (RelationalInputGenerator relationalInputGenerator : inputGenerators) {
       BitSet bitSet = new BitSet(inputGenerators.size());
       bitSet.set(index);
+      // The data dependent statistics read the input several times, so file inputs are parsed only
+      // once into a columnar snapshot. Database tables are still streamed, because the snapshot
+      // would hold the whole table in memory.
+      if (!useDataIndependentStatistics && relationalInputGenerator instanceof FileInputGenerator) {
+        relationalInputGenerator = new ColumnarInputGenerator(relationalInputGenerator);
+      }
       TableInformation
         tableInformation =
-        new TableInformation(relationalInputGenerator, useDataIndependentStatistics, bitSet);
+        new TableInformation(relationalInputGenerator, useDataIndependentStatistics, bitSet,
+          Runtime.getRuntime().availableProcessors(), Histogram.getConfiguredMaxExactValues());
       this.tableInformationMap.put(tableInformation.getTableName(), tableInformation);
       index = index + 1;
     }
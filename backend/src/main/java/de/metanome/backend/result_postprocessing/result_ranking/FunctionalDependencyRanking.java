@@ -15,13 +15,18 @@
  */
 package de.metanome.backend.result_postprocessing.result_ranking;
 
+import de.metanome.algorithm_helper.data_structures.CompressedPositionListIndex;
 import de.metanome.algorithm_helper.data_structures.PLIBuilder;
 import de.metanome.algorithm_helper.data_structures.PositionListIndex;
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarRelation;
 import de.metanome.backend.result_postprocessing.helper.ColumnInformation;
+import de.metanome.backend.result_postprocessing.helper.PLICache;
 import de.metanome.backend.result_postprocessing.helper.TableInformation;
 import de.metanome.backend.result_postprocessing.results.FunctionalDependencyResult;
 
@@ -34,6 +39,7 @@ public class FunctionalDependencyRanking extends Ranking {
 
   protected List<FunctionalDependencyResult> results;
   protected Map<BitSet, PositionListIndex> PLIs;
+  protected PLICache pliCache = null;
 
   public FunctionalDependencyRanking(List<FunctionalDependencyResult> results,
                                      Map<String, TableInformation> tableInformationMap) {
@@ -92,6 +98,14 @@ public class FunctionalDependencyRanking extends Ranking {
         calculateInformationGainBytes(result, tableInformation);
       }
     }
+
+    // Persist the intersected PLIs as well, so that they are not recalculated next time
+    if (this.tableInformationMap.size() == 1) {
+      String inputKey = PLICache.getInputKey(tableInformation.getRelationalInputGenerator());
+      if (inputKey != null) {
+        getPLICache().store(inputKey, this.PLIs);
+      }
+    }
   }
 
   /**
@@ -231,8 +245,9 @@ public class FunctionalDependencyRanking extends Ranking {
     }
 
     // the PLI already exists
-    if (this.PLIs.containsKey(columnBitSet)) {
-      return this.PLIs.get(columnBitSet).getRawKeyError();
+    PositionListIndex existingPLI = this.PLIs.get(columnBitSet);
+    if (existingPLI != null) {
+      return existingPLI.getRawKeyError();
     }
 
     // get all individual columns as bit set
@@ -337,7 +352,8 @@ public class FunctionalDependencyRanking extends Ranking {
   }
 
   /**
-   * Creates the position list indices for the given table.
+   * Creates the position list indices for the given table. The position list indices are
+   * compressed, so that the intersections in the key error calculation are cheap.
    *
    * @param tableInformation the table
    * @return a map containing for each column its position list index
@@ -346,18 +362,59 @@ public class FunctionalDependencyRanking extends Ranking {
    * @throws de.metanome.algorithm_integration.AlgorithmConfigurationException if input generator could not be build
    */
   public Map<BitSet, PositionListIndex> createPLIs(TableInformation tableInformation)
+    throws InputGenerationException, InputIterationException, AlgorithmConfigurationException {
+    // Reuse the PLIs of a previous analysis of the same input
+    String inputKey = PLICache.getInputKey(tableInformation.getRelationalInputGenerator());
+    if (inputKey != null) {
+      Map<BitSet, PositionListIndex> cachedPLIs = getPLICache().load(inputKey);
+      if (containsAllColumns(cachedPLIs, tableInformation.getColumnCount())) {
+        return cachedPLIs;
+      }
+    }
+
+    Map<BitSet, PositionListIndex> pliList = buildPLIs(tableInformation);
+    if (inputKey != null) {
+      getPLICache().store(inputKey, pliList);
+    }
+    return pliList;
+  }
+
+  /**
+   * Builds the position list indices of all single columns of the given table.
+   *
+   * @param tableInformation the table
+   * @return a map containing for each column its position list index
+   * @throws de.metanome.algorithm_integration.input.InputGenerationException if the input is not accessible
+   * @throws de.metanome.algorithm_integration.input.InputIterationException if the input is not iterable
+   * @throws de.metanome.algorithm_integration.AlgorithmConfigurationException if input generator could not be build
+   */
+  protected Map<BitSet, PositionListIndex> buildPLIs(TableInformation tableInformation)
     throws InputGenerationException, InputIterationException, AlgorithmConfigurationException {
     Map<BitSet, PositionListIndex> pliList = new HashMap<>();
 
+    // Columnar inputs are already dictionary encoded, so the PLIs can be build from the codes
+    RelationalInputGenerator generator = tableInformation.getRelationalInputGenerator();
+    if (generator instanceof ColumnarInputGenerator) {
+      ColumnarRelation relation = ((ColumnarInputGenerator) generator).getRelation();
+      for (int index = 0; index < relation.getNumberOfColumns(); index++) {
+        BitSet bitSet = new BitSet();
+        bitSet.set(index);
+        pliList.put(bitSet, CompressedPositionListIndex.fromDictionaryCodes(
+          relation.getColumn(index), relation.getDictionary(index).length, true));
+      }
+      return pliList;
+    }
+
     PLIBuilder pliBuilder =
-      new PLIBuilder(tableInformation.getRelationalInputGenerator().generateNewCopy());
+      new PLIBuilder(tableInformation.getRelationalInputGenerator().generateNewCopy(), true,
+        Runtime.getRuntime().availableProcessors());
     List<PositionListIndex> PLIs = pliBuilder.getPLIList();
 
     int index = 0;
     for (PositionListIndex PLI : PLIs) {
       BitSet bitSet = new BitSet();
       bitSet.set(index);
-      pliList.put(bitSet, PLI);
+      pliList.put(bitSet, new CompressedPositionListIndex(PLI));
       index++;
     }
 
@@ -365,4 +422,31 @@ public class FunctionalDependencyRanking extends Ranking {
 
   }
 
+  /**
+   * Reads the PLIs of all single columns, so that unreadable cached PLIs are detected.
+   *
+   * @return true, if the given PLIs contain the PLI of every single column
+   */
+  protected boolean containsAllColumns(Map<BitSet, PositionListIndex> plis, int columnCount) {
+    for (int index = 0; index < columnCount; index++) {
+      BitSet bitSet = new BitSet();
+      bitSet.set(index);
+      if (plis.get(bitSet) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public PLICache getPLICache() {
+    if (this.pliCache == null) {
+      this.pliCache = PLICache.getDefault();
+    }
+    return this.pliCache;
+  }
+
+  public void setPLICache(PLICache pliCache) {
+    this.pliCache = pliCache;
+  }
+
 }
@@ -0,0 +1,360 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.result_store;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * An append-only list of ranking results, which is stored on disk. The results are written as
+ * length-prefixed JSON records into a data file. An index file contains the offset of each record,
+ * so that a page of results can be read by seeking to its first record. The list can be sorted by
+ * an external merge sort, which only keeps one run of results in memory. The list may be read by
+ * concurrent threads.
+ *
+ * @param <T> the type of the results
+ */
+public class DiskResultList<T> implements Closeable {
+
+  // Number of results, which are sorted in memory at once
+  public static final int DEFAULT_RUN_SIZE = 100000;
+  // Number of results, which the list view reads at once
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+  protected static final int BUFFER_SIZE = 1 << 16;
+  protected static final int OFFSET_BYTES = 8;
+
+  // The fields are serialized, because not all derived getters have a matching setter
+  protected static final ObjectMapper MAPPER = new ObjectMapper()
+    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+    .setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.NONE)
+    .setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE)
+    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+    // column combinations are sorted sets
+    .registerModule(new SimpleModule().addAbstractTypeMapping(Set.class, TreeSet.class));
+
+  protected Class<T> resultClass;
+  protected ObjectReader objectReader;
+  protected ObjectWriter objectWriter;
+  protected File dataFile;
+  protected File indexFile;
+  protected DataOutputStream dataOutput;
+  protected DataOutputStream indexOutput;
+  protected long dataLength = 0;
+  protected int size = 0;
+
+  /**
+   * Creates an empty list in the temporary directory.
+   *
+   * @param resultClass the class of the results
+   * @throws IOException if the files could not be created
+   */
+  public DiskResultList(Class<T> resultClass) throws IOException {
+    this(resultClass, null);
+  }
+
+  /**
+   * Creates an empty list in the given directory.
+   *
+   * @param resultClass the class of the results
+   * @param directory   the directory of the files or null for the temporary directory
+   * @throws IOException if the files could not be created
+   */
+  public DiskResultList(Class<T> resultClass, File directory) throws IOException {
+    this.resultClass = resultClass;
+    this.objectReader = MAPPER.reader(resultClass);
+    this.objectWriter = MAPPER.writerWithType(resultClass);
+    this.dataFile = File.createTempFile("results", ".dat", directory);
+    this.indexFile = new File(this.dataFile.getPath().replaceAll("\\.dat$", ".idx"));
+    this.dataOutput = new DataOutputStream(
+      new BufferedOutputStream(new FileOutputStream(this.dataFile), BUFFER_SIZE));
+    this.indexOutput = new DataOutputStream(
+      new BufferedOutputStream(new FileOutputStream(this.indexFile), BUFFER_SIZE));
+  }
+
+  /**
+   * Appends the result at the end of the list.
+   *
+   * @param result the result
+   * @throws IOException if the result could not be written
+   */
+  public synchronized void add(T result) throws IOException {
+    byte[] bytes = this.objectWriter.writeValueAsBytes(result);
+    this.indexOutput.writeLong(this.dataLength);
+    this.dataOutput.writeInt(bytes.length);
+    this.dataOutput.write(bytes);
+    this.dataLength += 4 + bytes.length;
+    this.size++;
+  }
+
+  /**
+   * Appends all results at the end of the list.
+   *
+   * @param results the results
+   * @throws IOException if the results could not be written
+   */
+  public synchronized void addAll(Collection<? extends T> results) throws IOException {
+    for (T result : results) {
+      this.add(result);
+    }
+  }
+
+  public synchronized int size() {
+    return this.size;
+  }
+
+  public Class<T> getResultClass() {
+    return this.resultClass;
+  }
+
+  /**
+   * Reads the results in the given range. Only the offsets of the first and the last result are
+   * read from the index, because the records of the range are stored consecutively.
+   *
+   * @param start inclusive start index
+   * @param end   exclusive end index
+   * @return the results in the range
+   * @throws IOException if the results could not be read
+   */
+  public synchronized List<T> get(int start, int end) throws IOException {
+    start = Math.max(0, start);
+    end = Math.min(this.size, end);
+    List<T> results = new ArrayList<>(Math.max(0, end - start));
+    if (start >= end) {
+      return results;
+    }
+    this.flush();
+
+    long startOffset;
+    long endOffset = this.dataLength;
+    try (RandomAccessFile index = new RandomAccessFile(this.indexFile, "r")) {
+      index.seek((long) start * OFFSET_BYTES);
+      startOffset = index.readLong();
+      if (end < this.size) {
+        index.seek((long) end * OFFSET_BYTES);
+        endOffset = index.readLong();
+      }
+    }
+
+    byte[] bytes = new byte[(int) (endOffset - startOffset)];
+    try (RandomAccessFile data = new RandomAccessFile(this.dataFile, "r")) {
+      data.seek(startOffset);
+      data.readFully(bytes);
+    }
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+    for (int i = start; i < end; i++) {
+      results.add(this.readRecord(input));
+    }
+    return results;
+  }
+
+  /**
+   * Sorts the results with an external merge sort into a new list. Runs of the given size are
+   * sorted in memory and written to disk, before all runs are merged at once.
+   *
+   * @param comparator the comparator of the results
+   * @param runSize    the number of results, that are sorted in memory at once
+   * @return the sorted list, which has to be closed by the caller
+   * @throws IOException if the results could not be read or written
+   */
+  public synchronized DiskResultList<T> sort(Comparator<? super T> comparator, int runSize)
+    throws IOException {
+    this.flush();
+    List<DiskResultList<T>> runs = new ArrayList<>();
+    try {
+      try (DataInputStream input = this.openInput()) {
+        List<T> run = new ArrayList<>(Math.min(runSize, this.size));
+        for (int i = 0; i < this.size; i++) {
+          run.add(this.readRecord(input));
+          if (run.size() == runSize || i == this.size - 1) {
+            Collections.sort(run, comparator);
+            DiskResultList<T> runList = this.createSibling();
+            runs.add(runList);
+            runList.addAll(run);
+            runList.flush();
+            run.clear();
+          }
+        }
+      }
+
+      if (runs.isEmpty()) {
+        return this.createSibling();
+      }
+      if (runs.size() == 1) {
+        return runs.remove(0);
+      }
+      return this.merge(runs, comparator);
+    } finally {
+      for (DiskResultList<T> run : runs) {
+        run.close();
+      }
+    }
+  }
+
+  /**
+   * Deletes the files of the list.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      this.dataOutput.close();
+      this.indexOutput.close();
+    } finally {
+      this.dataFile.delete();
+      this.indexFile.delete();
+    }
+  }
+
+  /**
+   * Returns a read-only view of the list, which reads the results page by page and keeps only the
+   * last read page in memory. The view is valid until the list is closed.
+   *
+   * @param pageSize the number of results, which are read at once
+   * @return the view of the list
+   */
+  public List<T> asList(final int pageSize) {
+    return new AbstractList<T>() {
+      protected int pageStart = -1;
+      protected List<T> page;
+
+      @Override
+      public synchronized T get(int index) {
+        if (index < 0 || index >= size()) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (this.page == null || index < this.pageStart || index >= this.pageStart + this.page.size()) {
+          this.pageStart = index - index % pageSize;
+          try {
+            this.page = DiskResultList.this.get(this.pageStart, this.pageStart + pageSize);
+          } catch (IOException e) {
+            throw new IllegalStateException("Could not read the results from disk", e);
+          }
+        }
+        return this.page.get(index - this.pageStart);
+      }
+
+      @Override
+      public int size() {
+        return DiskResultList.this.size();
+      }
+    };
+  }
+
+  protected synchronized void flush() throws IOException {
+    this.dataOutput.flush();
+    this.indexOutput.flush();
+  }
+
+  protected DiskResultList<T> createSibling() throws IOException {
+    return new DiskResultList<>(this.resultClass, this.dataFile.getParentFile());
+  }
+
+  protected DataInputStream openInput() throws IOException {
+    return new DataInputStream(
+      new BufferedInputStream(new FileInputStream(this.dataFile), BUFFER_SIZE));
+  }
+
+  protected T readRecord(DataInput input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return this.objectReader.readValue(bytes);
+  }
+
+  /**
+   * Merges the sorted runs. Equal results are taken from the runs in the order of the runs, so that
+   * the sort is stable.
+   */
+  protected DiskResultList<T> merge(List<DiskResultList<T>> runs,
+                                    final Comparator<? super T> comparator)
+    throws IOException {
+    DiskResultList<T> sorted = this.createSibling();
+    PriorityQueue<RunCursor<T>> queue = new PriorityQueue<>(runs.size(),
+      new Comparator<RunCursor<T>>() {
+        @Override
+        public int compare(RunCursor<T> c1, RunCursor<T> c2) {
+          int result = comparator.compare(c1.head, c2.head);
+          return result != 0 ? result : Integer.compare(c1.runIndex, c2.runIndex);
+        }
+      });
+
+    try {
+      for (int i = 0; i < runs.size(); i++) {
+        RunCursor<T> cursor = new RunCursor<>(runs.get(i), i);
+        if (cursor.advance()) {
+          queue.add(cursor);
+        }
+      }
+      while (!queue.isEmpty()) {
+        RunCursor<T> cursor = queue.poll();
+        sorted.add(cursor.head);
+        if (cursor.advance()) {
+          queue.add(cursor);
+        }
+      }
+      sorted.flush();
+    } catch (IOException e) {
+      sorted.close();
+      throw e;
+    } finally {
+      for (RunCursor<T> cursor : queue) {
+        cursor.input.close();
+      }
+    }
+    return sorted;
+  }
+
+  /**
+   * Reads a sorted run sequentially during the merge.
+   */
+  protected static class RunCursor<T> {
+
+    protected DiskResultList<T> run;
+    protected int runIndex;
+    protected DataInputStream input;
+    protected int remaining;
+    protected T head;
+
+    protected RunCursor(DiskResultList<T> run, int runIndex) throws IOException {
+      this.run = run;
+      this.runIndex = runIndex;
+      this.input = run.openInput();
+      this.remaining = run.size();
+    }
+
+    /**
+     * Reads the next result of the run into the head.
+     *
+     * @return false, if the run is exhausted
+     */
+    protected boolean advance() throws IOException {
+      if (this.remaining == 0) {
+        this.input.close();
+        return false;
+      }
+      this.head = this.run.readRecord(this.input);
+      this.remaining--;
+      return true;
+    }
+  }
+
+}
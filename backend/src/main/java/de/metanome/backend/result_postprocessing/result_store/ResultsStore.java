@@ -17,37 +17,64 @@ package de.metanome.backend.result_postprocessing.result_store;
 
 import de.metanome.backend.result_postprocessing.result_comparator.ResultComparator;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 /**
- * Abstract class providing basic functionality for storing ranking results of one execution
+ * Abstract class providing basic functionality for storing ranking results of one execution. The
+ * results are either kept in memory or, if there are too many of them, in a {@link
+ * DiskResultList}. The store may be accessed by concurrent requests.
  */
 public abstract class ResultsStore<ResultType> {
 
+  public static final int DEFAULT_CHUNK_SIZE = 100000;
+
   // List of results
   protected List<ResultType> results = null;
   // Last sort property, to reduce resorting needs
   protected String lastSortProperty = null;
   // Last sort direction, to reduce resorting needs
   protected boolean lastSortAscending = true;
+  // Results on disk, used instead of the list of results
+  protected DiskResultList<ResultType> diskResults = null;
+  // Results on disk sorted by the last sort property
+  protected DiskResultList<ResultType> sortedDiskResults = null;
+  // Number of results, which are read and analyzed at once, before they are stored on disk
+  protected int chunkSize = DEFAULT_CHUNK_SIZE;
 
   /**
    * Stores the given results for given execution
    *
    * @param results List of results to be persisted
    */
-  public void store(List<ResultType> results) {
+  public synchronized void store(List<ResultType> results) {
+    this.closeDiskResults();
     this.results = results;
   }
 
+  /**
+   * Stores the given results on disk for given execution. The store takes over the list and
+   * deletes it, when the store is cleared.
+   *
+   * @param results Results on disk to be persisted
+   */
+  public synchronized void store(DiskResultList<ResultType> results) {
+    this.clear();
+    this.results = null;
+    this.diskResults = results;
+    this.lastSortProperty = null;
+  }
+
   /**
    * Clears the store content
    */
-  public void clear() {
+  public synchronized void clear() {
     if (results != null) {
       this.results.clear();
     }
+    this.closeDiskResults();
   }
 
   /**
@@ -55,16 +82,26 @@ public abstract class ResultsStore<ResultType> {
    *
    * @return Returns the count of results
    */
-  public Integer count() {
+  public synchronized Integer count() {
+    if (this.diskResults != null) {
+      return this.diskResults.size();
+    }
+    if (results == null) {
+      return 0;
+    }
     return results.size();
   }
 
   /**
-   * Returns the persisted results
+   * Returns the persisted results. Results on disk are returned as a read-only view, which reads
+   * them page by page and is valid until the store is cleared.
    *
    * @return Returns the results
    */
-  public List<ResultType> list() {
+  public synchronized List<ResultType> list() {
+    if (this.diskResults != null) {
+      return this.diskResults.asList(DiskResultList.DEFAULT_PAGE_SIZE);
+    }
     return results;
   }
 
@@ -77,21 +114,79 @@ public abstract class ResultsStore<ResultType> {
    * @param end          Exclusive end index
    * @return Returns a part of persisted results for given execution following given properties
    */
-  public List<ResultType> subList(String sortProperty, boolean ascending,
-                                  int start, int end) {
+  public synchronized List<ResultType> subList(String sortProperty, boolean ascending,
+                                               int start, int end) {
     start = Math.max(0, start);
     end = Math.min(count(), end);
 
+    if (this.diskResults != null) {
+      return subListOnDisk(sortProperty, ascending, start, end);
+    }
+
     // Do not resort if it is not needed
-    if (sortProperty.equals(lastSortProperty) && lastSortAscending == ascending) {
-      return results.subList(start, end);
+    if (!sortProperty.equals(lastSortProperty) || lastSortAscending != ascending) {
+      sort(sortProperty, ascending);
     }
 
-    // Sort the list
-    sort(sortProperty, ascending);
+    // Return a copy of the requested part, as concurrent requests may resort the list
+    return new ArrayList<>(results.subList(start, end));
+  }
 
-    // Return the requested part
-    return results.subList(start, end);
+  /**
+   * Returns a part of the results on disk. If the sort order changed, the results are sorted with
+   * an external merge sort first.
+   */
+  private synchronized List<ResultType> subListOnDisk(String sortProperty, boolean ascending,
+                                                      int start, int end) {
+    try {
+      if (this.sortedDiskResults == null || !sortProperty.equals(lastSortProperty) ||
+          lastSortAscending != ascending) {
+        DiskResultList<ResultType> sorted = this.diskResults.sort(
+          getResultComparator(sortProperty, ascending), DiskResultList.DEFAULT_RUN_SIZE);
+        if (this.sortedDiskResults != null) {
+          this.sortedDiskResults.close();
+        }
+        this.sortedDiskResults = sorted;
+        this.lastSortAscending = ascending;
+        this.lastSortProperty = sortProperty;
+      }
+      return this.sortedDiskResults.get(start, end);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the results from disk", e);
+    }
+  }
+
+  /**
+   * Deletes the results on disk.
+   */
+  private synchronized void closeDiskResults() {
+    try {
+      if (this.diskResults != null) {
+        this.diskResults.close();
+      }
+      if (this.sortedDiskResults != null) {
+        this.sortedDiskResults.close();
+      }
+    } catch (IOException e) {
+      // the files are only deleted
+    } finally {
+      this.diskResults = null;
+      this.sortedDiskResults = null;
+    }
+  }
+
+  public synchronized int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Sets the number of results, which are read and analyzed at once, if the analysis is data
+   * independent. More results are stored on disk.
+   *
+   * @param chunkSize the number of results
+   */
+  public synchronized void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
   }
 
   /**
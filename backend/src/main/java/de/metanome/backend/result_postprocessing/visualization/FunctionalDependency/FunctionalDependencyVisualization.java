@@ -231,8 +231,9 @@ public class FunctionalDependencyVisualization {
     Map<BitSet, PositionListIndex> PLIs = this.tableInformation.getPLIs();
 
     // the PLI already exists
-    if (PLIs.containsKey(columnBitSet)) {
-      return PLIs.get(columnBitSet).getRawKeyError();
+    PositionListIndex existingPLI = PLIs.get(columnBitSet);
+    if (existingPLI != null) {
+      return existingPLI.getRawKeyError();
     }
 
     // get all individual columns as bit set
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.backend.results_db.ResultType;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Writes all received results asynchronously to disk. The receiving thread only checks the columns
+ * of a result and puts it into a bounded queue. A dedicated writer thread converts the results and
+ * writes them into large buffered streams, that are only flushed when the queue runs empty. If the
+ * writer falls behind, the receiving thread waits for free space in the queue.
+ */
+public class AsyncResultPrinter extends BackgroundResultPrinter {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+  // Maximal number of results, that are taken from the queue at once
+  protected static final int DRAIN_SIZE = 1024;
+
+  protected BlockingQueue<PendingResult> queue;
+
+  /**
+   * Initializes the asynchronous result printer and starts its writer thread.
+   *
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  public AsyncResultPrinter(String algorithmExecutionIdentifier,
+                            List<ColumnIdentifier> acceptedColumns)
+    throws FileNotFoundException {
+    this(algorithmExecutionIdentifier, acceptedColumns, false, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Initializes the asynchronous result printer and starts its writer thread.
+   *
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @param test                         if true, a test directory is used to store the results on disk
+   * @param queueCapacity                the number of results, that can be queued, before the receiving thread has to wait
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  protected AsyncResultPrinter(String algorithmExecutionIdentifier,
+                               List<ColumnIdentifier> acceptedColumns, Boolean test,
+                               int queueCapacity)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, acceptedColumns, test);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.startWriter("result-writer-" + algorithmExecutionIdentifier);
+  }
+
+  /**
+   * Queues the result for the writer thread. Waits, if the queue is full.
+   *
+   * @param type   the type of the result
+   * @param result the result
+   * @throws CouldNotReceiveResultException if the writer thread failed or the printer is closed
+   */
+  @Override
+  protected void print(ResultType type, Result result) throws CouldNotReceiveResultException {
+    this.checkReceiving();
+    try {
+      this.queue.put(new PendingResult(type, result, null));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CouldNotReceiveResultException("Interrupted while queueing the result", e);
+    }
+  }
+
+  @Override
+  protected void requestFlush(CountDownLatch flushed) throws InterruptedException {
+    this.queue.put(new PendingResult(null, null, flushed));
+  }
+
+  @Override
+  protected void wakeWriter() {
+    this.writerThread.interrupt();
+  }
+
+  /**
+   * Main loop of the writer thread: takes the queued results in batches and writes them. The
+   * streams are flushed, whenever the queue runs empty. After a failure the remaining results are
+   * discarded, so that the receiving threads do not wait forever.
+   */
+  @Override
+  protected void writeQueuedResults() {
+    List<PendingResult> batch = new ArrayList<>(DRAIN_SIZE);
+    while (true) {
+      try {
+        batch.add(this.queue.take());
+      } catch (InterruptedException e) {
+        if (this.closed) {
+          return;
+        }
+        continue;
+      }
+      this.queue.drainTo(batch, DRAIN_SIZE - 1);
+
+      for (PendingResult pending : batch) {
+        if (pending.flushed != null) {
+          this.flushAll(pending.flushed);
+        } else if (this.failure.get() == null) {
+          try {
+            this.write(pending.type, pending.result);
+          } catch (Throwable t) {
+            this.failure.compareAndSet(null, t);
+          }
+        }
+      }
+      batch.clear();
+
+      if (this.queue.isEmpty()) {
+        this.flushStreams();
+      }
+    }
+  }
+
+  /**
+   * A queued result or a flush request.
+   */
+  protected static class PendingResult {
+
+    protected ResultType type;
+    protected Result result;
+    protected CountDownLatch flushed;
+
+    protected PendingResult(ResultType type, Result result, CountDownLatch flushed) {
+      this.type = type;
+      this.result = result;
+      this.flushed = flushed;
+    }
+  }
+
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.Result;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Base class of the result printers, that write the received results on a dedicated writer
+ * thread. Subclasses decide how the results are handed over to the writer thread. This class
+ * manages the writer thread, the buffered result streams, flush requests and the failures of the
+ * writer thread, which are rethrown on the receiving threads.
+ */
+public abstract class BackgroundResultPrinter extends ResultPrinter {
+
+  protected static final int STREAM_BUFFER_SIZE = 1 << 20;
+
+  protected Thread writerThread;
+  protected AtomicReference<Throwable> failure = new AtomicReference<>();
+  protected volatile boolean closed = false;
+
+  /**
+   * Initializes the result printer. The writer thread is started by {@link #startWriter(String)},
+   * after the subclass is initialized.
+   *
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @param test                         if true, a test directory is used to store the results on disk
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  protected BackgroundResultPrinter(String algorithmExecutionIdentifier,
+                                    List<ColumnIdentifier> acceptedColumns, Boolean test)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, acceptedColumns, test);
+  }
+
+  /**
+   * Starts the writer thread, which runs {@link #writeQueuedResults()}.
+   *
+   * @param threadName the name of the writer thread
+   */
+  protected void startWriter(String threadName) {
+    this.writerThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        writeQueuedResults();
+      }
+    }, threadName);
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /**
+   * Main loop of the writer thread. Has to return, once the printer is closed and all handed over
+   * results are written.
+   */
+  protected abstract void writeQueuedResults();
+
+  /**
+   * Wakes the writer thread, so that it notices that the printer is closed.
+   */
+  protected abstract void wakeWriter();
+
+  /**
+   * Hands a flush request over to the writer thread, which has to pass it to {@link
+   * #flushAll(CountDownLatch)} after all results handed over before were written.
+   *
+   * @param flushed the latch, which is counted down when the flush is done
+   * @throws InterruptedException if the thread is interrupted while handing over the request
+   */
+  protected abstract void requestFlush(CountDownLatch flushed) throws InterruptedException;
+
+  /**
+   * Checks, that results can still be received.
+   *
+   * @throws CouldNotReceiveResultException if the writer thread failed or the printer is closed
+   */
+  protected void checkReceiving() throws CouldNotReceiveResultException {
+    this.checkFailure();
+    if (this.closed) {
+      throw new CouldNotReceiveResultException("The result printer is already closed!");
+    }
+  }
+
+  /**
+   * Waits until all handed over results are written and the streams are flushed.
+   *
+   * @throws IOException if the results could not be written
+   */
+  public void flush() throws IOException {
+    if (!this.writerThread.isAlive()) {
+      this.checkFailureOnClose();
+      return;
+    }
+    CountDownLatch flushed = new CountDownLatch(1);
+    try {
+      this.requestFlush(flushed);
+      flushed.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while flushing the results");
+    }
+    this.checkFailureOnClose();
+  }
+
+  /**
+   * Flushes the pending results, stops the writer thread and closes the result files. The files
+   * are also closed, if the flush fails.
+   *
+   * @throws IOException if the results could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    try {
+      this.flush();
+    } finally {
+      this.closed = true;
+      this.wakeWriter();
+      try {
+        this.writerThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        super.close();
+      }
+    }
+  }
+
+  @Override
+  public List<Result> getResults()
+    throws IOException, NullPointerException, IndexOutOfBoundsException {
+    this.flush();
+    return super.getResults();
+  }
+
+  @Override
+  protected PrintStream openStream(String fileSuffix) throws CouldNotReceiveResultException {
+    try {
+      return new PrintStream(new BufferedOutputStream(
+        new FileOutputStream(getOutputFilePathPrefix() + fileSuffix), STREAM_BUFFER_SIZE), false);
+    } catch (FileNotFoundException e) {
+      throw new CouldNotReceiveResultException("Could not open result file for writing", e);
+    }
+  }
+
+  /**
+   * Executes a flush request on the writer thread. Pending blocks of binary result files are only
+   * written on explicit flushes, so that the blocks do not become too small.
+   *
+   * @param flushed the latch of the flush request
+   */
+  protected void flushAll(CountDownLatch flushed) {
+    this.flushStreams();
+    try {
+      this.flushBinaryWriters();
+    } catch (IOException e) {
+      this.failure.compareAndSet(null, e);
+    }
+    flushed.countDown();
+  }
+
+  protected void flushStreams() {
+    for (PrintStream stream : this.openStreams.values()) {
+      stream.flush();
+      if (stream.checkError()) {
+        this.failure.compareAndSet(null, new IOException("Could not write the result file"));
+      }
+    }
+  }
+
+  protected void checkFailure() throws CouldNotReceiveResultException {
+    Throwable t = this.failure.get();
+    if (t != null) {
+      throw new CouldNotReceiveResultException("Could not write the results", t);
+    }
+  }
+
+  protected void checkFailureOnClose() throws IOException {
+    Throwable t = this.failure.get();
+    if (t != null) {
+      throw new IOException("Could not write the results", t);
+    }
+  }
+
+}
@@ -0,0 +1,331 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.ColumnPermutation;
+import de.metanome.algorithm_integration.results.*;
+import de.metanome.backend.results_db.ResultType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads result files written by the {@link BinaryResultWriter}. The results are decoded block by
+ * block, so that the file does not have to fit into memory. All results share the column
+ * identifiers of the dictionary.
+ *
+ * @param <T> the type of the results in the file
+ */
+public class BinaryResultReader<T extends Result> implements ResultCursor<T> {
+
+  protected static final int BUFFER_SIZE = 1 << 16;
+
+  protected InputStream in;
+  protected ResultType type;
+  protected boolean compressed;
+  protected List<ColumnIdentifier> columns = new ArrayList<>();
+  protected Inflater inflater;
+
+  protected byte[] stored = new byte[0];
+  protected byte[] block = new byte[0];
+  protected int position;
+  protected int remainingResultsInBlock = 0;
+  protected boolean endOfFile = false;
+
+  /**
+   * Reads the header of the result file.
+   *
+   * @param fileName the name of the result file
+   * @throws IOException if the file could not be read or is not a binary result file
+   */
+  public BinaryResultReader(String fileName) throws IOException {
+    this(new BufferedInputStream(new FileInputStream(fileName), BUFFER_SIZE));
+  }
+
+  /**
+   * Reads the header of the result file.
+   *
+   * @param in the stream to read from, which is closed together with the reader
+   * @throws IOException if the stream could not be read or does not contain binary results
+   */
+  public BinaryResultReader(InputStream in) throws IOException {
+    this.in = in;
+    try {
+      byte[] magic = new byte[BinaryResultWriter.MAGIC.length];
+      this.readFully(magic, magic.length);
+      if (!Arrays.equals(magic, BinaryResultWriter.MAGIC)) {
+        throw new IOException("The file does not contain binary results.");
+      }
+      int version = this.in.read();
+      if (version != BinaryResultWriter.VERSION) {
+        throw new IOException("Unsupported version of the binary result file: " + version);
+      }
+      this.type = ResultType.valueOf(this.readString());
+      this.compressed = (this.readByte() & BinaryResultWriter.FLAG_COMPRESSED) != 0;
+      if (this.compressed) {
+        this.inflater = new Inflater();
+      }
+
+      int numberOfColumns = this.readVarInt();
+      for (int i = 0; i < numberOfColumns; i++) {
+        this.columns.add(new ColumnIdentifier(this.readString(), this.readString()));
+      }
+    } catch (IOException | RuntimeException e) {
+      this.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @param fileName the name of the file
+   * @return true, if the file starts with the magic bytes of the binary result format
+   * @throws IOException if the file could not be read
+   */
+  public static boolean isBinaryResultFile(String fileName) throws IOException {
+    File file = new File(fileName);
+    if (file.length() < BinaryResultWriter.MAGIC.length) {
+      return false;
+    }
+    try (InputStream in = new FileInputStream(file)) {
+      byte[] magic = new byte[BinaryResultWriter.MAGIC.length];
+      int read = 0;
+      while (read < magic.length) {
+        int count = in.read(magic, read, magic.length - read);
+        if (count < 0) {
+          return false;
+        }
+        read += count;
+      }
+      return Arrays.equals(magic, BinaryResultWriter.MAGIC);
+    }
+  }
+
+  public ResultType getType() {
+    return this.type;
+  }
+
+  /**
+   * @return the columns of the dictionary and the columns defined in the results read so far
+   */
+  public List<ColumnIdentifier> getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    while (this.remainingResultsInBlock == 0) {
+      if (this.endOfFile || !this.readBlock()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T next() throws IOException {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.remainingResultsInBlock--;
+    switch (this.type) {
+      case FD:
+        ColumnIdentifier[] determinant = this.decodeColumns();
+        return (T) new FunctionalDependency(new ColumnCombination(determinant), this.decodeColumn());
+      case UCC:
+        return (T) new UniqueColumnCombination(this.decodeColumns());
+      case IND:
+        ColumnPermutation dependant = new ColumnPermutation(this.decodeColumns());
+        return (T) new InclusionDependency(dependant, new ColumnPermutation(this.decodeColumns()));
+      case OD:
+        ColumnPermutation lhs = new ColumnPermutation(this.decodeColumns());
+        ColumnPermutation rhs = new ColumnPermutation(this.decodeColumns());
+        OrderDependency.OrderType orderType =
+          OrderDependency.OrderType.values()[this.block[this.position++]];
+        OrderDependency.ComparisonOperator comparisonOperator =
+          OrderDependency.ComparisonOperator.values()[this.block[this.position++]];
+        return (T) new OrderDependency(lhs, rhs, orderType, comparisonOperator);
+      case MVD:
+        ColumnCombination mvdDeterminant = new ColumnCombination(this.decodeColumns());
+        return (T) new MultivaluedDependency(mvdDeterminant,
+          new ColumnCombination(this.decodeColumns()));
+      default:
+        throw new IOException("Results of type " + this.type + " can not be read binary.");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.inflater != null) {
+      this.inflater.end();
+      this.inflater = null;
+    }
+    this.in.close();
+  }
+
+  /**
+   * Reads and decompresses the next block.
+   *
+   * @return false, if the end of the file was reached
+   */
+  protected boolean readBlock() throws IOException {
+    int numberOfResults = this.readVarIntOrEnd();
+    if (numberOfResults <= 0) {
+      // a missing end marker is tolerated, e.g. if the execution was aborted
+      this.endOfFile = true;
+      return false;
+    }
+    int rawLength = this.readVarInt();
+    int storedLength = this.readVarInt();
+
+    if (this.block.length < rawLength) {
+      this.block = new byte[rawLength];
+    }
+    if (this.compressed) {
+      if (this.stored.length < storedLength) {
+        this.stored = new byte[storedLength];
+      }
+      this.readFully(this.stored, storedLength);
+      this.inflater.reset();
+      this.inflater.setInput(this.stored, 0, storedLength);
+      try {
+        int length = 0;
+        while (length < rawLength && !this.inflater.finished()) {
+          int count = this.inflater.inflate(this.block, length, rawLength - length);
+          if (count == 0) {
+            break;
+          }
+          length += count;
+        }
+        if (length != rawLength) {
+          throw new IOException("The result block is corrupted.");
+        }
+      } catch (DataFormatException e) {
+        throw new IOException("The result block is corrupted.", e);
+      }
+    } else {
+      this.readFully(this.block, rawLength);
+    }
+
+    this.position = 0;
+    this.remainingResultsInBlock = numberOfResults;
+    return true;
+  }
+
+  protected ColumnIdentifier[] decodeColumns() {
+    ColumnIdentifier[] identifiers = new ColumnIdentifier[this.decodeVarInt()];
+    for (int i = 0; i < identifiers.length; i++) {
+      identifiers[i] = this.decodeColumn();
+    }
+    return identifiers;
+  }
+
+  protected ColumnIdentifier decodeColumn() {
+    int reference = this.decodeVarInt();
+    if (reference != BinaryResultWriter.NEW_COLUMN) {
+      return this.columns.get(reference - 1);
+    }
+    ColumnIdentifier column = new ColumnIdentifier(this.decodeString(), this.decodeString());
+    this.columns.add(column);
+    return column;
+  }
+
+  protected int decodeVarInt() {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = this.block[this.position++];
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  protected String decodeString() {
+    int length = this.decodeVarInt() - 1;
+    if (length < 0) {
+      return null;
+    }
+    String str = new String(this.block, this.position, length, StandardCharsets.UTF_8);
+    this.position += length;
+    return str;
+  }
+
+  protected int readByte() throws IOException {
+    int b = this.in.read();
+    if (b < 0) {
+      throw new EOFException();
+    }
+    return b;
+  }
+
+  protected int readVarInt() throws IOException {
+    int value = this.readVarIntOrEnd();
+    if (value < 0) {
+      throw new EOFException();
+    }
+    return value;
+  }
+
+  /**
+   * @return the next varint or -1, if the stream ended before it
+   */
+  protected int readVarIntOrEnd() throws IOException {
+    int b = this.in.read();
+    if (b < 0) {
+      return -1;
+    }
+    int value = b & 0x7F;
+    int shift = 7;
+    while ((b & 0x80) != 0) {
+      b = this.readByte();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    }
+    return value;
+  }
+
+  protected String readString() throws IOException {
+    int length = this.readVarInt() - 1;
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    this.readFully(bytes, length);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  protected void readFully(byte[] buffer, int length) throws IOException {
+    int read = 0;
+    while (read < length) {
+      int count = this.in.read(buffer, read, length - read);
+      if (count < 0) {
+        throw new EOFException();
+      }
+      read += count;
+    }
+  }
+
+}
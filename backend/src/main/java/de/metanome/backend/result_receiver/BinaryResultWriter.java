@@ -0,0 +1,297 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.results.*;
+import de.metanome.backend.results_db.ResultType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes results of one type in a compact binary format. The file starts with a header containing
+ * the column dictionary, i.e. all table and column names known in advance. Each result is then
+ * stored as varint-encoded lists of column ids. Columns, that are not part of the dictionary, are
+ * defined inline at their first occurrence. The results are grouped in blocks, that can optionally
+ * be compressed.
+ *
+ * <p>Layout: magic, version, result type, flags, dictionary (number of columns followed by their
+ * table and column names), blocks (number of results, raw length, stored length, data) and an
+ * empty block as end marker.</p>
+ *
+ * <p>Only results consisting of column combinations are supported, see {@link
+ * #supports(ResultType)}. The writer is not thread-safe.</p>
+ */
+public class BinaryResultWriter implements Closeable, Flushable {
+
+  public static final byte[] MAGIC = {'M', 'N', 'R', 'B'};
+  public static final int VERSION = 1;
+  public static final int FLAG_COMPRESSED = 1;
+  // Number of uncompressed bytes, after which a block is written
+  public static final int BLOCK_SIZE = 1 << 16;
+  // Column reference, that announces a column definition
+  protected static final int NEW_COLUMN = 0;
+
+  protected OutputStream out;
+  protected ResultType type;
+  protected Map<ColumnIdentifier, Integer> columnIds = new HashMap<>();
+  protected boolean compress;
+  protected Deflater deflater;
+
+  protected ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE + 1024);
+  protected byte[] compressed = new byte[0];
+  protected int numberOfResultsInBlock = 0;
+  protected boolean closed = false;
+
+  /**
+   * Writes the header of the result file.
+   *
+   * @param out      the stream to write to, which is closed together with the writer
+   * @param type     the type of the results
+   * @param columns  the columns, that are stored in the dictionary, may be null
+   * @param compress if true, the blocks are compressed
+   * @throws IOException if the header could not be written
+   */
+  public BinaryResultWriter(OutputStream out, ResultType type, List<ColumnIdentifier> columns,
+                            boolean compress) throws IOException {
+    if (!supports(type)) {
+      throw new IllegalArgumentException("Results of type " + type + " can not be written binary.");
+    }
+    this.out = out;
+    this.type = type;
+    this.compress = compress;
+    if (compress) {
+      this.deflater = new Deflater(Deflater.BEST_SPEED);
+    }
+
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    header.write(MAGIC);
+    header.write(VERSION);
+    writeString(header, type.name());
+    header.write(compress ? FLAG_COMPRESSED : 0);
+    if (columns == null) {
+      writeVarInt(header, 0);
+    } else {
+      writeVarInt(header, columns.size());
+      for (ColumnIdentifier column : columns) {
+        this.columnIds.put(column, this.columnIds.size());
+        writeString(header, column.getTableIdentifier());
+        writeString(header, column.getColumnIdentifier());
+      }
+    }
+    header.writeTo(this.out);
+  }
+
+  /**
+   * @param type the result type
+   * @return true, if results of the given type can be written in the binary format
+   */
+  public static boolean supports(ResultType type) {
+    switch (type) {
+      case FD:
+      case UCC:
+      case IND:
+      case OD:
+      case MVD:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Appends the result to the current block. Full blocks are written to the stream.
+   *
+   * @param result the result, which has to be of the type of the writer
+   * @throws IOException if a block could not be written
+   */
+  public void write(Result result) throws IOException {
+    if (this.closed) {
+      throw new IOException("The binary result writer is already closed!");
+    }
+    switch (this.type) {
+      case FD:
+        FunctionalDependency fd = (FunctionalDependency) result;
+        this.writeColumns(fd.getDeterminant().getColumnIdentifiers());
+        this.writeColumn(fd.getDependant());
+        break;
+      case UCC:
+        this.writeColumns(
+          ((UniqueColumnCombination) result).getColumnCombination().getColumnIdentifiers());
+        break;
+      case IND:
+        InclusionDependency ind = (InclusionDependency) result;
+        this.writeColumns(ind.getDependant().getColumnIdentifiers());
+        this.writeColumns(ind.getReferenced().getColumnIdentifiers());
+        break;
+      case OD:
+        OrderDependency od = (OrderDependency) result;
+        this.writeColumns(od.getLhs().getColumnIdentifiers());
+        this.writeColumns(od.getRhs().getColumnIdentifiers());
+        this.block.write(od.getOrderType().ordinal());
+        this.block.write(od.getComparisonOperator().ordinal());
+        break;
+      case MVD:
+        MultivaluedDependency mvd = (MultivaluedDependency) result;
+        this.writeColumns(mvd.getDeterminant().getColumnIdentifiers());
+        this.writeColumns(mvd.getDependant().getColumnIdentifiers());
+        break;
+    }
+    this.numberOfResultsInBlock++;
+
+    if (this.block.size() >= BLOCK_SIZE) {
+      this.writeBlock();
+    }
+  }
+
+  /**
+   * Writes the current block, even if it is not full, and flushes the stream. Afterwards all
+   * written results can be read.
+   *
+   * @throws IOException if the block could not be written
+   */
+  @Override
+  public void flush() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.writeBlock();
+    this.out.flush();
+  }
+
+  /**
+   * Writes the last block and the end marker and closes the stream.
+   *
+   * @throws IOException if the block could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    try {
+      this.writeBlock();
+      writeVarInt(this.out, 0);
+      this.out.flush();
+    } finally {
+      this.closed = true;
+      if (this.deflater != null) {
+        this.deflater.end();
+      }
+      this.out.close();
+    }
+  }
+
+  protected void writeColumns(Collection<ColumnIdentifier> columns) throws IOException {
+    writeVarInt(this.block, columns.size());
+    for (ColumnIdentifier column : columns) {
+      this.writeColumn(column);
+    }
+  }
+
+  protected void writeColumn(ColumnIdentifier column) throws IOException {
+    Integer id = this.columnIds.get(column);
+    if (id != null) {
+      writeVarInt(this.block, id + 1);
+      return;
+    }
+    // define the column inline, it gets the next free id
+    this.columnIds.put(column, this.columnIds.size());
+    writeVarInt(this.block, NEW_COLUMN);
+    writeString(this.block, column.getTableIdentifier());
+    writeString(this.block, column.getColumnIdentifier());
+  }
+
+  protected void writeBlock() throws IOException {
+    if (this.numberOfResultsInBlock == 0) {
+      return;
+    }
+    byte[] raw = this.block.toByteArray();
+    writeVarInt(this.out, this.numberOfResultsInBlock);
+    writeVarInt(this.out, raw.length);
+
+    if (this.compress) {
+      int length = this.deflate(raw);
+      writeVarInt(this.out, length);
+      this.out.write(this.compressed, 0, length);
+    } else {
+      writeVarInt(this.out, raw.length);
+      this.out.write(raw);
+    }
+
+    this.block.reset();
+    this.numberOfResultsInBlock = 0;
+  }
+
+  /**
+   * Compresses the given bytes into the compressed buffer.
+   *
+   * @return the compressed length
+   */
+  protected int deflate(byte[] raw) {
+    // the deflate bound for incompressible data
+    int bound = raw.length + (raw.length >> 12) + (raw.length >> 14) + 64;
+    if (this.compressed.length < bound) {
+      this.compressed = new byte[bound];
+    }
+    this.deflater.reset();
+    this.deflater.setInput(raw);
+    this.deflater.finish();
+    int length = 0;
+    while (!this.deflater.finished()) {
+      length += this.deflater.deflate(this.compressed, length, this.compressed.length - length);
+      if (length == this.compressed.length && !this.deflater.finished()) {
+        byte[] larger = new byte[this.compressed.length * 2];
+        System.arraycopy(this.compressed, 0, larger, 0, length);
+        this.compressed = larger;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Writes a non-negative integer with seven bits per byte. The highest bit of a byte is set, if
+   * further bytes follow.
+   */
+  protected static void writeVarInt(OutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /**
+   * Writes the UTF-8 length of the string increased by one followed by the UTF-8 bytes. A null
+   * string is written as zero length.
+   */
+  protected static void writeString(OutputStream out, String str) throws IOException {
+    if (str == null) {
+      writeVarInt(out, 0);
+      return;
+    }
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length + 1);
+    out.write(bytes);
+  }
+
+}
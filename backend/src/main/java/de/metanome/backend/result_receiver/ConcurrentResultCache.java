@@ -0,0 +1,197 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.Result;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ResultCache}, that may be called by many threads at once. The receiving threads append
+ * their results to a lock-free queue. The queued results are moved into the window, whenever the
+ * new results are fetched. To bound the memory, each receiving thread additionally tries to move
+ * the queued results after every {@link #DRAIN_INTERVAL} results. Only one thread at a time moves
+ * results; the other threads do not wait for it, unless more than {@link #MAX_QUEUED_RESULTS}
+ * results are queued. The results of one thread keep their order. If queued results could not be
+ * spilled to disk, the failure is rethrown by the next received result or by {@link #close()}.
+ */
+public class ConcurrentResultCache extends ResultCache {
+
+  // Number of results a thread receives, before it tries to move the queued results
+  protected static final int DRAIN_INTERVAL = 1024;
+  // Number of queued results, above which a receiving thread waits for the lock and moves them
+  protected static final int MAX_QUEUED_RESULTS = 64 * DRAIN_INTERVAL;
+
+  protected MpscQueue<Result> queue = new MpscQueue<>();
+  protected AtomicInteger queuedResults = new AtomicInteger();
+  // The first failure, that occurred while moving the queued results
+  protected AtomicReference<Throwable> failure = new AtomicReference<>();
+  // Guards the window and the consumer side of the queue
+  protected ReentrantLock drainLock = new ReentrantLock();
+  protected ThreadLocal<int[]> receivedSinceDrain = new ThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
+
+  /**
+   * Initializes the concurrent result cache. If you do not want the result receiver to check the
+   * result for matching columns, set the accepted columns to 'null'.
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  public ConcurrentResultCache(String algorithmExecutionIdentifier,
+                               List<ColumnIdentifier> acceptedColumns)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, acceptedColumns);
+  }
+
+  /**
+   * Initializes the concurrent result cache. If you do not want the result receiver to check the
+   * result for matching columns, set the accepted columns to 'null'.
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @param test                         if true, a test directory is used to store the results on disk
+   * @param windowSize                   the number of latest results, which are kept in memory
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  protected ConcurrentResultCache(String algorithmExecutionIdentifier,
+                                  List<ColumnIdentifier> acceptedColumns, Boolean test,
+                                  int windowSize)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, acceptedColumns, test, windowSize);
+  }
+
+  @Override
+  public List<Result> fetchNewResults() {
+    this.drainLock.lock();
+    try {
+      this.drainQuietly();
+      return super.fetchNewResults();
+    } finally {
+      this.drainLock.unlock();
+    }
+  }
+
+  @Override
+  public long getNumberOfResults() {
+    this.drainLock.lock();
+    try {
+      this.drainQuietly();
+      return super.getNumberOfResults();
+    } finally {
+      this.drainLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.drainLock.lock();
+    try {
+      this.drainQuietly();
+      super.close();
+    } finally {
+      this.drainLock.unlock();
+    }
+    Throwable t = this.failure.get();
+    if (t != null) {
+      throw new IOException("Could not write the results", t);
+    }
+  }
+
+  /**
+   * Appends the result to the queue. After every {@link #DRAIN_INTERVAL} results the queued
+   * results are moved into the window, if no other thread is moving them already. If more than
+   * {@link #MAX_QUEUED_RESULTS} results are queued, the thread waits for the other thread and moves
+   * the results itself.
+   *
+   * @throws CouldNotReceiveResultException if queued results could not be spilled to disk
+   */
+  @Override
+  protected void add(Result result) throws CouldNotReceiveResultException {
+    this.checkFailure();
+    this.queue.offer(result);
+    int queued = this.queuedResults.incrementAndGet();
+    if (queued > MAX_QUEUED_RESULTS) {
+      this.drainLock.lock();
+      try {
+        this.drain();
+      } finally {
+        this.drainLock.unlock();
+      }
+      return;
+    }
+    int[] received = this.receivedSinceDrain.get();
+    if (++received[0] < DRAIN_INTERVAL) {
+      return;
+    }
+    received[0] = 0;
+    if (this.drainLock.tryLock()) {
+      try {
+        this.drain();
+      } finally {
+        this.drainLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Moves the queued results into the window. The failure is recorded, so that it is also
+   * reported to the other receiving threads. The lock has to be held.
+   */
+  protected void drain() throws CouldNotReceiveResultException {
+    Result result;
+    while ((result = this.queue.poll()) != null) {
+      this.queuedResults.decrementAndGet();
+      try {
+        super.add(result);
+      } catch (CouldNotReceiveResultException e) {
+        this.failure.compareAndSet(null, e);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Moves the queued results into the window. The fetching threads can not handle a failure, so
+   * it is only recorded and rethrown by the next received result or by {@link #close()}. The lock
+   * has to be held.
+   */
+  protected void drainQuietly() {
+    try {
+      this.drain();
+    } catch (CouldNotReceiveResultException e) {
+      // recorded by drain
+    }
+  }
+
+  protected void checkFailure() throws CouldNotReceiveResultException {
+    Throwable t = this.failure.get();
+    if (t != null) {
+      throw new CouldNotReceiveResultException("Could not write the results", t);
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.backend.results_db.ResultType;
+
+import java.io.FileNotFoundException;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts all received results and may be called by many threads at once. The counts are striped:
+ * every thread adds to one of several rows of counters, which are summed up when the counts are
+ * read. The rows are padded to separate cache lines, so that threads counting in different rows do
+ * not contend.
+ */
+public class ConcurrentResultCounter extends ResultCounter {
+
+  // Number of counters per cache line
+  protected static final int LINE_LENGTH = 8;
+  protected static final int NUMBER_OF_TYPES = ResultType.values().length;
+  // The counters of one stripe followed by at least one unused cache line
+  protected static final int ROW_LENGTH =
+    ((NUMBER_OF_TYPES + LINE_LENGTH - 1) / LINE_LENGTH + 1) * LINE_LENGTH;
+
+  protected int stripeMask;
+  protected AtomicLongArray counts;
+
+  public ConcurrentResultCounter(String algorithmExecutionIdentifier)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier);
+    this.initializeStripes();
+  }
+
+  public ConcurrentResultCounter(String algorithmExecutionIdentifier, Boolean test)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, test);
+    this.initializeStripes();
+  }
+
+  /**
+   * Uses the next power of two of twice the number of processors as number of stripes.
+   */
+  protected void initializeStripes() {
+    int numberOfStripes =
+      Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+    this.stripeMask = numberOfStripes - 1;
+    // the first row is left empty to pad the array header
+    this.counts = new AtomicLongArray((numberOfStripes + 1) * ROW_LENGTH);
+  }
+
+  /**
+   * Adds the count to the stripe of the calling thread. Consecutive thread ids are mapped to
+   * different stripes.
+   */
+  @Override
+  protected void addCount(ResultType type, int count) throws CouldNotReceiveResultException {
+    int stripe = (int) Thread.currentThread().getId() & this.stripeMask;
+    this.counts.addAndGet((stripe + 1) * ROW_LENGTH + type.ordinal(), count);
+  }
+
+  /**
+   * Sums up the stripes. The counts of results, which are received concurrently, may be missing.
+   *
+   * @return the counts of all result types, that were received
+   */
+  @Override
+  public EnumMap<ResultType, Integer> getResults() {
+    EnumMap<ResultType, Integer> results = new EnumMap<>(ResultType.class);
+    for (ResultType type : ResultType.values()) {
+      long count = 0;
+      for (int stripe = 0; stripe <= this.stripeMask; stripe++) {
+        count += this.counts.get((stripe + 1) * ROW_LENGTH + type.ordinal());
+      }
+      if (count > 0) {
+        results.put(type, (int) count);
+      }
+    }
+    return results;
+  }
+
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.backend.results_db.ResultType;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes all received results asynchronously to disk and may be called by many threads at once.
+ * Every receiving thread collects its results in its own buffer. Full buffers are handed over to a
+ * dedicated writer thread through a lock-free queue, so that the receiving threads only synchronize
+ * once per batch of results. If the writer falls behind, the receiving threads wait for free
+ * batches. The results of one thread are written in the order they were received.
+ */
+public class ConcurrentResultPrinter extends BackgroundResultPrinter {
+
+  public static final int DEFAULT_BATCH_SIZE = 256;
+  public static final int DEFAULT_MAX_PENDING_BATCHES = 64;
+
+  protected int batchSize;
+  // The batches, which were handed over to the writer thread, and the flush requests
+  protected MpscQueue<ResultBatch> queue = new MpscQueue<>();
+  // Bounds the number of full batches, which are not yet written
+  protected Semaphore freeBatches;
+  // The buffers of all receiving threads, so that they can be flushed by any thread
+  protected ConcurrentLinkedQueue<ResultBuffer> buffers = new ConcurrentLinkedQueue<>();
+  protected ThreadLocal<ResultBuffer> threadBuffer = new ThreadLocal<ResultBuffer>() {
+    @Override
+    protected ResultBuffer initialValue() {
+      ResultBuffer buffer = new ResultBuffer(batchSize);
+      buffers.add(buffer);
+      return buffer;
+    }
+  };
+  protected volatile boolean writerWaiting = false;
+
+  /**
+   * Initializes the concurrent result printer and starts its writer thread.
+   *
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  public ConcurrentResultPrinter(String algorithmExecutionIdentifier,
+                                 List<ColumnIdentifier> acceptedColumns)
+    throws FileNotFoundException {
+    this(algorithmExecutionIdentifier, acceptedColumns, false, DEFAULT_BATCH_SIZE,
+      DEFAULT_MAX_PENDING_BATCHES);
+  }
+
+  /**
+   * Initializes the concurrent result printer and starts its writer thread.
+   *
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @param test                         if true, a test directory is used to store the results on disk
+   * @param batchSize                    the number of results, that a thread collects, before they are handed over to the writer
+   * @param maxPendingBatches            the number of full batches, that can be pending, before the receiving threads have to wait
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  protected ConcurrentResultPrinter(String algorithmExecutionIdentifier,
+                                    List<ColumnIdentifier> acceptedColumns, Boolean test,
+                                    int batchSize, int maxPendingBatches)
+    throws FileNotFoundException {
+    super(algorithmExecutionIdentifier, acceptedColumns, test);
+    this.batchSize = batchSize;
+    this.freeBatches = new Semaphore(maxPendingBatches);
+    this.startWriter("concurrent-result-writer-" + algorithmExecutionIdentifier);
+  }
+
+  /**
+   * Adds the result to the buffer of the calling thread. A full buffer is handed over to the writer
+   * thread.
+   *
+   * @param type   the type of the result
+   * @param result the result
+   * @throws CouldNotReceiveResultException if the writer thread failed or the printer is closed
+   */
+  @Override
+  protected void print(ResultType type, Result result) throws CouldNotReceiveResultException {
+    this.checkReceiving();
+    ResultBuffer buffer = this.threadBuffer.get();
+    synchronized (buffer) {
+      if (buffer.add(type, result)) {
+        this.takeAndSubmit(buffer);
+      }
+    }
+  }
+
+  /**
+   * Hands over the buffered results of all threads before the flush request, so that a flush waits
+   * for all received results.
+   */
+  @Override
+  protected void requestFlush(CountDownLatch flushed) {
+    for (ResultBuffer buffer : this.buffers) {
+      synchronized (buffer) {
+        this.takeAndSubmit(buffer);
+      }
+    }
+    this.enqueue(new ResultBatch(flushed));
+  }
+
+  @Override
+  protected void wakeWriter() {
+    LockSupport.unpark(this.writerThread);
+  }
+
+  /**
+   * Takes the buffered results and hands them over to the writer thread. Has to be called while
+   * holding the lock of the buffer, so that the batches of one buffer are queued in the order they
+   * were taken.
+   *
+   * @param buffer the buffer
+   */
+  protected void takeAndSubmit(ResultBuffer buffer) {
+    ResultBatch batch = buffer.takeBatch();
+    if (batch != null) {
+      this.submit(batch);
+    }
+  }
+
+  /**
+   * Hands the full batch over to the writer thread. Waits, if too many batches are pending.
+   */
+  protected void submit(ResultBatch batch) {
+    this.freeBatches.acquireUninterruptibly();
+    this.enqueue(batch);
+  }
+
+  protected void enqueue(ResultBatch batch) {
+    this.queue.offer(batch);
+    if (this.writerWaiting) {
+      LockSupport.unpark(this.writerThread);
+    }
+  }
+
+  /**
+   * Main loop of the writer thread: polls the batches and writes their results. The streams are
+   * flushed, whenever the queue runs empty. After a failure the remaining results are discarded, so
+   * that the receiving threads do not wait forever.
+   */
+  @Override
+  protected void writeQueuedResults() {
+    while (true) {
+      ResultBatch batch = this.queue.poll();
+      if (batch == null) {
+        this.flushStreams();
+        this.writerWaiting = true;
+        batch = this.queue.poll();
+        if (batch == null) {
+          if (this.closed) {
+            return;
+          }
+          LockSupport.park(this);
+          this.writerWaiting = false;
+          continue;
+        }
+        this.writerWaiting = false;
+      }
+
+      if (batch.flushed != null) {
+        this.flushAll(batch.flushed);
+        continue;
+      }
+      for (int i = 0; i < batch.size && this.failure.get() == null; i++) {
+        try {
+          this.write(batch.types[i], batch.results[i]);
+        } catch (Throwable t) {
+          this.failure.compareAndSet(null, t);
+        }
+      }
+      this.freeBatches.release();
+    }
+  }
+
+  /**
+   * The results of one receiving thread, which are not yet handed over to the writer thread.
+   */
+  protected static class ResultBuffer {
+
+    protected int batchSize;
+    protected ResultBatch batch;
+
+    protected ResultBuffer(int batchSize) {
+      this.batchSize = batchSize;
+      this.batch = new ResultBatch(batchSize);
+    }
+
+    /**
+     * @return true, if the batch is full
+     */
+    protected boolean add(ResultType type, Result result) {
+      this.batch.types[this.batch.size] = type;
+      this.batch.results[this.batch.size] = result;
+      this.batch.size++;
+      return this.batch.size == this.batchSize;
+    }
+
+    /**
+     * @return the buffered results or null, if no result is buffered
+     */
+    protected ResultBatch takeBatch() {
+      if (this.batch.size == 0) {
+        return null;
+      }
+      ResultBatch full = this.batch;
+      this.batch = new ResultBatch(this.batchSize);
+      return full;
+    }
+  }
+
+  /**
+   * A batch of results or a flush request.
+   */
+  protected static class ResultBatch {
+
+    protected ResultType[] types;
+    protected Result[] results;
+    protected int size = 0;
+    protected CountDownLatch flushed;
+
+    protected ResultBatch(int capacity) {
+      this.types = new ResultType[capacity];
+      this.results = new Result[capacity];
+    }
+
+    protected ResultBatch(CountDownLatch flushed) {
+      this(0);
+      this.flushed = flushed;
+    }
+  }
+
+}
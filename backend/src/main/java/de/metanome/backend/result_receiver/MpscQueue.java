@@ -0,0 +1,93 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An unbounded lock-free queue for many producer threads and a single consumer thread. Offering an
+ * element only takes one atomic swap, so that producers never wait for each other. The elements of
+ * one producer are polled in the order they were offered.
+ * <p>
+ * Only one thread at a time may poll the queue. If a producer is interrupted by the scheduler in
+ * the middle of an offer, the following elements are not visible to the consumer until the offer
+ * is completed.
+ *
+ * @param <E> the type of the elements
+ */
+public class MpscQueue<E> {
+
+  // The last node, which is swapped by the producers
+  protected AtomicReference<Node<E>> head;
+  // The node before the first element, which is only accessed by the consumer
+  protected Node<E> tail;
+
+  public MpscQueue() {
+    Node<E> stub = new Node<>(null);
+    this.head = new AtomicReference<>(stub);
+    this.tail = stub;
+  }
+
+  /**
+   * Appends the element to the queue. May be called by any thread.
+   *
+   * @param element the element, which must not be null
+   */
+  public void offer(E element) {
+    if (element == null) {
+      throw new NullPointerException("The queue does not accept null elements.");
+    }
+    Node<E> node = new Node<>(element);
+    Node<E> previous = this.head.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * Removes the first element of the queue. May only be called by the consumer thread.
+   *
+   * @return the first element or null, if no element is visible
+   */
+  public E poll() {
+    Node<E> next = this.tail.next;
+    if (next == null) {
+      return null;
+    }
+    E element = next.element;
+    next.element = null;
+    this.tail = next;
+    return element;
+  }
+
+  /**
+   * May only be called by the consumer thread.
+   *
+   * @return true, if no element is visible to the consumer
+   */
+  public boolean isEmpty() {
+    return this.tail.next == null;
+  }
+
+  protected static class Node<E> {
+
+    protected E element;
+    protected volatile Node<E> next;
+
+    protected Node(E element) {
+      this.element = element;
+    }
+  }
+
+}
@@ -19,22 +19,34 @@ import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.result_receiver.ColumnNameMismatchException;
 import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
 import de.metanome.algorithm_integration.results.*;
+import de.metanome.backend.results_db.ResultType;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 
 /**
- * Stores all received Results in a list and returns the new results on call to {@link
- * ResultCache#fetchNewResults()}. When all results were received, they are written to disk.
+ * Keeps the latest received Results in a bounded window and returns the new results on call to
+ * {@link ResultCache#fetchNewResults()}. Results leaving the window are appended to segment files
+ * on disk. When all results were received, the remaining results are appended and the segment
+ * files are moved to the result files. If the results are fetched less often than the window is
+ * filled, the results, that already left the window, are only available on disk.
  *
  * @author Jakob Zwiener
  */
 public class ResultCache extends ResultReceiver {
 
-  protected List<Result> results = new LinkedList<>();
-  protected int fromIndex = 0;
+  public static final int DEFAULT_WINDOW_SIZE = 10000;
+  protected static final String SEGMENT_SUFFIX = ".segment";
+
+  // The latest results, which are kept in memory
+  protected ArrayDeque<Result> window = new ArrayDeque<>();
+  protected int windowSize;
+  protected long numberOfResults = 0;
+  protected long numberOfFetchedResults = 0;
+  // Writes the results, which left the window, to the segment files
+  protected AsyncResultPrinter segmentPrinter;
 
   /**
    * Initializes the result cache. The given algorithm execution identifier and accepted columns are stored.
@@ -47,7 +59,7 @@ public class ResultCache extends ResultReceiver {
    */
   public ResultCache(String algorithmExecutionIdentifier, List<ColumnIdentifier> acceptedColumns)
     throws FileNotFoundException {
-    super(algorithmExecutionIdentifier, acceptedColumns);
+    this(algorithmExecutionIdentifier, acceptedColumns, false, DEFAULT_WINDOW_SIZE);
   }
 
   /**
@@ -62,13 +74,35 @@ public class ResultCache extends ResultReceiver {
    */
   protected ResultCache(String algorithmExecutionIdentifier, List<ColumnIdentifier> acceptedColumns, Boolean test)
     throws FileNotFoundException {
+    this(algorithmExecutionIdentifier, acceptedColumns, test, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Initializes the result cache. The given algorithm execution identifier and accepted columns are stored.
+   * If the result receiver receives a result, which consists of a column identifier, which is not listed in the
+   * accepted columns, an exception will be thrown. If you do not want the result receiver to check the result for
+   * matching columns, set the accepted columns to 'null'.
+   * @param algorithmExecutionIdentifier the algorithm execution identifier
+   * @param acceptedColumns              a list of accepted column identifiers
+   * @param test                         if true, a test directory is used to store the results on disk
+   * @param windowSize                   the number of latest results, which are kept in memory
+   * @throws FileNotFoundException if the directory, where all results are stored on disk in a file, could not be found
+   */
+  protected ResultCache(String algorithmExecutionIdentifier, List<ColumnIdentifier> acceptedColumns, Boolean test,
+                        int windowSize)
+    throws FileNotFoundException {
     super(algorithmExecutionIdentifier, acceptedColumns, test);
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("The window has to contain at least one result.");
+    }
+    this.windowSize = windowSize;
   }
 
   @Override
-  public void receiveResult(BasicStatistic statistic) throws ColumnNameMismatchException {
+  public void receiveResult(BasicStatistic statistic)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(statistic)) {
-      results.add(statistic);
+      this.add(statistic);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -76,101 +110,155 @@ public class ResultCache extends ResultReceiver {
   }
 
   @Override
-  public void receiveResult(FunctionalDependency functionalDependency) throws ColumnNameMismatchException {
+  public void receiveResult(FunctionalDependency functionalDependency)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(functionalDependency)) {
-      results.add(functionalDependency);
+      this.add(functionalDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
   
   @Override
-  public void receiveResult(MultivaluedDependency multivaluedDependency) throws ColumnNameMismatchException {
+  public void receiveResult(MultivaluedDependency multivaluedDependency)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(multivaluedDependency)) {
-      results.add(multivaluedDependency);
+      this.add(multivaluedDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
 
   @Override
-  public void receiveResult(InclusionDependency inclusionDependency) throws ColumnNameMismatchException {
+  public void receiveResult(InclusionDependency inclusionDependency)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(inclusionDependency)) {
-      results.add(inclusionDependency);
+      this.add(inclusionDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
 
   @Override
-  public void receiveResult(UniqueColumnCombination uniqueColumnCombination) throws ColumnNameMismatchException {
+  public void receiveResult(UniqueColumnCombination uniqueColumnCombination)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(uniqueColumnCombination)) {
-      results.add(uniqueColumnCombination);
+      this.add(uniqueColumnCombination);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
 
-  public void receiveResult(ConditionalUniqueColumnCombination conditionalUniqueColumnCombination) throws ColumnNameMismatchException {
+  public void receiveResult(ConditionalUniqueColumnCombination conditionalUniqueColumnCombination)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(conditionalUniqueColumnCombination)) {
-      results.add(conditionalUniqueColumnCombination);
+      this.add(conditionalUniqueColumnCombination);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
 
   @Override
-  public void receiveResult(OrderDependency orderDependency) throws ColumnNameMismatchException {
+  public void receiveResult(OrderDependency orderDependency)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(orderDependency)) {
-      results.add(orderDependency);
+      this.add(orderDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
 
   /**
-   * Should return all results once. Copies the new received results and returns them.
+   * Should return all results once. Copies the new received results, which are still in the window,
+   * and returns them.
    *
    * @return new results
    */
   public List<Result> fetchNewResults() {
-    int toIndex = this.results.size();
-    List<Result> newResults = results.subList(this.fromIndex, toIndex);
-    this.fromIndex = toIndex;
-    return newResults;
+    int numberOfNewResults =
+      (int) Math.min(this.numberOfResults - this.numberOfFetchedResults, this.window.size());
+    Result[] newResults = new Result[numberOfNewResults];
+    Iterator<Result> iterator = this.window.descendingIterator();
+    for (int i = numberOfNewResults - 1; i >= 0; i--) {
+      newResults[i] = iterator.next();
+    }
+    this.numberOfFetchedResults = this.numberOfResults;
+    return Arrays.asList(newResults);
+  }
+
+  /**
+   * @return the number of all received results
+   */
+  public long getNumberOfResults() {
+    return this.numberOfResults;
   }
 
   /**
-   * When the result receiver is closed, the results are written to disk.
+   * When the result receiver is closed, the results in the window are appended to the segment files,
+   * which are then moved to the result files.
    */
   @Override
   public void close() throws IOException {
-    ResultPrinter
-      printer =
-      new ResultPrinter(this.algorithmExecutionIdentifier, this.acceptedColumns, this.testDirectory);
-    for (Result result : results) {
-      try {
-        if (result instanceof FunctionalDependency) {
-          printer.receiveResult((FunctionalDependency) result);
-        } else if (result instanceof MultivaluedDependency) {
-          printer.receiveResult((MultivaluedDependency) result);
-        } else if (result instanceof InclusionDependency) {
-          printer.receiveResult((InclusionDependency) result);
-        } else if (result instanceof UniqueColumnCombination) {
-          printer.receiveResult((UniqueColumnCombination) result);
-        } else if (result instanceof ConditionalUniqueColumnCombination) {
-          printer.receiveResult((ConditionalUniqueColumnCombination) result);
-        } else if (result instanceof OrderDependency) {
-          printer.receiveResult((OrderDependency) result);
-        } else if (result instanceof BasicStatistic) {
-          printer.receiveResult((BasicStatistic) result);
+    try {
+      while (!this.window.isEmpty()) {
+        this.spill(this.window.pollFirst());
+      }
+    } catch (CouldNotReceiveResultException e) {
+      throw new IOException("Could not write the results", e);
+    } finally {
+      if (this.segmentPrinter != null) {
+        this.segmentPrinter.close();
+      }
+    }
+    if (this.segmentPrinter == null) {
+      return;
+    }
+
+    String segmentPrefix = this.segmentPrinter.getOutputFilePathPrefix();
+    for (ResultType type : ResultType.values()) {
+      File segment = new File(segmentPrefix + type.getEnding());
+      if (segment.exists()) {
+        File resultFile = new File(this.getOutputFilePathPrefix() + type.getEnding());
+        if ((resultFile.exists() && !resultFile.delete()) || !segment.renameTo(resultFile)) {
+          throw new IOException("Could not move the segment file " + segment.getPath());
         }
-      } catch (CouldNotReceiveResultException e) {
-        e.printStackTrace();
-      } catch (ColumnNameMismatchException ignored) {
-        // should not occur
       }
     }
-    printer.close();
+  }
+
+  @Override
+  protected void receiveAcceptedResult(ResultType type, Result result)
+    throws CouldNotReceiveResultException {
+    this.add(result);
+  }
+
+  /**
+   * Adds the result to the window. If the window is full, the oldest result is spilled to disk.
+   */
+  protected void add(Result result) throws CouldNotReceiveResultException {
+    if (this.window.size() == this.windowSize) {
+      this.spill(this.window.pollFirst());
+    }
+    this.window.addLast(result);
+    this.numberOfResults++;
+  }
+
+  /**
+   * Appends the result to the segment file of its type.
+   */
+  protected void spill(Result result) throws CouldNotReceiveResultException {
+    try {
+      if (this.segmentPrinter == null) {
+        this.segmentPrinter = new AsyncResultPrinter(
+          this.algorithmExecutionIdentifier + SEGMENT_SUFFIX, this.acceptedColumns,
+          this.testDirectory, AsyncResultPrinter.DEFAULT_QUEUE_CAPACITY);
+      }
+      result.sendResultTo(this.segmentPrinter);
+    } catch (FileNotFoundException e) {
+      throw new CouldNotReceiveResultException("Could not open the segment file", e);
+    } catch (ColumnNameMismatchException e) {
+      // should not occur, because the result was accepted before
+      throw new CouldNotReceiveResultException("Could not write the result", e);
+    }
   }
 }
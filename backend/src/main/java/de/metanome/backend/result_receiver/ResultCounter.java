@@ -15,6 +15,7 @@
  */
 package de.metanome.backend.result_receiver;
 
+import de.metanome.algorithm_integration.result_receiver.BatchResultReceiverAdapter;
 import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
 import de.metanome.algorithm_integration.results.*;
 import de.metanome.backend.results_db.ResultType;
@@ -22,6 +23,7 @@ import de.metanome.backend.results_db.ResultType;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -85,11 +87,51 @@ public class ResultCounter extends ResultReceiver {
     this.addCount(ResultType.UCC);
   }
 
+  /**
+   * Counts the results without checking their columns.
+   */
+  @Override
+  public void receiveResults(Collection<? extends Result> results)
+    throws CouldNotReceiveResultException {
+    for (Result result : results) {
+      this.addCount(getResultType(result));
+    }
+  }
+
+  /**
+   * Counts the functional dependencies without resolving their column ids.
+   */
+  @Override
+  public void receiveFunctionalDependencies(int[][] determinants, int[] dependants)
+    throws CouldNotReceiveResultException {
+    BatchResultReceiverAdapter.checkFunctionalDependencies(determinants, dependants);
+    this.addCount(ResultType.FD, dependants.length);
+  }
+
+  /**
+   * Counts the unique column combinations without resolving their column ids.
+   */
+  @Override
+  public void receiveUniqueColumnCombinations(int[][] columnCombinations)
+    throws CouldNotReceiveResultException {
+    this.addCount(ResultType.UCC, columnCombinations.length);
+  }
+
+  @Override
+  protected void receiveAcceptedResult(ResultType type, Result result)
+    throws CouldNotReceiveResultException {
+    this.addCount(type);
+  }
+
   protected void addCount(ResultType type) throws CouldNotReceiveResultException {
+    this.addCount(type, 1);
+  }
+
+  protected void addCount(ResultType type, int count) throws CouldNotReceiveResultException {
     if (!resultCounts.containsKey(type)) {
-      resultCounts.put(type, 1);
+      resultCounts.put(type, count);
     } else {
-      resultCounts.put(type, resultCounts.get(type) + 1);
+      resultCounts.put(type, resultCounts.get(type) + count);
     }
   }
 
@@ -98,7 +140,7 @@ public class ResultCounter extends ResultReceiver {
    */
   @Override
   public void close() throws IOException {
-    for (Map.Entry<ResultType, Integer> entry : resultCounts.entrySet()) {
+    for (Map.Entry<ResultType, Integer> entry : getResults().entrySet()) {
       ResultType type = entry.getKey();
       Integer count = entry.getValue();
       write(type.getEnding(), type.getName(), count);
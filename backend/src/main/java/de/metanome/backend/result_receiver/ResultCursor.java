@@ -0,0 +1,42 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.results.Result;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Iterates over the results of a result file without loading the whole file into memory.
+ *
+ * @param <T> the type of the results
+ */
+public interface ResultCursor<T extends Result> extends Closeable {
+
+  /**
+   * @return true, if there are more results
+   * @throws IOException if the result file could not be read
+   */
+  boolean hasNext() throws IOException;
+
+  /**
+   * @return the next result
+   * @throws IOException if the result file could not be read
+   */
+  T next() throws IOException;
+
+}
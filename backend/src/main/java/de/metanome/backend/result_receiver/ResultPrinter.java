@@ -35,10 +35,26 @@ public class ResultPrinter extends ResultReceiver {
   protected static final String COLUMN_MARKER = "# COLUMN";
   protected static final String RESULT_MARKER = "# RESULTS";
 
+  /**
+   * If true, executions write their results in the binary format (see {@link #setBinaryFormat}).
+   * Results are written as text by default.
+   */
+  public static final String BINARY_FORMAT_PROPERTY = "metanome.binaryResults";
+  /**
+   * If false, the blocks of the binary format are not compressed. Defaults to true.
+   */
+  public static final String COMPRESS_BINARY_FORMAT_PROPERTY = "metanome.compressBinaryResults";
+
   protected EnumMap<ResultType, PrintStream> openStreams;
+  protected EnumMap<ResultType, BinaryResultWriter> binaryWriters;
   protected EnumMap<ResultType, Boolean> headerWritten;
   protected Map<String, String> columnMapping;
   protected Map<String, String> tableMapping;
+  // The converter is reused for all results, because creating its object mapper is expensive
+  protected JsonConverter<Result> jsonConverter = new JsonConverter<>();
+  // If true, the results, that consist of column combinations, are written in the binary format
+  protected boolean binaryFormat = false;
+  protected boolean compressBinaryFormat = true;
 
   /**
    * Initializes the result printer. The given algorithm execution identifier and accepted columns are stored.
@@ -54,6 +70,7 @@ public class ResultPrinter extends ResultReceiver {
     super(algorithmExecutionIdentifier, acceptedColumns);
     this.headerWritten = new EnumMap<>(ResultType.class);
     this.openStreams = new EnumMap<>(ResultType.class);
+    this.binaryWriters = new EnumMap<>(ResultType.class);
     this.columnMapping = new HashMap<>();
     this.tableMapping = new HashMap<>();
 
@@ -77,6 +94,7 @@ public class ResultPrinter extends ResultReceiver {
     super(algorithmExecutionIdentifier, acceptedColumns, test);
     this.headerWritten = new EnumMap<>(ResultType.class);
     this.openStreams = new EnumMap<>(ResultType.class);
+    this.binaryWriters = new EnumMap<>(ResultType.class);
     this.columnMapping = new HashMap<>();
     this.tableMapping = new HashMap<>();
 
@@ -89,12 +107,7 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(BasicStatistic statistic)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(statistic)) {
-      try {
-        JsonConverter<BasicStatistic> jsonConverter = new JsonConverter<>();
-        getStream(ResultType.STAT).println(jsonConverter.toJsonString(statistic));
-      } catch (JsonProcessingException e) {
-        throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-      }
+      this.print(ResultType.STAT, statistic);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -104,59 +117,17 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(FunctionalDependency functionalDependency)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(functionalDependency)) {
-      if (this.acceptedColumns != null) {
-        // write a customize string
-        try {
-          if (!getHeaderWritten(ResultType.FD)) {
-            this.writeHeader(ResultType.FD);
-          }
-          String str = functionalDependency.toString(this.tableMapping, this.columnMapping);
-          getStream(ResultType.FD).println(str);
-        } catch (Exception e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to string!");
-        }
-      } else {
-        // write JSON to file
-        // the acceptableColumnNames are null, that means a database connection was used
-        // we do not know which columns are in the result
-        try {
-          JsonConverter<FunctionalDependency> jsonConverter = new JsonConverter<>();
-          getStream(ResultType.FD).println(jsonConverter.toJsonString(functionalDependency));
-        } catch (JsonProcessingException e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-        }
-      }
+      this.print(ResultType.FD, functionalDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
   }
-  
+
   @Override
   public void receiveResult(MultivaluedDependency multivaluedDependency)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(multivaluedDependency)) {
-      if (this.acceptedColumns != null) {
-        // write a customize string
-        try {
-          if (!getHeaderWritten(ResultType.MVD)) {
-            this.writeHeader(ResultType.MVD);
-          }
-          String str = multivaluedDependency.toString(this.tableMapping, this.columnMapping);
-          getStream(ResultType.MVD).println(str);
-        } catch (Exception e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to string!");
-        }
-      } else {
-        // write JSON to file
-        // the acceptableColumnNames are null, that means a database connection was used
-        // we do not know which columns are in the result
-        try {
-          JsonConverter<MultivaluedDependency> jsonConverter = new JsonConverter<>();
-          getStream(ResultType.MVD).println(jsonConverter.toJsonString(multivaluedDependency));
-        } catch (JsonProcessingException e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-        }
-      }
+      this.print(ResultType.MVD, multivaluedDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -166,28 +137,7 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(InclusionDependency inclusionDependency)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(inclusionDependency)) {
-      if (this.acceptedColumns != null) {
-        // write a customize string
-        try {
-          if (!getHeaderWritten(ResultType.IND)) {
-            this.writeHeader(ResultType.IND);
-          }
-          String str = inclusionDependency.toString(this.tableMapping, this.columnMapping);
-          getStream(ResultType.IND).println(str);
-        } catch (Exception e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to string!");
-        }
-      } else {
-        // write JSON to file
-        // the acceptableColumnNames are null, that means a database connection was used
-        // we do not know which columns are in the result
-        try {
-          JsonConverter<InclusionDependency> jsonConverter = new JsonConverter<>();
-          getStream(ResultType.IND).println(jsonConverter.toJsonString(inclusionDependency));
-        } catch (JsonProcessingException e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-        }
-      }
+      this.print(ResultType.IND, inclusionDependency);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -197,28 +147,7 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(UniqueColumnCombination uniqueColumnCombination)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(uniqueColumnCombination)) {
-      if (this.acceptedColumns != null) {
-        // write a customize string
-        try {
-          if (!getHeaderWritten(ResultType.UCC)) {
-            this.writeHeader(ResultType.UCC);
-          }
-          String str = uniqueColumnCombination.toString(this.tableMapping, this.columnMapping);
-          getStream(ResultType.UCC).println(str);
-        } catch (Exception e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to string!");
-        }
-      } else {
-        // write JSON to file
-        // the acceptableColumnNames are null, that means a database connection was used
-        // we do not know which columns are in the result
-        try {
-          JsonConverter<UniqueColumnCombination> jsonConverter = new JsonConverter<>();
-          getStream(ResultType.UCC).println(jsonConverter.toJsonString(uniqueColumnCombination));
-        } catch (JsonProcessingException e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-        }
-      }
+      this.print(ResultType.UCC, uniqueColumnCombination);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -228,13 +157,7 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(ConditionalUniqueColumnCombination conditionalUniqueColumnCombination)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(conditionalUniqueColumnCombination)) {
-      try {
-        JsonConverter<ConditionalUniqueColumnCombination> jsonConverter = new JsonConverter<>();
-        getStream(ResultType.CUCC)
-          .println(jsonConverter.toJsonString(conditionalUniqueColumnCombination));
-      } catch (JsonProcessingException e) {
-        throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
-      }
+      this.print(ResultType.CUCC, conditionalUniqueColumnCombination);
     } else {
       throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
     }
@@ -244,30 +167,97 @@ public class ResultPrinter extends ResultReceiver {
   public void receiveResult(OrderDependency orderDependency)
     throws CouldNotReceiveResultException, ColumnNameMismatchException {
     if (this.acceptedResult(orderDependency)) {
-      if (this.acceptedColumns != null) {
-        // write a customize string
-        try {
-          if (!getHeaderWritten(ResultType.OD)) {
-            this.writeHeader(ResultType.OD);
-          }
-          String str = orderDependency.toString(this.tableMapping, this.columnMapping);
-          getStream(ResultType.OD).println(str);
-        } catch (Exception e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to string!");
-        }
-      } else {
-        // write JSON to file
-        // the acceptableColumnNames are null, that means a database connection was used
-        // we do not know which columns are in the result
-        try {
-          JsonConverter<OrderDependency> jsonConverter = new JsonConverter<>();
-          getStream(ResultType.OD).println(jsonConverter.toJsonString(orderDependency));
-        } catch (JsonProcessingException e) {
-          throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
+      this.print(ResultType.OD, orderDependency);
+    } else {
+      throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
+    }
+  }
+
+  /**
+   * Enables the binary result format of the {@link BinaryResultWriter} for all results, that consist
+   * of column combinations. Basic statistics and conditional unique column combinations are always
+   * written as JSON. Has to be set before the first result is received.
+   *
+   * @param binaryFormat if true, the binary format is used
+   * @param compress     if true, the blocks of the binary format are compressed
+   */
+  public void setBinaryFormat(boolean binaryFormat, boolean compress) {
+    this.binaryFormat = binaryFormat;
+    this.compressBinaryFormat = compress;
+  }
+
+  @Override
+  protected void receiveAcceptedResult(ResultType type, Result result)
+    throws CouldNotReceiveResultException {
+    this.print(type, result);
+  }
+
+  /**
+   * Writes the given accepted result to the file of its type.
+   *
+   * @param type   the type of the result
+   * @param result the result
+   * @throws CouldNotReceiveResultException if the result could not be written
+   */
+  protected void print(ResultType type, Result result) throws CouldNotReceiveResultException {
+    this.write(type, result);
+  }
+
+  /**
+   * Converts the result and writes it to the stream of its type. If the accepted columns are known,
+   * the results, that only consist of column combinations, are written with the table and column
+   * mapping as customized strings. All other results are written as JSON.
+   *
+   * @param type   the type of the result
+   * @param result the result
+   * @throws CouldNotReceiveResultException if the result could not be converted or written
+   */
+  protected void write(ResultType type, Result result) throws CouldNotReceiveResultException {
+    if (this.binaryFormat && BinaryResultWriter.supports(type)) {
+      try {
+        getBinaryWriter(type).write(result);
+      } catch (IOException e) {
+        throw new CouldNotReceiveResultException("Could not write the result!", e);
+      }
+    } else if (this.acceptedColumns != null && type != ResultType.STAT && type != ResultType.CUCC) {
+      // write a customize string
+      try {
+        if (!getHeaderWritten(type)) {
+          this.writeHeader(type);
         }
+        getStream(type).println(this.toMappedString(type, result));
+      } catch (Exception e) {
+        throw new CouldNotReceiveResultException("Could not convert the result to string!");
       }
     } else {
-      throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
+      // write JSON to file
+      // the acceptableColumnNames are null, that means a database connection was used
+      // we do not know which columns are in the result
+      try {
+        getStream(type).println(this.jsonConverter.toJsonString(result));
+      } catch (JsonProcessingException e) {
+        throw new CouldNotReceiveResultException("Could not convert the result to JSON!");
+      }
+    }
+  }
+
+  /**
+   * Converts the result to a string using the table and column mapping.
+   */
+  protected String toMappedString(ResultType type, Result result) {
+    switch (type) {
+      case FD:
+        return ((FunctionalDependency) result).toString(this.tableMapping, this.columnMapping);
+      case MVD:
+        return ((MultivaluedDependency) result).toString(this.tableMapping, this.columnMapping);
+      case IND:
+        return ((InclusionDependency) result).toString(this.tableMapping, this.columnMapping);
+      case UCC:
+        return ((UniqueColumnCombination) result).toString(this.tableMapping, this.columnMapping);
+      case OD:
+        return ((OrderDependency) result).toString(this.tableMapping, this.columnMapping);
+      default:
+        throw new IllegalArgumentException("Results of type " + type + " can not be mapped.");
     }
   }
 
@@ -278,6 +268,36 @@ public class ResultPrinter extends ResultReceiver {
     return openStreams.get(type);
   }
 
+  protected BinaryResultWriter getBinaryWriter(ResultType type) throws CouldNotReceiveResultException {
+    BinaryResultWriter writer = this.binaryWriters.get(type);
+    if (writer == null) {
+      try {
+        writer = new BinaryResultWriter(openBinaryStream(type.getEnding()), type,
+          this.acceptedColumns, this.compressBinaryFormat);
+      } catch (IOException e) {
+        throw new CouldNotReceiveResultException("Could not open result file for writing", e);
+      }
+      this.binaryWriters.put(type, writer);
+    }
+    return writer;
+  }
+
+  protected OutputStream openBinaryStream(String fileSuffix) throws FileNotFoundException {
+    return new BufferedOutputStream(new FileOutputStream(getOutputFilePathPrefix() + fileSuffix),
+      BinaryResultWriter.BLOCK_SIZE);
+  }
+
+  /**
+   * Writes the pending blocks of the binary result files, so that all results can be read.
+   *
+   * @throws IOException if a block could not be written
+   */
+  protected void flushBinaryWriters() throws IOException {
+    for (BinaryResultWriter writer : this.binaryWriters.values()) {
+      writer.flush();
+    }
+  }
+
   protected PrintStream openStream(String fileSuffix) throws CouldNotReceiveResultException {
     try {
       return new PrintStream(new FileOutputStream(getOutputFilePathPrefix() + fileSuffix), true);
@@ -316,6 +336,9 @@ public class ResultPrinter extends ResultReceiver {
     for (PrintStream stream : openStreams.values()) {
       stream.close();
     }
+    for (BinaryResultWriter writer : binaryWriters.values()) {
+      writer.close();
+    }
   }
 
   /**
@@ -327,8 +350,12 @@ public class ResultPrinter extends ResultReceiver {
   public List<Result> getResults()
     throws IOException, NullPointerException, IndexOutOfBoundsException {
     List<Result> results = new ArrayList<>();
+    this.flushBinaryWriters();
 
-    for (ResultType type : openStreams.keySet()) {
+    Set<ResultType> types = EnumSet.noneOf(ResultType.class);
+    types.addAll(openStreams.keySet());
+    types.addAll(binaryWriters.keySet());
+    for (ResultType type : types) {
       if (existsFile(type.getEnding())) {
         String fileName = getOutputFilePathPrefix() + type.getEnding();
         results.addAll(ResultReader.readResultsFromFile(fileName, type.getName()));
@@ -23,7 +23,6 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,47 +37,34 @@ public class ResultReader<T extends Result> {
   public static List<Result> readResultsFromFile(String fileName, String type)
     throws IOException, NullPointerException, IndexOutOfBoundsException {
     List<Result> results = new ArrayList<>();
-    Map<String, String> tableMapping = new HashMap<>();
-    Map<String, String> columnMapping = new HashMap<>();
-
-    Boolean isTableMapping = false;
-    Boolean isColumnMapping = false;
+    try (ResultCursor<Result> cursor = ResultReader.openResultFile(fileName, type)) {
+      while (cursor.hasNext()) {
+        results.add(cursor.next());
+      }
+    }
+    return results;
+  }
 
+  /**
+   * Opens a cursor over the results of the given file, which may be written as text or in the
+   * binary format. A missing file is created and contains no results.
+   *
+   * @param fileName the name of the result file
+   * @param type     the name of the result type
+   * @param <T>      the type of the results
+   * @return a cursor over the results, which has to be closed
+   * @throws IOException if the file could not be opened
+   */
+  public static <T extends Result> ResultCursor<T> openResultFile(String fileName, String type)
+    throws IOException {
     File resultFile = new File(fileName);
     if (!resultFile.exists()) {
       resultFile.createNewFile();
     }
-
-    BufferedReader br = new BufferedReader(new FileReader(resultFile));
-    String line;
-    while ((line = br.readLine()) != null) {
-      if (line.startsWith(ResultPrinter.TABLE_MARKER)) {
-        isTableMapping = true;
-        isColumnMapping = false;
-        continue;
-      } else if (line.startsWith(ResultPrinter.COLUMN_MARKER)) {
-        isTableMapping = false;
-        isColumnMapping = true;
-        continue;
-      } else if (line.startsWith(ResultPrinter.RESULT_MARKER)) {
-        isTableMapping = false;
-        isColumnMapping = false;
-        continue;
-      }
-
-      if (isTableMapping) {
-        String[] parts = line.split(ResultReceiver.MAPPING_SEPARATOR);
-        tableMapping.put(parts[1], parts[0]);
-      } else if (isColumnMapping) {
-        String[] parts = line.split(ResultReceiver.MAPPING_SEPARATOR);
-        columnMapping.put(parts[1], parts[0]);
-      } else {
-        results.add(ResultReader.convertStringToResult(line, type, tableMapping, columnMapping));
-      }
+    if (BinaryResultReader.isBinaryResultFile(fileName)) {
+      return new BinaryResultReader<>(fileName);
     }
-
-    br.close();
-    return results;
+    return new TextResultReader<>(fileName, type);
   }
 
   protected static Result convertStringToResult(String str, String name, Map<String, String> tableMapping,
@@ -153,6 +139,17 @@ public class ResultReader<T extends Result> {
     return 0;
   }
 
+  /**
+   * Opens a cursor over the results of the given file.
+   *
+   * @param fileName the name of the result file
+   * @return a cursor over the results, which has to be closed
+   * @throws IOException if the file could not be opened
+   */
+  public ResultCursor<T> openResults(String fileName) throws IOException {
+    return ResultReader.openResultFile(fileName, this.type.getName());
+  }
+
   public List<T> readResultsFromFile(String fileName)
     throws IOException, NullPointerException, IndexOutOfBoundsException {
     File resultFile = new File(fileName);
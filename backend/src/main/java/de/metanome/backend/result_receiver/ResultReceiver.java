@@ -15,14 +15,25 @@
  */
 package de.metanome.backend.result_receiver;
 
+import de.metanome.algorithm_integration.ColumnCombination;
 import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.BatchResultReceiver;
+import de.metanome.algorithm_integration.result_receiver.BatchResultReceiverAdapter;
+import de.metanome.algorithm_integration.result_receiver.ColumnAcceptingResultReceiver;
+import de.metanome.algorithm_integration.result_receiver.ColumnNameMismatchException;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
 import de.metanome.algorithm_integration.results.*;
+import de.metanome.backend.results_db.ResultType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-public abstract class ResultReceiver implements CloseableOmniscientResultReceiver {
+public abstract class ResultReceiver
+  implements CloseableOmniscientResultReceiver, ColumnAcceptingResultReceiver, BatchResultReceiver {
 
   public static final String RESULT_TEST_DIR = "results" + File.separator + "test";
   public static final String RESULT_DIR = "results";
@@ -32,6 +43,8 @@ public abstract class ResultReceiver implements CloseableOmniscientResultReceive
   protected String directory;
   protected Boolean testDirectory;
   protected List<ColumnIdentifier> acceptedColumns;
+  // Hash set of the accepted columns for constant time lookups
+  protected Set<ColumnIdentifier> acceptedColumnSet;
 
   public ResultReceiver(String algorithmExecutionIdentifier, List<ColumnIdentifier> acceptedColumns)
     throws FileNotFoundException {
@@ -42,6 +55,9 @@ public abstract class ResultReceiver implements CloseableOmniscientResultReceive
     throws FileNotFoundException {
     this.testDirectory = testDirectory;
     this.acceptedColumns = acceptedColumns;
+    if (acceptedColumns != null) {
+      this.acceptedColumnSet = new HashSet<>(acceptedColumns);
+    }
 
     if (testDirectory) {
       this.directory = RESULT_TEST_DIR;
@@ -71,6 +87,154 @@ public abstract class ResultReceiver implements CloseableOmniscientResultReceive
     return this.directory + "/" + this.algorithmExecutionIdentifier;
   }
 
+  @Override
+  public List<ColumnIdentifier> getAcceptedColumns() {
+    return this.acceptedColumns;
+  }
+
+  /**
+   * Returns the accepted column with the given id. Results built from the returned instance are
+   * accepted by the same lookup as any other result: the hash set of accepted columns compares
+   * columns by equality of their table and column names ({@link ColumnIdentifier#equals(Object)}
+   * and {@link ColumnIdentifier#hashCode()}), not by identity.
+   * @param columnId the id of the column
+   * @return the accepted column or null, if all columns are accepted
+   */
+  @Override
+  public ColumnIdentifier getAcceptedColumn(int columnId) {
+    if (this.acceptedColumns == null) {
+      return null;
+    }
+    return this.acceptedColumns.get(columnId);
+  }
+
+  /**
+   * Receives the results after checking all of them. If one of the results is not accepted, none of
+   * the results is received.
+   * @param results the results
+   * @throws CouldNotReceiveResultException if the results could not be received
+   * @throws ColumnNameMismatchException if the column names of a result do not match the accepted column names
+   */
+  @Override
+  public void receiveResults(Collection<? extends Result> results)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    ResultType[] types = new ResultType[results.size()];
+    int i = 0;
+    for (Result result : results) {
+      types[i] = getResultType(result);
+      if (!this.acceptedResult(types[i], result)) {
+        throw new ColumnNameMismatchException("The column name of the result does not match with the column names in the input!");
+      }
+      i++;
+    }
+    i = 0;
+    for (Result result : results) {
+      this.receiveAcceptedResult(types[i++], result);
+    }
+  }
+
+  /**
+   * Receives functional dependencies, whose columns are given by their index in the accepted
+   * columns. The results are accepted, if all column ids are known.
+   * @param determinants the column ids of the determinant of each functional dependency
+   * @param dependants   the column id of the dependant of each functional dependency
+   * @throws CouldNotReceiveResultException if the results could not be received or the numbers of
+   *                                        determinants and dependants differ
+   * @throws ColumnNameMismatchException if a column id is unknown
+   */
+  @Override
+  public void receiveFunctionalDependencies(int[][] determinants, int[] dependants)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    BatchResultReceiverAdapter.checkFunctionalDependencies(determinants, dependants);
+    FunctionalDependency[] results = new FunctionalDependency[dependants.length];
+    for (int i = 0; i < dependants.length; i++) {
+      results[i] = new FunctionalDependency(new ColumnCombination(
+        BatchResultReceiverAdapter.resolveColumns(this.acceptedColumns, determinants[i])),
+        BatchResultReceiverAdapter.resolveColumn(this.acceptedColumns, dependants[i]));
+    }
+    for (FunctionalDependency result : results) {
+      this.receiveAcceptedResult(ResultType.FD, result);
+    }
+  }
+
+  /**
+   * Receives unique column combinations, whose columns are given by their index in the accepted
+   * columns. The results are accepted, if all column ids are known.
+   * @param columnCombinations the column ids of each unique column combination
+   * @throws CouldNotReceiveResultException if the results could not be received
+   * @throws ColumnNameMismatchException if a column id is unknown
+   */
+  @Override
+  public void receiveUniqueColumnCombinations(int[][] columnCombinations)
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
+    UniqueColumnCombination[] results = new UniqueColumnCombination[columnCombinations.length];
+    for (int i = 0; i < columnCombinations.length; i++) {
+      results[i] = new UniqueColumnCombination(
+        BatchResultReceiverAdapter.resolveColumns(this.acceptedColumns, columnCombinations[i]));
+    }
+    for (UniqueColumnCombination result : results) {
+      this.receiveAcceptedResult(ResultType.UCC, result);
+    }
+  }
+
+  /**
+   * Receives a result, whose columns were already checked.
+   * @param type   the type of the result
+   * @param result the result
+   * @throws CouldNotReceiveResultException if the result could not be received
+   */
+  protected abstract void receiveAcceptedResult(ResultType type, Result result)
+    throws CouldNotReceiveResultException;
+
+  /**
+   * @param result the result
+   * @return the type of the result
+   */
+  protected static ResultType getResultType(Result result) {
+    if (result instanceof FunctionalDependency) {
+      return ResultType.FD;
+    } else if (result instanceof UniqueColumnCombination) {
+      return ResultType.UCC;
+    } else if (result instanceof InclusionDependency) {
+      return ResultType.IND;
+    } else if (result instanceof OrderDependency) {
+      return ResultType.OD;
+    } else if (result instanceof MultivaluedDependency) {
+      return ResultType.MVD;
+    } else if (result instanceof ConditionalUniqueColumnCombination) {
+      return ResultType.CUCC;
+    } else if (result instanceof BasicStatistic) {
+      return ResultType.STAT;
+    }
+    throw new IllegalArgumentException("Unknown result type " + result.getClass().getName());
+  }
+
+  /**
+   * Check if the table/column names of the given result of the given type are contained in the
+   * accepted column names.
+   * @param type   the type of the result
+   * @param result the result
+   * @return true, if the names are accepted, false otherwise
+   */
+  protected Boolean acceptedResult(ResultType type, Result result) {
+    switch (type) {
+      case FD:
+        return this.acceptedResult((FunctionalDependency) result);
+      case UCC:
+        return this.acceptedResult((UniqueColumnCombination) result);
+      case IND:
+        return this.acceptedResult((InclusionDependency) result);
+      case OD:
+        return this.acceptedResult((OrderDependency) result);
+      case MVD:
+        return this.acceptedResult((MultivaluedDependency) result);
+      case CUCC:
+        return this.acceptedResult((ConditionalUniqueColumnCombination) result);
+      default:
+        return this.acceptedResult((BasicStatistic) result);
+    }
+  }
+
   /**
    * Check if the table/column names of the given result are contained in the accepted column names.
    * @param result the result
@@ -221,7 +385,7 @@ public abstract class ResultReceiver implements CloseableOmniscientResultReceive
    * @param ci the column identifier
    * @return true, if the name is accepted, false otherwise
    */
-  private Boolean columnAccepted(ColumnIdentifier ci) {
-    return this.acceptedColumns.contains(ci);
+  private boolean columnAccepted(ColumnIdentifier ci) {
+    return this.acceptedColumnSet.contains(ci);
   }
 }
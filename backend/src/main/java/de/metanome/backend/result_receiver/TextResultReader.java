@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.results.Result;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads result files written as text by the {@link ResultPrinter} line by line. The table and
+ * column mappings in front of the results are read, when the mapping sections are reached.
+ *
+ * @param <T> the type of the results in the file
+ */
+public class TextResultReader<T extends Result> implements ResultCursor<T> {
+
+  protected BufferedReader reader;
+  protected String typeName;
+  protected Map<String, String> tableMapping = new HashMap<>();
+  protected Map<String, String> columnMapping = new HashMap<>();
+  protected boolean isTableMapping = false;
+  protected boolean isColumnMapping = false;
+  protected T nextResult;
+
+  /**
+   * @param fileName the name of the result file
+   * @param typeName the name of the result type
+   * @throws IOException if the file could not be opened
+   */
+  public TextResultReader(String fileName, String typeName) throws IOException {
+    this.reader = new BufferedReader(new FileReader(fileName));
+    this.typeName = typeName;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (this.nextResult == null) {
+      this.nextResult = this.readNextResult();
+    }
+    return this.nextResult != null;
+  }
+
+  @Override
+  public T next() throws IOException {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T result = this.nextResult;
+    this.nextResult = null;
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.reader.close();
+  }
+
+  @SuppressWarnings("unchecked")
+  protected T readNextResult() throws IOException {
+    String line;
+    while ((line = this.reader.readLine()) != null) {
+      if (line.startsWith(ResultPrinter.TABLE_MARKER)) {
+        this.isTableMapping = true;
+        this.isColumnMapping = false;
+      } else if (line.startsWith(ResultPrinter.COLUMN_MARKER)) {
+        this.isTableMapping = false;
+        this.isColumnMapping = true;
+      } else if (line.startsWith(ResultPrinter.RESULT_MARKER)) {
+        this.isTableMapping = false;
+        this.isColumnMapping = false;
+      } else if (this.isTableMapping) {
+        String[] parts = line.split(ResultReceiver.MAPPING_SEPARATOR);
+        this.tableMapping.put(parts[1], parts[0]);
+      } else if (this.isColumnMapping) {
+        String[] parts = line.split(ResultReceiver.MAPPING_SEPARATOR);
+        this.columnMapping.put(parts[1], parts[0]);
+      } else {
+        return (T) ResultReader.convertStringToResult(line, this.typeName, this.tableMapping,
+          this.columnMapping);
+      }
+    }
+    return null;
+  }
+
+}
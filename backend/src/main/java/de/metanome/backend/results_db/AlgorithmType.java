@@ -27,6 +27,7 @@ public enum AlgorithmType implements Serializable {
   MVD("Multivalued Dependency Algorithm", ResultType.MVD),
   BASIC_STAT("Basic Statistic Algorithm", ResultType.STAT),
   TEMP_FILE("Temporary File Algorithm", null),
+  METRICS("Metrics Algorithm", null),
   RELATIONAL_INPUT("Relational Input Algorithm", null),
   FILE_INPUT("File Input Algorithm", null),
   TABLE_INPUT("Table Input Algorithm", null),
@@ -15,12 +15,14 @@
  */
 package de.metanome.backend.results_db;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
+import javax.xml.bind.annotation.XmlTransient;
 import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.*;
@@ -46,6 +48,8 @@ public class Execution implements Serializable, Comparable<Execution> {
   protected Boolean countResult;
   protected List<Input> inputs = new ArrayList<>();
   protected Set<Result> results = new HashSet<>();
+  protected List<ExecutionSample> samples = new ArrayList<>();
+  protected List<ExecutionMetric> metrics = new ArrayList<>();
   protected String hardwareDescription;
   protected String description;
   protected ExecutionSetting executionSetting;
@@ -194,6 +198,59 @@ public class Execution implements Serializable, Comparable<Execution> {
     return this;
   }
 
+  /**
+   * The samples are loaded lazily, use {@link de.metanome.backend.resources.ExecutionResource#getSamples(long)}
+   * to retrieve them.
+   *
+   * @return the resource usage samples of the execution ordered by time
+   */
+  @OneToMany(
+    fetch = FetchType.LAZY,
+    mappedBy = "execution",
+    cascade = CascadeType.ALL
+  )
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  @OrderBy("elapsedTime")
+  @XmlTransient
+  @JsonIgnore
+  public List<ExecutionSample> getSamples() {
+    return samples;
+  }
+
+  @XmlTransient
+  @JsonIgnore
+  public Execution setSamples(List<ExecutionSample> samples) {
+    this.samples = samples;
+
+    return this;
+  }
+
+  /**
+   * The metrics are loaded lazily, use {@link de.metanome.backend.resources.ExecutionResource#getMetrics(long)}
+   * to retrieve them.
+   *
+   * @return the metrics the algorithm recorded during the execution
+   */
+  @OneToMany(
+    fetch = FetchType.LAZY,
+    mappedBy = "execution",
+    cascade = CascadeType.ALL
+  )
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  @XmlTransient
+  @JsonIgnore
+  public List<ExecutionMetric> getMetrics() {
+    return metrics;
+  }
+
+  @XmlTransient
+  @JsonIgnore
+  public Execution setMetrics(List<ExecutionMetric> metrics) {
+    this.metrics = metrics;
+
+    return this;
+  }
+
   public String getHardwareDescription() {
     return hardwareDescription;
   }
@@ -279,6 +336,34 @@ public class Execution implements Serializable, Comparable<Execution> {
     return this;
   }
 
+  /**
+   * Adds an {@link de.metanome.backend.results_db.ExecutionSample} to the samples and creates a
+   * bidirectional association.
+   *
+   * @param sample the sample to add
+   * @return the modified execution
+   */
+  public Execution addSample(ExecutionSample sample) {
+    sample.setExecution(this);
+    samples.add(sample);
+
+    return this;
+  }
+
+  /**
+   * Adds an {@link de.metanome.backend.results_db.ExecutionMetric} to the metrics and creates a
+   * bidirectional association.
+   *
+   * @param metric the metric to add
+   * @return the modified execution
+   */
+  public Execution addMetric(ExecutionMetric metric) {
+    metric.setExecution(this);
+    metrics.add(metric);
+
+    return this;
+  }
+
   /**
    * Adds a {@link de.metanome.backend.results_db.Result} to the list of {@link
    * de.metanome.backend.results_db.Result}s and creates a bidirectional association.
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.results_db;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+import javax.xml.bind.annotation.XmlTransient;
+import java.io.Serializable;
+
+/**
+ * Represents a metric, which an algorithm recorded during an execution, in the database. The
+ * meaning of the values depends on the type of the metric:
+ * <ul>
+ * <li>phase: the number of times the phase ran, the summed and the longest duration in ms</li>
+ * <li>counter: the number of increments, the final and the maximal value of the counter</li>
+ * <li>gauge: the number of updates, the last and the maximal value of the gauge</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "execution_metric")
+public class ExecutionMetric implements Serializable {
+
+  private static final long serialVersionUID = 3318470913587203745L;
+
+  public enum Type {
+    PHASE, COUNTER, GAUGE
+  }
+
+  protected long id;
+  protected Execution execution;
+  protected Type type;
+  protected String name;
+  protected long occurrences;
+  protected double total;
+  protected double peak;
+  protected long firstOccurrence;
+
+  /**
+   * Exists for hibernate serialization
+   */
+  protected ExecutionMetric() {
+
+  }
+
+  /**
+   * @param type the type of the metric
+   * @param name the name of the metric
+   */
+  public ExecutionMetric(Type type, String name) {
+    this.type = type;
+    this.name = name;
+  }
+
+  @Id
+  @GeneratedValue
+  public long getId() {
+    return id;
+  }
+
+  public ExecutionMetric setId(long id) {
+    this.id = id;
+    return this;
+  }
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "execution")
+  @XmlTransient
+  @JsonIgnore
+  public Execution getExecution() {
+    return execution;
+  }
+
+  @XmlTransient
+  @JsonIgnore
+  public ExecutionMetric setExecution(Execution execution) {
+    this.execution = execution;
+    return this;
+  }
+
+  @Enumerated(EnumType.STRING)
+  public Type getType() {
+    return type;
+  }
+
+  public ExecutionMetric setType(Type type) {
+    this.type = type;
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ExecutionMetric setName(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * @return the number of phase runs, counter increments or gauge updates
+   */
+  public long getOccurrences() {
+    return occurrences;
+  }
+
+  public ExecutionMetric setOccurrences(long occurrences) {
+    this.occurrences = occurrences;
+    return this;
+  }
+
+  /**
+   * @return the summed duration of a phase in ms, the value of a counter or the last value of a
+   * gauge
+   */
+  public double getTotal() {
+    return total;
+  }
+
+  public ExecutionMetric setTotal(double total) {
+    this.total = total;
+    return this;
+  }
+
+  /**
+   * @return the longest duration of a phase in ms, the maximal value of a counter or the maximal
+   * value of a gauge
+   */
+  public double getPeak() {
+    return peak;
+  }
+
+  public ExecutionMetric setPeak(double peak) {
+    this.peak = peak;
+    return this;
+  }
+
+  /**
+   * @return the milliseconds since the start of the execution, when the metric was recorded first
+   */
+  public long getFirstOccurrence() {
+    return firstOccurrence;
+  }
+
+  public ExecutionMetric setFirstOccurrence(long firstOccurrence) {
+    this.firstOccurrence = firstOccurrence;
+    return this;
+  }
+
+}
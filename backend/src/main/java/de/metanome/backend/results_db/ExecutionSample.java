@@ -0,0 +1,195 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.results_db;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+import javax.xml.bind.annotation.XmlTransient;
+import java.io.Serializable;
+
+/**
+ * Represents a sample of the resource usage of an execution in the database. The CPU time, the
+ * garbage collections and the I/O bytes are measured since the start of the execution, the heap
+ * sizes are the sizes at the time of the sample. Values, which could not be measured, are -1.
+ */
+@Entity
+@Table(name = "execution_sample")
+public class ExecutionSample implements Serializable {
+
+  private static final long serialVersionUID = -2719046357726390874L;
+
+  protected long id;
+  protected Execution execution;
+  protected long elapsedTime;
+  protected long cpuTime;
+  protected long heapUsed;
+  protected long heapCommitted;
+  protected long heapMax;
+  protected long gcCount;
+  protected long gcTime;
+  protected long bytesRead;
+  protected long bytesWritten;
+
+  /**
+   * Exists for hibernate serialization
+   */
+  protected ExecutionSample() {
+
+  }
+
+  /**
+   * @param elapsedTime the milliseconds since the start of the execution
+   */
+  public ExecutionSample(long elapsedTime) {
+    this.elapsedTime = elapsedTime;
+  }
+
+  @Id
+  @GeneratedValue
+  public long getId() {
+    return id;
+  }
+
+  public ExecutionSample setId(long id) {
+    this.id = id;
+    return this;
+  }
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "execution")
+  @XmlTransient
+  @JsonIgnore
+  public Execution getExecution() {
+    return execution;
+  }
+
+  @XmlTransient
+  @JsonIgnore
+  public ExecutionSample setExecution(Execution execution) {
+    this.execution = execution;
+    return this;
+  }
+
+  /**
+   * @return the milliseconds since the start of the execution
+   */
+  public long getElapsedTime() {
+    return elapsedTime;
+  }
+
+  public ExecutionSample setElapsedTime(long elapsedTime) {
+    this.elapsedTime = elapsedTime;
+    return this;
+  }
+
+  /**
+   * @return the CPU time of the execution process in milliseconds
+   */
+  public long getCpuTime() {
+    return cpuTime;
+  }
+
+  public ExecutionSample setCpuTime(long cpuTime) {
+    this.cpuTime = cpuTime;
+    return this;
+  }
+
+  /**
+   * @return the used heap in bytes
+   */
+  public long getHeapUsed() {
+    return heapUsed;
+  }
+
+  public ExecutionSample setHeapUsed(long heapUsed) {
+    this.heapUsed = heapUsed;
+    return this;
+  }
+
+  /**
+   * @return the committed heap in bytes
+   */
+  public long getHeapCommitted() {
+    return heapCommitted;
+  }
+
+  public ExecutionSample setHeapCommitted(long heapCommitted) {
+    this.heapCommitted = heapCommitted;
+    return this;
+  }
+
+  /**
+   * @return the maximal heap size in bytes
+   */
+  public long getHeapMax() {
+    return heapMax;
+  }
+
+  public ExecutionSample setHeapMax(long heapMax) {
+    this.heapMax = heapMax;
+    return this;
+  }
+
+  /**
+   * @return the number of garbage collections
+   */
+  public long getGcCount() {
+    return gcCount;
+  }
+
+  public ExecutionSample setGcCount(long gcCount) {
+    this.gcCount = gcCount;
+    return this;
+  }
+
+  /**
+   * @return the accumulated time of the garbage collections in milliseconds
+   */
+  public long getGcTime() {
+    return gcTime;
+  }
+
+  public ExecutionSample setGcTime(long gcTime) {
+    this.gcTime = gcTime;
+    return this;
+  }
+
+  /**
+   * @return the number of bytes read by the execution process
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  public ExecutionSample setBytesRead(long bytesRead) {
+    this.bytesRead = bytesRead;
+    return this;
+  }
+
+  /**
+   * @return the number of bytes written by the execution process
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  public ExecutionSample setBytesWritten(long bytesWritten) {
+    this.bytesWritten = bytesWritten;
+    return this;
+  }
+
+}
@@ -47,6 +47,10 @@ public class TableInput extends Input implements Serializable {
   protected String tableName;
   protected DatabaseConnection databaseConnection;
   protected String comment;
+  // Integral column, whose value ranges partition the table, or null to use the primary key
+  protected String partitionColumn;
+  // Number of partitions, that are read concurrently, or null to read the table at once
+  protected Integer numberOfPartitions;
 
   // Exists for Serialization
   public TableInput() {
@@ -92,6 +96,24 @@ public class TableInput extends Input implements Serializable {
     return this;
   }
 
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  public TableInput setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+    return this;
+  }
+
+  public Integer getNumberOfPartitions() {
+    return numberOfPartitions;
+  }
+
+  public TableInput setNumberOfPartitions(Integer numberOfPartitions) {
+    this.numberOfPartitions = numberOfPartitions;
+    return this;
+  }
+
   @Override
   public TableInput setId(long id) {
     super.setId(id);
@@ -19,6 +19,8 @@ import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.configuration.ConfigurationValue;
 import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
 import de.metanome.backend.configuration.ConfigurationValueString;
 import de.metanome.backend.result_receiver.CloseableOmniscientResultReceiver;
 import de.metanome.backend.result_receiver.ResultCounter;
@@ -30,10 +32,14 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class AlgorithmExecutionTest {
 
@@ -137,4 +143,27 @@ public class AlgorithmExecutionTest {
     // Check
     assertEquals(expectedColumnNames, actualColumnNames);
   }
+
+  /**
+   * Test method for {@link AlgorithmExecution#readColumnNames(RelationalInputGenerator)}
+   * <p/>
+   * The input, whose column names are read, should be closed.
+   */
+  @Test
+  public void testReadColumnNamesClosesInput() throws Exception {
+    // Setup
+    RelationalInput input = mock(RelationalInput.class);
+    when(input.relationName()).thenReturn("table");
+    when(input.columnNames()).thenReturn(Arrays.asList("a", "b"));
+    RelationalInputGenerator generator = mock(RelationalInputGenerator.class);
+    when(generator.generateNewCopy()).thenReturn(input);
+
+    // Execute functionality
+    List<ColumnIdentifier> actualColumnNames = AlgorithmExecution.readColumnNames(generator);
+
+    // Check
+    assertEquals(Arrays.asList(new ColumnIdentifier("table", "a"), new ColumnIdentifier("table", "b")),
+      actualColumnNames);
+    verify(input).close();
+  }
 }
@@ -440,4 +440,30 @@ public class AlgorithmExecutorTest {
     verify(resultReceiver).close();
   }
 
+  /**
+   * Test method for {@link de.metanome.backend.algorithm_execution.AlgorithmExecutor#executeAlgorithm(de.metanome.backend.results_db.Algorithm, java.util.List, java.util.List, String, ExecutionSetting)}
+   * and {@link de.metanome.backend.algorithm_execution.AlgorithmExecutor#close()} <p/> The result
+   * receiver should be closed once by the execution, so that writing the results is sampled, and
+   * not again by closing the executor.
+   */
+  @Test
+  public void testExecuteClosesReceiver() throws Exception {
+    HibernateUtil.clear();
+
+    // Setup
+    List<ConfigurationValue> configs = new ArrayList<>();
+    configs.add(new ConfigurationValueString(de.metanome.algorithms.testing.example_od_algorithm.ExampleAlgorithm.FILE_NAME, "path/to/file"));
+    Algorithm algorithm = new Algorithm("example_od_algorithm.jar");
+    algorithm = resource.store(algorithm);
+
+    // Execute functionality
+    executor.executeAlgorithm(algorithm, configs, null, "identifier", genericExecutionSetting);
+    executor.close();
+
+    // Check result
+    verify(resultReceiver, times(1)).close();
+
+    HibernateUtil.clear();
+  }
+
 }
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.backend.algorithm_execution.ExecutionSchedulerTest.BlockingStage;
+import de.metanome.backend.algorithm_execution.ExecutionSchedulerTest.CountingStage;
+import de.metanome.backend.results_db.ExecutionSetting;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.BatchExecution}
+ */
+public class BatchExecutionTest {
+
+  /**
+   * Test method for {@link BatchExecution#start(ExecutionScheduler)}
+   * <p/>
+   * No more runs than the parallelism of the batch should be executed concurrently, even if the
+   * scheduler has more resources. All runs should be reported.
+   */
+  @Test
+  public void testStartParallelism() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    CountingStage postProcessingStage = new CountingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, postProcessingStage, 4, Long.MAX_VALUE);
+    BatchExecution batch = new BatchExecution("batch", createRuns("batch", 6), 2);
+
+    // Execute functionality
+    batch.start(scheduler);
+    executionStage.awaitRunning(2);
+    executionStage.release();
+    batch.awaitCompletion();
+
+    // Check result
+    assertEquals(2, executionStage.maxRunning.get());
+    assertEquals(6, postProcessingStage.count.get());
+    assertEquals(6, batch.getNumberOfFinishedRuns());
+    assertTrue(batch.getEndTime() >= batch.getBeginTime());
+    for (BatchRun run : batch.getRuns()) {
+      assertEquals(ExecutionJob.Status.FINISHED, run.getStatus());
+      assertTrue(run.getTotalTime() >= run.getExecutionTime() + run.getQueueTime());
+    }
+    String[] lines = batch.getCsvReport().split("\n");
+    assertEquals(7, lines.length);
+    assertTrue(lines[1].startsWith("batch_0,1,input0,0,FINISHED,"));
+    scheduler.shutdown();
+  }
+
+  /**
+   * Test method for {@link BatchExecution#stop(ExecutionScheduler)}
+   * <p/>
+   * The running run should be stopped and the runs, which were not submitted yet, should be
+   * skipped.
+   */
+  @Test
+  public void testStop() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    CountingStage postProcessingStage = new CountingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, postProcessingStage, 4, Long.MAX_VALUE);
+    BatchExecution batch = new BatchExecution("stopped", createRuns("stopped", 3), 1);
+
+    // Execute functionality
+    batch.start(scheduler);
+    executionStage.awaitRunning(1);
+    batch.stop(scheduler);
+    executionStage.release();
+    batch.awaitCompletion();
+
+    // Check result
+    assertEquals(1, executionStage.started.get());
+    assertEquals(0, postProcessingStage.count.get());
+    assertEquals(3, batch.getNumberOfStoppedRuns());
+    assertEquals("The batch was stopped.", batch.getRuns().get(2).getMessage());
+    scheduler.shutdown();
+  }
+
+  protected List<BatchRun> createRuns(String batchIdentifier, int numberOfRuns) {
+    List<BatchRun> runs = new ArrayList<>();
+    for (int i = 0; i < numberOfRuns; i++) {
+      ExecutionSetting setting = new ExecutionSetting(new ArrayList<String>(),
+        new ArrayList<String>(), batchIdentifier + "_" + i);
+      runs.add(new BatchRun(1, "input" + i, 0, "", setting));
+    }
+    return runs;
+  }
+
+}
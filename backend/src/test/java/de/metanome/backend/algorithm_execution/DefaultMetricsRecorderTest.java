@@ -0,0 +1,170 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.algorithm_integration.algorithm_execution.DisabledMetricsRecorder;
+import de.metanome.algorithm_integration.algorithm_execution.MetricsRecorder;
+import de.metanome.backend.results_db.ExecutionMetric;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.DefaultMetricsRecorder}
+ */
+public class DefaultMetricsRecorderTest {
+
+  /**
+   * Test method for {@link DefaultMetricsRecorder#getMetrics()}
+   * <p/>
+   * Phases, counters and gauges should be aggregated by name and returned in the order of their
+   * first occurrence.
+   */
+  @Test
+  public void testGetMetrics() throws Exception {
+    // Setup
+    DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+
+    // Execute functionality
+    try (MetricsRecorder.Phase phase = recorder.startPhase("pli-build")) {
+      Thread.sleep(5);
+    }
+    Thread.sleep(2);
+    recorder.increment("#intersections", 3);
+    recorder.increment("#intersections", 4);
+    Thread.sleep(2);
+    recorder.gauge("candidates", 10);
+    recorder.gauge("candidates", 30);
+    recorder.gauge("candidates", 20);
+    try (MetricsRecorder.Phase phase = recorder.startPhase("pli-build")) {
+      recorder.increment("#intersections", 1);
+    }
+    List<ExecutionMetric> metrics = recorder.getMetrics();
+
+    // Check result
+    assertEquals(3, metrics.size());
+    ExecutionMetric phase = metrics.get(0);
+    assertEquals(ExecutionMetric.Type.PHASE, phase.getType());
+    assertEquals("pli-build", phase.getName());
+    assertEquals(2, phase.getOccurrences());
+    assertTrue(phase.getTotal() >= 5);
+    assertTrue(phase.getPeak() <= phase.getTotal());
+    ExecutionMetric counter = metrics.get(1);
+    assertEquals("#intersections", counter.getName());
+    assertEquals(3, counter.getOccurrences());
+    assertEquals(8, counter.getTotal(), 0.0);
+    ExecutionMetric gauge = metrics.get(2);
+    assertEquals(ExecutionMetric.Type.GAUGE, gauge.getType());
+    assertEquals(20, gauge.getTotal(), 0.0);
+    assertEquals(30, gauge.getPeak(), 0.0);
+  }
+
+  /**
+   * Test method for {@link DefaultMetricsRecorder#increment(String, long)}
+   * <p/>
+   * The peak of a counter should be its maximal value, also if it is decremented afterwards.
+   */
+  @Test
+  public void testIncrementPeak() {
+    // Setup
+    DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+
+    // Execute functionality
+    recorder.increment("#open", 5);
+    recorder.increment("#open", -3);
+    recorder.increment("#open", 1);
+    ExecutionMetric counter = recorder.getMetrics().get(0);
+
+    // Check result
+    assertEquals(3, counter.getOccurrences());
+    assertEquals(3, counter.getTotal(), 0.0);
+    assertEquals(5, counter.getPeak(), 0.0);
+  }
+
+  /**
+   * Test method for {@link DefaultMetricsRecorder#increment(String, long)} and {@link
+   * DefaultMetricsRecorder#startPhase(String)}
+   * <p/>
+   * Metrics, that are recorded concurrently, should not lose updates.
+   */
+  @Test
+  public void testConcurrentRecording() throws Exception {
+    // Setup
+    final DefaultMetricsRecorder recorder = new DefaultMetricsRecorder();
+    final int numberOfThreads = 4;
+    final int numberOfIncrements = 10000;
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try (MetricsRecorder.Phase phase = recorder.startPhase("work")) {
+            for (int j = 0; j < numberOfIncrements; j++) {
+              recorder.increment("#steps", 1);
+            }
+          }
+        }
+      }));
+    }
+
+    // Execute functionality
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    List<ExecutionMetric> metrics = recorder.getMetrics();
+
+    // Check result
+    assertEquals(2, metrics.size());
+    for (ExecutionMetric metric : metrics) {
+      if (metric.getType() == ExecutionMetric.Type.PHASE) {
+        assertEquals(numberOfThreads, metric.getOccurrences());
+      } else {
+        assertEquals(numberOfThreads * numberOfIncrements, metric.getOccurrences());
+        assertEquals(numberOfThreads * numberOfIncrements, metric.getTotal(), 0.0);
+        assertEquals(numberOfThreads * numberOfIncrements, metric.getPeak(), 0.0);
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link DefaultMetricsRecorder#create()}
+   * <p/>
+   * If the metrics are disabled, the disabled recorder should be returned.
+   */
+  @Test
+  public void testCreateDisabled() {
+    // Setup
+    System.setProperty(DefaultMetricsRecorder.ENABLED_PROPERTY, "false");
+
+    // Execute functionality
+    MetricsRecorder disabledRecorder = DefaultMetricsRecorder.create();
+    System.clearProperty(DefaultMetricsRecorder.ENABLED_PROPERTY);
+    MetricsRecorder enabledRecorder = DefaultMetricsRecorder.create();
+
+    // Check result
+    assertSame(DisabledMetricsRecorder.INSTANCE, disabledRecorder);
+    assertTrue(enabledRecorder instanceof DefaultMetricsRecorder);
+  }
+
+}
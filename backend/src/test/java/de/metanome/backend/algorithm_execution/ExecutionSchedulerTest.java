@@ -0,0 +1,255 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.ExecutionScheduler}
+ */
+public class ExecutionSchedulerTest {
+
+  /**
+   * Test method for {@link ExecutionScheduler#submit(ExecutionJob)}
+   * <p/>
+   * No more jobs than the maximal number of executions should run concurrently and all jobs should
+   * be post processed.
+   */
+  @Test
+  public void testSubmitConcurrencyLimit() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    CountingStage postProcessingStage = new CountingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, postProcessingStage, 2, Long.MAX_VALUE);
+    List<ExecutionJob> jobs = new ArrayList<>();
+
+    // Execute functionality
+    for (int i = 0; i < 6; i++) {
+      jobs.add(scheduler.submit(new ExecutionJob(1, "job" + i, "", null)));
+    }
+    executionStage.awaitRunning(2);
+    // Check result
+    assertEquals(ExecutionJob.Status.QUEUED, jobs.get(2).getStatus());
+
+    // Execute functionality
+    executionStage.release();
+    for (ExecutionJob job : jobs) {
+      job.awaitCompletion();
+    }
+
+    // Check result
+    assertEquals(2, executionStage.maxRunning.get());
+    assertEquals(6, postProcessingStage.count.get());
+    for (ExecutionJob job : jobs) {
+      assertEquals(ExecutionJob.Status.FINISHED, job.getStatus());
+    }
+    scheduler.shutdown();
+  }
+
+  /**
+   * Test method for {@link ExecutionScheduler#submit(ExecutionJob)}
+   * <p/>
+   * The summed memory of the running jobs should not exceed the budget, but a job exceeding the
+   * budget on its own should run alone.
+   */
+  @Test
+  public void testSubmitMemoryBudget() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, new CountingStage(), 4, 1000);
+
+    // Execute functionality
+    ExecutionJob first = scheduler.submit(new ExecutionJob(1, "first", "600", null));
+    ExecutionJob second = scheduler.submit(new ExecutionJob(1, "second", "600", null));
+    ExecutionJob large = scheduler.submit(new ExecutionJob(1, "large", "5000", null));
+    executionStage.awaitRunning(1);
+
+    // Check result
+    assertEquals(ExecutionJob.Status.RUNNING, first.getStatus());
+    assertEquals(ExecutionJob.Status.QUEUED, second.getStatus());
+    assertEquals(ExecutionJob.Status.QUEUED, large.getStatus());
+
+    // Execute functionality
+    executionStage.release();
+    large.awaitCompletion();
+
+    // Check result
+    assertEquals(1, executionStage.maxRunning.get());
+    assertEquals(ExecutionJob.Status.FINISHED, second.getStatus());
+    assertEquals(ExecutionJob.Status.FINISHED, large.getStatus());
+    scheduler.shutdown();
+  }
+
+  /**
+   * Test method for {@link ExecutionScheduler#stop(String)}
+   * <p/>
+   * A queued job should be removed from the queue and a running job should be reported as
+   * stopped.
+   */
+  @Test
+  public void testStop() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, new CountingStage(), 1, Long.MAX_VALUE);
+    ExecutionJob running = scheduler.submit(new ExecutionJob(1, "running", "", null));
+    ExecutionJob queued = scheduler.submit(new ExecutionJob(1, "queued", "", null));
+    executionStage.awaitRunning(1);
+
+    // Execute functionality
+    assertTrue(scheduler.stop("queued"));
+    assertTrue(scheduler.stop("running"));
+    executionStage.release();
+    running.awaitCompletion();
+
+    // Check result
+    assertEquals(ExecutionJob.Status.STOPPED, queued.getStatus());
+    assertEquals(ExecutionJob.Status.STOPPED, running.getStatus());
+    assertEquals(1, executionStage.started.get());
+    assertFalse(scheduler.stop("running"));
+    assertFalse(scheduler.stop("unknown"));
+    scheduler.shutdown();
+  }
+
+  /**
+   * Test method for {@link ExecutionScheduler#submit(ExecutionJob)}
+   * <p/>
+   * Failures of the stages should be reported with their message.
+   */
+  @Test
+  public void testSubmitFailure() throws Exception {
+    // Setup
+    ExecutionStage failingStage = new ExecutionStage() {
+      @Override
+      public void process(ExecutionJob job) throws Exception {
+        throw new Exception("failed");
+      }
+    };
+    ExecutionScheduler failingExecution =
+      new ExecutionScheduler(failingStage, new CountingStage(), 1, Long.MAX_VALUE);
+    ExecutionScheduler failingPostProcessing =
+      new ExecutionScheduler(new CountingStage(), failingStage, 1, Long.MAX_VALUE);
+
+    // Execute functionality
+    ExecutionJob executionJob = failingExecution.submit(new ExecutionJob(1, "job", "", null));
+    ExecutionJob postProcessingJob =
+      failingPostProcessing.submit(new ExecutionJob(1, "job", "", null));
+    executionJob.awaitCompletion();
+    postProcessingJob.awaitCompletion();
+
+    // Check result
+    assertEquals(ExecutionJob.Status.FAILED, executionJob.getStatus());
+    assertEquals("failed", executionJob.getMessage());
+    assertEquals(ExecutionJob.Status.FAILED, postProcessingJob.getStatus());
+    assertEquals("Could not execute result post processing: failed",
+      postProcessingJob.getMessage());
+    assertSame(executionJob, failingExecution.getJob("job"));
+    failingExecution.shutdown();
+    failingPostProcessing.shutdown();
+  }
+
+  /**
+   * Test method for {@link ExecutionJob#awaitChange(int, long)}
+   * <p/>
+   * Waiting for a change should return as soon as the version of the job changed or the timeout
+   * elapsed.
+   */
+  @Test
+  public void testAwaitChange() throws Exception {
+    // Setup
+    BlockingStage executionStage = new BlockingStage();
+    ExecutionScheduler scheduler =
+      new ExecutionScheduler(executionStage, new CountingStage(), 1, Long.MAX_VALUE);
+    ExecutionJob job = scheduler.submit(new ExecutionJob(1, "job", "", null));
+    executionStage.awaitRunning(1);
+    int version = job.getVersion();
+
+    // Execute functionality
+    long start = System.currentTimeMillis();
+    job.awaitChange(version, 100);
+    long waited = System.currentTimeMillis() - start;
+    executionStage.release();
+    job.awaitChange(version, 10000);
+
+    // Check result
+    assertTrue(waited >= 100);
+    assertTrue(job.getVersion() > version);
+    scheduler.shutdown();
+  }
+
+  /**
+   * Blocks all jobs until it is released and records the maximal number of concurrently running
+   * jobs.
+   */
+  protected static class BlockingStage implements ExecutionStage {
+
+    protected final CountDownLatch released = new CountDownLatch(1);
+    protected final AtomicInteger running = new AtomicInteger();
+    protected final AtomicInteger maxRunning = new AtomicInteger();
+    protected final AtomicInteger started = new AtomicInteger();
+
+    @Override
+    public void process(ExecutionJob job) throws Exception {
+      int current = running.incrementAndGet();
+      started.incrementAndGet();
+      synchronized (maxRunning) {
+        maxRunning.set(Math.max(maxRunning.get(), current));
+      }
+      try {
+        released.await();
+        // Give queued jobs the chance to overlap with this job, if the scheduler allows it
+        Thread.sleep(10);
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+
+    public void awaitRunning(int numberOfJobs) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (running.get() < numberOfJobs && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+    }
+
+    public void release() {
+      released.countDown();
+    }
+  }
+
+  protected static class CountingStage implements ExecutionStage {
+
+    protected final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public void process(ExecutionJob job) {
+      count.incrementAndGet();
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.ExecutionWorker}
+ */
+public class ExecutionWorkerTest {
+
+  /**
+   * Test method for {@link ExecutionWorker#serve(String)}
+   * <p/>
+   * The worker should answer every request with a single line and stop on shutdown.
+   */
+  @Test
+  public void testServe() throws Exception {
+    // Setup
+    String requests = "EXECUTE 1 first execution\nEXECUTE 2 fail\nUNKNOWN\nSHUTDOWN\nEXECUTE 3 ignored\n";
+    StringWriter answers = new StringWriter();
+    final List<String> executed = new ArrayList<>();
+    ExecutionWorker worker = new ExecutionWorker(new BufferedReader(new StringReader(requests)),
+      new PrintWriter(answers)) {
+      @Override
+      protected void execute(long algorithmId, String executionIdentifier) throws Exception {
+        executed.add(algorithmId + ":" + executionIdentifier);
+        if (executionIdentifier.equals("fail")) {
+          throw new Exception("outer", new IllegalStateException("root cause"));
+        }
+      }
+    };
+
+    // Execute functionality
+    worker.serve("token");
+
+    // Check result
+    String[] lines = answers.toString().split("\\r?\\n");
+    assertEquals(4, lines.length);
+    assertEquals("READY token", lines[0]);
+    assertEquals("DONE", lines[1]);
+    assertEquals("FAILED Error in algorithm execution. Caused by: "
+      + "java.lang.IllegalStateException: root cause", lines[2]);
+    assertEquals("FAILED Unknown request: UNKNOWN", lines[3]);
+    assertEquals(2, executed.size());
+    assertEquals("1:first execution", executed.get(0));
+  }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import de.metanome.backend.results_db.ExecutionSample;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.ResourceSampler}
+ */
+public class ResourceSamplerTest {
+
+  /**
+   * Test method for {@link ResourceSampler#start()} and {@link ResourceSampler#stop()}
+   * <p/>
+   * The sampler should take a sample at the start, periodic samples and a sample at the end.
+   */
+  @Test
+  public void testStartStop() throws Exception {
+    // Setup
+    ResourceSampler sampler = new ResourceSampler(5);
+
+    // Execute functionality
+    sampler.start();
+    long sum = 0;
+    long end = System.currentTimeMillis() + 100;
+    while (System.currentTimeMillis() < end) {
+      sum += new byte[1024].length;
+    }
+    List<ExecutionSample> samples = sampler.stop();
+
+    // Check result
+    assertTrue(sum > 0);
+    assertTrue(samples.size() > 2);
+    ExecutionSample first = samples.get(0);
+    ExecutionSample last = samples.get(samples.size() - 1);
+    assertTrue(first.getElapsedTime() <= last.getElapsedTime());
+    assertTrue(last.getElapsedTime() >= 100);
+    assertTrue(last.getHeapUsed() > 0);
+    assertTrue(last.getHeapCommitted() >= last.getHeapUsed());
+    assertTrue(last.getGcCount() >= 0);
+  }
+
+  /**
+   * Test method for {@link ResourceSampler#tick()}
+   * <p/>
+   * If the maximal number of samples is reached, every second sample should be dropped and only
+   * every second tick should be sampled afterwards.
+   */
+  @Test
+  public void testTickDownsampling() {
+    // Setup
+    ResourceSampler sampler = new ResourceSampler(0).start();
+
+    // Execute functionality
+    for (int i = 1; i < ResourceSampler.MAX_SAMPLES; i++) {
+      sampler.tick();
+    }
+
+    // Check result
+    assertEquals(ResourceSampler.MAX_SAMPLES / 2, sampler.samples.size());
+    assertEquals(2, sampler.stride);
+
+    // Execute functionality
+    sampler.tick();
+    sampler.tick();
+
+    // Check result
+    assertEquals(ResourceSampler.MAX_SAMPLES / 2 + 1, sampler.samples.size());
+    assertEquals(ResourceSampler.MAX_SAMPLES / 2 + 2, sampler.stop().size());
+  }
+
+}
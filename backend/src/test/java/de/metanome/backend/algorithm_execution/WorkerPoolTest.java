@@ -0,0 +1,142 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.algorithm_execution;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link de.metanome.backend.algorithm_execution.WorkerPool}
+ */
+public class WorkerPoolTest {
+
+  protected WorkerPool pool;
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test method for {@link WorkerPool#execute(ExecutionJob)}
+   * <p/>
+   * A worker should be reused for successful executions and replaced after the maximal number of
+   * executions.
+   */
+  @Test
+  public void testExecuteReusesWorker() throws Exception {
+    // Setup
+    pool = new WorkerPool(TestWorker.class.getName(), 1, 3);
+
+    // Execute functionality
+    assertEquals("", pool.execute(new ExecutionJob(1, "first", "", null)));
+    WorkerPool.Worker firstWorker = pool.idleWorkers.get("").peek();
+    assertEquals("", pool.execute(new ExecutionJob(1, "second", "", null)));
+    WorkerPool.Worker secondWorker = pool.idleWorkers.get("").peek();
+    assertEquals("", pool.execute(new ExecutionJob(1, "third", "", null)));
+    firstWorker.process.waitFor();
+    assertEquals("", pool.execute(new ExecutionJob(1, "fourth", "", null)));
+
+    // Check result
+    assertSame(firstWorker, secondWorker);
+    assertEquals(3, firstWorker.runs);
+    assertFalse(firstWorker.isAlive());
+  }
+
+  /**
+   * Test method for {@link WorkerPool#execute(ExecutionJob)}
+   * <p/>
+   * Failed executions and terminated workers should be reported and the worker should be
+   * replaced.
+   */
+  @Test
+  public void testExecuteFailure() throws Exception {
+    // Setup
+    pool = new WorkerPool(TestWorker.class.getName(), 1, 10);
+
+    // Execute functionality
+    String failure = pool.execute(new ExecutionJob(1, "fail", "", null));
+    String crash = pool.execute(new ExecutionJob(1, "crash", "", null));
+    String success = pool.execute(new ExecutionJob(1, "success", "", null));
+
+    // Check result
+    assertEquals("Error in algorithm execution. java.lang.IllegalStateException: failed", failure);
+    assertEquals("Error in algorithm execution. The execution worker terminated.", crash);
+    assertEquals("", success);
+  }
+
+  /**
+   * Test method for {@link WorkerPool#execute(ExecutionJob)}
+   * <p/>
+   * No worker should be started before the first job. The first job should start the idle workers.
+   */
+  @Test
+  public void testExecuteStartsWorkersLazily() throws Exception {
+    // Setup
+    pool = new WorkerPool(TestWorker.class.getName(), 2, 10);
+
+    // Execute functionality
+    int idleWorkersBeforeFirstJob = pool.getNumberOfIdleWorkers();
+    assertEquals("", pool.execute(new ExecutionJob(1, "first", "", null)));
+    long deadline = System.currentTimeMillis() + WorkerPool.START_TIMEOUT;
+    while (pool.getNumberOfIdleWorkers() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+
+    // Check result
+    assertEquals(0, idleWorkersBeforeFirstJob);
+    assertEquals(2, pool.getNumberOfIdleWorkers());
+  }
+
+  /**
+   * Fails or terminates on request instead of executing algorithms.
+   */
+  public static class TestWorker extends ExecutionWorker {
+
+    public TestWorker(BufferedReader reader, PrintWriter writer) {
+      super(reader, writer);
+    }
+
+    @Override
+    protected void execute(long algorithmId, String executionIdentifier) throws Exception {
+      if (executionIdentifier.equals("fail")) {
+        throw new IllegalStateException("failed");
+      }
+      if (executionIdentifier.equals("crash")) {
+        System.exit(3);
+      }
+    }
+
+    public static void main(String args[]) {
+      run(new ExecutionWorkerFactory() {
+        @Override
+        public ExecutionWorker create(BufferedReader reader, PrintWriter writer) {
+          return new TestWorker(reader, writer);
+        }
+      }, Integer.parseInt(args[0]), args[1]);
+    }
+  }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.columnar;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.backend.input.file.DefaultFileInputGenerator;
+import de.metanome.backend.input.file.FileFixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ColumnarInputGenerator}
+ */
+public class ColumnarInputGeneratorTest {
+
+  protected File inputFile;
+
+  @Before
+  public void setUp() throws Exception {
+    inputFile = new FileFixture("a,b,c\n1,2,3\n1,5,\n7,2,3\n").getTestData("columnar_test.csv");
+    new File(inputFile.getPath() + ColumnarInputGenerator.FILE_ENDING).delete();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    new File(inputFile.getPath() + ColumnarInputGenerator.FILE_ENDING).delete();
+  }
+
+  /**
+   * Test method for {@link ColumnarInputGenerator#generateNewCopy()}
+   * <p/>
+   * The copies should contain the same rows as the source input and the source should be read
+   * only once.
+   */
+  @Test
+  public void testGenerateNewCopy() throws Exception {
+    // Setup
+    DefaultFileInputGenerator source = spy(new DefaultFileInputGenerator(inputFile));
+    ColumnarInputGenerator generator = new ColumnarInputGenerator(source);
+    // Expected values
+    List<List<String>> expectedRows = readAll(new DefaultFileInputGenerator(inputFile).generateNewCopy());
+
+    // Execute functionality
+    RelationalInput firstCopy = generator.generateNewCopy();
+    RelationalInput secondCopy = generator.generateNewCopy();
+
+    // Check result
+    assertEquals(expectedRows, readAll(firstCopy));
+    assertEquals(expectedRows, readAll(secondCopy));
+    assertEquals(3, firstCopy.numberOfColumns());
+    assertEquals("columnar_test.csv", firstCopy.relationName());
+    assertNull(generator.getRelation().getValue(1, 2));
+    verify(source, times(1)).generateNewCopy();
+  }
+
+  /**
+   * Test method for {@link ColumnarInputGenerator#getRelation()}
+   * <p/>
+   * The snapshot should be persisted next to the input file and reused by new generators.
+   */
+  @Test
+  public void testCacheFileReused() throws Exception {
+    // Setup
+    ColumnarInputGenerator generator =
+      new ColumnarInputGenerator(new DefaultFileInputGenerator(inputFile));
+    List<List<String>> expectedRows = readAll(generator.generateNewCopy());
+
+    // Execute functionality
+    DefaultFileInputGenerator source = spy(new DefaultFileInputGenerator(inputFile));
+    ColumnarInputGenerator cachedGenerator = new ColumnarInputGenerator(source);
+    List<List<String>> actualRows = readAll(cachedGenerator.generateNewCopy());
+
+    // Check result
+    assertTrue(generator.getCacheFile().isFile());
+    assertEquals(expectedRows, actualRows);
+    verify(source, never()).generateNewCopy();
+    // the temporary file of the cache file is moved
+    for (String name : inputFile.getParentFile().list()) {
+      assertFalse(name.endsWith(".tmp"));
+    }
+  }
+
+  /**
+   * Test method for {@link ColumnarInputGenerator#getRelation()}
+   * <p/>
+   * A cache file should not be used, if the input file changed.
+   */
+  @Test
+  public void testCacheFileInvalidated() throws Exception {
+    // Setup
+    readAll(new ColumnarInputGenerator(new DefaultFileInputGenerator(inputFile)).generateNewCopy());
+    inputFile = new FileFixture("a,b,c\n1,2,3\n").getTestData("columnar_test.csv");
+
+    // Execute functionality
+    DefaultFileInputGenerator source = spy(new DefaultFileInputGenerator(inputFile));
+    ColumnarInputGenerator generator = new ColumnarInputGenerator(source);
+
+    // Check result
+    assertEquals(1, generator.getRelation().getNumberOfRows());
+    verify(source, times(1)).generateNewCopy();
+  }
+
+  protected List<List<String>> readAll(RelationalInput input) throws Exception {
+    List<List<String>> rows = new ArrayList<>();
+    while (input.hasNext()) {
+      rows.add(input.next());
+    }
+    return rows;
+  }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.columnar;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.backend.input.file.CsvFileNullValuesFixture;
+import de.metanome.backend.input.file.FileIterator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ColumnarRelation}
+ */
+public class ColumnarRelationTest {
+
+  protected CsvFileNullValuesFixture fixture;
+
+  @Before
+  public void setUp() throws Exception {
+    fixture = new CsvFileNullValuesFixture();
+  }
+
+  /**
+   * Test method for {@link ColumnarRelation#fromInput(RelationalInput)} and {@link
+   * ColumnarRelation#asRelationalInput()}
+   * <p/>
+   * The columnar relation should return the same rows as the encoded input.
+   */
+  @Test
+  public void testFromInput() throws Exception {
+    // Setup
+    List<List<String>> expectedRows = readAll(fixture.getTestData());
+
+    // Execute functionality
+    ColumnarRelation relation = ColumnarRelation.fromInput(fixture.getTestData());
+
+    // Check result
+    FileIterator expectedInput = fixture.getTestData();
+    assertEquals(expectedRows.size(), relation.getNumberOfRows());
+    assertEquals(expectedInput.numberOfColumns(), relation.getNumberOfColumns());
+    assertEquals(expectedInput.columnNames(), relation.getColumnNames());
+    assertEquals(expectedInput.relationName(), relation.getRelationName());
+    assertEquals(expectedRows, readAll(relation.asRelationalInput()));
+  }
+
+  /**
+   * Test method for {@link ColumnarRelation#getColumn(int)} and {@link
+   * ColumnarRelation#getDictionary(int)}
+   * <p/>
+   * Equal values should be encoded by equal codes and null values by the null code.
+   */
+  @Test
+  public void testGetColumn() throws Exception {
+    // Setup
+    List<List<String>> rows = readAll(fixture.getTestData());
+
+    // Execute functionality
+    ColumnarRelation relation = ColumnarRelation.fromInput(fixture.getTestData());
+
+    // Check result
+    for (int column = 0; column < relation.getNumberOfColumns(); column++) {
+      int[] codes = relation.getColumn(column);
+      String[] dictionary = relation.getDictionary(column);
+      for (int row = 0; row < rows.size(); row++) {
+        String expectedValue = rows.get(row).get(column);
+        if (expectedValue == null) {
+          assertEquals(ColumnarRelation.NULL_CODE, codes[row]);
+        } else {
+          assertEquals(expectedValue, dictionary[codes[row]]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link ColumnarRelation#write(DataOutput)} and {@link
+   * ColumnarRelation#read(DataInput)}
+   * <p/>
+   * A written relation should be read back unchanged.
+   */
+  @Test
+  public void testWriteRead() throws Exception {
+    // Setup
+    ColumnarRelation relation = ColumnarRelation.fromInput(fixture.getTestData());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    // Execute functionality
+    relation.write(new DataOutputStream(bytes));
+    ColumnarRelation actualRelation =
+      ColumnarRelation.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    // Check result
+    assertEquals(relation.getRelationName(), actualRelation.getRelationName());
+    assertEquals(relation.getColumnNames(), actualRelation.getColumnNames());
+    assertEquals(readAll(relation.asRelationalInput()),
+      readAll(actualRelation.asRelationalInput()));
+    for (int column = 0; column < relation.getNumberOfColumns(); column++) {
+      assertArrayEquals(relation.getColumn(column), actualRelation.getColumn(column));
+      assertArrayEquals(relation.getDictionary(column), actualRelation.getDictionary(column));
+    }
+  }
+
+  protected List<List<String>> readAll(RelationalInput input) throws Exception {
+    List<List<String>> rows = new ArrayList<>();
+    while (input.hasNext()) {
+      rows.add(input.next());
+    }
+    return rows;
+  }
+
+}
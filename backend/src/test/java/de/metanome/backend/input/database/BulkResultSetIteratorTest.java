@@ -0,0 +1,212 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link BulkResultSetIterator}
+ */
+public class BulkResultSetIteratorTest {
+
+  protected static final String DB_URL = "jdbc:hsqldb:mem:bulkResultSetIteratorTest";
+  protected static final String QUERY = "SELECT * FROM PERSONS ORDER BY ID";
+
+  protected Connection connection;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = DriverManager.getConnection(DB_URL, "SA", "");
+    Statement statement = connection.createStatement();
+    statement.execute(
+      "CREATE TABLE PERSONS (ID INTEGER, NAME VARCHAR(20), AGE BIGINT, HEIGHT DOUBLE)");
+    for (int i = 0; i < 7; i++) {
+      statement.execute(String.format("INSERT INTO PERSONS VALUES (%d, %s, %s, %s)", i,
+        i % 3 == 0 ? "NULL" : "'name" + i + "'", i % 2 == 0 ? "NULL" : String.valueOf(20 + i),
+        i + ".5"));
+    }
+    statement.close();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Statement statement = connection.createStatement();
+    statement.execute("DROP TABLE PERSONS");
+    statement.close();
+    connection.close();
+  }
+
+  /**
+   * Test method for {@link BulkResultSetIterator#hasNext()} and {@link
+   * BulkResultSetIterator#next()} <p/> The rows should be equal to the rows of the {@link
+   * ResultSetIterator}, also if the number of rows is not a multiple of the block size.
+   */
+  @Test
+  public void testNext() throws Exception {
+    // Setup
+    ResultSetIterator expectedIterator =
+      new ResultSetIterator(connection.createStatement().executeQuery(QUERY));
+    BulkResultSetIterator actualIterator =
+      new BulkResultSetIterator(connection.createStatement().executeQuery(QUERY), null, 3);
+
+    // Execute functionality
+    List<List<String>> expectedRows = readAll(expectedIterator);
+    List<List<String>> actualRows = readAll(actualIterator);
+
+    // Check result
+    assertEquals(7, actualRows.size());
+    assertEquals(expectedRows, actualRows);
+    assertNull(actualRows.get(0).get(2));
+    assertEquals("21", actualRows.get(1).get(2));
+    assertEquals(expectedIterator.columnNames(), actualIterator.columnNames());
+    assertEquals("PERSONS", actualIterator.relationName());
+    assertFalse(actualIterator.hasNext());
+  }
+
+  /**
+   * Test method for {@link BulkResultSetIterator#nextBlock()} <p/> The blocks should contain all
+   * rows with typed integral columns.
+   */
+  @Test
+  public void testNextBlock() throws Exception {
+    // Setup
+    BulkResultSetIterator iterator =
+      new BulkResultSetIterator(connection.createStatement().executeQuery(QUERY), null, 4);
+
+    // Execute functionality
+    ResultSetBlock firstBlock = iterator.nextBlock();
+
+    // Check result
+    assertEquals(4, firstBlock.getNumberOfRows());
+    assertTrue(firstBlock.isIntegralColumn(0));
+    assertFalse(firstBlock.isIntegralColumn(1));
+    assertTrue(firstBlock.isIntegralColumn(2));
+    assertFalse(firstBlock.isIntegralColumn(3));
+    assertEquals(3, firstBlock.getLong(0, 3));
+    assertTrue(firstBlock.isNull(2, 2));
+    assertEquals(23, firstBlock.getLong(2, 3));
+    assertTrue(firstBlock.isNull(1, 3));
+    assertEquals("name2", firstBlock.getString(1, 2));
+
+    // Execute functionality
+    ResultSetBlock secondBlock = iterator.nextBlock();
+
+    // Check result
+    assertSame(firstBlock, secondBlock);
+    assertEquals(3, secondBlock.getNumberOfRows());
+    assertEquals(6, secondBlock.getLong(0, 2));
+    assertNull(iterator.nextBlock());
+    assertFalse(iterator.hasNext());
+  }
+
+  /**
+   * Test method for {@link BulkResultSetIterator#next()} <p/> The row path should read integral
+   * columns as strings, so that the formatting of the driver, e.g. of ZEROFILL columns, is kept.
+   */
+  @Test
+  public void testNextKeepsDriverStrings() throws Exception {
+    // Setup
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(1);
+    when(metaData.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(metaData.isSigned(1)).thenReturn(true);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getString(1)).thenReturn("0005");
+    BulkResultSetIterator iterator = new BulkResultSetIterator(resultSet, "table", 4);
+
+    // Execute functionality
+    List<String> row = iterator.next();
+
+    // Check result
+    assertEquals("0005", row.get(0));
+    assertFalse(iterator.block.isTyped());
+    verify(resultSet, never()).getLong(1);
+  }
+
+  /**
+   * Test method for {@link BulkResultSetIterator#next()} <p/> The rows of typed blocks should not
+   * be returned row by row.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testNextAfterNextBlock() throws Exception {
+    // Setup
+    BulkResultSetIterator iterator =
+      new BulkResultSetIterator(connection.createStatement().executeQuery(QUERY), null, 4);
+    iterator.nextBlock();
+
+    // Execute functionality
+    iterator.next();
+  }
+
+  /**
+   * Test method for {@link DefaultDatabaseConnectionGenerator#generateRelationalInputFromSql(String,
+   * String)} <p/> The generator should return a {@link BulkResultSetIterator}, whose block size is
+   * derived from the row width.
+   */
+  @Test
+  public void testGenerateBulkInput() throws Exception {
+    // Setup
+    DefaultDatabaseConnectionGenerator generator =
+      new DefaultDatabaseConnectionGenerator(DB_URL, "SA", "", null);
+
+    // Execute functionality
+    RelationalInput input = generator.generateRelationalInputFromSql(QUERY, "PERSONS");
+    List<List<String>> rows = readAll(input);
+    generator.setBulkFetch(false);
+    RelationalInput rowInput = generator.generateRelationalInputFromSql(QUERY, "PERSONS");
+
+    // Check result
+    assertTrue(input instanceof BulkResultSetIterator);
+    assertTrue(((BulkResultSetIterator) input).block.getCapacity() >
+      DefaultDatabaseConnectionGenerator.DEFAULT_FETCH_SIZE);
+    assertFalse(rowInput instanceof BulkResultSetIterator);
+    assertEquals(readAll(rowInput), rows);
+
+    // Cleanup
+    generator.closeAllStatements();
+    generator.close();
+  }
+
+  protected static List<List<String>> readAll(RelationalInput input) throws Exception {
+    List<List<String>> rows = new ArrayList<>();
+    while (input.hasNext()) {
+      rows.add(input.next());
+    }
+    input.close();
+    return rows;
+  }
+
+}
@@ -21,8 +21,10 @@ import org.junit.Test;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -237,4 +239,39 @@ public class DefaultDatabaseConnectionGeneratorTest {
     verify(statementMock2).close();
     verify(statementMock3, never()).close();
   }
+
+  /**
+   * Test method for {@link DefaultDatabaseConnectionGenerator#computeFetchSize(java.sql.ResultSetMetaData)}
+   * <p/> Narrow rows should be fetched in larger blocks than wide rows. The fetch size should be
+   * bounded by the configured fetch size and the maximal fetch size.
+   */
+  @Test
+  public void testComputeFetchSize() throws SQLException {
+    // Setup
+    DefaultDatabaseConnectionGenerator generator = new DefaultDatabaseConnectionGenerator();
+    ResultSetMetaData narrowRow = mock(ResultSetMetaData.class);
+    when(narrowRow.getColumnCount()).thenReturn(2);
+    when(narrowRow.getColumnType(anyInt())).thenReturn(Types.INTEGER);
+    ResultSetMetaData wideRow = mock(ResultSetMetaData.class);
+    when(wideRow.getColumnCount()).thenReturn(20);
+    when(wideRow.getColumnType(anyInt())).thenReturn(Types.VARCHAR);
+    when(wideRow.getColumnDisplaySize(anyInt())).thenReturn(1000);
+    ResultSetMetaData hugeRow = mock(ResultSetMetaData.class);
+    when(hugeRow.getColumnCount()).thenReturn(1);
+    when(hugeRow.getColumnType(anyInt())).thenReturn(Types.VARCHAR);
+    when(hugeRow.getColumnDisplaySize(anyInt())).thenReturn(100000000);
+
+    // Execute functionality
+    int narrowFetchSize = generator.computeFetchSize(narrowRow);
+    int wideFetchSize = generator.computeFetchSize(wideRow);
+    int hugeFetchSize = generator.computeFetchSize(hugeRow);
+    generator.setFetchSize(1000);
+    int boundedFetchSize = generator.computeFetchSize(wideRow);
+
+    // Check result
+    assertEquals(DefaultDatabaseConnectionGenerator.MAX_FETCH_SIZE, narrowFetchSize);
+    assertEquals(DefaultDatabaseConnectionGenerator.TARGET_FETCH_BYTES / (20 * 1016), wideFetchSize);
+    assertEquals(DefaultDatabaseConnectionGenerator.TARGET_FETCH_BYTES / (256 + 16), hugeFetchSize);
+    assertEquals(1000, boundedFetchSize);
+  }
 }
@@ -17,10 +17,26 @@ package de.metanome.backend.input.database;
 
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link de.metanome.backend.input.database.DefaultTableInputGenerator}
@@ -131,4 +147,184 @@ public class DefaultTableInputGeneratorTest {
       .generateResultSetFromSql(String.format(DefaultTableInputGenerator.SORT_STATEMENT,
         expectedTable, expectedColumn, "DESC"));
   }
+
+  /**
+   * Test method for {@link DefaultTableInputGenerator#generatePartitions(int)}
+   * <p/>
+   * The table should be split by the ranges of its integral primary key or of the given partition
+   * column. The partitions should be disjoint and contain all rows, also rows with null values in
+   * the partition column. Tables without a suitable column should not be split.
+   */
+  @Test
+  public void testGeneratePartitions() throws Exception {
+    // Setup
+    Connection connection = createTables();
+    DefaultDatabaseConnectionGenerator connectionGenerator =
+      new DefaultDatabaseConnectionGenerator(DB_URL, "SA", "", null);
+    DefaultTableInputGenerator keyGenerator =
+      new DefaultTableInputGenerator(connectionGenerator, "KEYED");
+    DefaultTableInputGenerator columnGenerator =
+      new DefaultTableInputGenerator(connectionGenerator, "UNKEYED");
+    columnGenerator.setPartitionColumn("VAL");
+    DefaultTableInputGenerator unkeyedGenerator =
+      new DefaultTableInputGenerator(connectionGenerator, "UNKEYED");
+
+    // Execute functionality
+    List<RelationalInput> keyPartitions = keyGenerator.generatePartitions(4);
+    List<RelationalInput> columnPartitions = columnGenerator.generatePartitions(3);
+    List<RelationalInput> unkeyedPartitions = unkeyedGenerator.generatePartitions(3);
+
+    // Check result
+    assertEquals(4, keyPartitions.size());
+    List<String> keyIds = readSortedIds(keyPartitions, true);
+    assertEquals(NUMBER_OF_ROWS, keyIds.size());
+    assertEquals(readAllIds(keyGenerator), keyIds);
+    assertEquals(3, columnPartitions.size());
+    assertEquals(readAllIds(unkeyedGenerator), readSortedIds(columnPartitions, false));
+    assertEquals(1, unkeyedPartitions.size());
+
+    // Cleanup
+    closePartitions(unkeyedPartitions);
+    connectionGenerator.closeAllStatements();
+    connectionGenerator.close();
+    dropTables(connection);
+  }
+
+  /**
+   * Test method for {@link DefaultTableInputGenerator#getPageRangePredicates(int)}
+   * <p/>
+   * The pages of a PostgreSQL table should be split into contiguous ctid ranges, that together
+   * cover all pages.
+   */
+  @Test
+  public void testGetPageRangePredicates() throws Exception {
+    // Setup
+    DefaultDatabaseConnectionGenerator connectionGenerator =
+      mock(DefaultDatabaseConnectionGenerator.class);
+    ResultSet pageCount = mock(ResultSet.class);
+    when(pageCount.next()).thenReturn(true);
+    when(pageCount.getString(1)).thenReturn("100");
+    when(connectionGenerator.generateResultSetFromSql(
+      String.format(DefaultTableInputGenerator.PAGE_COUNT_STATEMENT, "some_table")))
+      .thenReturn(pageCount);
+    DefaultTableInputGenerator generator =
+      new DefaultTableInputGenerator(connectionGenerator, "some_table");
+
+    // Execute functionality
+    List<String> predicates = generator.getPageRangePredicates(4);
+
+    // Check result
+    assertEquals(Arrays.asList(
+      "ctid < '(25,0)'::tid",
+      "ctid >= '(25,0)'::tid AND ctid < '(50,0)'::tid",
+      "ctid >= '(50,0)'::tid AND ctid < '(75,0)'::tid",
+      "ctid >= '(75,0)'::tid"), predicates);
+    verify(pageCount).close();
+  }
+
+  /**
+   * Test method for {@link DefaultTableInputGenerator#generateNewCopy()}
+   * <p/>
+   * With more than one partition the table should be read concurrently and all rows should be
+   * returned once.
+   */
+  @Test
+  public void testGenerateParallelCopy() throws Exception {
+    // Setup
+    Connection connection = createTables();
+    DefaultDatabaseConnectionGenerator connectionGenerator =
+      new DefaultDatabaseConnectionGenerator(DB_URL, "SA", "", null);
+    DefaultTableInputGenerator generator =
+      new DefaultTableInputGenerator(connectionGenerator, "KEYED");
+    List<String> expectedIds = readAllIds(generator);
+    generator.setNumberOfPartitions(4);
+
+    // Execute functionality
+    RelationalInput input = generator.generateNewCopy();
+    List<String> actualIds = new ArrayList<>();
+    while (input.hasNext()) {
+      actualIds.add(input.next().get(0));
+    }
+    input.close();
+    Collections.sort(actualIds);
+
+    // Check result
+    assertTrue(input instanceof ParallelTableInput);
+    assertEquals(Arrays.asList("ID", "VAL"), input.columnNames());
+    assertEquals(expectedIds, actualIds);
+
+    // Cleanup
+    connectionGenerator.closeAllStatements();
+    connectionGenerator.close();
+    dropTables(connection);
+  }
+
+  protected static final String DB_URL = "jdbc:hsqldb:mem:defaultTableInputGeneratorTest";
+  protected static final int NUMBER_OF_ROWS = 5000;
+
+  protected Connection createTables() throws SQLException {
+    Connection connection = DriverManager.getConnection(DB_URL, "SA", "");
+    Statement statement = connection.createStatement();
+    statement.execute("DROP TABLE KEYED IF EXISTS");
+    statement.execute("DROP TABLE UNKEYED IF EXISTS");
+    statement.execute("CREATE TABLE KEYED (ID INTEGER PRIMARY KEY, VAL VARCHAR(10))");
+    statement.execute("CREATE TABLE UNKEYED (ID INTEGER, VAL BIGINT)");
+    PreparedStatement keyed = connection.prepareStatement("INSERT INTO KEYED VALUES (?, ?)");
+    PreparedStatement unkeyed = connection.prepareStatement("INSERT INTO UNKEYED VALUES (?, ?)");
+    for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+      keyed.setInt(1, i * 7 - 1000);
+      keyed.setString(2, "v" + i);
+      keyed.execute();
+      unkeyed.setInt(1, i);
+      if (i % 10 == 0) {
+        unkeyed.setNull(2, Types.BIGINT);
+      } else {
+        unkeyed.setLong(2, i % 100);
+      }
+      unkeyed.execute();
+    }
+    statement.close();
+    return connection;
+  }
+
+  protected void dropTables(Connection connection) throws SQLException {
+    Statement statement = connection.createStatement();
+    statement.execute("DROP TABLE KEYED");
+    statement.execute("DROP TABLE UNKEYED");
+    statement.close();
+    connection.close();
+  }
+
+  protected List<String> readAllIds(DefaultTableInputGenerator generator) throws Exception {
+    return readSortedIds(generator.generatePartitions(1), false);
+  }
+
+  /**
+   * Reads and closes the partitions.
+   *
+   * @return the sorted values of the first column of all partitions
+   */
+  protected List<String> readSortedIds(List<RelationalInput> partitions, boolean nonEmpty)
+    throws Exception {
+    List<String> ids = new ArrayList<>();
+    for (RelationalInput partition : partitions) {
+      int rows = 0;
+      while (partition.hasNext()) {
+        ids.add(partition.next().get(0));
+        rows++;
+      }
+      partition.close();
+      if (nonEmpty) {
+        assertTrue(rows > 0);
+      }
+    }
+    Collections.sort(ids);
+    return ids;
+  }
+
+  protected void closePartitions(List<RelationalInput> partitions) throws Exception {
+    for (RelationalInput partition : partitions) {
+      partition.close();
+    }
+  }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.database;
+
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link ResultSetBlock}
+ */
+public class ResultSetBlockTest {
+
+  /**
+   * Test method for {@link ResultSetBlock#fill(ResultSet)} <p/> Signed integral columns should be
+   * read as long values. Unsigned BIGINT columns should be read as strings, so that values above
+   * {@link Long#MAX_VALUE} are not changed.
+   */
+  @Test
+  public void testFillUnsignedBigint() throws Exception {
+    // Setup
+    String expectedUnsignedValue = "18446744073709551615";
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(2);
+    when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(metaData.isSigned(1)).thenReturn(true);
+    when(metaData.getColumnType(2)).thenReturn(Types.BIGINT);
+    when(metaData.isSigned(2)).thenReturn(false);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong(1)).thenReturn(-42L);
+    when(resultSet.wasNull()).thenReturn(false);
+    when(resultSet.getString(2)).thenReturn(expectedUnsignedValue);
+
+    // Execute functionality
+    ResultSetBlock block = new ResultSetBlock(metaData, 4);
+    int rows = block.fill(resultSet);
+
+    // Check result
+    assertEquals(1, rows);
+    assertTrue(block.isIntegralColumn(0));
+    assertFalse(block.isIntegralColumn(1));
+    assertEquals(-42L, block.getLong(0, 0));
+    assertEquals("-42", block.getString(0, 0));
+    assertEquals(expectedUnsignedValue, block.getString(1, 0));
+    verify(resultSet, never()).getLong(2);
+  }
+
+}
@@ -25,6 +25,9 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -135,6 +138,37 @@ public class DefaultFileInputGeneratorTest {
     assertEquals(csvFileFixture.expectedSecondLine(), csv2.next());
   }
 
+  /**
+   * Test method for {@link DefaultFileInputGenerator#generatePartitions(int)}
+   * <p/>
+   * The partitions should return all lines of the file in order. If memory mapping is disabled, a
+   * single partition should be returned.
+   */
+  @Test
+  public void testGeneratePartitions() throws Exception {
+    // Execute functionality
+    List<RelationalInput> partitions = generator.generatePartitions(2);
+    generator.setMemoryMapped(false);
+    List<RelationalInput> streamPartitions = generator.generatePartitions(2);
+
+    // Check result
+    assertEquals(2, partitions.size());
+    assertEquals(1, streamPartitions.size());
+    for (List<RelationalInput> inputs : Arrays.asList(partitions, streamPartitions)) {
+      List<List<String>> actualLines = new ArrayList<>();
+      for (RelationalInput input : inputs) {
+        assertEquals(csvFileFixture.expectedHeader(), input.columnNames());
+        while (input.hasNext()) {
+          actualLines.add(input.next());
+        }
+        input.close();
+      }
+      assertEquals(
+        Arrays.asList(csvFileFixture.expectedFirstLine(), csvFileFixture.expectedSecondLine()),
+        actualLines);
+    }
+  }
+
   /**
    * Test method for {@link DefaultFileInputGenerator#getInputFile()}
    */
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.file;
+
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.RelationalInput;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the read throughput of the {@link FileIterator} and the {@link MappedFileIterator}.
+ * Usage: FileIteratorBenchmark [size in MB] [number of columns] [file]. If the file does not exist,
+ * a CSV file with random quoted and unquoted values of the given size is generated.
+ */
+public class FileIteratorBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    long megaBytes = args.length > 0 ? Long.parseLong(args[0]) : 256;
+    int numberOfColumns = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    File file = args.length > 2 ? new File(args[2]) : File.createTempFile("benchmark", ".csv");
+
+    if (args.length <= 2 || !file.exists()) {
+      file.deleteOnExit();
+      generateFile(file, megaBytes * 1024 * 1024, numberOfColumns);
+    }
+
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput(file.getPath());
+    System.out.println("reader,file_bytes,rows,cells,millis,mb_per_second");
+    for (int run = 0; run < 3; run++) {
+      long start = System.nanoTime();
+      long[] counts = readAll(new FileIterator(file.getName(), new FileReader(file), setting));
+      report("FileIterator", file, counts, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      counts = readAll(new MappedFileIterator(file.getName(), file, setting));
+      report("MappedFileIterator", file, counts, System.nanoTime() - start);
+    }
+  }
+
+  protected static void generateFile(File file, long size, int numberOfColumns)
+    throws IOException {
+    Random random = new Random(42);
+    long written = 0;
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+      for (int column = 0; column < numberOfColumns; column++) {
+        writer.write(column == 0 ? "column" + column : ",column" + column);
+      }
+      writer.write('\n');
+      while (written < size) {
+        StringBuilder line = new StringBuilder();
+        for (int column = 0; column < numberOfColumns; column++) {
+          if (column > 0) {
+            line.append(',');
+          }
+          int value = random.nextInt(1000 * (column + 1));
+          if (column % 3 == 2) {
+            line.append("\"value, ").append(value).append('"');
+          } else if (column % 3 == 1 && value % 10 != 0) {
+            line.append("text").append(value);
+          } else if (column % 3 == 0) {
+            line.append(value);
+          }
+        }
+        line.append('\n');
+        writer.write(line.toString());
+        written += line.length();
+      }
+    }
+  }
+
+  /**
+   * Reads all cells of the input.
+   *
+   * @return the number of rows and the number of non null cells
+   */
+  protected static long[] readAll(RelationalInput input) throws Exception {
+    long rows = 0;
+    long cells = 0;
+    try {
+      while (input.hasNext()) {
+        List<String> line = input.next();
+        for (int i = 0; i < line.size(); i++) {
+          if (line.get(i) != null) {
+            cells++;
+          }
+        }
+        rows++;
+      }
+    } finally {
+      input.close();
+    }
+    return new long[]{rows, cells};
+  }
+
+  protected static void report(String reader, File file, long[] counts, long nanos) {
+    double millis = nanos / 1000000.0;
+    double megaBytesPerSecond = file.length() / 1024.0 / 1024.0 / (millis / 1000.0);
+    System.out.println(String.format("%s,%d,%d,%d,%.1f,%.1f", reader, file.length(), counts[0],
+      counts[1], millis, megaBytesPerSecond));
+  }
+
+}
@@ -0,0 +1,369 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.input.file;
+
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MappedFileIterator}
+ */
+public class MappedFileIteratorTest {
+
+  protected static final String[] FILE_CONTENTS = {
+    "",
+    "a,b,c\nd,e,f\n",
+    "a,b,c\nd,e,f",
+    "a,b,c\r\nd,e,f\r\ng,h,i\r\n",
+    "a,b,c\rd,e,f\r",
+    "a,\"b,c\",d\n\"e\"\"f\",g,\"\"\n",
+    "a,\"multi\nline\",b\nc,\"multi\r\nline\",d\n",
+    "a,b\\\"c,d\n\"e\\\"f\",\"g\\\\h\",i\\j\n",
+    "ab\"c\"d,e\nfgh\"ij,k\"l,m\n",
+    "x,  \"y\",z\nuvw,  \"q\"r,s\n",
+    "a,,NULL\n,b,\n\nc,d,e\n",
+    "a,b,c\nd,e\nf,g,h\ni,j,k,l\n",
+    "a,b,\"unclosed\nc,d,e\n",
+    "\"unclosed,a,b\nc,d\n",
+    "äö\"x\",ü\nabä\"c\"d,e\n",
+    "ää\"x\",b\n"
+  };
+
+  protected List<ConfigurationSettingFileInput> createSettings() {
+    List<ConfigurationSettingFileInput> settings = new ArrayList<>();
+    settings.add(new ConfigurationSettingFileInput("test").setHeader(false));
+    settings.add(new ConfigurationSettingFileInput("test"));
+    settings.add(new ConfigurationSettingFileInput("test").setSkipDifferingLines(true));
+    settings.add(new ConfigurationSettingFileInput("test")
+      .setStrictQuotes(true)
+      .setHeader(false)
+      .setSkipDifferingLines(true));
+    settings.add(new ConfigurationSettingFileInput("test")
+      .setIgnoreLeadingWhiteSpace(false)
+      .setSkipDifferingLines(true));
+    settings.add(new ConfigurationSettingFileInput("test")
+      .setSkipLines(1)
+      .setNullValue("NULL")
+      .setSkipDifferingLines(true));
+    settings.add(new ConfigurationSettingFileInput("test")
+      .setSeparatorChar(";")
+      .setQuoteChar("'")
+      .setEscapeChar("")
+      .setHeader(false));
+    return settings;
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#next()}
+   * <p/>
+   * The mapped iterator should return the same lines, headers and errors as the {@link
+   * FileIterator} for all settings.
+   */
+  @Test
+  public void testSameResultAsFileIterator() throws Exception {
+    for (int i = 0; i < FILE_CONTENTS.length; i++) {
+      // Setup
+      File file = new FileFixture(FILE_CONTENTS[i]).getTestData("mapped_" + i + ".csv");
+
+      for (ConfigurationSettingFileInput setting : createSettings()) {
+        // Execute functionality
+        // Check result
+        assertSameResult(file, setting, MappedFileIterator.DEFAULT_REGION_SIZE);
+        assertSameResult(file, setting, 40);
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#next()}
+   * <p/>
+   * Files larger than the region size should be read region by region.
+   */
+  @Test
+  public void testRegionRemapping() throws Exception {
+    // Setup
+    StringBuilder content = new StringBuilder("first,second,third\n");
+    List<List<String>> expectedLines = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      content.append(i).append(",\"value\r\n").append(i).append("\",").append(i % 7).append("\r\n");
+      expectedLines.add(Arrays.asList(String.valueOf(i), "value\n" + i, String.valueOf(i % 7)));
+    }
+    File file = new FileFixture(content.toString()).getTestData("mapped_regions.csv");
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("test");
+
+    // Execute functionality
+    List<List<String>> actualLines = new ArrayList<>();
+    try (MappedFileIterator iterator = new MappedFileIterator("test", file, setting,
+      Charset.defaultCharset(), 64)) {
+      while (iterator.hasNext()) {
+        actualLines.add(new ArrayList<>(iterator.next()));
+      }
+
+      // Check result
+      assertEquals(Arrays.asList("first", "second", "third"), iterator.columnNames());
+    }
+    assertEquals(expectedLines, actualLines);
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#next()}
+   * <p/>
+   * A line, that does not fit into the mapped region, should result in an exception.
+   */
+  @Test(expected = InputIterationException.class)
+  public void testLineLargerThanRegion() throws Exception {
+    // Setup
+    File file = new FileFixture("a,b\nthis line is too long,b\n").getTestData("mapped_long.csv");
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("test");
+
+    // Execute functionality
+    try (MappedFileIterator iterator = new MappedFileIterator("test", file, setting,
+      Charset.defaultCharset(), 8)) {
+      iterator.next();
+    }
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#MappedFileIterator(String, File,
+   * ConfigurationSettingFileInput, Charset, long)}
+   * <p/>
+   * If the first lines cannot be read, the channel of the file should be closed.
+   */
+  @Test
+  public void testChannelClosedOnConstructionFailure() throws Exception {
+    // Setup
+    File file = new FileFixture("this header is too long,b\na,b\n").getTestData("mapped_header.csv");
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("test");
+    final List<FileChannel> channels = new ArrayList<>();
+
+    // Execute functionality
+    try {
+      new MappedFileIterator("test", file, setting, Charset.defaultCharset(), 8) {
+        @Override
+        protected void readFirstLines() throws InputIterationException {
+          channels.add(this.channel);
+          super.readFirstLines();
+        }
+      };
+      fail("Exception should have been thrown.");
+    } catch (InputIterationException e) {
+      // Expected
+    }
+
+    // Check result
+    assertEquals(1, channels.size());
+    assertFalse(channels.get(0).isOpen());
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#split(int)}
+   * <p/>
+   * Reading all partitions in order should return the same lines, headers and errors as a
+   * sequential read. The first row number of a partition should equal the number of rows in the
+   * preceding partitions.
+   */
+  @Test
+  public void testSplit() throws Exception {
+    for (int i = 0; i < FILE_CONTENTS.length; i++) {
+      // Setup
+      File file = new FileFixture(FILE_CONTENTS[i]).getTestData("mapped_split_" + i + ".csv");
+
+      for (ConfigurationSettingFileInput setting : createSettings()) {
+        for (int numberOfPartitions : new int[]{1, 2, 3, 5}) {
+          // Execute functionality
+          List<Object> expected = readAll(new FileIteratorFactory() {
+            @Override
+            public FileIterator create(File file, ConfigurationSettingFileInput setting)
+              throws Exception {
+              return new FileIterator(file.getName(), new FileReader(file), setting);
+            }
+          }, file, setting);
+          List<Object> actual = readAllPartitions(file, setting, numberOfPartitions, 40);
+
+          // Check result
+          assertEquals("Content " + file.getName() + " in " + numberOfPartitions + " partitions",
+            expected, actual);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#split(int)}
+   * <p/>
+   * The partitions of a larger file with quoted line breaks should start at record boundaries.
+   */
+  @Test
+  public void testSplitQuotedLineBreaks() throws Exception {
+    // Setup
+    StringBuilder content = new StringBuilder("first,second\n");
+    for (int i = 0; i < 1000; i++) {
+      content.append(i).append(",\"line\n").append(i).append(",\n\"\"\n\"\n");
+    }
+    File file = new FileFixture(content.toString()).getTestData("mapped_split_quoted.csv");
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("test");
+
+    // Execute functionality
+    List<FilePartition> partitions;
+    try (MappedFileIterator scanner = new MappedFileIterator("test", file, setting)) {
+      partitions = scanner.split(4);
+    }
+
+    // Check result
+    assertEquals(4, partitions.size());
+    assertEquals(file.length(), partitions.get(3).getEndOffset());
+    long expectedRowNumber = 0;
+    for (FilePartition partition : partitions) {
+      assertEquals(expectedRowNumber, partition.getFirstRowNumber());
+      try (MappedFileIterator iterator =
+             new MappedFileIterator("test", file, setting, partition)) {
+        assertEquals(Arrays.asList("first", "second"), iterator.columnNames());
+        while (iterator.hasNext()) {
+          List<String> line = iterator.next();
+          assertEquals(String.valueOf(expectedRowNumber), line.get(0));
+          assertEquals("line\n" + expectedRowNumber + ",\n\"\n", line.get(1));
+          expectedRowNumber++;
+        }
+      }
+    }
+    assertEquals(1000, expectedRowNumber);
+  }
+
+  /**
+   * Test method for {@link MappedFileIterator#isSupported(ConfigurationSettingFileInput,
+   * Charset)}
+   */
+  @Test
+  public void testIsSupported() {
+    // Setup
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("test");
+
+    // Execute functionality
+    // Check result
+    assertTrue(MappedFileIterator.isSupported(setting, StandardCharsets.UTF_8));
+    assertTrue(MappedFileIterator.isSupported(setting, StandardCharsets.ISO_8859_1));
+    assertFalse(MappedFileIterator.isSupported(setting, StandardCharsets.UTF_16));
+    assertFalse(MappedFileIterator.isSupported(
+      new ConfigurationSettingFileInput("test").setSeparatorChar("§"), StandardCharsets.UTF_8));
+    assertFalse(MappedFileIterator.isSupported(
+      new ConfigurationSettingFileInput("test").setSeparatorChar("\""), StandardCharsets.UTF_8));
+  }
+
+  protected void assertSameResult(File file, ConfigurationSettingFileInput setting, long regionSize)
+    throws Exception {
+    List<Object> expected = readAll(new FileIteratorFactory() {
+      @Override
+      public FileIterator create(File file, ConfigurationSettingFileInput setting)
+        throws Exception {
+        return new FileIterator(file.getName(), new FileReader(file), setting);
+      }
+    }, file, setting);
+    final long size = regionSize;
+    List<Object> actual = readAll(new FileIteratorFactory() {
+      @Override
+      public FileIterator create(File file, ConfigurationSettingFileInput setting)
+        throws Exception {
+        return new MappedFileIterator(file.getName(), file, setting, Charset.defaultCharset(), size);
+      }
+    }, file, setting);
+
+    assertEquals("Content " + file.getName() + " with region size " + regionSize, expected, actual);
+  }
+
+  /**
+   * Reads all lines, the column names, the number of skipped lines and the error message, if the
+   * iteration failed.
+   */
+  protected List<Object> readAll(FileIteratorFactory factory, File file,
+                                 ConfigurationSettingFileInput setting) throws Exception {
+    List<Object> result = new ArrayList<>();
+    FileIterator iterator = null;
+    try {
+      iterator = factory.create(file, setting);
+      result.add(iterator.numberOfColumns());
+      result.add(new ArrayList<>(iterator.columnNames()));
+      while (iterator.hasNext()) {
+        result.add(new ArrayList<>(iterator.next()));
+      }
+      result.add(iterator.getNumberOfSkippedDifferingLines());
+    } catch (InputIterationException e) {
+      result.add(e.getMessage());
+    } finally {
+      if (iterator != null) {
+        iterator.close();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads all partitions in order and collects the same information as {@link
+   * #readAll(FileIteratorFactory, File, ConfigurationSettingFileInput)}.
+   */
+  protected List<Object> readAllPartitions(File file, ConfigurationSettingFileInput setting,
+                                           int numberOfPartitions, long regionSize)
+    throws Exception {
+    List<Object> result = new ArrayList<>();
+    Charset charset = Charset.defaultCharset();
+    try {
+      List<FilePartition> partitions;
+      try (MappedFileIterator scanner =
+             new MappedFileIterator(file.getName(), file, setting, charset, regionSize)) {
+        result.add(scanner.numberOfColumns());
+        result.add(new ArrayList<>(scanner.columnNames()));
+        partitions = scanner.split(numberOfPartitions);
+      }
+
+      long rowNumber = 0;
+      int numberOfSkippedLines = 0;
+      for (FilePartition partition : partitions) {
+        try (MappedFileIterator iterator = new MappedFileIterator(file.getName(), file, setting,
+          charset, regionSize, partition)) {
+          if (partition.getFirstRowNumber() != rowNumber) {
+            result.add("Unexpected first row number " + partition.getFirstRowNumber());
+          }
+          while (iterator.hasNext()) {
+            result.add(new ArrayList<>(iterator.next()));
+            rowNumber++;
+          }
+          numberOfSkippedLines += iterator.getNumberOfSkippedDifferingLines();
+        }
+      }
+      result.add(numberOfSkippedLines);
+    } catch (InputIterationException e) {
+      result.add(e.getMessage());
+    }
+    return result;
+  }
+
+  protected interface FileIteratorFactory {
+
+    FileIterator create(File file, ConfigurationSettingFileInput setting) throws Exception;
+  }
+
+}
@@ -18,6 +18,7 @@ package de.metanome.backend.resources;
 import de.metanome.algorithm_integration.configuration.ConfigurationRequirement;
 import de.metanome.algorithm_integration.configuration.ConfigurationRequirementFileInput;
 import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
+import de.metanome.algorithm_integration.configuration.ConfigurationSettingTableInput;
 import de.metanome.algorithm_integration.configuration.ConfigurationValue;
 import de.metanome.algorithms.testing.example_relational_input_algorithm.ExampleAlgorithm;
 import de.metanome.backend.algorithm_execution.AlgorithmExecution;
@@ -34,6 +35,9 @@ import java.util.List;
 import static junit.framework.TestCase.assertEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class AlgorithmExecutionResourceTest {
@@ -91,6 +95,56 @@ public class AlgorithmExecutionResourceTest {
     assertEquals(expectedConfigValue.getIdentifier(), actualConfigValue.getIdentifier());
   }
 
+  /**
+   * Test method for {@link AlgorithmExecutionResource#nextBatchTimestamp()}
+   * <p/>
+   * The run identifiers of a resubmitted batch have to differ from the ones of its last submission.
+   */
+
+  @Test
+  public void testNextBatchTimestamp() throws Exception {
+    long previous = AlgorithmExecutionResource.nextBatchTimestamp();
+    for (int i = 0; i < 100; i++) {
+      long next = AlgorithmExecutionResource.nextBatchTimestamp();
+      assertTrue(next > previous);
+      previous = next;
+    }
+  }
+
+  /**
+   * Test method for {@link AlgorithmExecutionResource#bindInput(List, de.metanome.algorithm_integration.configuration.ConfigurationSettingRelationalInput)}
+   * <p/>
+   * Only the first accepting requirement should be bound and the template should not be changed.
+   */
+
+  @Test
+  public void testBindInput() throws Exception {
+    // Setup
+    ConfigurationRequirementFileInput first = new ConfigurationRequirementFileInput("first");
+    ConfigurationRequirementFileInput second = new ConfigurationRequirementFileInput("second");
+    ConfigurationSettingFileInput secondSetting = new ConfigurationSettingFileInput("second.csv");
+    second.checkAndSetSettings(secondSetting);
+    List<ConfigurationRequirement> template = new ArrayList<>();
+    template.add(first);
+    template.add(second);
+    ConfigurationSettingFileInput setting = new ConfigurationSettingFileInput("input.csv");
+
+    // Execute functionality
+    List<ConfigurationRequirement> actualRequirements =
+      AlgorithmExecutionResource.bindInput(template, setting);
+
+    // Check result
+    assertEquals(2, actualRequirements.size());
+    assertNotSame(first, actualRequirements.get(0));
+    assertEquals("first", actualRequirements.get(0).getIdentifier());
+    assertSame(setting, actualRequirements.get(0).getSettings()[0]);
+    assertSame(second, actualRequirements.get(1));
+    assertSame(secondSetting, second.getSettings()[0]);
+    assertNull(first.getSettings());
+    assertSame(first, template.get(0));
+    assertNull(AlgorithmExecutionResource.bindInput(template, new ConfigurationSettingTableInput()));
+  }
+
   /**
    * Test method for {@link de.metanome.backend.resources.AlgorithmExecutionResource#configurationValuesToJson(java.util.List)}
    */
@@ -283,4 +283,79 @@ public class ExecutionResourceTest {
     HibernateUtil.clear();
   }
 
+  /**
+   * Test method for {@link ExecutionResource#getSamples(long)}
+   * <p/>
+   * The resource usage samples of an execution should be stored with the execution, be retrievable
+   * in time order and be deleted with the execution.
+   */
+  @Test
+  public void testGetSamples() throws EntityStorageException {
+    // Setup
+    HibernateUtil.clear();
+
+    Algorithm algorithm = new Algorithm("example_ind_algorithm.jar");
+    algorithmResource.store(algorithm);
+
+    Execution execution = new Execution(algorithm);
+    execution.addSample(new ExecutionSample(1000).setHeapUsed(2048).setCpuTime(900));
+    execution.addSample(new ExecutionSample(0).setHeapUsed(1024).setCpuTime(0));
+    HibernateUtil.store(execution);
+
+    // Execute functionality
+    List<ExecutionSample> actualSamples = executionResource.getSamples(execution.getId());
+
+    // Check result
+    assertEquals(2, actualSamples.size());
+    assertEquals(0, actualSamples.get(0).getElapsedTime());
+    assertEquals(1024, actualSamples.get(0).getHeapUsed());
+    assertEquals(1000, actualSamples.get(1).getElapsedTime());
+    assertEquals(900, actualSamples.get(1).getCpuTime());
+
+    // Execute functionality
+    executionResource.delete(execution.getId());
+
+    // Check result
+    assertTrue(executionResource.getSamples(execution.getId()).isEmpty());
+
+    // Cleanup
+    HibernateUtil.clear();
+  }
+
+  /**
+   * Test method for {@link ExecutionResource#getMetrics(long)}
+   * <p/>
+   * The metrics of an execution should be stored with the execution and be retrievable in the order
+   * of their first occurrence.
+   */
+  @Test
+  public void testGetMetrics() throws EntityStorageException {
+    // Setup
+    HibernateUtil.clear();
+
+    Algorithm algorithm = new Algorithm("example_ind_algorithm.jar");
+    algorithmResource.store(algorithm);
+
+    Execution execution = new Execution(algorithm);
+    execution.addMetric(new ExecutionMetric(ExecutionMetric.Type.COUNTER, "#intersections")
+      .setOccurrences(2).setTotal(42).setPeak(42).setFirstOccurrence(30));
+    execution.addMetric(new ExecutionMetric(ExecutionMetric.Type.PHASE, "pli-build")
+      .setOccurrences(1).setTotal(25.5).setPeak(25.5).setFirstOccurrence(0));
+    HibernateUtil.store(execution);
+
+    // Execute functionality
+    List<ExecutionMetric> actualMetrics = executionResource.getMetrics(execution.getId());
+
+    // Check result
+    assertEquals(2, actualMetrics.size());
+    assertEquals("pli-build", actualMetrics.get(0).getName());
+    assertEquals(ExecutionMetric.Type.PHASE, actualMetrics.get(0).getType());
+    assertEquals(25.5, actualMetrics.get(0).getTotal(), 0.0);
+    assertEquals("#intersections", actualMetrics.get(1).getName());
+    assertEquals(2, actualMetrics.get(1).getOccurrences());
+
+    // Cleanup
+    HibernateUtil.clear();
+  }
+
 }
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.InputIterationException;
+import de.metanome.backend.result_postprocessing.file_fixture.FileFixtureDifferentColumnTypes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link de.metanome.backend.result_postprocessing.helper.ColumnStatisticsCollector}
+ */
+public class ColumnStatisticsCollectorTest {
+
+  protected FileFixtureDifferentColumnTypes fileFixture = new FileFixtureDifferentColumnTypes();
+
+  /**
+   * Test method for {@link ColumnStatisticsCollector#collect(de.metanome.algorithm_integration.input.RelationalInput)}
+   * <p/>
+   * The statistics of all columns collected in a single scan should be equal to the statistics
+   * computed column by column.
+   */
+  @Test
+  public void testCollect() throws InputIterationException, InputGenerationException {
+    // Setup
+    List<ColumnInformation> expectedColumns = createColumns(true);
+    List<ColumnInformation> actualColumns = createColumns(false);
+    ColumnStatisticsCollector collector = new ColumnStatisticsCollector(actualColumns);
+
+    // Execute functionality
+    collector.collect(fileFixture.getTestData());
+
+    // Check result
+    assertColumnsEqual(expectedColumns, actualColumns);
+  }
+
+  /**
+   * Test method for {@link ColumnStatisticsCollector#collect(de.metanome.algorithm_integration.input.RelationalInput)}
+   * <p/>
+   * The statistics collected with striped columns on several threads should be equal to the
+   * statistics computed column by column.
+   */
+  @Test
+  public void testCollectParallel() throws InputIterationException, InputGenerationException {
+    // Setup
+    List<ColumnInformation> expectedColumns = createColumns(true);
+    List<ColumnInformation> actualColumns = createColumns(false);
+    ColumnStatisticsCollector collector = new ColumnStatisticsCollector(actualColumns, 3);
+
+    // Execute functionality
+    collector.collect(fileFixture.getTestData());
+
+    // Check result
+    assertColumnsEqual(expectedColumns, actualColumns);
+  }
+
+  /**
+   * Test method for {@link ColumnStatisticsCollector#ColumnStatisticsCollector(java.util.List, int)}
+   * <p/>
+   * The number of threads has to be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorInvalidNumberOfThreads() {
+    // Execute functionality
+    new ColumnStatisticsCollector(new ArrayList<ColumnInformation>(), 0);
+  }
+
+  protected List<ColumnInformation> createColumns(boolean computeStatistics)
+    throws InputIterationException, InputGenerationException {
+    List<ColumnInformation> columns = new ArrayList<>();
+    for (int columnIndex = 0; columnIndex < 4; columnIndex++) {
+      BitSet bitSet = new BitSet();
+      bitSet.set(columnIndex);
+      columns.add(new ColumnInformation("column" + columnIndex, columnIndex, bitSet,
+        computeStatistics ? fileFixture.getTestData() : null, computeStatistics));
+    }
+    return columns;
+  }
+
+  protected void assertColumnsEqual(List<ColumnInformation> expectedColumns,
+                                    List<ColumnInformation> actualColumns) {
+    assertEquals(expectedColumns.size(), actualColumns.size());
+    for (int i = 0; i < expectedColumns.size(); i++) {
+      ColumnInformation expected = expectedColumns.get(i);
+      ColumnInformation actual = actualColumns.get(i);
+      assertEquals(expected.getColumnType(), actual.getColumnType());
+      assertEquals(expected.getRowCount(), actual.getRowCount());
+      assertEquals(expected.getDistinctValuesCount(), actual.getDistinctValuesCount());
+      assertEquals(expected.getNullValuesCount(), actual.getNullValuesCount());
+      assertEquals(expected.getAverageValueLength(), actual.getAverageValueLength(), 0.0001);
+      assertEquals(expected.getHistogram().getHistogramData(),
+        actual.getHistogram().getHistogramData());
+    }
+  }
+
+}
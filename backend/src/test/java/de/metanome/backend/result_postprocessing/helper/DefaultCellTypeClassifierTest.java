@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.backend.result_postprocessing.helper.ColumnInformation.ColumnType;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link de.metanome.backend.result_postprocessing.helper.DefaultCellTypeClassifier}
+ */
+public class DefaultCellTypeClassifierTest {
+
+  protected static final String[] VALUES = {
+    "", "0", "1", "2", "01", "y", "Y", "yes", "YeS", "no", "N", "t", "TRUE", "false", "f", "x",
+    "truee", "23413", "1l", "-5", "+5", "007", "112.32142", "1.", ".5", ".", "-.5", "+1.5e10",
+    "1e5", "1E-5", "1e", "e5", ".e5", "1.e5", "1.5.3", "1e5.3", "--1.0", "1,5", " 1.5",
+    "12.12.2001", "12121212", "1/31/2016", "2/29/2016", "2/29/2015", "2/29/1900", "2/29/2000",
+    "2/29/1500", "13/01/2016", "0/01/2016", "1/00/2016", "4/31/2016", "1/1/1", "1/1/0",
+    "31.12.1999", "31.4.1999", "1.13.2000", "12/24/2016 11:59:59 PM", "12/24/2016 12:00:00 am",
+    "24.12.2016 01:02:03 AM", "12.Dec.2012", "12.december.2012", "12-Dec-2012", "31-Feb-2012",
+    "29-feb-2012", "12-12-2012", "12/Dec/2012", "12.Dec-2012", "Dec.12.2012", "12.Foo.2012",
+    "12.12.", "12..2012", "1/2", "abc", "some text, with comma"};
+
+  protected DefaultCellTypeClassifier classifier = new DefaultCellTypeClassifier(Locale.US);
+
+  /**
+   * Test method for {@link DefaultCellTypeClassifier#classify(String)}
+   * <p/>
+   * The classifier should determine the same types as the checks based on regular expressions and
+   * {@link java.text.SimpleDateFormat}.
+   */
+  @Test
+  public void testClassify() {
+    for (String value : VALUES) {
+      // Execute functionality
+      ColumnType actualType = classifier.classify(value);
+
+      // Check result
+      assertEquals(value, classifyWithPatterns(value), actualType);
+    }
+  }
+
+  /**
+   * Test method for {@link DefaultCellTypeClassifier#isDate(String)}
+   * <p/>
+   * Unlike {@link java.text.SimpleDateFormat#parse(String)} the whole value has to match the date
+   * shape.
+   */
+  @Test
+  public void testIsDateWholeValue() {
+    // Execute functionality
+    // Check result
+    assertTrue(classifier.isDate("12.12.2012"));
+    assertFalse(classifier.isDate("12.12.2012 and some text"));
+    assertFalse(classifier.isDate("12.12.2012 11:00:00"));
+    assertFalse(classifier.isDate("12.12.2012 11:00:00 AMX"));
+    assertFalse(classifier.isDate("24.12.2016 13:02:03 AM"));
+    assertFalse(classifier.isDate("12-Dec-2012 11:00:00 AM"));
+    assertFalse(classifier.isDate("24.12.2016 11:60:03 AM"));
+    assertFalse(classifier.isDate("24.12.2016 11:02:60 AM"));
+  }
+
+  /**
+   * Test method for {@link ColumnInformation#setCellTypeClassifier(CellTypeClassifier)}
+   * <p/>
+   * A custom classifier should be used for the type vote of the column.
+   */
+  @Test
+  public void testCustomClassifier() throws Exception {
+    // Setup
+    ColumnInformation columnInformation = new ColumnInformation("column", 0, null);
+    columnInformation.setCellTypeClassifier(new CellTypeClassifier() {
+      @Override
+      public ColumnType classify(String cellValue) {
+        return ColumnType.DATE_COLUMN;
+      }
+    });
+
+    // Execute functionality
+    columnInformation.startStatistics();
+    columnInformation.addCellValue("1");
+    columnInformation.addCellValue("text");
+    columnInformation.finishStatistics();
+
+    // Check result
+    assertEquals(ColumnType.DATE_COLUMN, columnInformation.getColumnType());
+  }
+
+  /**
+   * The type checks as they were implemented with regular expressions and date formats.
+   */
+  protected ColumnType classifyWithPatterns(String value) {
+    Set<String> booleanDescriptors = new HashSet<>(
+      Arrays.asList("0", "false", "f", "no", "n", "1", "true", "t", "yes", "y"));
+    if (booleanDescriptors.contains(value.toLowerCase(Locale.US))) {
+      return ColumnType.BOOLEAN_COLUMN;
+    } else if (value.matches("\\d+")) {
+      return ColumnType.INTEGER_COLUMN;
+    } else if (value.matches("[+-]?(?=\\d*[.eE])(?=\\.?\\d)\\d*\\.?\\d*(?:[eE][+-]?\\d+)?")) {
+      return ColumnType.FLOAT_COLUMN;
+    }
+    String[] dateFormats = {"M/dd/yyyy", "dd.M.yyyy", "M/dd/yyyy hh:mm:ss a",
+      "dd.M.yyyy hh:mm:ss a", "dd.MMM.yyyy", "dd-MMM-yyyy"};
+    for (String dateFormat : dateFormats) {
+      SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat, Locale.US);
+      simpleDateFormat.setLenient(false);
+      try {
+        simpleDateFormat.parse(value);
+        return ColumnType.DATE_COLUMN;
+      } catch (ParseException e) {
+        // try the next format
+      }
+    }
+    return ColumnType.STRING_COLUMN;
+  }
+
+}
@@ -18,9 +18,13 @@ package de.metanome.backend.result_postprocessing.helper;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class HistogramTest {
 
@@ -54,4 +58,132 @@ public class HistogramTest {
 
   }
 
+  @Test
+  public void computeHistogramBelowExactLimit() {
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      values.add(String.valueOf(i % 10));
+    }
+    values.add(null);
+
+    Histogram histogram = new Histogram(11);
+
+    // Execute Functionality
+    histogram.computeHistogram(values);
+
+    // Check
+    assertFalse(histogram.isApproximate());
+    assertEquals(11, histogram.getDistinctCount());
+    assertEquals(100, histogram.getFrequency("3"));
+    assertEquals(1, histogram.getNullCount());
+  }
+
+  @Test
+  public void computeHistogramTopValues() {
+    List<String> values = new ArrayList<>();
+    values.add("b");
+    values.add("a");
+    values.add("d");
+    values.add("c");
+    values.add("a");
+    values.add("c");
+    values.add("a");
+
+    Histogram histogram = new Histogram(Histogram.UNLIMITED, 2);
+
+    // Execute Functionality
+    histogram.computeHistogram(values);
+
+    // Check
+    Map<String, Long> expectedTopValues = new HashMap<>();
+    expectedTopValues.put("a", 3L);
+    expectedTopValues.put("c", 2L);
+    assertFalse(histogram.isApproximate());
+    assertEquals(expectedTopValues, histogram.getHistogramData());
+    assertEquals(4, histogram.getDistinctCount());
+    assertEquals(1, histogram.getFrequency("b"));
+    assertEquals(1, histogram.getFrequency("d"));
+    assertEquals(0, histogram.getFrequency("e"));
+  }
+
+  @Test
+  public void computeApproximateHistogram() {
+    // 100000 distinct values and ten frequent values, that occur 1000 times each
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      values.add("value" + i);
+      if (i % 10 == 0) {
+        values.add("frequent" + (i % 100));
+      }
+      if (i % 1000 == 0) {
+        values.add(null);
+      }
+    }
+
+    Histogram histogram = new Histogram(1000, 20);
+
+    // Execute Functionality
+    histogram.computeHistogram(values);
+
+    // Check
+    assertTrue(histogram.isApproximate());
+    assertEquals(100011, histogram.getDistinctCount(), 100011 * 0.05);
+    assertEquals(100, histogram.getNullCount());
+    assertTrue(histogram.getHistogramData().size() <= 20);
+    for (int i = 0; i < 100; i += 10) {
+      assertTrue(histogram.getHistogramData().containsKey("frequent" + i));
+      assertTrue(histogram.getFrequency("frequent" + i) >= 1000);
+    }
+  }
+
+  @Test
+  public void addCountedValues() {
+    Histogram histogram = new Histogram(3);
+
+    // Execute Functionality
+    histogram.addValue("a", 5);
+    histogram.addValue(null, 2);
+    histogram.addValue("a", 1);
+
+    // Check
+    assertFalse(histogram.isApproximate());
+    assertEquals(6, histogram.getFrequency("a"));
+    assertEquals(2, histogram.getNullCount());
+    assertEquals(2, histogram.getDistinctCount());
+  }
+
+  @Test
+  public void setTopValues() {
+    Map<String, Long> topValues = new HashMap<>();
+    topValues.put("a", 10L);
+    topValues.put("b", 7L);
+    Histogram histogram = new Histogram(1);
+
+    // Execute Functionality
+    histogram.setTopValues(topValues, 500, 3);
+
+    // Check
+    assertTrue(histogram.isApproximate());
+    assertEquals(500, histogram.getDistinctCount());
+    assertEquals(3, histogram.getNullCount());
+    assertEquals(10, histogram.getFrequency("a"));
+    assertEquals(7, histogram.getFrequency("c"));
+  }
+
+  @Test
+  public void getConfiguredMaxExactValues() {
+    // Execute Functionality
+    int unsetLimit = Histogram.getConfiguredMaxExactValues();
+    System.setProperty(Histogram.MAX_EXACT_VALUES_PROPERTY, "50");
+    int configuredLimit = Histogram.getConfiguredMaxExactValues();
+    System.setProperty(Histogram.MAX_EXACT_VALUES_PROPERTY, "0");
+    int disabledLimit = Histogram.getConfiguredMaxExactValues();
+    System.clearProperty(Histogram.MAX_EXACT_VALUES_PROPERTY);
+
+    // Check
+    assertEquals(Histogram.UNLIMITED, unsetLimit);
+    assertEquals(50, configuredLimit);
+    assertEquals(Histogram.UNLIMITED, disabledLimit);
+  }
+
 }
@@ -22,6 +22,7 @@ import de.metanome.algorithm_integration.configuration.ConfigurationSettingTable
 import de.metanome.algorithm_integration.configuration.DbSystem;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
 import de.metanome.backend.helper.InputToGeneratorConverter;
+import de.metanome.backend.input.database.DefaultTableInputGenerator;
 import de.metanome.backend.input.file.DefaultFileInputGenerator;
 import de.metanome.backend.results_db.DatabaseConnection;
 import de.metanome.backend.results_db.FileInput;
@@ -33,6 +34,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class InputToGeneratorConverterTest {
@@ -118,6 +120,34 @@ public class InputToGeneratorConverterTest {
     // Check
     assertEquals(connectionSetting, setting.getDatabaseConnection());
     assertEquals(input.getTableName(), setting.getTable());
+    assertNull(setting.getPartitionColumn());
+    assertEquals(1, setting.getNumberOfPartitions());
+  }
+
+  @Test
+  public void convertPartitionedTableInput() throws AlgorithmConfigurationException {
+    // Set up
+    DatabaseConnection connection = new DatabaseConnection();
+    connection.setPassword("pwd")
+      .setSystem(DbSystem.DB2)
+      .setUrl("url")
+      .setUsername("user");
+
+    TableInput input = new TableInput();
+    input.setTableName("table")
+      .setDatabaseConnection(connection)
+      .setPartitionColumn("id")
+      .setNumberOfPartitions(4);
+
+    // Execute Functionality
+    RelationalInputGenerator generator = InputToGeneratorConverter.convertInput(input);
+
+    // Check
+    assertTrue(generator instanceof DefaultTableInputGenerator);
+    DefaultTableInputGenerator tableGenerator = (DefaultTableInputGenerator) generator;
+    assertEquals("table", tableGenerator.getTable());
+    assertEquals("id", tableGenerator.getPartitionColumn());
+    assertEquals(4, tableGenerator.getNumberOfPartitions());
   }
 
   private String getTestFile() throws UnsupportedEncodingException {
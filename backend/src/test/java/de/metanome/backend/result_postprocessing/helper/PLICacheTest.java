@@ -0,0 +1,214 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_helper.data_structures.CompressedPositionListIndex;
+import de.metanome.algorithm_helper.data_structures.PositionListIndex;
+import de.metanome.algorithm_integration.input.InputGenerationException;
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+import de.metanome.backend.input.file.DefaultFileInputGenerator;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link de.metanome.backend.result_postprocessing.helper.PLICache}
+ */
+public class PLICacheTest {
+
+  protected File directory;
+
+  @Before
+  public void setUp() throws Exception {
+    this.directory = Files.createTempDirectory("pli_cache").toFile();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Test method for {@link PLICache#store(String, java.util.Map)} and {@link PLICache#load(String)}
+   * <p/>
+   * Stored PLIs should be loaded unchanged, also by a new cache on the same directory. No
+   * temporary files should be left behind.
+   */
+  @Test
+  public void testStoreLoad() {
+    // Setup
+    PLICache cache = new PLICache(this.directory, PLICache.DEFAULT_MAX_SIZE);
+    Map<BitSet, PositionListIndex> expectedPLIs = new HashMap<>();
+    expectedPLIs.put(bitSet(0), createPLI(0, 1, 2, 3));
+    expectedPLIs.put(bitSet(0, 2), createPLI(4, 5));
+
+    // Execute functionality
+    cache.store("input", expectedPLIs);
+    Map<BitSet, PositionListIndex> actualPLIs = cache.load("input");
+    PLICache reopenedCache = new PLICache(this.directory, PLICache.DEFAULT_MAX_SIZE);
+
+    // Check result
+    assertEquals(expectedPLIs, actualPLIs);
+    assertTrue(actualPLIs.get(bitSet(0)) instanceof CompressedPositionListIndex);
+    assertEquals(expectedPLIs, reopenedCache.load("input"));
+    assertEquals(cache.getSize(), reopenedCache.getSize());
+    assertTrue(cache.load("other input").isEmpty());
+    assertEquals(expectedPLIs.size(), new File(this.directory, "input").list().length);
+  }
+
+  /**
+   * Test method for {@link PLICache#load(String)}
+   * <p/>
+   * The PLIs should only be read, when they are accessed. Unreadable cache files should be dropped.
+   */
+  @Test
+  public void testLoadOnDemand() throws Exception {
+    // Setup
+    PLICache cache = new PLICache(this.directory, PLICache.DEFAULT_MAX_SIZE);
+    Map<BitSet, PositionListIndex> plis = new HashMap<>();
+    plis.put(bitSet(0), createPLI(0, 1, 2, 3));
+    plis.put(bitSet(1), createPLI(4, 5));
+    cache.store("input", plis);
+    File corruptFile = new File(new File(this.directory, "input"), PLICache.toFileName(bitSet(1)));
+    FileUtils.writeStringToFile(corruptFile, "no pli");
+
+    // Execute functionality
+    Map<BitSet, PositionListIndex> loadedPLIs = cache.load("input");
+
+    // Check result
+    assertEquals(2, loadedPLIs.size());
+    assertTrue(loadedPLIs.containsKey(bitSet(1)));
+    assertEquals(plis.get(bitSet(0)), loadedPLIs.get(bitSet(0)));
+    assertNull(loadedPLIs.get(bitSet(1)));
+    assertFalse(loadedPLIs.containsKey(bitSet(1)));
+    assertFalse(corruptFile.exists());
+  }
+
+  /**
+   * Test method for {@link PLICache#getDefault()}
+   * <p/>
+   * The default cache directory should not depend on the working directory.
+   */
+  @Test
+  public void testGetDefaultDirectory() {
+    // Execute functionality
+    File defaultDirectory = PLICache.getDefaultDirectory();
+    System.setProperty(PLICache.DIRECTORY_PROPERTY, this.directory.getPath());
+    File configuredDirectory = PLICache.getDefaultDirectory();
+    System.clearProperty(PLICache.DIRECTORY_PROPERTY);
+
+    // Check result
+    assertTrue(defaultDirectory.isAbsolute());
+    assertEquals(new File(System.getProperty("java.io.tmpdir")).getAbsoluteFile(),
+      defaultDirectory.getParentFile());
+    assertEquals(this.directory.getAbsoluteFile(), configuredDirectory);
+  }
+
+  /**
+   * Test method for {@link PLICache#store(String, java.util.Map)}
+   * <p/>
+   * The least recently used PLIs should be evicted, if the cache exceeds its maximal size.
+   */
+  @Test
+  public void testEviction() {
+    // Setup
+    PLICache cache = new PLICache(this.directory, Long.MAX_VALUE);
+    cache.store("first", singlePLI(createPLI(0, 1)));
+    long entrySize = cache.getSize();
+    cache = new PLICache(this.directory, 2 * entrySize);
+    cache.store("second", singlePLI(createPLI(2, 3)));
+    // Makes the first input the most recently used one
+    cache.load("first");
+
+    // Execute functionality
+    cache.store("third", singlePLI(createPLI(4, 5)));
+
+    // Check result
+    assertEquals(2 * entrySize, cache.getSize());
+    assertFalse(cache.load("first").isEmpty());
+    assertTrue(cache.load("second").isEmpty());
+    assertFalse(cache.load("third").isEmpty());
+    assertFalse(new File(this.directory, "second").exists());
+  }
+
+  /**
+   * Test method for {@link PLICache#getInputKey(RelationalInputGenerator)}
+   * <p/>
+   * Only file inputs should have a key, which changes when the file is modified.
+   */
+  @Test
+  public void testGetInputKey() throws Exception {
+    // Setup
+    File inputFile = new File(this.directory, "input.csv");
+    FileUtils.writeStringToFile(inputFile, "a,b\n1,2\n");
+    DefaultFileInputGenerator fileGenerator = new DefaultFileInputGenerator(inputFile);
+    RelationalInputGenerator otherGenerator = new RelationalInputGenerator() {
+      @Override
+      public RelationalInput generateNewCopy() throws InputGenerationException {
+        return null;
+      }
+    };
+
+    // Execute functionality
+    String key = PLICache.getInputKey(fileGenerator);
+    String columnarKey = PLICache.getInputKey(new ColumnarInputGenerator(fileGenerator));
+    FileUtils.writeStringToFile(inputFile, "a,b\n1,2\n3,4\n");
+    String modifiedKey = PLICache.getInputKey(fileGenerator);
+
+    // Check result
+    assertNotNull(key);
+    assertEquals(key, columnarKey);
+    assertNotEquals(key, modifiedKey);
+    assertNull(PLICache.getInputKey(otherGenerator));
+  }
+
+  protected static BitSet bitSet(int... columns) {
+    BitSet bitSet = new BitSet();
+    for (int column : columns) {
+      bitSet.set(column);
+    }
+    return bitSet;
+  }
+
+  protected static PositionListIndex createPLI(long... rows) {
+    List<LongArrayList> clusters = new ArrayList<>();
+    for (int i = 0; i + 1 < rows.length; i += 2) {
+      clusters.add(new LongArrayList(new long[]{rows[i], rows[i + 1]}));
+    }
+    return new PositionListIndex(clusters);
+  }
+
+  protected static Map<BitSet, PositionListIndex> singlePLI(PositionListIndex pli) {
+    Map<BitSet, PositionListIndex> plis = new HashMap<>();
+    plis.put(bitSet(0), pli);
+    return plis;
+  }
+
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.helper;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.metanome.backend.input.columnar.ColumnarInputGenerator;
+import de.metanome.backend.input.database.DefaultDatabaseConnectionGenerator;
+import de.metanome.backend.input.database.DefaultTableInputGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link de.metanome.backend.result_postprocessing.helper.StatisticsPushdown}
+ */
+public class StatisticsPushdownTest {
+
+  protected static final String DB_URL = "jdbc:hsqldb:mem:statisticsPushdownTest";
+  protected static final int NUMBER_OF_ROWS = 3000;
+
+  protected Connection connection;
+  protected DefaultDatabaseConnectionGenerator connectionGenerator;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = DriverManager.getConnection(DB_URL, "SA", "");
+    Statement statement = connection.createStatement();
+    statement.execute("DROP TABLE PERSONS IF EXISTS");
+    statement.execute("CREATE TABLE PERSONS (ID INTEGER, NAME VARCHAR(20), CITY VARCHAR(20), "
+      + "SCORE DOUBLE, NOTE CLOB)");
+    PreparedStatement insert = connection.prepareStatement("INSERT INTO PERSONS VALUES (?, ?, ?, ?, ?)");
+    for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+      insert.setInt(1, i);
+      insert.setString(2, "name" + i);
+      if (i % 7 == 0) {
+        insert.setNull(3, Types.VARCHAR);
+      } else {
+        insert.setString(3, "city" + (i % 13));
+      }
+      insert.setDouble(4, (i % 20) / 4.0);
+      insert.setString(5, i % 2 == 0 ? "even" : "odd");
+      insert.execute();
+    }
+    statement.close();
+    connection.commit();
+
+    connectionGenerator = new DefaultDatabaseConnectionGenerator(DB_URL, "SA", "", null);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connectionGenerator.close();
+    Statement statement = connection.createStatement();
+    statement.execute("DROP TABLE PERSONS");
+    statement.close();
+    connection.close();
+  }
+
+  /**
+   * Test method for {@link StatisticsPushdown#forGenerator(RelationalInputGenerator)}
+   * <p/>
+   * Only database tables should be pushed down, also if they are wrapped in a columnar input.
+   */
+  @Test
+  public void testForGenerator() {
+    // Setup
+    DefaultTableInputGenerator tableGenerator =
+      new TestTableInputGenerator(connectionGenerator, "PERSONS");
+
+    // Execute functionality
+    StatisticsPushdown pushdown = StatisticsPushdown.forGenerator(tableGenerator);
+    StatisticsPushdown wrappedPushdown =
+      StatisticsPushdown.forGenerator(new ColumnarInputGenerator(tableGenerator));
+
+    // Check result
+    assertNotNull(pushdown);
+    assertSame(tableGenerator, wrappedPushdown.getGenerator());
+    assertNull(StatisticsPushdown.forGenerator(mock(RelationalInputGenerator.class)));
+  }
+
+  /**
+   * Test method for {@link StatisticsPushdown#getColumnNames()} and {@link
+   * StatisticsPushdown#getRelationName()}
+   * <p/>
+   * The table should be described like by its input.
+   */
+  @Test
+  public void testGetColumnNames() throws Exception {
+    // Setup
+    StatisticsPushdown pushdown =
+      new StatisticsPushdown(new TestTableInputGenerator(connectionGenerator, "PERSONS"));
+    RelationalInput expectedInput =
+      connectionGenerator.generateRelationalInputFromSql("SELECT * FROM PERSONS", "PERSONS");
+
+    // Execute functionality
+    List<String> actualColumnNames = pushdown.getColumnNames();
+    String actualRelationName = pushdown.getRelationName();
+
+    // Check result
+    assertEquals(expectedInput.columnNames(), actualColumnNames);
+    assertEquals(expectedInput.relationName(), actualRelationName);
+    expectedInput.close();
+  }
+
+  /**
+   * Test method for {@link StatisticsPushdown#collect(List)}
+   * <p/>
+   * The statistics computed by the database should be equal to the streamed statistics and columns,
+   * that can not be grouped, should be returned.
+   */
+  @Test
+  public void testCollect() throws Exception {
+    // Setup
+    StatisticsPushdown pushdown =
+      new StatisticsPushdown(new TestTableInputGenerator(connectionGenerator, "PERSONS"));
+    List<ColumnInformation> pushedColumns = createColumns(Histogram.UNLIMITED);
+    List<ColumnInformation> streamedColumns = createColumns(Histogram.UNLIMITED);
+
+    // Execute functionality
+    List<ColumnInformation> remainingColumns = pushdown.collect(pushedColumns);
+    new ColumnStatisticsCollector(streamedColumns).collect(
+      connectionGenerator.generateRelationalInputFromSql("SELECT * FROM PERSONS", "PERSONS"));
+
+    // Check result
+    assertEquals(1, remainingColumns.size());
+    assertEquals("NOTE", remainingColumns.get(0).getColumnName());
+    for (int i = 0; i < 4; i++) {
+      ColumnInformation pushed = pushedColumns.get(i);
+      ColumnInformation streamed = streamedColumns.get(i);
+      assertEquals(streamed.getRowCount(), pushed.getRowCount());
+      assertEquals(streamed.getDistinctValuesCount(), pushed.getDistinctValuesCount());
+      assertEquals(streamed.getNullValuesCount(), pushed.getNullValuesCount());
+      assertEquals(streamed.getColumnType(), pushed.getColumnType());
+      assertEquals(streamed.getAverageValueLength(), pushed.getAverageValueLength(), 0.0001);
+      assertEquals(streamed.getHistogram().getHistogramData(),
+        pushed.getHistogram().getHistogramData());
+    }
+  }
+
+  /**
+   * Test method for {@link StatisticsPushdown#collect(List)}
+   * <p/>
+   * Columns with more distinct values than counted exactly should keep the most frequent values
+   * and the exact aggregates.
+   */
+  @Test
+  public void testCollectTopValues() throws Exception {
+    // Setup
+    StatisticsPushdown pushdown =
+      new StatisticsPushdown(new TestTableInputGenerator(connectionGenerator, "PERSONS"));
+    List<ColumnInformation> columns = createColumns(10);
+
+    // Execute functionality
+    pushdown.collect(columns);
+
+    // Check result
+    ColumnInformation name = columns.get(1);
+    assertTrue(name.getHistogram().isApproximate());
+    assertEquals(NUMBER_OF_ROWS, name.getRowCount());
+    assertEquals(NUMBER_OF_ROWS, name.getDistinctValuesCount());
+    assertEquals(Histogram.DEFAULT_TOP_K, name.getHistogram().getHistogramData().size());
+    // 10 names of length 5, 90 of length 6, 900 of length 7 and 2000 of length 8
+    assertEquals(7.63f, name.getAverageValueLength(), 0.0001);
+
+    ColumnInformation city = columns.get(2);
+    assertTrue(city.getHistogram().isApproximate());
+    assertEquals(14, city.getDistinctValuesCount());
+    assertEquals((NUMBER_OF_ROWS + 6) / 7, city.getNullValuesCount());
+    assertEquals(14, city.getHistogram().getHistogramData().size());
+
+    ColumnInformation score = columns.get(3);
+    assertTrue(score.getHistogram().isApproximate());
+    assertEquals(20, score.getDistinctValuesCount());
+    assertEquals(ColumnInformation.ColumnType.FLOAT_COLUMN, score.getColumnType());
+  }
+
+  protected List<ColumnInformation> createColumns(int maxExactHistogramValues) throws Exception {
+    String[] names = {"ID", "NAME", "CITY", "SCORE", "NOTE"};
+    List<ColumnInformation> columns = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      BitSet bitSet = new BitSet(names.length);
+      bitSet.set(i);
+      ColumnInformation column = new ColumnInformation(names[i], i, bitSet);
+      column.setMaxExactHistogramValues(maxExactHistogramValues);
+      columns.add(column);
+    }
+    return columns;
+  }
+
+  /**
+   * Exposes the test constructor of the {@link DefaultTableInputGenerator}.
+   */
+  protected static class TestTableInputGenerator extends DefaultTableInputGenerator {
+
+    public TestTableInputGenerator(DefaultDatabaseConnectionGenerator connectionGenerator,
+                                   String table) {
+      super(connectionGenerator, table);
+    }
+  }
+
+}
@@ -27,6 +27,7 @@ import java.util.BitSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class TableInformationTest {
 
@@ -82,4 +83,37 @@ public class TableInformationTest {
     assertEquals(expectedBitSet, tableInformation.getBitSet());
   }
 
+  @Test
+  public void testSetUpWithDataDependentStatisticsParallel()
+    throws InputIterationException, InputGenerationException, AlgorithmConfigurationException {
+    // Expected values
+    BitSet expectedBitSet = new BitSet();
+    expectedBitSet.set(0);
+
+    // Execute Functionality
+    TableInformation tableInformation =
+      new TableInformation(relationalInputGenerator, false, expectedBitSet, 2);
+
+    // Check
+    assertEquals(4, tableInformation.getColumnCount());
+    assertEquals(11, tableInformation.getRowCount());
+    assertEquals(904, tableInformation.getInformationContent());
+    assertEquals(ColumnInformation.ColumnType.INTEGER_COLUMN,
+      tableInformation.getColumn(1).getColumnType());
+  }
+
+  @Test
+  public void testSetUpWithApproximateHistograms()
+    throws InputIterationException, InputGenerationException, AlgorithmConfigurationException {
+    // Execute Functionality
+    TableInformation tableInformation =
+      new TableInformation(relationalInputGenerator, false, new BitSet(), 1, 2);
+
+    // Check
+    assertEquals(11, tableInformation.getRowCount());
+    assertEquals(3, tableInformation.getColumn(0).getDistinctValuesCount());
+    assertTrue(tableInformation.getColumn(0).getHistogram().isApproximate());
+    assertEquals(1, tableInformation.getColumn(3).getDistinctValuesCount());
+  }
+
 }
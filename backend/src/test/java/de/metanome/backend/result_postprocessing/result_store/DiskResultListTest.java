@@ -0,0 +1,143 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_postprocessing.result_store;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.MultivaluedDependency;
+import de.metanome.backend.result_postprocessing.result_comparator.FunctionalDependencyResultComparator;
+import de.metanome.backend.result_postprocessing.results.FunctionalDependencyResult;
+import de.metanome.backend.result_postprocessing.results.MultivaluedDependencyResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DiskResultList}
+ */
+public class DiskResultListTest {
+
+  protected List<FunctionalDependencyResult> results;
+  protected DiskResultList<FunctionalDependencyResult> diskResults;
+
+  @Before
+  public void setUp() throws Exception {
+    results = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      FunctionalDependencyResult result = new FunctionalDependencyResult(new FunctionalDependency(
+        new ColumnCombination(new ColumnIdentifier("table1", "column" + (i % 13)),
+          new ColumnIdentifier("table1", "column" + (i % 5))),
+        new ColumnIdentifier("table1", "column" + (i % 17))));
+      result.setDeterminantTableName("table1");
+      result.setDependantTableName("table1");
+      result.setGeneralCoverage((i * 7) % 100 / 100.0f);
+      results.add(result);
+    }
+    diskResults = new DiskResultList<>(FunctionalDependencyResult.class);
+    diskResults.addAll(results);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    diskResults.close();
+  }
+
+  /**
+   * Test method for {@link DiskResultList#get(int, int)}
+   * <p/>
+   * Pages of results should be read back unchanged.
+   */
+  @Test
+  public void testGet() throws Exception {
+    // Execute functionality
+    List<FunctionalDependencyResult> firstPage = diskResults.get(0, 10);
+    List<FunctionalDependencyResult> middlePage = diskResults.get(500, 510);
+    List<FunctionalDependencyResult> lastPage = diskResults.get(995, 2000);
+
+    // Check result
+    assertEquals(1000, diskResults.size());
+    assertEquals(results.subList(0, 10), firstPage);
+    assertEquals(results.subList(500, 510), middlePage);
+    assertEquals(results.subList(995, 1000), lastPage);
+    assertEquals(results.get(3).getGeneralCoverage(), firstPage.get(3).getGeneralCoverage(), 0.0f);
+    assertEquals(results.get(3).getDeterminant().toString(),
+      firstPage.get(3).getDeterminant().toString());
+    assertTrue(diskResults.get(1000, 1010).isEmpty());
+  }
+
+  /**
+   * Test method for {@link DiskResultList#sort(java.util.Comparator, int)}
+   * <p/>
+   * The external merge sort should return the same order as the stable in memory sort.
+   */
+  @Test
+  public void testSort() throws Exception {
+    // Setup
+    Comparator<FunctionalDependencyResult> comparator = new FunctionalDependencyResultComparator(
+      FunctionalDependencyResultComparator.GENERAL_COVERAGE, false);
+    List<FunctionalDependencyResult> expectedResults = new ArrayList<>(results);
+    Collections.sort(expectedResults, comparator);
+
+    // Execute functionality
+    DiskResultList<FunctionalDependencyResult> sortedResults = diskResults.sort(comparator, 64);
+    DiskResultList<FunctionalDependencyResult> sortedInOneRun = diskResults.sort(comparator, 5000);
+
+    // Check result
+    try {
+      assertEquals(expectedResults, sortedResults.get(0, 1000));
+      assertEquals(expectedResults, sortedInOneRun.get(0, 1000));
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(expectedResults.get(i).getGeneralCoverage(),
+          sortedResults.get(i, i + 1).get(0).getGeneralCoverage(), 0.0f);
+      }
+    } finally {
+      sortedResults.close();
+      sortedInOneRun.close();
+    }
+  }
+
+  /**
+   * Test method for {@link DiskResultList#add(Object)} and {@link DiskResultList#get(int, int)}
+   * <p/>
+   * Other result types should be stored as well.
+   */
+  @Test
+  public void testAddOtherResultType() throws Exception {
+    // Setup
+    MultivaluedDependencyResult result = new MultivaluedDependencyResult(new MultivaluedDependency(
+      new ColumnCombination(new ColumnIdentifier("table1", "column1")),
+      new ColumnCombination(new ColumnIdentifier("table1", "column2"),
+        new ColumnIdentifier("table1", "column3"))));
+
+    // Execute functionality
+    try (DiskResultList<MultivaluedDependencyResult> list =
+           new DiskResultList<>(MultivaluedDependencyResult.class)) {
+      list.add(result);
+
+      // Check result
+      assertEquals(result, list.get(0, 1).get(0));
+    }
+  }
+
+}
@@ -163,4 +163,129 @@ public class ResultsStoreTest {
     assertEquals(ind2, actualResults.get(0));
   }
 
+  @Test
+  public void testSubListOnDisk() throws Exception {
+    // Set Up
+    DiskResultList<InclusionDependencyResult> results =
+      new DiskResultList<>(InclusionDependencyResult.class);
+    results.add(ind1);
+    results.add(ind2);
+    results.add(ind3);
+
+    InclusionDependencyResultsStore resultsStore = new InclusionDependencyResultsStore();
+    resultsStore.store(results);
+
+    // Execute functionality
+    List<InclusionDependencyResult> actualResults =
+      resultsStore.subList(InclusionDependencyResultComparator.REFERENCED_COLUMN, true, 1, 2);
+
+    // Check
+    assertEquals(3, (int) resultsStore.count());
+    assertEquals(1, actualResults.size());
+    assertEquals(ind1, actualResults.get(0));
+
+    // Execute functionality
+    actualResults =
+      resultsStore.subList(InclusionDependencyResultComparator.REFERENCED_COLUMN, false, 0, 3);
+
+    // Check
+    assertEquals(3, actualResults.size());
+    assertEquals(ind3, actualResults.get(0));
+    assertEquals(ind2, actualResults.get(2));
+
+    // Execute functionality
+    resultsStore.clear();
+
+    // Check
+    assertEquals(0, (int) resultsStore.count());
+  }
+
+  @Test
+  public void testListOnDisk() throws Exception {
+    // Set Up
+    DiskResultList<InclusionDependencyResult> results =
+      new DiskResultList<>(InclusionDependencyResult.class);
+    results.add(ind1);
+    results.add(ind2);
+    results.add(ind3);
+
+    InclusionDependencyResultsStore resultsStore = new InclusionDependencyResultsStore();
+    resultsStore.store(results);
+
+    // Execute functionality
+    List<InclusionDependencyResult> actualResults = resultsStore.list();
+
+    // Check
+    assertEquals(3, actualResults.size());
+    assertEquals(ind1, actualResults.get(0));
+    assertEquals(ind3, actualResults.get(2));
+    assertEquals(ind2, actualResults.get(1));
+
+    resultsStore.clear();
+  }
+
+  @Test
+  public void testConcurrentSubListOnDisk() throws Exception {
+    // Set Up
+    DiskResultList<InclusionDependencyResult> results =
+      new DiskResultList<>(InclusionDependencyResult.class);
+    for (int i = 0; i < 100; i++) {
+      results.add(ind1);
+      results.add(ind2);
+      results.add(ind3);
+    }
+
+    final InclusionDependencyResultsStore resultsStore = new InclusionDependencyResultsStore();
+    resultsStore.store(results);
+    final List<Throwable> failures = new ArrayList<>();
+
+    // Execute functionality
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final boolean ascending = i % 2 == 0;
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < 20; j++) {
+              List<InclusionDependencyResult> page = resultsStore.subList(
+                InclusionDependencyResultComparator.REFERENCED_COLUMN, ascending, j * 10, j * 10 + 10);
+              assertEquals(10, page.size());
+            }
+          } catch (Throwable t) {
+            synchronized (failures) {
+              failures.add(t);
+            }
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Check
+    assertTrue(failures.isEmpty());
+    assertEquals(300, (int) resultsStore.count());
+
+    resultsStore.clear();
+  }
+
+  @Test
+  public void testChunkSize() {
+    // Set Up
+    InclusionDependencyResultsStore resultsStore = new InclusionDependencyResultsStore();
+    InclusionDependencyResultsStore otherResultsStore = new InclusionDependencyResultsStore();
+
+    // Execute functionality
+    resultsStore.setChunkSize(10);
+
+    // Check
+    assertEquals(10, resultsStore.getChunkSize());
+    assertEquals(ResultsStore.DEFAULT_CHUNK_SIZE, otherResultsStore.getChunkSize());
+  }
+
 }
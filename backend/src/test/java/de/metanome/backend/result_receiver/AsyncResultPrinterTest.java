@@ -0,0 +1,174 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.ColumnNameMismatchException;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.BasicStatistic;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.JsonConverter;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.basic_statistic_values.BasicStatisticValueInteger;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link AsyncResultPrinter}
+ */
+public class AsyncResultPrinterTest {
+
+  protected ColumnIdentifier ci1;
+  protected ColumnIdentifier ci2;
+  protected List<ColumnIdentifier> acceptedColumns;
+
+  @Before
+  public void setUp() throws Exception {
+    ci1 = new ColumnIdentifier("table1", "column2");
+    ci2 = new ColumnIdentifier("table1", "column23");
+
+    acceptedColumns = new ArrayList<>();
+    acceptedColumns.add(ci1);
+    acceptedColumns.add(ci2);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+  /**
+   * Test method for {@link AsyncResultPrinter#receiveResult(FunctionalDependency)} <p/> The
+   * asynchronously written result file should be equal to the file of the synchronous {@link
+   * ResultPrinter}, also if the queue is smaller than the number of results.
+   */
+  @Test
+  public void testWriteFunctionalDependencies() throws Exception {
+    // Setup
+    ResultPrinter printer = new ResultPrinter("syncExecution", acceptedColumns, true);
+    AsyncResultPrinter asyncPrinter =
+      new AsyncResultPrinter("asyncExecution", acceptedColumns, true, 4);
+    FunctionalDependency fd1 = new FunctionalDependency(new ColumnCombination(ci1), ci2);
+    FunctionalDependency fd2 = new FunctionalDependency(new ColumnCombination(ci2), ci1);
+
+    // Execute functionality
+    for (int i = 0; i < 1000; i++) {
+      printer.receiveResult(i % 2 == 0 ? fd1 : fd2);
+      asyncPrinter.receiveResult(i % 2 == 0 ? fd1 : fd2);
+    }
+    List<Result> results = asyncPrinter.getResults();
+    printer.close();
+    asyncPrinter.close();
+
+    // Check result
+    String expectedContent =
+      Files.toString(new File(printer.getOutputFilePathPrefix() + "_fds"), Charsets.UTF_8);
+    String actualContent =
+      Files.toString(new File(asyncPrinter.getOutputFilePathPrefix() + "_fds"), Charsets.UTF_8);
+    assertEquals(expectedContent, actualContent);
+    assertEquals(1000, results.size());
+    assertEquals(fd1, results.get(0));
+  }
+
+  /**
+   * Test method for {@link AsyncResultPrinter#receiveResult(BasicStatistic)} <p/> Results should be
+   * converted to JSON on the writer thread and be written after closing the printer.
+   */
+  @Test
+  public void testWriteBasicStatistic() throws Exception {
+    // Setup
+    AsyncResultPrinter asyncPrinter = new AsyncResultPrinter("asyncExecution", null, true, 16);
+    BasicStatistic expectedStat = new BasicStatistic(ci1);
+    expectedStat.addStatistic("Min", new BasicStatisticValueInteger(5));
+
+    // Execute functionality
+    asyncPrinter.receiveResult(expectedStat);
+    asyncPrinter.close();
+
+    // Check result
+    String fileContent = Files.toString(
+      new File(asyncPrinter.getOutputFilePathPrefix() + "_stats"), Charsets.UTF_8);
+    assertTrue(fileContent.contains(new JsonConverter<BasicStatistic>().toJsonString(expectedStat)));
+  }
+
+  /**
+   * Test method for {@link AsyncResultPrinter#receiveResult(FunctionalDependency)} <p/> Results
+   * with unknown columns should be rejected on the receiving thread and received results after
+   * closing should fail.
+   */
+  @Test
+  public void testRejectResults() throws Exception {
+    // Setup
+    AsyncResultPrinter asyncPrinter =
+      new AsyncResultPrinter("asyncExecution", acceptedColumns, true, 16);
+    FunctionalDependency unknownFd = new FunctionalDependency(
+      new ColumnCombination(ci1), new ColumnIdentifier("table2", "column1"));
+
+    // Execute functionality
+    // Check result
+    try {
+      asyncPrinter.receiveResult(unknownFd);
+      fail("Exception should have been thrown.");
+    } catch (ColumnNameMismatchException e) {
+      // Intentionally left blank
+    }
+
+    asyncPrinter.close();
+    try {
+      asyncPrinter.receiveResult(new FunctionalDependency(new ColumnCombination(ci1), ci2));
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException e) {
+      // Intentionally left blank
+    }
+  }
+
+  /**
+   * Test method for {@link AsyncResultPrinter#close()} <p/> A failure of the writer thread should
+   * be rethrown on close, after the writer thread was stopped and the printer was closed.
+   */
+  @Test
+  public void testCloseAfterFailure() throws Exception {
+    // Setup
+    AsyncResultPrinter asyncPrinter =
+      new AsyncResultPrinter("asyncExecution", acceptedColumns, true, 16);
+    IOException expectedCause = new IOException();
+    asyncPrinter.failure.set(expectedCause);
+
+    // Execute functionality
+    try {
+      asyncPrinter.close();
+      fail("Exception should have been thrown.");
+    } catch (IOException actualException) {
+      // Check result
+      assertSame(expectedCause, actualException.getCause());
+    }
+    assertTrue(asyncPrinter.closed);
+    assertFalse(asyncPrinter.writerThread.isAlive());
+  }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.ColumnPermutation;
+import de.metanome.algorithm_integration.results.*;
+import de.metanome.backend.results_db.ResultType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BinaryResultWriter} and {@link BinaryResultReader}
+ */
+public class BinaryResultWriterTest {
+
+  protected ColumnIdentifier ci1;
+  protected ColumnIdentifier ci2;
+  protected ColumnIdentifier ci3;
+  protected List<ColumnIdentifier> acceptedColumns;
+
+  @Before
+  public void setUp() throws Exception {
+    ci1 = new ColumnIdentifier("table1", "column1");
+    ci2 = new ColumnIdentifier("table1", "column2");
+    ci3 = new ColumnIdentifier("table2", "column1");
+
+    acceptedColumns = new ArrayList<>();
+    acceptedColumns.add(ci1);
+    acceptedColumns.add(ci2);
+    acceptedColumns.add(ci3);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+  /**
+   * Test method for {@link BinaryResultWriter#write(Result)} and {@link BinaryResultReader#next()}
+   * <p/>
+   * All supported result types should be read back unchanged with and without compression.
+   */
+  @Test
+  public void testWriteReadAllTypes() throws Exception {
+    // Setup
+    List<Result> fds = new ArrayList<>();
+    fds.add(new FunctionalDependency(new ColumnCombination(ci1, ci2), ci3));
+    fds.add(new FunctionalDependency(new ColumnCombination(), ci1));
+    List<Result> uccs = new ArrayList<>();
+    uccs.add(new UniqueColumnCombination(ci1, ci3));
+    List<Result> inds = new ArrayList<>();
+    inds.add(new InclusionDependency(new ColumnPermutation(ci3, ci1), new ColumnPermutation(ci2, ci1)));
+    List<Result> ods = new ArrayList<>();
+    ods.add(new OrderDependency(new ColumnPermutation(ci2, ci1), new ColumnPermutation(ci3),
+      OrderDependency.OrderType.POINTWISE, OrderDependency.ComparisonOperator.STRICTLY_SMALLER));
+    List<Result> mvds = new ArrayList<>();
+    mvds.add(new MultivaluedDependency(new ColumnCombination(ci1), new ColumnCombination(ci2, ci3)));
+
+    // Execute functionality
+    // Check result
+    for (boolean compress : new boolean[]{false, true}) {
+      assertEquals(fds, this.writeAndRead(ResultType.FD, fds, compress));
+      assertEquals(uccs, this.writeAndRead(ResultType.UCC, uccs, compress));
+      assertEquals(inds, this.writeAndRead(ResultType.IND, inds, compress));
+      assertEquals(ods, this.writeAndRead(ResultType.OD, ods, compress));
+      assertEquals(mvds, this.writeAndRead(ResultType.MVD, mvds, compress));
+    }
+  }
+
+  /**
+   * Test method for {@link BinaryResultWriter#write(Result)} and {@link BinaryResultReader#next()}
+   * <p/>
+   * Columns, that are not in the dictionary, should be defined inline and results should span
+   * several blocks.
+   */
+  @Test
+  public void testWriteReadManyResults() throws Exception {
+    // Setup
+    List<Result> expectedResults = new ArrayList<>();
+    for (int i = 0; i < 50000; i++) {
+      ColumnIdentifier dependant = new ColumnIdentifier("table" + (i % 300), "column" + (i % 7));
+      expectedResults.add(
+        new FunctionalDependency(new ColumnCombination(ci1, ci2, ci3), dependant));
+    }
+    expectedResults.add(new FunctionalDependency(new ColumnCombination(ci1), new ColumnIdentifier()));
+
+    // Execute functionality
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryResultWriter writer = new BinaryResultWriter(bytes, ResultType.FD, acceptedColumns, true);
+    for (Result result : expectedResults) {
+      writer.write(result);
+    }
+    writer.close();
+    BinaryResultReader<FunctionalDependency> reader =
+      new BinaryResultReader<>(new ByteArrayInputStream(bytes.toByteArray()));
+    List<FunctionalDependency> actualResults = new ArrayList<>();
+    while (reader.hasNext()) {
+      actualResults.add(reader.next());
+    }
+    reader.close();
+
+    // Check result
+    assertEquals(expectedResults, actualResults);
+    assertEquals(ResultType.FD, reader.getType());
+    // the dictionary columns are part of the generated columns
+    assertEquals(300 * 7 + 1, reader.getColumns().size());
+    assertTrue(bytes.size() < 50000);
+  }
+
+  /**
+   * Test method for {@link ResultPrinter#setBinaryFormat(boolean, boolean)} and {@link
+   * ResultReader#readResultsFromFile(String, String)}
+   * <p/>
+   * The printer should write binary result files, that are detected by the result reader, while
+   * basic statistics stay JSON.
+   */
+  @Test
+  public void testResultPrinterBinaryFormat() throws Exception {
+    // Setup
+    ResultPrinter printer = new ResultPrinter("binaryExecution", acceptedColumns, true);
+    printer.setBinaryFormat(true, true);
+    FunctionalDependency fd = new FunctionalDependency(new ColumnCombination(ci1), ci2);
+    UniqueColumnCombination ucc = new UniqueColumnCombination(ci2, ci3);
+    BasicStatistic statistic = new BasicStatistic(ci1);
+
+    // Execute functionality
+    printer.receiveResult(fd);
+    printer.receiveResult(ucc);
+    printer.receiveResult(statistic);
+    List<Result> openResults = printer.getResults();
+    printer.receiveResult(fd);
+    printer.close();
+
+    // Check result
+    String prefix = printer.getOutputFilePathPrefix();
+    assertTrue(BinaryResultReader.isBinaryResultFile(prefix + ResultType.FD.getEnding()));
+    assertTrue(BinaryResultReader.isBinaryResultFile(prefix + ResultType.UCC.getEnding()));
+    assertFalse(BinaryResultReader.isBinaryResultFile(prefix + ResultType.STAT.getEnding()));
+    assertEquals(3, openResults.size());
+    assertTrue(openResults.containsAll(Arrays.asList(fd, ucc, statistic)));
+    assertEquals(Arrays.<Result>asList(fd, fd),
+      ResultReader.readResultsFromFile(prefix + ResultType.FD.getEnding(), ResultType.FD.getName()));
+  }
+
+  /**
+   * Test method for {@link BinaryResultReader#BinaryResultReader(java.io.InputStream)}
+   * <p/>
+   * Streams without the magic bytes should be rejected.
+   */
+  @Test(expected = IOException.class)
+  public void testReadTextFile() throws Exception {
+    new BinaryResultReader<>(new ByteArrayInputStream(ResultPrinter.TABLE_MARKER.getBytes()));
+  }
+
+  protected List<Result> writeAndRead(ResultType type, List<Result> results, boolean compress)
+    throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (BinaryResultWriter writer = new BinaryResultWriter(bytes, type, acceptedColumns, compress)) {
+      for (Result result : results) {
+        writer.write(result);
+      }
+    }
+    List<Result> readResults = new ArrayList<>();
+    try (BinaryResultReader<Result> reader =
+           new BinaryResultReader<>(new ByteArrayInputStream(bytes.toByteArray()))) {
+      while (reader.hasNext()) {
+        readResults.add(reader.next());
+      }
+    }
+    return readResults;
+  }
+
+}
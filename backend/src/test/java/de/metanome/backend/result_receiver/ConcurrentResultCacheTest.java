@@ -0,0 +1,137 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.backend.results_db.ResultType;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link ConcurrentResultCache}
+ */
+public class ConcurrentResultCacheTest {
+
+  /**
+   * Test method for {@link ConcurrentResultCache#fetchNewResults()} and {@link
+   * ConcurrentResultCache#close()} <p/> Results received by many threads while another thread
+   * fetches the new results should be fetched at most once and all be written to the result file.
+   */
+  @Test
+  public void testConcurrentReceive() throws Exception {
+    // Setup
+    List<ColumnIdentifier> acceptedColumns = new ArrayList<>();
+    for (int i = 0; i < ConcurrentResultPrinterTest.NUMBER_OF_THREADS; i++) {
+      acceptedColumns.add(new ColumnIdentifier("table1", "column" + i));
+    }
+    final ConcurrentResultCache resultCache =
+      new ConcurrentResultCache("identifier", acceptedColumns, true, 1000);
+    final AtomicBoolean receiving = new AtomicBoolean(true);
+    final AtomicInteger fetchedResults = new AtomicInteger();
+    Thread fetcher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (receiving.get()) {
+          fetchedResults.addAndGet(resultCache.fetchNewResults().size());
+        }
+      }
+    });
+    int expectedNumberOfResults =
+      ConcurrentResultPrinterTest.NUMBER_OF_THREADS * (ConcurrentResultPrinterTest.NUMBER_OF_RESULTS + 1);
+
+    // Execute functionality
+    fetcher.start();
+    List<Throwable> failures =
+      ConcurrentResultPrinterTest.receiveConcurrently(resultCache, acceptedColumns);
+    receiving.set(false);
+    fetcher.join();
+    fetchedResults.addAndGet(resultCache.fetchNewResults().size());
+    long numberOfResults = resultCache.getNumberOfResults();
+    resultCache.close();
+
+    // Check result
+    assertTrue(failures.isEmpty());
+    assertEquals(expectedNumberOfResults, numberOfResults);
+    assertTrue(fetchedResults.get() <= expectedNumberOfResults);
+    List<Result> results = ResultReader.readResultsFromFile(
+      resultCache.getOutputFilePathPrefix() + ResultType.FD.getEnding(), ResultType.FD.getName());
+    assertEquals(expectedNumberOfResults, results.size());
+    ConcurrentResultPrinterTest.assertOrderPerThread(results, acceptedColumns);
+
+    // Cleanup
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+  /**
+   * Test method for {@link ConcurrentResultCache#fetchNewResults()} and {@link
+   * ConcurrentResultCache#close()} <p/> A failure, that occurs while the fetching thread moves the
+   * queued results, should be rethrown by the next received result and by close.
+   */
+  @Test
+  public void testSpillFailure() throws Exception {
+    // Setup
+    ColumnIdentifier column1 = new ColumnIdentifier("table1", "column1");
+    ColumnIdentifier column2 = new ColumnIdentifier("table1", "column2");
+    List<ColumnIdentifier> acceptedColumns = new ArrayList<>();
+    acceptedColumns.add(column1);
+    acceptedColumns.add(column2);
+    final CouldNotReceiveResultException expectedCause = new CouldNotReceiveResultException("");
+    ConcurrentResultCache resultCache =
+      new ConcurrentResultCache("identifier", acceptedColumns, true, 1) {
+        @Override
+        protected void spill(Result result) throws CouldNotReceiveResultException {
+          throw expectedCause;
+        }
+      };
+    FunctionalDependency fd = new FunctionalDependency(new ColumnCombination(column1), column2);
+    resultCache.receiveResult(fd);
+    resultCache.receiveResult(fd);
+
+    // Execute functionality
+    resultCache.fetchNewResults();
+
+    // Check result
+    try {
+      resultCache.receiveResult(fd);
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException actualException) {
+      assertSame(expectedCause, actualException.getCause());
+    }
+    try {
+      resultCache.close();
+      fail("Exception should have been thrown.");
+    } catch (IOException actualException) {
+      // Intentionally left blank
+    }
+
+    // Cleanup
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+}
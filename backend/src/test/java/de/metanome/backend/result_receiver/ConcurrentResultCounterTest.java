@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import de.metanome.algorithm_integration.results.InclusionDependency;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import de.metanome.backend.results_db.ResultType;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link ConcurrentResultCounter}
+ */
+public class ConcurrentResultCounterTest {
+
+  /**
+   * Test method for {@link ConcurrentResultCounter#getResults()} and {@link
+   * ConcurrentResultCounter#close()} <p/> The results received by many threads should all be
+   * counted.
+   */
+  @Test
+  public void testConcurrentCount() throws Exception {
+    // Setup
+    final ConcurrentResultCounter resultCounter = new ConcurrentResultCounter("identifier", true);
+    final UniqueColumnCombination ucc = mock(UniqueColumnCombination.class);
+    final InclusionDependency ind = mock(InclusionDependency.class);
+    final int numberOfResults = 10000;
+    final List<Throwable> failures = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < numberOfResults; j++) {
+              resultCounter.receiveResult(ucc);
+            }
+            resultCounter.receiveResult(ind);
+          } catch (Throwable t) {
+            synchronized (failures) {
+              failures.add(t);
+            }
+          }
+        }
+      }));
+    }
+
+    // Execute functionality
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    resultCounter.close();
+
+    // Check result
+    assertTrue(failures.isEmpty());
+    assertEquals(32 * numberOfResults, (int) resultCounter.getResults().get(ResultType.UCC));
+    assertEquals(32, (int) resultCounter.getResults().get(ResultType.IND));
+    assertNull(resultCounter.getResults().get(ResultType.FD));
+
+    String fileContent = Files.toString(
+      new File(resultCounter.getOutputFilePathPrefix() + ResultType.UCC.getEnding()),
+      Charsets.UTF_8);
+    assertTrue(fileContent.contains("Unique Column Combination: " + 32 * numberOfResults));
+
+    // Cleanup
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+}
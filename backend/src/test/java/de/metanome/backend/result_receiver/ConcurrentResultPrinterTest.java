@@ -0,0 +1,231 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.Result;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link ConcurrentResultPrinter}
+ */
+public class ConcurrentResultPrinterTest {
+
+  protected static final int NUMBER_OF_THREADS = 32;
+  protected static final int NUMBER_OF_RESULTS = 2000;
+
+  protected List<ColumnIdentifier> acceptedColumns;
+
+  @Before
+  public void setUp() throws Exception {
+    acceptedColumns = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      acceptedColumns.add(new ColumnIdentifier("table1", "column" + i));
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
+  /**
+   * Test method for {@link ConcurrentResultPrinter#receiveResult(FunctionalDependency)} <p/> All
+   * results received by many threads should be written, the results of each thread in the order
+   * they were received. Partially filled buffers should be written on close.
+   */
+  @Test
+  public void testConcurrentReceive() throws Exception {
+    // Setup
+    ConcurrentResultPrinter printer =
+      new ConcurrentResultPrinter("concurrentExecution", acceptedColumns, true, 16, 4);
+    printer.setBinaryFormat(true, false);
+
+    // Execute functionality
+    List<Throwable> failures = receiveConcurrently(printer, acceptedColumns);
+    printer.close();
+    List<Result> results = ResultReader.readResultsFromFile(
+      printer.getOutputFilePathPrefix() + "_fds", "Functional Dependency");
+
+    // Check result
+    assertTrue(failures.isEmpty());
+    assertEquals(NUMBER_OF_THREADS * (NUMBER_OF_RESULTS + 1), results.size());
+    assertOrderPerThread(results, acceptedColumns);
+  }
+
+  /**
+   * Test method for {@link ConcurrentResultPrinter#getResults()} <p/> The buffered results of all
+   * threads should be returned, also if the threads did not fill their buffers.
+   */
+  @Test
+  public void testGetResults() throws Exception {
+    // Setup
+    ConcurrentResultPrinter printer =
+      new ConcurrentResultPrinter("concurrentExecution", acceptedColumns, true, 1024, 4);
+
+    // Execute functionality
+    List<Throwable> failures = receiveConcurrently(printer, acceptedColumns);
+    List<Result> results = printer.getResults();
+    printer.close();
+
+    // Check result
+    assertTrue(failures.isEmpty());
+    assertEquals(NUMBER_OF_THREADS * (NUMBER_OF_RESULTS + 1), results.size());
+    assertOrderPerThread(results, acceptedColumns);
+
+    try {
+      printer.receiveResult(
+        new FunctionalDependency(new ColumnCombination(acceptedColumns.get(0)), acceptedColumns.get(1)));
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException e) {
+      // Intentionally left blank
+    }
+  }
+
+  /**
+   * Test method for {@link ConcurrentResultPrinter#flush()} <p/> Flushes during the receiving
+   * should not change the order of the results of a thread.
+   */
+  @Test
+  public void testFlushWhileReceiving() throws Exception {
+    // Setup
+    final ConcurrentResultPrinter printer =
+      new ConcurrentResultPrinter("concurrentExecution", acceptedColumns, true, 8, 4);
+    final AtomicBoolean receiving = new AtomicBoolean(true);
+    final List<Throwable> flushFailures = new ArrayList<>();
+    Thread flusher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          while (receiving.get()) {
+            printer.flush();
+          }
+        } catch (Throwable t) {
+          flushFailures.add(t);
+        }
+      }
+    });
+    flusher.start();
+
+    // Execute functionality
+    List<Throwable> failures = receiveConcurrently(printer, acceptedColumns);
+    receiving.set(false);
+    flusher.join();
+    List<Result> results = printer.getResults();
+    printer.close();
+
+    // Check result
+    assertTrue(failures.isEmpty());
+    assertTrue(flushFailures.isEmpty());
+    assertEquals(NUMBER_OF_THREADS * (NUMBER_OF_RESULTS + 1), results.size());
+    assertOrderPerThread(results, acceptedColumns);
+  }
+
+  /**
+   * Every thread sends {@link #NUMBER_OF_RESULTS} functional dependencies with its own column as
+   * determinant and the column of the result number as dependant, followed by one batch.
+   *
+   * @return the failures of the threads
+   */
+  protected static List<Throwable> receiveConcurrently(final ResultReceiver receiver,
+                                                       final List<ColumnIdentifier> columns)
+    throws InterruptedException {
+    final List<Throwable> failures = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      final int thread = i;
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < NUMBER_OF_RESULTS; j++) {
+              receiver.receiveResult(new FunctionalDependency(
+                new ColumnCombination(columns.get(thread)), columns.get(j % columns.size())));
+            }
+            receiver.receiveFunctionalDependencies(new int[][]{{thread}},
+              new int[]{NUMBER_OF_RESULTS % columns.size()});
+          } catch (Throwable t) {
+            synchronized (failures) {
+              failures.add(t);
+            }
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return failures;
+  }
+
+  /**
+   * Checks, that the dependants of each determinant follow the order of {@link
+   * #receiveConcurrently(ResultReceiver, List)}.
+   */
+  protected static void assertOrderPerThread(List<Result> results, List<ColumnIdentifier> columns) {
+    int[] nextResult = new int[columns.size()];
+    for (Result result : results) {
+      FunctionalDependency fd = (FunctionalDependency) result;
+      int thread = columns.indexOf(fd.getDeterminant().getColumnIdentifiers().iterator().next());
+      assertEquals(columns.get(nextResult[thread]++ % columns.size()), fd.getDependant());
+    }
+    for (int count : nextResult) {
+      assertEquals(NUMBER_OF_RESULTS + 1, count);
+    }
+  }
+
+  /**
+   * Test method for {@link ConcurrentResultPrinter#close()} <p/> A failure of the writer thread
+   * should be rethrown on close, after the writer thread was stopped and the printer was closed.
+   */
+  @Test
+  public void testCloseAfterFailure() throws Exception {
+    // Setup
+    ConcurrentResultPrinter printer =
+      new ConcurrentResultPrinter("concurrentExecution", acceptedColumns, true, 8, 4);
+    IOException expectedCause = new IOException();
+    printer.failure.set(expectedCause);
+
+    // Execute functionality
+    try {
+      printer.close();
+      fail("Exception should have been thrown.");
+    } catch (IOException actualException) {
+      // Check result
+      assertSame(expectedCause, actualException.getCause());
+    }
+    assertTrue(printer.closed);
+    assertFalse(printer.writerThread.isAlive());
+  }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015-2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link MpscQueue}
+ */
+public class MpscQueueTest {
+
+  /**
+   * Test method for {@link MpscQueue#offer(Object)} and {@link MpscQueue#poll()} <p/> The elements
+   * should be polled in the order they were offered.
+   */
+  @Test
+  public void testOfferPoll() {
+    // Setup
+    MpscQueue<Integer> queue = new MpscQueue<>();
+
+    // Execute functionality
+    // Check result
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+    queue.offer(1);
+    queue.offer(2);
+    assertFalse(queue.isEmpty());
+    assertEquals(1, (int) queue.poll());
+    queue.offer(3);
+    assertEquals(2, (int) queue.poll());
+    assertEquals(3, (int) queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  /**
+   * Test method for {@link MpscQueue#offer(Object)} <p/> Elements offered by many threads should be
+   * polled exactly once and in the order of their thread.
+   */
+  @Test
+  public void testConcurrentOffer() throws Exception {
+    // Setup
+    final MpscQueue<long[]> queue = new MpscQueue<>();
+    final int numberOfThreads = 32;
+    final int numberOfElements = 10000;
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      final int producer = i;
+      producers.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int element = 0; element < numberOfElements; element++) {
+            queue.offer(new long[]{producer, element});
+          }
+        }
+      }));
+    }
+
+    // Execute functionality
+    for (Thread producer : producers) {
+      producer.start();
+    }
+    int[] nextElement = new int[numberOfThreads];
+    int polled = 0;
+    while (polled < numberOfThreads * numberOfElements) {
+      long[] element = queue.poll();
+      if (element == null) {
+        Thread.yield();
+        continue;
+      }
+      // Check result
+      assertEquals(nextElement[(int) element[0]]++, element[1]);
+      polled++;
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    // Check result
+    assertNull(queue.poll());
+    for (int i = 0; i < numberOfThreads; i++) {
+      assertEquals(numberOfElements, nextElement[i]);
+    }
+  }
+
+}
@@ -69,7 +69,8 @@ public class ResultCacheTest {
    * After receiving the list it should be cleared and only filled by new results.
    */
   @Test
-  public void testGetNewResults() throws ColumnNameMismatchException {
+  public void testGetNewResults()
+    throws CouldNotReceiveResultException, ColumnNameMismatchException {
     // Execute functionality
     resultCache.receiveResult(expectedStatistic);
     resultCache.receiveResult(expectedFd);
@@ -166,4 +167,47 @@ public class ResultCacheTest {
     FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
   }
 
+  /**
+   * Test method for {@link ResultCache#fetchNewResults()} and {@link ResultCache#close()} <p/> Only
+   * the results in the window should be kept in memory. All results should be written to the
+   * result file in the order of receiving.
+   */
+  @Test
+  public void testSpillResults() throws Exception {
+    // Set up
+    List<ColumnIdentifier> acceptableColumnNames = new ArrayList<>();
+    List<UniqueColumnCombination> expectedResults = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      ColumnIdentifier column = new ColumnIdentifier("table1", "column" + i);
+      acceptableColumnNames.add(column);
+      expectedResults.add(new UniqueColumnCombination(column));
+    }
+    ResultCache resultCache = new ResultCache("identifier", acceptableColumnNames, true, 2);
+
+    // Execute functionality
+    resultCache.receiveResult(expectedResults.get(0));
+    List<Result> firstResults = resultCache.fetchNewResults();
+    for (int i = 1; i < 5; i++) {
+      resultCache.receiveResult(expectedResults.get(i));
+    }
+    List<Result> secondResults = resultCache.fetchNewResults();
+    resultCache.close();
+
+    // Check result
+    assertEquals(expectedResults.subList(0, 1), firstResults);
+    // the results, which left the window, are only on disk
+    assertEquals(expectedResults.subList(3, 5), secondResults);
+    assertTrue(resultCache.fetchNewResults().isEmpty());
+    assertEquals(5, resultCache.getNumberOfResults());
+
+    String fileName = resultCache.getOutputFilePathPrefix() + ResultType.UCC.getEnding();
+    assertEquals(expectedResults,
+      ResultReader.readResultsFromFile(fileName, ResultType.UCC.getName()));
+    assertFalse(new File(resultCache.getOutputFilePathPrefix() + ResultCache.SEGMENT_SUFFIX +
+      ResultType.UCC.getEnding()).exists());
+
+    // Cleanup
+    FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
+  }
+
 }
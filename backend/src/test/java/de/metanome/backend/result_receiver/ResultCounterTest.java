@@ -28,9 +28,13 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 
@@ -90,4 +94,48 @@ public class ResultCounterTest {
     // Cleanup
     FileUtils.deleteDirectory(new File(ResultPrinter.RESULT_TEST_DIR).getParentFile());
   }
+
+  /**
+   * Test method for {@link ResultCounter#receiveResults(java.util.Collection)}, {@link
+   * ResultCounter#receiveFunctionalDependencies(int[][], int[])} and {@link
+   * ResultCounter#receiveUniqueColumnCombinations(int[][])}
+   */
+  @Test
+  public void testReceiveBatches() throws CouldNotReceiveResultException, FileNotFoundException {
+    // Set up
+    ResultCounter resultCounter = new ResultCounter("");
+
+    // Execute functionality
+    resultCounter.receiveResults(
+      Arrays.asList(mock(BasicStatistic.class), mock(UniqueColumnCombination.class)));
+    resultCounter.receiveFunctionalDependencies(new int[][]{{0}, {1}, {0, 1}}, new int[]{2, 2, 3});
+    resultCounter.receiveUniqueColumnCombinations(new int[][]{{0, 1}});
+
+    // Check result
+    assertEquals(1, (int) resultCounter.getResults().get(ResultType.STAT));
+    assertEquals(2, (int) resultCounter.getResults().get(ResultType.UCC));
+    assertEquals(3, (int) resultCounter.getResults().get(ResultType.FD));
+  }
+
+  /**
+   * Test method for {@link ResultCounter#receiveFunctionalDependencies(int[][], int[])}
+   * <p/>
+   * A batch with more dependants than determinants should be rejected without being counted.
+   */
+  @Test
+  public void testReceiveFunctionalDependenciesLengthMismatch() throws FileNotFoundException {
+    // Set up
+    ResultCounter resultCounter = new ResultCounter("");
+
+    // Execute functionality
+    try {
+      resultCounter.receiveFunctionalDependencies(new int[][]{{0}}, new int[]{2, 3});
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException e) {
+      // Intentionally left blank
+    }
+
+    // Check result
+    assertFalse(resultCounter.getResults().containsKey(ResultType.FD));
+  }
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2016 by Metanome Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.metanome.backend.result_receiver;
+
+import de.metanome.algorithm_integration.ColumnCombination;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.result_receiver.ColumnNameMismatchException;
+import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
+import de.metanome.algorithm_integration.results.FunctionalDependency;
+import de.metanome.algorithm_integration.results.Result;
+import de.metanome.algorithm_integration.results.UniqueColumnCombination;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link ResultReceiver}, the receiver behavior is tested with a {@link ResultCache}.
+ */
+public class ResultReceiverTest {
+
+  /**
+   * Test method for {@link ResultReceiver#getAcceptedColumn(int)}
+   * <p/>
+   * Results built from the accepted column instances and equal columns should be accepted, other
+   * columns should be rejected.
+   */
+  @Test
+  public void testGetAcceptedColumn() throws Exception {
+    // Set up
+    List<ColumnIdentifier> acceptableColumnNames = new ArrayList<>();
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column2"));
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column23"));
+
+    ResultCache resultCache = new ResultCache("identifier", acceptableColumnNames);
+
+    // Execute functionality
+    ColumnIdentifier column0 = resultCache.getAcceptedColumn(0);
+    ColumnIdentifier column1 = resultCache.getAcceptedColumn(1);
+
+    // Check result
+    assertSame(acceptableColumnNames.get(0), column0);
+    assertEquals(acceptableColumnNames, resultCache.getAcceptedColumns());
+    assertTrue(resultCache.acceptedResult(
+      new FunctionalDependency(new ColumnCombination(column0), column1)));
+    assertTrue(resultCache.acceptedResult(new UniqueColumnCombination(
+      new ColumnIdentifier("table1", "column2"), new ColumnIdentifier("table1", "column23"))));
+    assertFalse(resultCache.acceptedResult(
+      new UniqueColumnCombination(column0, new ColumnIdentifier("table1", "column3"))));
+    assertNull(new ResultCache("identifier", null).getAcceptedColumn(0));
+  }
+
+  /**
+   * Test method for {@link ResultReceiver#receiveFunctionalDependencies(int[][], int[])} and {@link
+   * ResultReceiver#receiveUniqueColumnCombinations(int[][])} <p/> The column ids should be resolved
+   * with the accepted columns.
+   */
+  @Test
+  public void testReceiveColumnIds() throws Exception {
+    // Set up
+    List<ColumnIdentifier> acceptableColumnNames = new ArrayList<>();
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column1"));
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column2"));
+    ResultCache resultCache = new ResultCache("identifier", acceptableColumnNames);
+
+    // Execute functionality
+    resultCache.receiveFunctionalDependencies(new int[][]{{0}}, new int[]{1});
+    resultCache.receiveUniqueColumnCombinations(new int[][]{{0, 1}});
+    List<Result> actualResults = resultCache.fetchNewResults();
+
+    // Check result
+    assertEquals(2, actualResults.size());
+    assertEquals(new FunctionalDependency(new ColumnCombination(acceptableColumnNames.get(0)),
+      acceptableColumnNames.get(1)), actualResults.get(0));
+    assertEquals(new UniqueColumnCombination(acceptableColumnNames.get(0),
+      acceptableColumnNames.get(1)), actualResults.get(1));
+  }
+
+  /**
+   * Test method for {@link ResultReceiver#receiveFunctionalDependencies(int[][], int[])} <p/> A
+   * batch with fewer dependants than determinants should be rejected without receiving a result.
+   */
+  @Test
+  public void testReceiveFunctionalDependenciesLengthMismatch() throws Exception {
+    // Set up
+    List<ColumnIdentifier> acceptableColumnNames = new ArrayList<>();
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column1"));
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column2"));
+    ResultCache resultCache = new ResultCache("identifier", acceptableColumnNames);
+
+    // Execute functionality
+    try {
+      resultCache.receiveFunctionalDependencies(new int[][]{{0}, {1}}, new int[]{1});
+      fail("Exception should have been thrown.");
+    } catch (CouldNotReceiveResultException e) {
+      // Intentionally left blank
+    }
+
+    // Check result
+    assertTrue(resultCache.fetchNewResults().isEmpty());
+  }
+
+  /**
+   * Test method for {@link ResultReceiver#receiveResults(java.util.Collection)} <p/> If one result
+   * of the batch is not accepted, no result of the batch should be received.
+   */
+  @Test
+  public void testReceiveResultsNotAccepted() throws Exception {
+    // Set up
+    List<ColumnIdentifier> acceptableColumnNames = new ArrayList<>();
+    acceptableColumnNames.add(new ColumnIdentifier("table1", "column1"));
+    ResultCache resultCache = new ResultCache("identifier", acceptableColumnNames);
+    List<Result> results = new ArrayList<>();
+    results.add(new UniqueColumnCombination(acceptableColumnNames.get(0)));
+    results.add(new UniqueColumnCombination(new ColumnIdentifier("table2", "column1")));
+
+    // Execute functionality
+    try {
+      resultCache.receiveResults(results);
+      fail("Exception should have been thrown.");
+    } catch (ColumnNameMismatchException e) {
+      // Intentionally left blank
+    }
+
+    // Check result
+    assertTrue(resultCache.fetchNewResults().isEmpty());
+    assertEquals(0, resultCache.getNumberOfResults());
+
+    // Execute functionality
+    resultCache.receiveResults(results.subList(0, 1));
+
+    // Check result
+    assertEquals(results.subList(0, 1), resultCache.fetchNewResults());
+  }
+
+}